@@ -4,12 +4,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.shared.security.EnableSharedSecurity;
 
 
 @SpringBootApplication
 @EnableAspectJAutoProxy
+@EnableScheduling
 @EnableSharedSecurity
 @ComponentScan(basePackages = {
     "com.example.paymentflow",
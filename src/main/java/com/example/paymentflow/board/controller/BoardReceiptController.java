@@ -3,14 +3,19 @@ package com.example.paymentflow.board.controller;
 import com.example.paymentflow.board.entity.BoardReceipt;
 import com.example.paymentflow.board.entity.BoardReceiptProcessRequest;
 import com.example.paymentflow.board.service.BoardReceiptService;
+import com.example.paymentflow.common.json.JsonWriters;
+import com.example.paymentflow.common.pagination.KeysetPage;
+import com.example.paymentflow.common.web.ConditionalResponses;
+import com.example.paymentflow.common.web.JsonStreamResponder;
 import com.shared.common.annotation.Auditable;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
 import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,11 +25,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -36,9 +41,17 @@ public class BoardReceiptController {
     private static final Logger log = LoggerFactoryProvider.getLogger(BoardReceiptController.class);
 
     private final BoardReceiptService service;
+    private final JsonStreamResponder streamResponder;
+    private final ConditionalResponses conditionalResponses;
+    /** Typed writer for the paged list responses; the runtime class alone erases the row type. */
+    private final ObjectWriter pageWriter;
 
-    public BoardReceiptController(BoardReceiptService service) {
+    public BoardReceiptController(BoardReceiptService service, JsonStreamResponder streamResponder,
+                                  ConditionalResponses conditionalResponses, JsonWriters jsonWriters) {
         this.service = service;
+        this.streamResponder = streamResponder;
+        this.conditionalResponses = conditionalResponses;
+        this.pageWriter = jsonWriters.forPageOf(BoardReceipt.class);
     }
 
     @PostMapping
@@ -61,6 +74,8 @@ public class BoardReceiptController {
             )
             @Valid @RequestBody
             SecurePaginationRequest request,
+            @Parameter(description = "Keyset cursor from the previous page's X-Next-Cursor header; send an empty value to start keyset paging")
+            @RequestParam(required = false) String cursor,
             HttpServletRequest httpRequest) {
         log.info("Fetching board receipts with secure pagination, status: {}, request: {}", request.getStatus(), request);
         try {
@@ -83,49 +98,68 @@ public class BoardReceiptController {
                 )
             );
             
-            // Fetch data using standard pagination
-            Page<BoardReceipt> receiptsPage =
-                service.findByStatusAndDateRange(
+            // Seek past the cursor when one is given
+            if (cursor != null) {
+                KeysetPage<BoardReceipt> keysetPage = service.findByStatusAndDateRangeKeyset(
+                    request.getStatus(),
+                    validation.getStartDateTime(),
+                    validation.getEndDateTime(),
+                    pageable,
+                    cursor);
+                SecurePaginationResponse<BoardReceipt> response =
+                    SecurePaginationUtil.createSecureResponse(keysetPage.toPage(pageable), request);
+                return conditionalResponses.respond(httpRequest, pageWriter, response, keysetPage::addHeaders);
+            }
+
+            // Offset pagination: an unchanged page is answered from its row versions alone
+            String version = ConditionalResponses.version(
+                service.pageVersion(request.getStatus(), validation.getStartDateTime(), validation.getEndDateTime(), pageable),
+                request.getStatus(), validation.getStartDateTime(), validation.getEndDateTime(), pageable);
+            return conditionalResponses.respondVersioned(httpRequest, version, pageWriter, () -> {
+                Page<BoardReceipt> receiptsPage = service.findByStatusAndDateRange(
                     request.getStatus(), 
                     validation.getStartDateTime(), 
                     validation.getEndDateTime(), 
                     pageable);
-            SecurePaginationResponse<BoardReceipt> response =
-                SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+                return SecurePaginationUtil.createSecureResponse(receiptsPage, request);
+            });
         } catch (Exception e) {
             log.error("Error fetching board receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<BoardReceipt> findById(@PathVariable("id") Long id, HttpServletRequest request) {
-        log.info("Fetching board receipt id={}", id);
-        BoardReceipt receipt = service.findById(id);
+    @GetMapping("/export")
+    @Operation(summary = "Stream board receipts",
+               description = "Streams board receipts in the date range (and optional status) as they are read, without paging")
+    public ResponseEntity<?> exportBoardReceipts(
+            @Parameter(description = "Status filter", example = "PENDING")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Start date (YYYY-MM-DD) - MANDATORY", example = "2024-01-01")
+            @RequestParam String startDate,
+            @Parameter(description = "End date (YYYY-MM-DD) - MANDATORY", example = "2024-01-31")
+            @RequestParam String endDate,
+            @Parameter(description = "Output format: json (array) or ndjson (one record per line)", example = "ndjson")
+            @RequestParam(defaultValue = "json") String format) {
+        log.info("Streaming board receipts with status: {}, date range: {} to {}, format: {}", status, startDate, endDate, format);
         try {
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(receipt);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(receipt);
+            LocalDate start = LocalDate.parse(startDate);
+            LocalDate end = LocalDate.parse(endDate);
+            return streamResponder.respond(format,
+                service.exportByStatusAndDateRange(status, start.atStartOfDay(), end.atTime(23, 59, 59)));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            log.error("Error streaming board receipts", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<?> findById(@PathVariable("id") Long id, HttpServletRequest request) {
+        log.info("Fetching board receipt id={}", id);
+        // The row version decides the ETag, so a 304 never loads the receipt
+        return conditionalResponses.respondVersioned(request, service.rowVersion(id), () -> service.findById(id));
+    }
+
     @PostMapping("/process")
     @Operation(summary = "Process board receipt with UTR number", 
                description = "Processes a board receipt by adding UTR number and changing status to VERIFIED")
@@ -1,17 +1,26 @@
 package com.example.paymentflow.board.dao;
 
 import com.example.paymentflow.board.entity.BoardReceipt;
+import com.example.paymentflow.common.jdbc.JdbcRowStreamer;
+import com.example.paymentflow.common.pagination.KeysetCursor;
+import com.example.paymentflow.common.pagination.KeysetPage;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Repository
 public class BoardReceiptQueryDao {
@@ -37,12 +46,37 @@ public class BoardReceiptQueryDao {
             "receipt_date"
     );
 
+    /**
+     * Sort columns usable for keyset pages: the NOT NULL subset of {@link #ALLOWED_SORT_COLUMNS},
+     * since a row comparison against NULL never matches. Each entry reads the value from a row for
+     * the cursor and parses it back for binding.
+     */
+    private static final Map<String, KeysetColumn> KEYSET_COLUMNS = Map.ofEntries(
+            Map.entry("id", new KeysetColumn(r -> r.getId().toString(), Long::valueOf)),
+            Map.entry("board_id", KeysetColumn.text(BoardReceipt::getBoardId)),
+            Map.entry("board_reference", KeysetColumn.text(BoardReceipt::getBoardRef)),
+            Map.entry("employer_reference", KeysetColumn.text(BoardReceipt::getEmployerRef)),
+            Map.entry("employer_id", KeysetColumn.text(BoardReceipt::getEmployerId)),
+            Map.entry("toli_id", KeysetColumn.text(BoardReceipt::getToliId)),
+            Map.entry("amount", new KeysetColumn(r -> r.getAmount().toPlainString(), BigDecimal::new)),
+            Map.entry("utr_number", KeysetColumn.text(BoardReceipt::getUtrNumber)),
+            Map.entry("status", KeysetColumn.text(BoardReceipt::getStatus)),
+            Map.entry("maker", KeysetColumn.text(BoardReceipt::getMaker)),
+            Map.entry("receipt_date", new KeysetColumn(r -> r.getDate().toString(), LocalDate::parse))
+    );
+
+    /** Select list of {@link #pageVersion}: one "id:xmin" string per row. */
+    private static final String VERSION_SELECT = "SELECT br.id::text || ':' || br.xmin::text FROM board_receipts br";
+
     private final JdbcTemplate jdbcTemplate;
     private final SqlTemplateLoader sqlTemplates;
+    private final JdbcRowStreamer rowStreamer;
 
-    public BoardReceiptQueryDao(JdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates) {
+    public BoardReceiptQueryDao(JdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates,
+                                JdbcRowStreamer rowStreamer) {
         this.jdbcTemplate = jdbcTemplate;
         this.sqlTemplates = sqlTemplates;
+        this.rowStreamer = rowStreamer;
     }
     
     private String baseSelect() {
@@ -82,7 +116,7 @@ public class BoardReceiptQueryDao {
 
     public List<BoardReceipt> findByStatusAndDateRange(String status, LocalDateTime startDate, LocalDateTime endDate, String sortBy, String sortDir) {
         OrderClause orderClause = sanitizeOrder(sortBy, sortDir);
-        QuerySpec querySpec = buildRangeQuery(status, startDate, endDate, orderClause, null, null);
+        QuerySpec querySpec = buildRangeQuery(baseSelect(), status, startDate, endDate, orderClause, null, null);
         return jdbcTemplate.query(querySpec.sql(), new BoardReceiptRowMapper(), querySpec.params());
     }
 
@@ -96,20 +130,118 @@ public class BoardReceiptQueryDao {
         OrderClause orderClause = sanitizeOrder(sortBy, sortDir);
         int pageSafe = Math.max(page, 0);
         int sizeSafe = Math.max(size, 1);
-        QuerySpec querySpec = buildRangeQuery(status, startDate, endDate, orderClause, sizeSafe, pageSafe * sizeSafe);
+        QuerySpec querySpec = buildRangeQuery(baseSelect(), status, startDate, endDate, orderClause, sizeSafe, pageSafe * sizeSafe);
         List<BoardReceipt> content = jdbcTemplate.query(querySpec.sql(), new BoardReceiptRowMapper(), querySpec.params());
         Long total = countRange(status, startDate, endDate);
         return new PageResult(content, total != null ? total : 0L);
     }
 
-    private QuerySpec buildRangeQuery(String status,
+    /**
+     * Version of the page {@link #findByStatusAndDateRange(String, LocalDateTime, LocalDateTime, int, int, String, String)}
+     * would return: the total plus id and row version (xmin) of every row on the page. It changes
+     * whenever a row on the page is inserted, updated or deleted, or the total changes.
+     */
+    public String pageVersion(String status,
+                              LocalDateTime startDate,
+                              LocalDateTime endDate,
+                              int page,
+                              int size,
+                              String sortBy,
+                              String sortDir) {
+        OrderClause orderClause = sanitizeOrder(sortBy, sortDir);
+        int pageSafe = Math.max(page, 0);
+        int sizeSafe = Math.max(size, 1);
+        QuerySpec querySpec = buildRangeQuery(VERSION_SELECT, status, startDate, endDate, orderClause, sizeSafe, pageSafe * sizeSafe);
+        List<String> rowVersions = jdbcTemplate.queryForList(querySpec.sql(), String.class, querySpec.params());
+        return countRange(status, startDate, endDate) + ";" + String.join(",", rowVersions);
+    }
+
+    /**
+     * Row version (xmin) of one receipt, or empty if it does not exist.
+     */
+    public Optional<String> rowVersion(Long id) {
+        List<String> results = jdbcTemplate.queryForList(
+                "SELECT br.xmin::text FROM board_receipts br WHERE br.id = ?", String.class, id);
+        return results.stream().findFirst();
+    }
+
+    /**
+     * Keyset page ordered by (sort column, id), continuing after {@code cursor}. Sort columns that
+     * can hold NULL fall back to receipt_date. The total is a count capped at
+     * {@link KeysetPage#COUNT_CAP}.
+     */
+    public KeysetPage<BoardReceipt> findByStatusAndDateRangeKeyset(String status,
+                                                                  LocalDateTime startDate,
+                                                                  LocalDateTime endDate,
+                                                                  String sortBy,
+                                                                  String sortDir,
+                                                                  String cursor,
+                                                                  int size) {
+        String column = KEYSET_COLUMNS.containsKey(sortBy) ? sortBy : "receipt_date";
+        String direction = "ASC".equalsIgnoreCase(sortDir) ? "ASC" : "DESC";
+        String sortKey = column + ":" + direction;
+        KeysetColumn keysetColumn = KEYSET_COLUMNS.get(column);
+
+        StringBuilder where = new StringBuilder(" WHERE br.receipt_date BETWEEN ? AND ?");
+        List<Object> params = new java.util.ArrayList<>();
+        params.add(startDate.toLocalDate());
+        params.add(endDate.toLocalDate());
+        if (status != null && !status.isEmpty()) {
+            where.append(" AND br.status = ?");
+            params.add(status);
+        }
+        Long total = jdbcTemplate.queryForObject(
+                KeysetPage.cappedCountSql("SELECT 1 FROM board_receipts br" + where), Long.class, params.toArray());
+
+        KeysetCursor after = KeysetCursor.decode(cursor, sortKey);
+        if (after != null) {
+            where.append(" AND (br.").append(column).append(", br.id) ")
+                    .append("ASC".equals(direction) ? ">" : "<").append(" (?, ?)");
+            params.add(keysetColumn.parser().apply(after.value()));
+            params.add(after.id());
+        }
+        int sizeSafe = Math.max(size, 1);
+        String sql = baseSelect() + where + " ORDER BY br." + column + " " + direction + ", br.id " + direction
+                + " LIMIT ?";
+        params.add(sizeSafe + 1);
+        List<BoardReceipt> rows = jdbcTemplate.query(sql, new BoardReceiptRowMapper(), params.toArray());
+        return KeysetPage.of(rows, sizeSafe, total != null ? total : 0L,
+                receipt -> new KeysetCursor(sortKey, keysetColumn.value().apply(receipt), receipt.getId()));
+    }
+
+    /**
+     * Streams receipts in the optional status and date range, newest receipt date first. Must run
+     * in a transaction for the fetch size to take effect.
+     */
+    public void streamByStatusAndDateRange(String status, LocalDateTime startDate, LocalDateTime endDate,
+                                           Consumer<BoardReceipt> sink) {
+        StringBuilder sql = new StringBuilder(baseSelect()).append(" WHERE 1=1");
+        Map<String, Object> params = new java.util.HashMap<>();
+        if (status != null && !status.isEmpty()) {
+            sql.append(" AND br.status = :status");
+            params.put("status", status);
+        }
+        if (startDate != null) {
+            sql.append(" AND br.receipt_date >= :startDate");
+            params.put("startDate", startDate.toLocalDate());
+        }
+        if (endDate != null) {
+            sql.append(" AND br.receipt_date <= :endDate");
+            params.put("endDate", endDate.toLocalDate());
+        }
+        sql.append(" ORDER BY br.receipt_date DESC, br.id DESC");
+        rowStreamer.stream(sql.toString(), params, new BoardReceiptRowMapper(), sink);
+    }
+
+    private QuerySpec buildRangeQuery(String select,
+                                      String status,
                                       LocalDateTime startDate,
                                       LocalDateTime endDate,
                                       OrderClause orderClause,
                                       Integer limit,
                                       Integer offset) {
         boolean hasStatus = status != null && !status.isEmpty();
-        StringBuilder sql = new StringBuilder(baseSelect());
+        StringBuilder sql = new StringBuilder(select);
         if (hasStatus) {
             sql.append(" WHERE br.status = ? AND br.receipt_date BETWEEN ? AND ?");
         } else {
@@ -153,7 +285,9 @@ public class BoardReceiptQueryDao {
         if ("ASC".equalsIgnoreCase(sortDir)) {
             sanitizedDirection = "ASC";
         }
-        return new OrderClause(" ORDER BY br." + sanitizedColumn + " " + sanitizedDirection);
+        // id breaks ties so pages, and their versions, are deterministic
+        return new OrderClause(" ORDER BY br." + sanitizedColumn + " " + sanitizedDirection
+                + ", br.id " + sanitizedDirection);
     }
     
     public List<BoardReceipt> findByMaker(String maker) {
@@ -188,6 +322,21 @@ public class BoardReceiptQueryDao {
         List<BoardReceipt> results = jdbcTemplate.query(sql, new BoardReceiptRowMapper(), employerRef);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
+
+    /**
+     * @return the subset of {@code employerRefs} that already have a board receipt
+     */
+    public Set<String> findExistingEmployerRefs(Collection<String> employerRefs) {
+        if (employerRefs.isEmpty()) {
+            return Set.of();
+        }
+        String[] refs = employerRefs.toArray(String[]::new);
+        List<String> existing = jdbcTemplate.query(
+                "SELECT DISTINCT employer_reference FROM board_receipts WHERE employer_reference = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", refs)),
+                (rs, rowNum) -> rs.getString(1));
+        return Set.copyOf(existing);
+    }
     
     // Summary queries
     public int countByStatus(String status) {
@@ -249,6 +398,12 @@ public class BoardReceiptQueryDao {
     private record OrderClause(String sql) {
     }
 
+    private record KeysetColumn(Function<BoardReceipt, String> value, Function<String, Object> parser) {
+        static KeysetColumn text(Function<BoardReceipt, String> getter) {
+            return new KeysetColumn(getter, v -> v);
+        }
+    }
+
     private record QuerySpec(String sql, Object[] params) {
     }
 }
@@ -2,8 +2,33 @@ package com.example.paymentflow.board.dao;
 
 import com.example.paymentflow.board.entity.BoardReceipt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
 
 public interface BoardReceiptRepository extends JpaRepository<BoardReceipt, Long> {
     // All read operations now handled by BoardReceiptQueryDao
     // Only JPA save operations remain for WRITE operations
+
+    // Idempotent create for redelivered events; returns 0 when the employer receipt already has a board receipt.
+    // The id comes from the column default, so each call takes a whole 50-id block of board_receipts_seq
+    // (V20251119), even when it conflicts; one row per employer receipt keeps that within the bigint range.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO board_receipts (board_id, board_reference, employer_reference, employer_id, toli_id, "
+            + "amount, utr_number, status, maker, receipt_date) "
+            + "VALUES (:boardId, :boardRef, :employerRef, :employerId, :toliId, :amount, '', 'PENDING', :maker, :date) "
+            + "ON CONFLICT (employer_reference) DO NOTHING", nativeQuery = true)
+    int insertPendingIfAbsent(@Param("boardId") String boardId,
+                              @Param("boardRef") String boardRef,
+                              @Param("employerRef") String employerRef,
+                              @Param("employerId") String employerId,
+                              @Param("toliId") String toliId,
+                              @Param("amount") BigDecimal amount,
+                              @Param("maker") String maker,
+                              @Param("date") LocalDate date);
 }
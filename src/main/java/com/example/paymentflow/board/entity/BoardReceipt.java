@@ -10,6 +10,7 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,7 +23,8 @@ import java.util.Map;
 public class BoardReceipt extends AbstractAuditableEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_receipts_seq")
+    @SequenceGenerator(name = "board_receipts_seq", sequenceName = "board_receipts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "board_id", nullable = false, length = 64)
@@ -0,0 +1,82 @@
+package com.example.paymentflow.board.outbox;
+
+import com.example.paymentflow.board.dao.BoardReceiptQueryDao;
+import com.example.paymentflow.board.service.BoardReceiptService;
+import com.example.paymentflow.common.outbox.OutboxEvent;
+import com.example.paymentflow.common.outbox.OutboxEventHandler;
+import com.example.paymentflow.common.outbox.ReceiptEventType;
+import com.example.paymentflow.employer.dao.EmployerPaymentReceiptRepository;
+import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the PENDING board receipt for validated employer receipts, off the validation request.
+ * Employer receipts that already have a board receipt are filtered out up front; the insert itself
+ * skips any created concurrently by a relay that re-claimed the same events, so redelivery never
+ * yields a second board receipt.
+ */
+@Component
+public class EmployerReceiptValidatedHandler implements OutboxEventHandler {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(EmployerReceiptValidatedHandler.class);
+
+    private final EmployerPaymentReceiptRepository employerReceiptRepository;
+    private final BoardReceiptQueryDao boardReceiptQueryDao;
+    private final BoardReceiptService boardReceiptService;
+
+    public EmployerReceiptValidatedHandler(EmployerPaymentReceiptRepository employerReceiptRepository,
+                                           BoardReceiptQueryDao boardReceiptQueryDao,
+                                           BoardReceiptService boardReceiptService) {
+        this.employerReceiptRepository = employerReceiptRepository;
+        this.boardReceiptQueryDao = boardReceiptQueryDao;
+        this.boardReceiptService = boardReceiptService;
+    }
+
+    @Override
+    public ReceiptEventType eventType() {
+        return ReceiptEventType.EMPLOYER_RECEIPT_VALIDATED;
+    }
+
+    @Override
+    @Transactional
+    public void handle(List<OutboxEvent> events) {
+        Set<String> employerRefs = events.stream()
+                .map(OutboxEvent::aggregateId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        employerRefs.removeAll(boardReceiptQueryDao.findExistingEmployerRefs(employerRefs));
+        if (employerRefs.isEmpty()) {
+            log.info("Board receipts already exist for all {} validated employer receipts", events.size());
+            return;
+        }
+
+        Map<String, EmployerPaymentReceipt> receipts = employerReceiptRepository
+                .findByEmployerReceiptNumberIn(employerRefs).stream()
+                .collect(Collectors.toMap(EmployerPaymentReceipt::getEmployerReceiptNumber, Function.identity()));
+        List<EmployerPaymentReceipt> toCreate = employerRefs.stream()
+                .map(ref -> {
+                    EmployerPaymentReceipt receipt = receipts.get(ref);
+                    if (receipt == null) {
+                        throw new IllegalStateException("Employer receipt not found: " + ref);
+                    }
+                    return receipt;
+                })
+                .toList();
+        // Makers differ per receipt, so create per validating user
+        int created = toCreate.stream()
+                .collect(Collectors.groupingBy(EmployerPaymentReceipt::getValidatedBy))
+                .entrySet().stream()
+                .mapToInt(batch -> boardReceiptService.createFromEmployerReceipts(batch.getValue(), batch.getKey()))
+                .sum();
+        log.info("Created {} board receipts for {} validated employer receipt events", created, events.size());
+    }
+}
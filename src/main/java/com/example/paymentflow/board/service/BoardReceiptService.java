@@ -1,8 +1,13 @@
 package com.example.paymentflow.board.service;
 
 import com.example.paymentflow.board.entity.BoardReceipt;
+import com.example.paymentflow.common.jdbc.RowProducer;
+import com.example.paymentflow.common.pagination.KeysetPage;
+import com.example.paymentflow.common.sequence.ReferenceNumberFormat;
+import com.example.paymentflow.common.sequence.ReferenceNumberService;
 
 import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
+import com.shared.audit.AuditHelper;
 import com.shared.exception.ResourceNotFoundException;
 import com.example.paymentflow.board.dao.BoardReceiptRepository;
 import com.example.paymentflow.board.dao.BoardReceiptQueryDao;
@@ -29,11 +34,7 @@ public class BoardReceiptService {
     @Transactional(readOnly = true)
     public Page<BoardReceipt> findByStatusAndDateRange(String status, java.time.LocalDateTime start, java.time.LocalDateTime end, Pageable pageable) {
         log.info("Finding board receipts with status: {} and date range: {} to {} (paginated)", status, start, end);
-        String upperStatus = status != null && !status.trim().isEmpty() ? status.trim().toUpperCase() : null;
-        if (upperStatus != null && !upperStatus.equals("PENDING") && !upperStatus.equals("VERIFIED") &&
-            !upperStatus.equals("REJECTED") && !upperStatus.equals("PROCESSED")) {
-            throw new RuntimeException("Invalid status: " + status + ". Valid values are: PENDING, VERIFIED, REJECTED, PROCESSED");
-        }
+        String upperStatus = normalizeStatus(status);
         Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : Sort.Order.desc("receipt_date");
         String sortBy = order.getProperty();
         String sortDir = order.getDirection().isAscending() ? "ASC" : "DESC";
@@ -51,11 +52,7 @@ public class BoardReceiptService {
     @Transactional(readOnly = true)
     public Page<BoardReceipt> findByStatusAndDateRange(String status, java.time.LocalDateTime start, java.time.LocalDateTime end, Pageable pageable, String sortBy, String sortDir) {
         log.info("Finding board receipts with status: {} and date range: {} to {} (paginated) sortBy: {} sortDir: {}", status, start, end, sortBy, sortDir);
-        String upperStatus = status != null && !status.trim().isEmpty() ? status.trim().toUpperCase() : null;
-        if (upperStatus != null && !upperStatus.equals("PENDING") && !upperStatus.equals("VERIFIED") &&
-            !upperStatus.equals("REJECTED") && !upperStatus.equals("PROCESSED")) {
-            throw new RuntimeException("Invalid status: " + status + ". Valid values are: PENDING, VERIFIED, REJECTED, PROCESSED");
-        }
+        String upperStatus = normalizeStatus(status);
         BoardReceiptQueryDao.PageResult result = queryDao.findByStatusAndDateRange(
                 upperStatus,
                 start,
@@ -67,14 +64,86 @@ public class BoardReceiptService {
         return new org.springframework.data.domain.PageImpl<>(result.content(), pageable, result.totalElements());
     }
 
+    /**
+     * Keyset variant of {@link #findByStatusAndDateRange(String, java.time.LocalDateTime, java.time.LocalDateTime, Pageable)};
+     * {@code cursor} is the previous page's next cursor, or blank for the first page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BoardReceipt> findByStatusAndDateRangeKeyset(String status, java.time.LocalDateTime start, java.time.LocalDateTime end, Pageable pageable, String cursor) {
+        log.info("Finding board receipts with status: {} and date range: {} to {} (keyset)", status, start, end);
+        String upperStatus = normalizeStatus(status);
+        Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : Sort.Order.desc("receipt_date");
+        return queryDao.findByStatusAndDateRangeKeyset(
+                upperStatus,
+                start,
+                end,
+                order.getProperty(),
+                order.getDirection().isAscending() ? "ASC" : "DESC",
+                cursor,
+                pageable.getPageSize());
+    }
+
+    /**
+     * Receipts in the optional status and date range, read lazily so they can be streamed to the
+     * client. The status is checked here, before anything is written.
+     */
+    public RowProducer<BoardReceipt> exportByStatusAndDateRange(String status, java.time.LocalDateTime start, java.time.LocalDateTime end) {
+        log.info("Exporting board receipts with status: {} and date range: {} to {}", status, start, end);
+        String upperStatus = normalizeStatus(status);
+        return sink -> queryDao.streamByStatusAndDateRange(upperStatus, start, end, sink::accept);
+    }
+
+    /**
+     * Version of the page {@link #findByStatusAndDateRange(String, java.time.LocalDateTime, java.time.LocalDateTime, Pageable)}
+     * would return, for conditional requests. Cheaper than the page itself: no rows are mapped.
+     */
+    @Transactional(readOnly = true)
+    public String pageVersion(String status, java.time.LocalDateTime start, java.time.LocalDateTime end, Pageable pageable) {
+        String upperStatus = normalizeStatus(status);
+        Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : Sort.Order.desc("receipt_date");
+        return queryDao.pageVersion(
+                upperStatus,
+                start,
+                end,
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                order.getProperty(),
+                order.getDirection().isAscending() ? "ASC" : "DESC");
+    }
+
+    /**
+     * Row version of one receipt for conditional requests; "missing" if there is no such receipt.
+     */
+    @Transactional(readOnly = true)
+    public String rowVersion(Long id) {
+        return id + ":" + queryDao.rowVersion(id).orElse("missing");
+    }
+
+    /**
+     * Upper-cases a status filter and checks it; blank means no filter.
+     */
+    private String normalizeStatus(String status) {
+        String upperStatus = status != null && !status.trim().isEmpty() ? status.trim().toUpperCase() : null;
+        if (upperStatus != null && !upperStatus.equals("PENDING") && !upperStatus.equals("VERIFIED") &&
+            !upperStatus.equals("REJECTED") && !upperStatus.equals("PROCESSED")) {
+            throw new RuntimeException("Invalid status: " + status + ". Valid values are: PENDING, VERIFIED, REJECTED, PROCESSED");
+        }
+        return upperStatus;
+    }
+
     private static final Logger log = LoggerFactoryProvider.getLogger(BoardReceiptService.class);
 
     private final BoardReceiptRepository repository;
     private final BoardReceiptQueryDao queryDao;
+    private final ReferenceNumberService referenceNumberService;
+    private final AuditHelper auditHelper;
 
-    public BoardReceiptService(BoardReceiptRepository repository, BoardReceiptQueryDao queryDao) {
+    public BoardReceiptService(BoardReceiptRepository repository, BoardReceiptQueryDao queryDao,
+            ReferenceNumberService referenceNumberService, AuditHelper auditHelper) {
         this.repository = repository;
         this.queryDao = queryDao;
+        this.referenceNumberService = referenceNumberService;
+        this.auditHelper = auditHelper;
     }
 
     public BoardReceipt create(BoardReceipt boardReceipt) {
@@ -130,10 +199,53 @@ public class BoardReceiptService {
     public BoardReceipt createFromEmployerReceipt(EmployerPaymentReceipt employerReceipt, String maker) {
         log.info("Creating board receipt from employer receipt: {}", employerReceipt.getEmployerReceiptNumber());
         
+        BoardReceipt savedReceipt = repository.save(newPendingReceipt(employerReceipt, maker));
+        
+        log.info("Created board receipt {} from employer receipt {} with status PENDING", 
+                savedReceipt.getBoardRef(), employerReceipt.getEmployerReceiptNumber());
+        
+        return savedReceipt;
+    }
+
+    /**
+     * Batched variant of {@link #createFromEmployerReceipt}: one PENDING board receipt per employer
+     * receipt, written through a single {@code saveAll} so Hibernate groups the inserts.
+     *
+     * @return the saved board receipts, in the order of {@code employerReceipts}
+     */
+    /**
+     * Creates the PENDING board receipt of each employer receipt that does not have one yet. The
+     * insert skips employer receipts that already have a board receipt, so a redelivered or
+     * concurrently handled event never creates a second one.
+     *
+     * @return the number of board receipts created
+     */
+    public int createFromEmployerReceipts(List<EmployerPaymentReceipt> employerReceipts, String maker) {
+        log.info("Creating {} board receipts from employer receipts", employerReceipts.size());
+        int created = 0;
+        for (EmployerPaymentReceipt employerReceipt : employerReceipts) {
+            BoardReceipt receipt = newPendingReceipt(employerReceipt, maker);
+            if (repository.insertPendingIfAbsent(receipt.getBoardId(), receipt.getBoardRef(), receipt.getEmployerRef(),
+                    receipt.getEmployerId(), receipt.getToliId(), receipt.getAmount(), receipt.getMaker(),
+                    receipt.getDate()) == 0) {
+                log.info("Board receipt for employer receipt {} already exists", receipt.getEmployerRef());
+                continue;
+            }
+            // The native insert bypasses the entity audit listener
+            auditHelper.recordAudit("CREATE_BOARD_RECEIPT", "BOARD_RECEIPT", receipt.getBoardRef(), "SUCCESS",
+                    Map.of("employerReference", receipt.getEmployerRef(),
+                            "amount", receipt.getAmount(),
+                            "maker", maker));
+            created++;
+        }
+        log.info("Created {} board receipts with status PENDING", created);
+        return created;
+    }
+
+    private BoardReceipt newPendingReceipt(EmployerPaymentReceipt employerReceipt, String maker) {
         // Generate board reference number
-        String boardRef = generateBoardReceiptNumber();
+        String boardRef = referenceNumberService.next(ReferenceNumberFormat.BOARD_RECEIPT);
         
-        // Create board receipt
         BoardReceipt boardReceipt = new BoardReceipt();
         boardReceipt.setBoardRef(boardRef);
         boardReceipt.setBoardId("BOARD_" + boardRef); // Generate board_id from board_reference
@@ -145,13 +257,7 @@ public class BoardReceiptService {
         boardReceipt.setStatus("PENDING");
         boardReceipt.setMaker(maker);
         boardReceipt.setDate(LocalDate.now());
-        
-        BoardReceipt savedReceipt = repository.save(boardReceipt);
-        
-        log.info("Created board receipt {} from employer receipt {} with status PENDING", 
-                savedReceipt.getBoardRef(), employerReceipt.getEmployerReceiptNumber());
-        
-        return savedReceipt;
+        return boardReceipt;
     }
 
     public Map<String, Object> getAllBoardReceiptsWithFilters(int page, int size, String status, 
@@ -274,13 +380,4 @@ public class BoardReceiptService {
         
         return savedReceipt;
     }
-
-    private String generateBoardReceiptNumber() {
-        // Generate board receipt number in format: BRD-YYYYMMDD-XXX
-        LocalDate now = LocalDate.now();
-        String dateStr = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        
-        return "BRD-" + dateStr + "-" + sequence;
-    }
 }
@@ -0,0 +1,15 @@
+package com.example.paymentflow.common.concurrency;
+
+/**
+ * A component that takes database connections off the request path (job pools, pollers,
+ * scheduled jobs) without holding a {@link DbConcurrencyLimiter} permit. The limiter leaves the
+ * connections these components can hold at once out of its request permits, so background work
+ * cannot push a request holding a permit into a connection timeout.
+ */
+public interface BackgroundConnectionUser {
+
+    /**
+     * The most connections this component holds at the same time; 0 when it is disabled.
+     */
+    int maxConnections();
+}
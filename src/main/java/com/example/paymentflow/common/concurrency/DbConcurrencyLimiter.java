@@ -0,0 +1,105 @@
+package com.example.paymentflow.common.concurrency;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Caps the number of requests that may be working against the database at once.
+ * <p>
+ * On virtual threads every request gets its own thread, so thousands of callers can end up parked
+ * inside Hikari's {@code getConnection} and time out there after holding other resources. Sizing a
+ * fair semaphore to the connection pool makes the excess wait up front instead, and turns a
+ * saturated pool into a quick 503 rather than a 30-second connection timeout. Connections that
+ * {@link BackgroundConnectionUser}s can hold are left out of the permits, since background work
+ * takes connections without one.
+ */
+@Component
+public class DbConcurrencyLimiter {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(DbConcurrencyLimiter.class);
+
+    /** Hikari's own default, used when the pool size cannot be read. */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final boolean enabled;
+    private final int permits;
+    private final long acquireTimeoutMs;
+    private final Semaphore semaphore;
+
+    public DbConcurrencyLimiter(DataSource dataSource, DbConcurrencyProperties properties,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            List<BackgroundConnectionUser> backgroundUsers) {
+        this.enabled = properties.getEnabled() != null ? properties.getEnabled() : virtualThreads;
+        this.permits = properties.getPermits() > 0
+                ? properties.getPermits()
+                : requestPermits(poolSize(dataSource), backgroundUsers);
+        this.acquireTimeoutMs = Math.max(0, properties.getAcquireTimeoutMs());
+        this.semaphore = new Semaphore(permits, true);
+        if (enabled) {
+            log.info("Database concurrency limiter enabled with {} permits", permits);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Waits up to the configured timeout for a permit.
+     *
+     * @return false if none became free in time
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * The pool connections left for requests once every background user holds its maximum, but
+     * at least one so requests are never shut out entirely.
+     */
+    static int requestPermits(int poolSize, List<BackgroundConnectionUser> backgroundUsers) {
+        int reserved = backgroundUsers.stream().mapToInt(user -> Math.max(0, user.maxConnections())).sum();
+        int permits = poolSize - reserved;
+        if (permits < 1) {
+            log.warn("Background work can hold {} of {} pool connections; allowing 1 request at a time. "
+                    + "Raise spring.datasource.hikari.maximum-pool-size", reserved, poolSize);
+            return 1;
+        }
+        log.info("Reserved {} of {} pool connections for background work", reserved, poolSize);
+        return permits;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read connection pool size, using {}: {}", DEFAULT_POOL_SIZE, e.getMessage());
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
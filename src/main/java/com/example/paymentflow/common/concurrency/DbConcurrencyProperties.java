@@ -0,0 +1,53 @@
+package com.example.paymentflow.common.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "concurrency.db-limiter")
+public class DbConcurrencyProperties {
+
+    /**
+     * Whether requests must hold a permit while they run. Unset means "on when
+     * {@code spring.threads.virtual.enabled} is true": a fixed platform-thread pool already bounds
+     * concurrency, virtual threads do not.
+     */
+    private Boolean enabled;
+
+    /**
+     * Concurrent requests allowed; 0 sizes the limiter to the Hikari maximum pool size minus the
+     * connections background work (upload jobs, pipeline worker, outbox relay, MT940 ingestion,
+     * counter reconciler) can hold at once.
+     */
+    private int permits = 0;
+
+    /**
+     * How long a request waits for a permit before it is answered with 503. Keep this below the
+     * Hikari connection-timeout so callers are shed here rather than failing inside a transaction.
+     */
+    private long acquireTimeoutMs = 10000;
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public void setPermits(int permits) {
+        this.permits = permits;
+    }
+
+    public long getAcquireTimeoutMs() {
+        return acquireTimeoutMs;
+    }
+
+    public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.paymentflow.common.jdbc;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs named-parameter queries with a fetch size so the driver reads the result set in chunks
+ * instead of materialising it, handing each mapped row to a callback.
+ * <p>
+ * PostgreSQL only opens a server-side cursor when autocommit is off, so callers must run inside a
+ * transaction; otherwise the fetch size is ignored and the whole result is buffered by the driver.
+ */
+@Component
+public class JdbcRowStreamer {
+
+    private final NamedParameterJdbcTemplate template;
+
+    public JdbcRowStreamer(DataSource dataSource, @Value("${streaming.fetch-size:500}") int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.template = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * @return number of rows handed to the sink
+     */
+    public <T> long stream(String sql, Map<String, ?> params, RowMapper<T> mapper, Consumer<? super T> sink) {
+        long[] rows = {0};
+        template.query(sql, params, (RowCallbackHandler) rs -> sink.accept(mapper.mapRow(rs, (int) rows[0]++)));
+        return rows[0];
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.paymentflow.common.jdbc;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Helpers for streaming rows into PostgreSQL with {@code COPY ... FROM STDIN (FORMAT csv)}.
+ * <p>
+ * COPY runs on the caller's connection, so it joins the surrounding transaction and sees the
+ * session settings (row-level-security context, search_path) already applied to it.
+ */
+public final class PgCopySupport {
+
+    private PgCopySupport() {
+    }
+
+    /**
+     * True if the connection (or the pool proxy around it) is a PostgreSQL connection.
+     */
+    public static boolean isPostgres(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    /**
+     * Runs a {@code COPY ... FROM STDIN} statement fed from the reader.
+     *
+     * @return number of rows copied
+     */
+    public static long copyIn(Connection connection, String copySql, Reader data) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        try {
+            return copyManager.copyIn(copySql, data);
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends one CSV value. {@code null} is written as an unquoted empty field, which COPY reads as
+     * NULL; every other value is quoted so empty strings, commas, quotes and line breaks survive.
+     */
+    public static StringBuilder appendValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        // ISO-8601 toString() of java.time values is valid PostgreSQL date/timestamp input
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+}
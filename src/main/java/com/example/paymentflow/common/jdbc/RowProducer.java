@@ -0,0 +1,18 @@
+package com.example.paymentflow.common.jdbc;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A query that has been validated but not yet run. {@link #produce} runs it and hands each row to
+ * the sink as it is read, so the result set is never held in memory.
+ */
+@FunctionalInterface
+public interface RowProducer<T> {
+
+    void produce(Consumer<? super T> sink);
+
+    default <R> RowProducer<R> map(Function<? super T, ? extends R> mapper) {
+        return sink -> produce(row -> sink.accept(mapper.apply(row)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.paymentflow.common.json;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Modules for the application's single {@code ObjectMapper}, the one Spring MVC uses and that is
+ * injected wherever JSON is written by hand. Spring Boot registers every {@link Module} bean on
+ * top of the modules it detects itself, JavaTimeModule among them.
+ */
+@Configuration
+public class JsonConfig {
+
+    /**
+     * Replaces reflective getter calls with generated lambdas ({@code LambdaMetafactory}), the
+     * successor of Afterburner on Java 11+.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.paymentflow.common.json;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import com.example.paymentflow.board.entity.BoardReceipt;
+import com.example.paymentflow.worker.entity.WorkerPayment;
+import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shared.common.dto.SecurePaginationResponse;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+
+/**
+ * Cached {@link ObjectWriter}s over the application's {@code ObjectMapper}, one per root type.
+ * <p>
+ * A writer built for a type looks its root serializer up once, so reusing it skips the lookup on
+ * every call. {@link #forValue} keys on the runtime class, which is right for entities but erases a
+ * page's element type; the paged list endpoints take {@link #forPageOf} instead and pass that
+ * writer through {@code ConditionalResponses}. Those page types and the streamed entities are
+ * built at startup, so the first request does not pay for serializer construction. Writers never
+ * flush after a value; callers writing to a shared generator flush when they choose to.
+ * <p>
+ * Output buffers are not pooled here: Jackson already recycles its byte and char buffers per
+ * thread through {@code BufferRecycler}.
+ */
+@Component
+public class JsonWriters {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(JsonWriters.class);
+
+    private final ObjectMapper objectMapper;
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonWriters(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        warm(pageType(WorkerPayment.class));
+        warm(pageType(BoardReceipt.class));
+        warm(pageType(WorkerPaymentReceipt.class));
+        warm(objectMapper.constructType(BoardReceipt.class));
+        warm(objectMapper.constructType(WorkerUploadedData.class));
+    }
+
+    /**
+     * Writer for values whose runtime class is {@code type}.
+     */
+    public ObjectWriter forClass(Class<?> type) {
+        return forType(objectMapper.constructType(type));
+    }
+
+    public ObjectWriter forType(JavaType type) {
+        return writers.computeIfAbsent(type,
+                t -> objectMapper.writerFor(t).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+    }
+
+    /**
+     * Writer for a {@code SecurePaginationResponse} of {@code contentType} rows.
+     */
+    public ObjectWriter forPageOf(Class<?> contentType) {
+        return forType(pageType(contentType));
+    }
+
+    /**
+     * Writer for a value of any type, chosen by its runtime class. Generic containers lose their
+     * type arguments this way; use {@link #forType} or {@link #forPageOf} for those.
+     */
+    public ObjectWriter forValue(Object value) {
+        return value == null ? forClass(Object.class) : forClass(value.getClass());
+    }
+
+    private JavaType pageType(Class<?> contentType) {
+        return objectMapper.getTypeFactory().constructParametricType(SecurePaginationResponse.class, contentType);
+    }
+
+    private void warm(JavaType type) {
+        try {
+            forType(type);
+        } catch (RuntimeException e) {
+            // A type that cannot be prepared now still serialises lazily on first use
+            log.warn("Could not pre-build JSON writer for {}: {}", type, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.paymentflow.common.lease;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+/**
+ * Shared pieces of the lease-based claim loops ({@code pipeline_jobs}, {@code receipt_outbox_events},
+ * upload jobs and MT940 file claims): the identity a process claims rows under, the retry backoff
+ * and the error text stored on a released row.
+ */
+public final class Leases {
+
+    /** Longest {@code last_error} stored on a released row. */
+    public static final int MAX_ERROR_LENGTH = 4000;
+
+    private Leases() {
+    }
+
+    /**
+     * A lease holder id unique to this process instance: the JVM name ({@code pid@host}) plus a
+     * random suffix, so a restarted process that reuses the pid never matches its predecessor's
+     * leases.
+     */
+    public static String newHolderId() {
+        return ManagementFactory.getRuntimeMXBean().getName() + "-"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Exponential backoff before the next attempt: {@code base * 2^(attempts - 1)}, capped at
+     * {@code maxSeconds}.
+     */
+    public static long backoffSeconds(int attempts, long baseSeconds, long maxSeconds) {
+        long base = Math.max(1, baseSeconds);
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(base << exponent, maxSeconds);
+    }
+
+    /**
+     * The error text stored for a failed attempt.
+     */
+    public static String describe(Throwable error) {
+        return error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+
+    public static String truncateError(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
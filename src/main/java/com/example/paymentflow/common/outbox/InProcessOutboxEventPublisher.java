@@ -0,0 +1,46 @@
+package com.example.paymentflow.common.outbox;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers events to the {@link OutboxEventHandler} registered for their type, one call per type
+ * and batch. Events nobody handles are acknowledged, so adding a type never blocks the outbox.
+ */
+public class InProcessOutboxEventPublisher implements OutboxEventPublisher {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(InProcessOutboxEventPublisher.class);
+
+    private final Map<String, OutboxEventHandler> handlers = new HashMap<>();
+
+    public InProcessOutboxEventPublisher(List<OutboxEventHandler> eventHandlers) {
+        for (OutboxEventHandler handler : eventHandlers) {
+            OutboxEventHandler previous = handlers.put(handler.eventType().name(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate outbox handlers for event type " + handler.eventType());
+            }
+        }
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws Exception {
+        Map<String, List<OutboxEvent>> byType = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byType.computeIfAbsent(event.eventType(), type -> new ArrayList<>()).add(event);
+        }
+        for (Map.Entry<String, List<OutboxEvent>> entry : byType.entrySet()) {
+            OutboxEventHandler handler = handlers.get(entry.getKey());
+            if (handler == null) {
+                log.debug("No outbox handler for {}; acknowledging {} events", entry.getKey(), entry.getValue().size());
+                continue;
+            }
+            handler.handle(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.paymentflow.common.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * In-process delivery unless another {@link OutboxEventPublisher} bean is declared.
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxEventPublisher.class)
+    public OutboxEventPublisher inProcessOutboxEventPublisher(List<OutboxEventHandler> handlers) {
+        return new InProcessOutboxEventPublisher(handlers);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.paymentflow.common.outbox;
+
+import com.example.paymentflow.common.lease.Leases;
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data access for the {@code receipt_outbox_events} table. Appends are batched, claiming uses
+ * {@code FOR UPDATE SKIP LOCKED} so concurrent relays never receive the same event, and a
+ * published batch is acknowledged with one statement.
+ */
+@Repository
+public class OutboxDao {
+
+    private static final String APPEND_TEMPLATE = "sql/outbox/receipt_outbox_events_append.sql";
+    private static final String CLAIM_TEMPLATE = "sql/outbox/receipt_outbox_events_claim.sql";
+    private static final String PUBLISHED_TEMPLATE = "sql/outbox/receipt_outbox_events_published.sql";
+    private static final String FAIL_TEMPLATE = "sql/outbox/receipt_outbox_events_fail.sql";
+    private static final String DEAD_LETTER_EXPIRED_TEMPLATE = "sql/outbox/receipt_outbox_events_dead_letter_expired.sql";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public OutboxDao(NamedParameterJdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * An event to append; {@code payload} is a JSON document.
+     */
+    public record NewEvent(ReceiptEventType eventType, String aggregateId, String payload) {
+    }
+
+    public void append(List<NewEvent> events, int maxAttempts) {
+        if (events.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = events.stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("eventType", e.eventType().name())
+                        .addValue("aggregateId", e.aggregateId())
+                        .addValue("payload", e.payload())
+                        .addValue("maxAttempts", maxAttempts))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(sqlTemplates.load(APPEND_TEMPLATE), batch);
+    }
+
+    /**
+     * Claims up to {@code limit} due events, including RUNNING events whose lease has expired
+     * while they still have attempts left.
+     */
+    public List<OutboxEvent> claim(String relayId, int limit, long leaseSeconds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("relayId", relayId)
+                .addValue("limit", limit)
+                .addValue("leaseSeconds", leaseSeconds);
+        List<OutboxEvent> events = jdbcTemplate.query(sqlTemplates.load(CLAIM_TEMPLATE), params, OutboxDao::mapEvent);
+        // UPDATE ... RETURNING does not keep the subquery's order
+        return events.stream().sorted(Comparator.comparing(OutboxEvent::id)).toList();
+    }
+
+    /**
+     * Dead-letters RUNNING events whose lease expired on their last attempt: their relay died
+     * while publishing them, so claiming them again would only repeat that.
+     *
+     * @return the events that were dead-lettered
+     */
+    public List<OutboxEvent> deadLetterExpired(long leaseSeconds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("leaseSeconds", leaseSeconds);
+        return jdbcTemplate.query(sqlTemplates.load(DEAD_LETTER_EXPIRED_TEMPLATE), params, OutboxDao::mapEvent);
+    }
+
+    /**
+     * @return number of events acknowledged; lower than requested if some were re-claimed by
+     *         another relay after their lease expired
+     */
+    public int markPublished(Collection<Long> ids, String relayId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("relayId", relayId);
+        return jdbcTemplate.update(sqlTemplates.load(PUBLISHED_TEMPLATE), params);
+    }
+
+    /**
+     * Releases the event for a retry after {@code delaySeconds}, or dead-letters it once its
+     * attempts are used up.
+     *
+     * @return the event's new status (PENDING or DEAD), or empty if this relay no longer holds it
+     */
+    public Optional<String> fail(Long id, String relayId, String error, long delaySeconds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("relayId", relayId)
+                .addValue("error", Leases.truncateError(error))
+                .addValue("delaySeconds", delaySeconds);
+        List<String> status = jdbcTemplate.queryForList(sqlTemplates.load(FAIL_TEMPLATE), params, String.class);
+        return status.stream().findFirst();
+    }
+
+    private static OutboxEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        return new OutboxEvent(
+                rs.getLong("id"),
+                rs.getString("event_type"),
+                rs.getString("aggregate_id"),
+                rs.getString("payload"),
+                rs.getInt("attempts"),
+                rs.getInt("max_attempts"));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.paymentflow.common.outbox;
+
+/**
+ * A claimed outbox event. {@code attempts} already counts the current delivery; {@code payload}
+ * is the JSON document written with the event.
+ */
+public record OutboxEvent(Long id, String eventType, String aggregateId, String payload, int attempts, int maxAttempts) {
+}
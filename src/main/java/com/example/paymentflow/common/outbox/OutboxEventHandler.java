@@ -0,0 +1,18 @@
+package com.example.paymentflow.common.outbox;
+
+import java.util.List;
+
+/**
+ * In-process consumer of one outbox event type. Delivery is at-least-once: an event is delivered
+ * again after a failure or when its relay dies mid-batch, so implementations must be idempotent.
+ */
+public interface OutboxEventHandler {
+
+    ReceiptEventType eventType();
+
+    /**
+     * Handles a batch of events of {@link #eventType()}, in outbox order. Throwing fails the whole
+     * batch; the relay then redelivers the events one by one to isolate the failing ones.
+     */
+    void handle(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,17 @@
+package com.example.paymentflow.common.outbox;
+
+import java.util.List;
+
+/**
+ * Where the relay delivers outbox events. The default, {@link InProcessOutboxEventPublisher},
+ * dispatches to {@link OutboxEventHandler} beans; declaring another bean of this type (a message
+ * broker producer, or a local stand-in for one) replaces it.
+ */
+public interface OutboxEventPublisher {
+
+    /**
+     * Publishes a batch of events. Returning normally marks them all published; throwing leaves
+     * them to be retried.
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,97 @@
+package com.example.paymentflow.common.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether this instance relays events; appending works either way.
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * Delay between polls, in milliseconds.
+     */
+    private long pollIntervalMs = 1000;
+
+    /**
+     * Events claimed and published per poll.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Deliveries per event before it is dead-lettered.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Retry delay after the first failure; doubles per attempt up to {@link #backoffMaxSeconds}.
+     */
+    private long backoffBaseSeconds = 5;
+
+    private long backoffMaxSeconds = 600;
+
+    /**
+     * A RUNNING event whose relay has held it longer than this is assumed dead and re-claimed.
+     */
+    private long leaseSeconds = 300;
+
+    public boolean isRelayEnabled() {
+        return relayEnabled;
+    }
+
+    public void setRelayEnabled(boolean relayEnabled) {
+        this.relayEnabled = relayEnabled;
+    }
+
+    public long getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getBackoffBaseSeconds() {
+        return backoffBaseSeconds;
+    }
+
+    public void setBackoffBaseSeconds(long backoffBaseSeconds) {
+        this.backoffBaseSeconds = backoffBaseSeconds;
+    }
+
+    public long getBackoffMaxSeconds() {
+        return backoffMaxSeconds;
+    }
+
+    public void setBackoffMaxSeconds(long backoffMaxSeconds) {
+        this.backoffMaxSeconds = backoffMaxSeconds;
+    }
+
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+}
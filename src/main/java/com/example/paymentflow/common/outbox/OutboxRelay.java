@@ -0,0 +1,122 @@
+package com.example.paymentflow.common.outbox;
+
+import com.example.paymentflow.common.concurrency.BackgroundConnectionUser;
+import com.example.paymentflow.common.lease.Leases;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Polls {@code receipt_outbox_events} and hands claimed events to the {@link OutboxEventPublisher}.
+ * <p>
+ * A claimed batch is published in one call and acknowledged with one statement. If the batch
+ * fails, its events are published one by one so a single bad event is retried with exponential
+ * backoff, and dead-lettered once its attempts are used up, without holding back the rest. An
+ * event whose lease expires on its last attempt is dead-lettered by the next poll instead of
+ * being claimed again. Any number of instances can poll the same table; delivery is at-least-once.
+ */
+@Component
+public class OutboxRelay implements BackgroundConnectionUser {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(OutboxRelay.class);
+
+    private final OutboxDao dao;
+    private final OutboxEventPublisher publisher;
+    private final OutboxProperties properties;
+    private final String relayId;
+
+    public OutboxRelay(OutboxDao dao, OutboxEventPublisher publisher, OutboxProperties properties) {
+        this.dao = dao;
+        this.publisher = publisher;
+        this.properties = properties;
+        this.relayId = Leases.newHolderId();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        List<OutboxEvent> events;
+        try {
+            for (OutboxEvent dead : dao.deadLetterExpired(properties.getLeaseSeconds())) {
+                log.error("Outbox event {} ({} for {}) dead-lettered: its lease expired on attempt {}/{}",
+                        dead.id(), dead.eventType(), dead.aggregateId(), dead.attempts(), dead.maxAttempts());
+            }
+            events = dao.claim(relayId, Math.max(1, properties.getBatchSize()), properties.getLeaseSeconds());
+        } catch (Exception e) {
+            log.error("Failed to claim outbox events", e);
+            return;
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            publisher.publish(events);
+            acknowledge(events);
+        } catch (Exception batchFailure) {
+            log.warn("Publishing {} outbox events as a batch failed; retrying them one by one: {}",
+                    events.size(), batchFailure.getMessage());
+            List<OutboxEvent> published = new ArrayList<>();
+            for (OutboxEvent event : events) {
+                try {
+                    publisher.publish(List.of(event));
+                    published.add(event);
+                } catch (Exception e) {
+                    release(event, e);
+                }
+            }
+            acknowledge(published);
+        }
+    }
+
+    /**
+     * Claiming, publishing and acknowledging all run on the polling thread.
+     */
+    @Override
+    public int maxConnections() {
+        return properties.isRelayEnabled() ? 1 : 0;
+    }
+
+    private void acknowledge(List<OutboxEvent> events) {
+        List<Long> ids = events.stream().map(OutboxEvent::id).toList();
+        try {
+            int acknowledged = dao.markPublished(ids, relayId);
+            if (acknowledged < ids.size()) {
+                log.warn("{} of {} outbox events were re-claimed by another relay before they were acknowledged",
+                        ids.size() - acknowledged, ids.size());
+            }
+        } catch (Exception e) {
+            // The leases still expire, so the events are delivered again later
+            log.error("Failed to acknowledge {} published outbox events", ids.size(), e);
+        }
+    }
+
+    private void release(OutboxEvent event, Exception cause) {
+        long delay = backoffSeconds(event.attempts());
+        String error = Leases.describe(cause);
+        Optional<String> status;
+        try {
+            status = dao.fail(event.id(), relayId, error, delay);
+        } catch (Exception releaseFailure) {
+            log.error("Failed to release outbox event {} after error: {}", event.id(), error, releaseFailure);
+            return;
+        }
+        if (status.filter("DEAD"::equals).isPresent()) {
+            log.error("Outbox event {} ({} for {}) dead-lettered after {} attempts",
+                    event.id(), event.eventType(), event.aggregateId(), event.attempts(), cause);
+        } else {
+            log.warn("Outbox event {} ({} for {}) failed on attempt {}; retrying in {}s: {}",
+                    event.id(), event.eventType(), event.aggregateId(), event.attempts(), delay, error);
+        }
+    }
+
+    private long backoffSeconds(int attempts) {
+        return Leases.backoffSeconds(attempts, properties.getBackoffBaseSeconds(), properties.getBackoffMaxSeconds());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.paymentflow.common.outbox;
+
+/**
+ * Receipt state changes recorded in the outbox. The aggregate id is the receipt number named in
+ * each constant's description.
+ */
+public enum ReceiptEventType {
+
+    /** A worker receipt was handed to the employer; aggregate is the worker receipt number. */
+    WORKER_RECEIPT_SENT_TO_EMPLOYER,
+
+    /** An employer validated a worker receipt; aggregate is the employer receipt number. */
+    EMPLOYER_RECEIPT_VALIDATED
+}
@@ -0,0 +1,57 @@
+package com.example.paymentflow.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point for recording receipt state changes in the outbox. Appending requires the caller's
+ * transaction, so an event exists exactly when the state change it describes has committed.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ReceiptOutbox {
+
+    private final OutboxDao dao;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public ReceiptOutbox(OutboxDao dao, OutboxProperties properties, ObjectMapper objectMapper) {
+        this.dao = dao;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public void append(ReceiptEventType eventType, String aggregateId, Map<String, ?> payload) {
+        dao.append(List.of(toEvent(eventType, aggregateId, payload)), maxAttempts());
+    }
+
+    /**
+     * Appends one event per aggregate, with a single batched insert.
+     *
+     * @param payloads payload per aggregate id
+     */
+    public void appendAll(ReceiptEventType eventType, Map<String, ? extends Map<String, ?>> payloads) {
+        List<OutboxDao.NewEvent> events = payloads.entrySet().stream()
+                .map(e -> toEvent(eventType, e.getKey(), e.getValue()))
+                .toList();
+        dao.append(events, maxAttempts());
+    }
+
+    private OutboxDao.NewEvent toEvent(ReceiptEventType eventType, String aggregateId, Map<String, ?> payload) {
+        try {
+            return new OutboxDao.NewEvent(eventType, aggregateId, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable for " + eventType, e);
+        }
+    }
+
+    private int maxAttempts() {
+        return Math.max(1, properties.getMaxAttempts());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.paymentflow.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: the row's sort value and id. Encoded as an opaque
+ * URL-safe token; {@code sortKey} names the ordering the cursor was issued for, so a cursor cannot
+ * be replayed against a different sort.
+ *
+ * @param sortKey ordering the cursor belongs to, e.g. {@code created_at:DESC}
+ * @param value   sort column value of the last row, in its {@code toString} form
+ * @param id      id of the last row, the tie-breaker
+ */
+public record KeysetCursor(String sortKey, String value, long id) {
+
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token        cursor from a previous page; null or blank starts at the first row
+     * @param expectedSort ordering of the current request
+     * @return the decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed or was issued for another ordering
+     */
+    public static KeysetCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String sortKey = raw.substring(0, first);
+        if (!sortKey.equals(expectedSort)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        try {
+            return new KeysetCursor(sortKey, raw.substring(second + 1), Long.parseLong(raw.substring(first + 1, second)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
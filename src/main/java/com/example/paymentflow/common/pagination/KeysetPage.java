@@ -0,0 +1,66 @@
+package com.example.paymentflow.common.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * One keyset page.
+ *
+ * @param nextCursor    cursor for the following page, or null on the last page
+ * @param totalElements number of matching rows, capped at {@link #COUNT_CAP}
+ * @param totalExact    false when the count stopped at the cap
+ */
+public record KeysetPage<T>(List<T> content, String nextCursor, long totalElements, boolean totalExact) {
+
+    /** Counting stops here, so the count costs the same however many rows match. */
+    public static final int COUNT_CAP = 10_000;
+
+    /** Response header carrying {@link #nextCursor}. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Response header telling whether the total in the body is exact. */
+    public static final String TOTAL_EXACT_HEADER = "X-Total-Count-Exact";
+
+    /**
+     * Builds a page from a query that fetched up to {@code size + 1} rows; the extra row only
+     * signals that another page exists.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, long cappedCount,
+            Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? List.copyOf(rows.subList(0, size)) : rows;
+        String next = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new KeysetPage<>(content, next, cappedCount, cappedCount < COUNT_CAP);
+    }
+
+    /**
+     * Adapts the page to Spring's {@link Page} so it can go through the secure pagination response.
+     */
+    public Page<T> toPage(Pageable pageable) {
+        return new PageImpl<>(content, pageable, totalElements);
+    }
+
+    /**
+     * Adds the next cursor (when there is one) and the exactness of the total to a response.
+     */
+    public <B extends ResponseEntity.HeadersBuilder<B>> B addHeaders(B builder) {
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.header(TOTAL_EXACT_HEADER, Boolean.toString(totalExact));
+    }
+
+    /**
+     * Wraps a count query so it stops after {@link #COUNT_CAP} rows.
+     *
+     * @param selectOneSql {@code SELECT 1 FROM ... WHERE ...} for the filtered rows
+     */
+    public static String cappedCountSql(String selectOneSql) {
+        return "SELECT COUNT(*) FROM (" + selectOneSql + " LIMIT " + COUNT_CAP + ") capped";
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.paymentflow.common.queue;
+
+/**
+ * A claimed job. {@code attempts} already counts the current run.
+ */
+public record PipelineJob(Long id, PipelineStage stage, String subject, int attempts, int maxAttempts) {
+}
@@ -0,0 +1,118 @@
+package com.example.paymentflow.common.queue;
+
+import com.example.paymentflow.common.lease.Leases;
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data access for the {@code pipeline_jobs} queue table. Every statement is a single round trip;
+ * claiming uses {@code FOR UPDATE SKIP LOCKED} so concurrent workers never receive the same job.
+ */
+@Repository
+public class PipelineJobDao {
+
+    private static final String ENQUEUE_TEMPLATE = "sql/queue/pipeline_jobs_enqueue.sql";
+    private static final String CLAIM_TEMPLATE = "sql/queue/pipeline_jobs_claim.sql";
+    private static final String COMPLETE_TEMPLATE = "sql/queue/pipeline_jobs_complete.sql";
+    private static final String FAIL_TEMPLATE = "sql/queue/pipeline_jobs_fail.sql";
+    private static final String RENEW_TEMPLATE = "sql/queue/pipeline_jobs_renew.sql";
+    private static final String DEAD_LETTER_EXPIRED_TEMPLATE = "sql/queue/pipeline_jobs_dead_letter_expired.sql";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public PipelineJobDao(NamedParameterJdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * @return false if an open job for the same stage and subject already exists
+     */
+    public boolean enqueue(PipelineStage stage, String subject, int maxAttempts) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("stage", stage.name())
+                .addValue("subject", subject)
+                .addValue("maxAttempts", maxAttempts);
+        return jdbcTemplate.update(sqlTemplates.load(ENQUEUE_TEMPLATE), params) > 0;
+    }
+
+    /**
+     * Claims up to {@code limit} due jobs, including RUNNING jobs whose lease has expired while
+     * they still have attempts left.
+     */
+    public List<PipelineJob> claim(String workerId, int limit, long leaseSeconds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("workerId", workerId)
+                .addValue("limit", limit)
+                .addValue("leaseSeconds", leaseSeconds);
+        return jdbcTemplate.query(sqlTemplates.load(CLAIM_TEMPLATE), params, PipelineJobDao::mapJob);
+    }
+
+    /**
+     * Dead-letters RUNNING jobs whose lease expired on their last attempt. Such a job took its
+     * worker down without completing or failing (e.g. it exhausted the heap), so re-claiming it
+     * would only repeat that.
+     *
+     * @return the jobs that were dead-lettered
+     */
+    public List<PipelineJob> deadLetterExpired(long leaseSeconds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("leaseSeconds", leaseSeconds);
+        return jdbcTemplate.query(sqlTemplates.load(DEAD_LETTER_EXPIRED_TEMPLATE), params, PipelineJobDao::mapJob);
+    }
+
+    /**
+     * Extends the lease of running jobs still held by this worker.
+     *
+     * @return number of jobs whose lease was renewed
+     */
+    public int renew(Collection<Long> ids, String workerId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("workerId", workerId);
+        return jdbcTemplate.update(sqlTemplates.load(RENEW_TEMPLATE), params);
+    }
+
+    /**
+     * @return false if the job is no longer held by this worker (its lease expired and it was re-claimed)
+     */
+    public boolean complete(Long id, String workerId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("workerId", workerId);
+        return jdbcTemplate.update(sqlTemplates.load(COMPLETE_TEMPLATE), params) > 0;
+    }
+
+    /**
+     * Releases the job for a retry after {@code delaySeconds}, or dead-letters it once its
+     * attempts are used up.
+     *
+     * @return the job's new status (PENDING or DEAD), or empty if this worker no longer holds it
+     */
+    public Optional<String> fail(Long id, String workerId, String error, long delaySeconds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("workerId", workerId)
+                .addValue("error", Leases.truncateError(error))
+                .addValue("delaySeconds", delaySeconds);
+        List<String> status = jdbcTemplate.queryForList(sqlTemplates.load(FAIL_TEMPLATE), params, String.class);
+        return status.stream().findFirst();
+    }
+
+    private static PipelineJob mapJob(ResultSet rs, int rowNum) throws SQLException {
+        return new PipelineJob(
+                rs.getLong("id"),
+                PipelineStage.valueOf(rs.getString("stage")),
+                rs.getString("subject"),
+                rs.getInt("attempts"),
+                rs.getInt("max_attempts"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.paymentflow.common.queue;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point for putting work on the durable pipeline queue.
+ */
+@Service
+public class PipelineJobQueue {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(PipelineJobQueue.class);
+
+    private final PipelineJobDao dao;
+    private final PipelineProperties properties;
+
+    public PipelineJobQueue(PipelineJobDao dao, PipelineProperties properties) {
+        this.dao = dao;
+        this.properties = properties;
+    }
+
+    /**
+     * Enqueues a job unless an open job for the same stage and subject already exists. Joins the
+     * caller's transaction if there is one, so the job only becomes visible once that commits.
+     *
+     * @return true if a new job was created
+     */
+    public boolean enqueue(PipelineStage stage, String subject) {
+        boolean created = dao.enqueue(stage, subject, Math.max(1, properties.getMaxAttempts()));
+        if (created) {
+            log.info("Enqueued pipeline job {} for {}", stage, subject);
+        } else {
+            log.info("Pipeline job {} for {} is already queued", stage, subject);
+        }
+        return created;
+    }
+}
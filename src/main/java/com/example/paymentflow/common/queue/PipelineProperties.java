@@ -0,0 +1,124 @@
+package com.example.paymentflow.common.queue;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "pipeline")
+public class PipelineProperties {
+
+    /**
+     * Whether this instance polls the queue; enqueueing works either way.
+     */
+    private boolean workerEnabled = true;
+
+    /**
+     * Delay between polls, in milliseconds.
+     */
+    private long pollIntervalMs = 2000;
+
+    /**
+     * Upper bound on jobs claimed per poll; a poll never claims more jobs than there are idle
+     * handler threads.
+     */
+    private int batchSize = 10;
+
+    /**
+     * Jobs run at once by this instance, each on its own handler thread.
+     */
+    private int concurrency = 2;
+
+    /**
+     * How often the leases of running jobs are renewed, in milliseconds; well below the lease.
+     */
+    private long heartbeatIntervalMs = 60_000;
+
+    /**
+     * Runs per job before it is dead-lettered.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Retry delay after the first failure; doubles per attempt up to {@link #backoffMaxSeconds}.
+     */
+    private long backoffBaseSeconds = 10;
+
+    private long backoffMaxSeconds = 900;
+
+    /**
+     * A RUNNING job whose lease has not been renewed for this long is assumed dead and re-claimed.
+     */
+    private long leaseSeconds = 300;
+
+    public boolean isWorkerEnabled() {
+        return workerEnabled;
+    }
+
+    public void setWorkerEnabled(boolean workerEnabled) {
+        this.workerEnabled = workerEnabled;
+    }
+
+    public long getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public long getHeartbeatIntervalMs() {
+        return heartbeatIntervalMs;
+    }
+
+    public void setHeartbeatIntervalMs(long heartbeatIntervalMs) {
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getBackoffBaseSeconds() {
+        return backoffBaseSeconds;
+    }
+
+    public void setBackoffBaseSeconds(long backoffBaseSeconds) {
+        this.backoffBaseSeconds = backoffBaseSeconds;
+    }
+
+    public long getBackoffMaxSeconds() {
+        return backoffMaxSeconds;
+    }
+
+    public void setBackoffMaxSeconds(long backoffMaxSeconds) {
+        this.backoffMaxSeconds = backoffMaxSeconds;
+    }
+
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+}
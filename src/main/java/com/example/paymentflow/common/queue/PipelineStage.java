@@ -0,0 +1,26 @@
+package com.example.paymentflow.common.queue;
+
+import java.util.Optional;
+
+/**
+ * Stages of the worker payment pipeline, in order. A job's subject is the uploaded file id for
+ * the file stages and the worker receipt number for {@link #SEND_TO_EMPLOYER}.
+ */
+public enum PipelineStage {
+    PARSE_UPLOAD,
+    VALIDATE,
+    GENERATE_REQUEST,
+    SEND_TO_EMPLOYER;
+
+    /**
+     * Stage that consumes the subjects this stage's handler hands on, if any.
+     */
+    public Optional<PipelineStage> next() {
+        return switch (this) {
+            case PARSE_UPLOAD -> Optional.of(VALIDATE);
+            case VALIDATE -> Optional.of(GENERATE_REQUEST);
+            case GENERATE_REQUEST -> Optional.of(SEND_TO_EMPLOYER);
+            case SEND_TO_EMPLOYER -> Optional.empty();
+        };
+    }
+}
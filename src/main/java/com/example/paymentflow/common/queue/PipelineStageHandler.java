@@ -0,0 +1,20 @@
+package com.example.paymentflow.common.queue;
+
+import java.util.List;
+
+/**
+ * Runs one pipeline stage. Implementations wrap existing service methods and must be safe to
+ * re-run: a job is retried after a failure and re-claimed if its worker dies mid-run.
+ */
+public interface PipelineStageHandler {
+
+    PipelineStage stage();
+
+    /**
+     * Processes the job's subject. Throwing schedules a retry with backoff until the job's
+     * attempts are exhausted, after which it is dead-lettered.
+     *
+     * @return subjects to enqueue for {@link PipelineStage#next()}; empty ends the chain
+     */
+    List<String> handle(PipelineJob job) throws Exception;
+}
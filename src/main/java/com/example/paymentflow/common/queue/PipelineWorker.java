@@ -0,0 +1,195 @@
+package com.example.paymentflow.common.queue;
+
+import com.example.paymentflow.common.concurrency.BackgroundConnectionUser;
+import com.example.paymentflow.common.lease.Leases;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls {@code pipeline_jobs} and runs claimed jobs through their stage handlers.
+ * <p>
+ * Claiming commits immediately, so a job is held only by its lease while the handler runs in its
+ * own transactions. A poll claims no more jobs than there are idle handler threads, so no claimed
+ * job waits behind another, and the leases of running jobs are renewed every
+ * {@code pipeline.heartbeat-interval-ms}; a job is only re-claimed once its worker stops renewing.
+ * Handlers run on the worker's own pool, so a long stage never holds up the scheduler thread.
+ * On success the follow-up jobs are enqueued and the job is completed in one transaction; on
+ * failure it is retried with exponential backoff and dead-lettered once its attempts are used up.
+ * A job whose lease expires on its last attempt (its worker died mid-stage) is dead-lettered by
+ * the next poll instead of being re-claimed.
+ * Any number of instances can poll the same table.
+ */
+@Component
+public class PipelineWorker implements BackgroundConnectionUser {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(PipelineWorker.class);
+
+    private final PipelineJobDao dao;
+    private final PipelineJobQueue queue;
+    private final PipelineProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<PipelineStage, PipelineStageHandler> handlers = new EnumMap<>(PipelineStage.class);
+    private final String workerId;
+    private final int concurrency;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public PipelineWorker(PipelineJobDao dao,
+                          PipelineJobQueue queue,
+                          PipelineProperties properties,
+                          TransactionTemplate transactionTemplate,
+                          List<PipelineStageHandler> stageHandlers) {
+        this.dao = dao;
+        this.queue = queue;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        for (PipelineStageHandler handler : stageHandlers) {
+            PipelineStageHandler previous = handlers.put(handler.stage(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate pipeline handlers for stage " + handler.stage());
+            }
+        }
+        this.workerId = Leases.newHolderId();
+        this.concurrency = Math.max(1, properties.getConcurrency());
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("pipeline-worker-", 1).daemon(true).factory());
+    }
+
+    @Scheduled(fixedDelayString = "${pipeline.poll-interval-ms:2000}")
+    public void poll() {
+        if (!properties.isWorkerEnabled()) {
+            return;
+        }
+        int idle = concurrency - running.size();
+        if (idle <= 0) {
+            return;
+        }
+        List<PipelineJob> jobs;
+        try {
+            for (PipelineJob dead : dao.deadLetterExpired(properties.getLeaseSeconds())) {
+                log.error("Pipeline job {} ({} for {}) dead-lettered: its lease expired on attempt {}/{}",
+                        dead.id(), dead.stage(), dead.subject(), dead.attempts(), dead.maxAttempts());
+            }
+            jobs = dao.claim(workerId, Math.min(Math.max(1, properties.getBatchSize()), idle),
+                    properties.getLeaseSeconds());
+        } catch (Exception e) {
+            log.error("Failed to claim pipeline jobs", e);
+            return;
+        }
+        for (PipelineJob job : jobs) {
+            running.add(job.id());
+            try {
+                executor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        running.remove(job.id());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the lease is no longer renewed, so another worker re-claims the job
+                running.remove(job.id());
+            }
+        }
+    }
+
+    /**
+     * Renews the leases of the jobs this worker is running, so a long stage is not re-claimed by
+     * another worker while its handler is still busy.
+     */
+    @Scheduled(fixedDelayString = "${pipeline.heartbeat-interval-ms:60000}")
+    public void renewLeases() {
+        if (running.isEmpty()) {
+            return;
+        }
+        List<Long> held = List.copyOf(running);
+        try {
+            int renewed = dao.renew(held, workerId);
+            if (renewed < held.size()) {
+                log.warn("Renewed {} of {} pipeline job leases; the rest finished or were re-claimed",
+                        renewed, held.size());
+            }
+        } catch (Exception e) {
+            log.error("Failed to renew pipeline job leases", e);
+        }
+    }
+
+    /**
+     * One connection per handler thread, plus the poll or lease renewal on the scheduler.
+     */
+    @Override
+    public int maxConnections() {
+        return properties.isWorkerEnabled() ? concurrency + 1 : 0;
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Jobs still running after the grace period are re-claimed once their lease expires
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(PipelineJob job) {
+        PipelineStageHandler handler = handlers.get(job.stage());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No handler registered for stage " + job.stage());
+            }
+            log.info("Running pipeline job {} ({} for {}, attempt {}/{})",
+                    job.id(), job.stage(), job.subject(), job.attempts(), job.maxAttempts());
+            List<String> nextSubjects = handler.handle(job);
+            transactionTemplate.executeWithoutResult(status -> {
+                Optional<PipelineStage> next = job.stage().next();
+                if (next.isPresent()) {
+                    for (String subject : nextSubjects) {
+                        queue.enqueue(next.get(), subject);
+                    }
+                }
+                if (!dao.complete(job.id(), workerId)) {
+                    log.warn("Pipeline job {} was re-claimed by another worker before it completed", job.id());
+                }
+            });
+        } catch (Exception e) {
+            long delay = backoffSeconds(job.attempts());
+            String error = Leases.describe(e);
+            Optional<String> status;
+            try {
+                status = dao.fail(job.id(), workerId, error, delay);
+            } catch (Exception releaseFailure) {
+                // The lease still expires, so the job is picked up again later
+                log.error("Failed to release pipeline job {} after error: {}", job.id(), error, releaseFailure);
+                return;
+            }
+            if (status.filter("DEAD"::equals).isPresent()) {
+                log.error("Pipeline job {} ({} for {}) dead-lettered after {} attempts",
+                        job.id(), job.stage(), job.subject(), job.attempts(), e);
+            } else {
+                log.warn("Pipeline job {} ({} for {}) failed on attempt {}; retrying in {}s: {}",
+                        job.id(), job.stage(), job.subject(), job.attempts(), delay, error);
+            }
+        }
+    }
+
+    private long backoffSeconds(int attempts) {
+        return Leases.backoffSeconds(attempts, properties.getBackoffBaseSeconds(), properties.getBackoffMaxSeconds());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.paymentflow.common.sequence;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Layout of a human-readable reference number: {@code PREFIX-<timestamp>-<number>}.
+ * <p>
+ * The timestamp is for people reading the number; uniqueness rests entirely on {@code number},
+ * which comes from {@code sequenceName}. The sequence must be created with
+ * {@code INCREMENT BY blockSize}, see {@link SequenceBlockAllocator}.
+ *
+ * @param prefix       leading code, also used as the metrics tag
+ * @param timestamp    pattern for the middle part
+ * @param digits       minimum width of the zero-padded number; larger values simply grow
+ * @param sequenceName database sequence backing the number
+ * @param blockSize    numbers reserved per sequence call
+ */
+public record ReferenceNumberFormat(String prefix, DateTimeFormatter timestamp, int digits,
+        String sequenceName, int blockSize) {
+
+    /** Worker payment receipts: RCP-yyyyMMdd-HHmmss-NNNNNN. */
+    public static final ReferenceNumberFormat WORKER_RECEIPT = new ReferenceNumberFormat("RCP",
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"), 6, "receipt_number_seq", 100);
+
+    /** Employer receipts: EMP-yyyyMMdd-HHmmss-NNNNNN. */
+    public static final ReferenceNumberFormat EMPLOYER_RECEIPT = new ReferenceNumberFormat("EMP",
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"), 6, "employer_receipt_number_seq", 100);
+
+    /** Board receipts: BRD-yyyyMMdd-NNNNNN. */
+    public static final ReferenceNumberFormat BOARD_RECEIPT = new ReferenceNumberFormat("BRD",
+            DateTimeFormatter.ofPattern("yyyyMMdd"), 6, "board_reference_seq", 100);
+
+    /** Uploaded file request references: REQ-yyyyMMdd-HHmmss-NNNNNN. */
+    public static final ReferenceNumberFormat REQUEST_REFERENCE = new ReferenceNumberFormat("REQ",
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"), 6, "request_reference_seq", 100);
+
+    String format(LocalDateTime at, long number) {
+        String value = Long.toString(number);
+        StringBuilder sb = new StringBuilder(prefix.length() + 20 + Math.max(digits, value.length()));
+        sb.append(prefix).append('-');
+        timestamp.formatTo(at, sb);
+        sb.append('-');
+        for (int i = value.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        return sb.append(value).toString();
+    }
+}
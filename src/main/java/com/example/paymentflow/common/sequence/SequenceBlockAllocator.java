@@ -0,0 +1,104 @@
+package com.example.paymentflow.common.sequence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+
+/**
+ * Hands out unique numbers from a database sequence one block at a time.
+ * <p>
+ * The sequence must be created with {@code INCREMENT BY blockSize}: each {@code nextval} then
+ * reserves the range {@code [value, value + blockSize)} for this node alone, the same pooled-lo
+ * scheme Hibernate uses for entity ids. Numbers within a block are taken with a lock-free
+ * {@code getAndIncrement}; only the thread that drains a block goes to the database, and it does
+ * so under a lock so concurrent callers wait for one refill instead of burning several blocks.
+ * Numbers left in a block when the node stops are skipped, so values are unique but not gapless.
+ */
+public class SequenceBlockAllocator {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(SequenceBlockAllocator.class);
+
+    private static final Pattern SEQUENCE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sequenceName;
+    private final String nextValueSql;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+
+    public SequenceBlockAllocator(JdbcTemplate jdbcTemplate, String sequenceName, int blockSize) {
+        if (!SEQUENCE_NAME.matcher(sequenceName).matches()) {
+            throw new IllegalArgumentException("Invalid sequence name: " + sequenceName);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceName = sequenceName;
+        this.nextValueSql = "SELECT nextval('" + sequenceName + "')";
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the next number, reserving a new block from the database when the current one is
+     * used up.
+     */
+    public long next() {
+        while (true) {
+            Block block = current.get();
+            long value = block.cursor.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            refill(block);
+        }
+    }
+
+    public String getSequenceName() {
+        return sequenceName;
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // Another thread may have refilled while this one waited for the lock
+            if (current.get() != exhausted) {
+                return;
+            }
+            Long start = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            if (start == null) {
+                throw new IllegalStateException("Sequence " + sequenceName + " returned no value");
+            }
+            current.set(new Block(start, start + blockSize));
+            onRefill(start, blockSize);
+            log.debug("Reserved {} [{}, {})", sequenceName, start, start + blockSize);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Called after every block reservation, still under the refill lock.
+     */
+    protected void onRefill(long start, int size) {
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong cursor;
+        final long end;
+
+        Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
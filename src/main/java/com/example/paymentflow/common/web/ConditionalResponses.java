@@ -0,0 +1,166 @@
+package com.example.paymentflow.common.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.example.paymentflow.common.json.JsonWriters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Conditional responses with an ETag, answering {@code If-None-Match} hits with 304.
+ * <p>
+ * {@link #respond(HttpServletRequest, Object, UnaryOperator)} serialises the body once into a
+ * buffer through a {@link DigestOutputStream}, so the digest is computed over the bytes as they are
+ * written, and sends the buffered bytes; the body is neither hashed in a second pass nor serialised
+ * a second time by the message converters.
+ * <p>
+ * {@link #respondVersioned} takes the tag from a cheap version probe (row versions of the rows the
+ * response is built from) and only loads the body when the client's copy is stale, so a 304 costs
+ * the probe instead of the full fetch.
+ * <p>
+ * The overloads taking an {@link ObjectWriter} are for bodies whose runtime class does not carry
+ * their full type, such as pages, and serialise with the caller's cached typed writer.
+ */
+@Component
+public class ConditionalResponses {
+
+    private final JsonWriters jsonWriters;
+
+    public ConditionalResponses(JsonWriters jsonWriters) {
+        this.jsonWriters = jsonWriters;
+    }
+
+    public ResponseEntity<?> respond(HttpServletRequest request, Object body) {
+        return respond(request, body, UnaryOperator.identity());
+    }
+
+    /**
+     * @param headers extra headers, applied to both the 200 and the 304 response
+     */
+    public ResponseEntity<?> respond(HttpServletRequest request, Object body,
+                                     UnaryOperator<ResponseEntity.BodyBuilder> headers) {
+        return respond(request, jsonWriters.forValue(body), body, headers);
+    }
+
+    /**
+     * @param writer  writer for the declared type of {@code body}, e.g. {@link JsonWriters#forPageOf}
+     * @param headers extra headers, applied to both the 200 and the 304 response
+     */
+    public ResponseEntity<?> respond(HttpServletRequest request, ObjectWriter writer, Object body,
+                                     UnaryOperator<ResponseEntity.BodyBuilder> headers) {
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8 * 1024);
+        try (DigestOutputStream out = new DigestOutputStream(buffer, digest)) {
+            writer.writeValue(out, body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialise response body", e);
+        }
+        byte[] json = buffer.toByteArray();
+        String eTag = quote(digest.digest());
+        if (matches(request, eTag)) {
+            return headers.apply(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag)).build();
+        }
+        return headers.apply(ResponseEntity.ok().eTag(eTag))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    /**
+     * @param version fingerprint of everything the body depends on, including paging and sort
+     * @param body    loaded only when the client's ETag does not match
+     */
+    public ResponseEntity<?> respondVersioned(HttpServletRequest request, String version, Supplier<?> body) {
+        String eTag = quote(sha256().digest(version.getBytes(StandardCharsets.UTF_8)));
+        if (matches(request, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(body.get());
+    }
+
+    /**
+     * As {@link #respondVersioned(HttpServletRequest, String, Supplier)}, serialising the body with
+     * {@code writer} instead of the message converters.
+     */
+    public ResponseEntity<?> respondVersioned(HttpServletRequest request, String version, ObjectWriter writer,
+                                              Supplier<?> body) {
+        String eTag = quote(sha256().digest(version.getBytes(StandardCharsets.UTF_8)));
+        if (matches(request, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serialise(writer, body.get()));
+    }
+
+    /**
+     * Joins a row version with the request parameters that shape the body, so requests that happen
+     * to read the same rows still get distinct tags.
+     */
+    public static String version(String rowVersion, Object... requestParts) {
+        StringBuilder version = new StringBuilder(rowVersion);
+        for (Object part : requestParts) {
+            version.append('|').append(part);
+        }
+        return version.toString();
+    }
+
+    /**
+     * True if {@code If-None-Match} lists the tag (weak comparison) or is {@code *}.
+     */
+    static boolean matches(HttpServletRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] serialise(ObjectWriter writer, Object body) {
+        try {
+            return writer.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise response body", e);
+        }
+    }
+
+    private static String quote(byte[] hash) {
+        // 128 bits of the SHA-256 are plenty to tell versions of one resource apart
+        return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
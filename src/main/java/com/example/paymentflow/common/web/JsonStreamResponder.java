@@ -0,0 +1,95 @@
+package com.example.paymentflow.common.web;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.slf4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.paymentflow.common.jdbc.RowProducer;
+import com.example.paymentflow.common.json.JsonWriters;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+
+/**
+ * Writes query results to the response as they are read: a JSON array by default, or one JSON
+ * document per line ({@code application/x-ndjson}). Memory stays flat whatever the result size
+ * and the first rows reach the client before the query has finished.
+ * <p>
+ * The query runs on the async request thread inside a read-only transaction, which also lets the
+ * driver use a cursor; the request's database permit is held until the stream completes. The
+ * status line is sent before the first row, so a failure mid-stream cannot become an error
+ * response; the connection is aborted and the client sees a truncated body.
+ */
+@Component
+public class JsonStreamResponder {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(JsonStreamResponder.class);
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /** Rows between flushes; the first row is always flushed so the client sees data early. */
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final JsonWriters jsonWriters;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public JsonStreamResponder(ObjectMapper objectMapper, JsonWriters jsonWriters,
+                               PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.jsonWriters = jsonWriters;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param format {@value #FORMAT_NDJSON} for newline-delimited JSON; anything else gives a JSON array
+     */
+    public <T> ResponseEntity<StreamingResponseBody> respond(String format, RowProducer<T> rows) {
+        boolean ndjson = FORMAT_NDJSON.equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                if (ndjson) {
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                } else {
+                    generator.writeStartArray();
+                }
+                long[] written = {0};
+                readOnlyTransaction.executeWithoutResult(status -> rows.produce(row -> {
+                    try {
+                        jsonWriters.forValue(row).writeValue(generator, row);
+                        if (++written[0] == 1 || written[0] % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                } else {
+                    generator.writeEndArray();
+                }
+            } catch (UncheckedIOException e) {
+                log.warn("Streaming response aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                log.error("Streaming response failed after the status was sent", e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
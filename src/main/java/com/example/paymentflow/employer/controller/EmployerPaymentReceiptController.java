@@ -1,15 +1,14 @@
 package com.example.paymentflow.employer.controller;
 
+import com.example.paymentflow.common.web.ConditionalResponses;
 import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
 import com.example.paymentflow.employer.service.EmployerPaymentReceiptService;
 import com.shared.common.annotation.Auditable;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
 import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,10 +18,11 @@ import org.slf4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -33,12 +33,14 @@ public class EmployerPaymentReceiptController {
     
     private static final Logger log = LoggerFactoryProvider.getLogger(EmployerPaymentReceiptController.class);
     
+    private static final int MAX_BULK_RECEIPTS = 1000;
+    
     private final EmployerPaymentReceiptService service;
-    private final ObjectMapper objectMapper;
+    private final ConditionalResponses conditionalResponses;
 
-    public EmployerPaymentReceiptController(EmployerPaymentReceiptService service, ObjectMapper objectMapper) {
+    public EmployerPaymentReceiptController(EmployerPaymentReceiptService service, ConditionalResponses conditionalResponses) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.conditionalResponses = conditionalResponses;
     }
 
     @PostMapping("/available/secure")
@@ -83,13 +85,7 @@ public class EmployerPaymentReceiptController {
                     pageable);
             SecurePaginationResponse<EmployerPaymentReceipt> response =
                 SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponses.respond(httpRequest, response);
         } catch (Exception e) {
             log.error("Error fetching available receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -128,6 +124,44 @@ public class EmployerPaymentReceiptController {
         }
     }
 
+    @PostMapping("/validate/bulk")
+    @Operation(summary = "Validate many worker receipts and create employer receipts",
+               description = "Validates worker receipts with their transaction references in one call; receipts that are missing, already validated or lack a transaction reference are reported per item")
+    @Auditable(action = "BULK_VALIDATE_EMPLOYER_RECEIPTS", resourceType = "EMPLOYER_PAYMENT_RECEIPT", resourceId = "#request.validatedBy")
+    public ResponseEntity<?> validateReceipts(@RequestBody BulkReceiptValidationRequest request) {
+        List<BulkReceiptValidationRequest.Item> receipts = request.getReceipts();
+        log.info("Bulk validating {} worker receipts", receipts == null ? 0 : receipts.size());
+        
+        if (receipts == null || receipts.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At least one receipt is required"));
+        }
+        if (receipts.size() > MAX_BULK_RECEIPTS) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "At most " + MAX_BULK_RECEIPTS + " receipts can be validated per request"));
+        }
+        if (request.getValidatedBy() == null || request.getValidatedBy().isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "validatedBy is required"));
+        }
+        Map<String, String> transactionReferences = new LinkedHashMap<>();
+        for (BulkReceiptValidationRequest.Item item : receipts) {
+            if (item.getWorkerReceiptNumber() == null || item.getWorkerReceiptNumber().isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "workerReceiptNumber is required"));
+            }
+            if (transactionReferences.put(item.getWorkerReceiptNumber(), item.getTransactionReference()) != null) {
+                return ResponseEntity.badRequest().body(Map.of("error",
+                        "Duplicate worker receipt number: " + item.getWorkerReceiptNumber()));
+            }
+        }
+        
+        try {
+            return ResponseEntity.ok(service.validateAndCreateEmployerReceipts(
+                    transactionReferences, request.getValidatedBy()));
+        } catch (Exception e) {
+            log.error("Error bulk validating {} receipts", receipts.size(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Request DTO class
     public static class ReceiptValidationRequest {
         private String workerReceiptNumber;
@@ -158,4 +192,46 @@ public class EmployerPaymentReceiptController {
             this.validatedBy = validatedBy;
         }
     }
+
+    public static class BulkReceiptValidationRequest {
+        private List<Item> receipts;
+        private String validatedBy;
+
+        public List<Item> getReceipts() {
+            return receipts;
+        }
+
+        public void setReceipts(List<Item> receipts) {
+            this.receipts = receipts;
+        }
+
+        public String getValidatedBy() {
+            return validatedBy;
+        }
+
+        public void setValidatedBy(String validatedBy) {
+            this.validatedBy = validatedBy;
+        }
+
+        public static class Item {
+            private String workerReceiptNumber;
+            private String transactionReference;
+
+            public String getWorkerReceiptNumber() {
+                return workerReceiptNumber;
+            }
+
+            public void setWorkerReceiptNumber(String workerReceiptNumber) {
+                this.workerReceiptNumber = workerReceiptNumber;
+            }
+
+            public String getTransactionReference() {
+                return transactionReference;
+            }
+
+            public void setTransactionReference(String transactionReference) {
+                this.transactionReference = transactionReference;
+            }
+        }
+    }
 }
@@ -8,16 +8,19 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface EmployerPaymentReceiptRepository extends JpaRepository<EmployerPaymentReceipt, Long> {
     // READ operations - to be moved to EmployerPaymentReceiptQueryDao in future
     Optional<EmployerPaymentReceipt> findByWorkerReceiptNumber(String workerReceiptNumber);
+    List<EmployerPaymentReceipt> findByWorkerReceiptNumberIn(Collection<String> workerReceiptNumbers);
     List<EmployerPaymentReceipt> findByStatus(String status);
     Page<EmployerPaymentReceipt> findByStatus(String status, Pageable pageable);
     List<EmployerPaymentReceipt> findByValidatedBy(String validatedBy);
     Optional<EmployerPaymentReceipt> findByEmployerReceiptNumber(String employerReceiptNumber);
+    List<EmployerPaymentReceipt> findByEmployerReceiptNumberIn(Collection<String> employerReceiptNumbers);
     
     @Query("SELECT e FROM EmployerPaymentReceipt e WHERE e.status = :status AND e.validatedAt BETWEEN :startDate AND :endDate")
     Page<EmployerPaymentReceipt> findByStatusAndValidatedAtBetween(
@@ -15,7 +15,8 @@ import java.util.Map;
 public class EmployerPaymentReceipt extends AbstractAuditableEntity<Long> {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employer_payment_receipts_seq")
+    @SequenceGenerator(name = "employer_payment_receipts_seq", sequenceName = "employer_payment_receipts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "employer_receipt_number", nullable = false, unique = true, length = 40)
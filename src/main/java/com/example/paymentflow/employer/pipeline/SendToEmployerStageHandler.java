@@ -0,0 +1,33 @@
+package com.example.paymentflow.employer.pipeline;
+
+import com.example.paymentflow.common.queue.PipelineJob;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.common.queue.PipelineStageHandler;
+import com.example.paymentflow.employer.service.EmployerPaymentReceiptService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sends a generated worker receipt to the employer for validation; the last automated stage.
+ */
+@Component
+public class SendToEmployerStageHandler implements PipelineStageHandler {
+
+    private final EmployerPaymentReceiptService employerReceiptService;
+
+    public SendToEmployerStageHandler(EmployerPaymentReceiptService employerReceiptService) {
+        this.employerReceiptService = employerReceiptService;
+    }
+
+    @Override
+    public PipelineStage stage() {
+        return PipelineStage.SEND_TO_EMPLOYER;
+    }
+
+    @Override
+    public List<String> handle(PipelineJob job) {
+        employerReceiptService.sendWorkerReceiptToEmployer(job.subject());
+        return List.of();
+    }
+}
@@ -1,15 +1,16 @@
 package com.example.paymentflow.employer.service;
 
+import com.example.paymentflow.common.outbox.ReceiptEventType;
+import com.example.paymentflow.common.outbox.ReceiptOutbox;
+import com.example.paymentflow.common.sequence.ReferenceNumberFormat;
+import com.example.paymentflow.common.sequence.ReferenceNumberService;
 import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
 import com.example.paymentflow.employer.dao.EmployerPaymentReceiptRepository;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.dao.WorkerPaymentReceiptQueryDao;
-import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.service.WorkerPaymentReceiptService;
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService;
 
-import com.example.paymentflow.worker.service.WorkerPaymentService;
-import com.example.paymentflow.board.service.BoardReceiptService;
-import com.example.paymentflow.board.entity.BoardReceipt;
 import org.slf4j.Logger;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import org.springframework.stereotype.Service;
@@ -21,11 +22,14 @@ import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -50,20 +54,23 @@ public class EmployerPaymentReceiptService {
     
     private final EmployerPaymentReceiptRepository repository;
     private final WorkerPaymentReceiptQueryDao workerReceiptQueryDao;
-    private final WorkerPaymentService workerPaymentService;
-    private final BoardReceiptService boardReceiptService;
+    private final WorkerPaymentStatusTransitionService paymentTransitions;
+    private final ReceiptOutbox outbox;
     private final WorkerPaymentReceiptService workerReceiptService;
+    private final ReferenceNumberService referenceNumberService;
 
     public EmployerPaymentReceiptService(EmployerPaymentReceiptRepository repository,
                                        WorkerPaymentReceiptQueryDao workerReceiptQueryDao,
-                                       WorkerPaymentService workerPaymentService,
-                                       BoardReceiptService boardReceiptService,
-                                       WorkerPaymentReceiptService workerReceiptService) {
+                                       WorkerPaymentStatusTransitionService paymentTransitions,
+                                       ReceiptOutbox outbox,
+                                       WorkerPaymentReceiptService workerReceiptService,
+                                       ReferenceNumberService referenceNumberService) {
         this.repository = repository;
         this.workerReceiptQueryDao = workerReceiptQueryDao;
-        this.workerPaymentService = workerPaymentService;
-        this.boardReceiptService = boardReceiptService;
+        this.paymentTransitions = paymentTransitions;
+        this.outbox = outbox;
         this.workerReceiptService = workerReceiptService;
+        this.referenceNumberService = referenceNumberService;
     }
 
         @Transactional(readOnly = true)
@@ -139,66 +146,139 @@ public class EmployerPaymentReceiptService {
         WorkerPaymentReceipt workerReceipt = workerReceiptOpt.get();
         
         // Check if employer receipt exists (should be PENDING)
-        Optional<EmployerPaymentReceipt> existingOpt = repository.findByWorkerReceiptNumber(workerReceiptNumber);
-        EmployerPaymentReceipt employerReceipt;
-        
-        if (existingOpt.isPresent()) {
-            employerReceipt = existingOpt.get();
-            // Check if already validated
-            if ("VALIDATED".equals(employerReceipt.getStatus())) {
-                throw new RuntimeException("Worker receipt already validated: " + workerReceiptNumber);
-            }
-            // Update existing PENDING receipt to SEND TO BOARD
-            employerReceipt.setTransactionReference(transactionReference);
-            employerReceipt.setValidatedBy(validatedBy);
-            employerReceipt.setValidatedAt(LocalDateTime.now());
-            employerReceipt.setStatus("SEND TO BOARD");
-        } else {
-            // Create new employer receipt (fallback if auto-creation failed)
-            employerReceipt = new EmployerPaymentReceipt();
-            employerReceipt.setEmployerReceiptNumber(generateEmployerReceiptNumber());
-            employerReceipt.setWorkerReceiptNumber(workerReceiptNumber);
-            employerReceipt.setEmployerId(workerReceipt.getEmployerId());
-            employerReceipt.setToliId(workerReceipt.getToliId());
-            employerReceipt.setTransactionReference(transactionReference);
-            employerReceipt.setValidatedBy(validatedBy);
-            employerReceipt.setValidatedAt(LocalDateTime.now());
-            employerReceipt.setTotalRecords(workerReceipt.getTotalRecords());
-            employerReceipt.setTotalAmount(workerReceipt.getTotalAmount());
-            employerReceipt.setStatus("SEND TO BOARD");
+        EmployerPaymentReceipt existing = repository.findByWorkerReceiptNumber(workerReceiptNumber).orElse(null);
+        if (existing != null && "VALIDATED".equals(existing.getStatus())) {
+            throw new RuntimeException("Worker receipt already validated: " + workerReceiptNumber);
         }
+        EmployerPaymentReceipt employerReceipt = applyValidation(existing, workerReceipt, transactionReference, validatedBy);
         
         // Save employer receipt
         EmployerPaymentReceipt savedReceipt = repository.save(employerReceipt);
         
-        // Create board receipt with PENDING status
-        try {
-            BoardReceipt boardReceipt = boardReceiptService.createFromEmployerReceipt(savedReceipt, validatedBy);
-            log.info("Created board receipt {} for employer receipt {}", 
-                    boardReceipt.getBoardRef(), savedReceipt.getEmployerReceiptNumber());
-        } catch (Exception e) {
-            log.error("Failed to create board receipt for employer receipt {}", 
-                    savedReceipt.getEmployerReceiptNumber(), e);
-        }
+        // The board receipt is created from the outbox event once this transaction commits
+        outbox.append(ReceiptEventType.EMPLOYER_RECEIPT_VALIDATED, savedReceipt.getEmployerReceiptNumber(),
+                validatedEventPayload(savedReceipt));
         
         // Update worker receipt status using the proper service method
         workerReceiptService.updateStatus(workerReceiptNumber, "VALIDATED");
         
-        // Update all worker payments with this receipt number to PAYMENT_INITIATED
-        // Use WorkerPaymentService method that uses the query DAO
-        Page<WorkerPayment> paymentsPage = workerPaymentService.findByReceiptNumber(workerReceiptNumber, PageRequest.of(0, 1000));
-        List<WorkerPayment> workerPayments = paymentsPage.getContent();
-        for (WorkerPayment payment : workerPayments) {
-            if ("PAYMENT_REQUESTED".equals(payment.getStatus())) {
-                payment.setStatus("PAYMENT_INITIATED");
-                workerPaymentService.save(payment);
+        // Move all PAYMENT_REQUESTED worker payments of this receipt to PAYMENT_INITIATED
+        int updatedPayments = paymentTransitions.transitionReceipts(List.of(workerReceiptNumber),
+                "PAYMENT_REQUESTED", "PAYMENT_INITIATED");
+        
+        log.info("Validated employer receipt {} for worker receipt {}, queued board receipt, and updated {} worker payments to PAYMENT_INITIATED", 
+                savedReceipt.getEmployerReceiptNumber(), workerReceiptNumber, updatedPayments);
+        
+        return savedReceipt;
+    }
+
+    /**
+     * Bulk form of {@link #validateAndCreateEmployerReceipt}. Worker and employer receipts are
+     * resolved with one query each, employer receipts and their outbox events are written with
+     * batched inserts, and receipt and payment statuses move with one UPDATE per table, so the
+     * cost does not grow in round trips with the number of receipts or payments.
+     * <p>
+     * Receipts without a transaction reference, that do not exist or were already validated are
+     * reported under {@code failed} and do not stop the others.
+     *
+     * @param transactionReferences transaction reference per worker receipt number, in request order
+     */
+    public Map<String, Object> validateAndCreateEmployerReceipts(Map<String, String> transactionReferences,
+                                                                 String validatedBy) {
+        log.info("Bulk validating {} worker receipts", transactionReferences.size());
+        
+        Map<String, WorkerPaymentReceipt> workerReceipts = workerReceiptQueryDao
+                .findByReceiptNumbers(transactionReferences.keySet()).stream()
+                .collect(Collectors.toMap(WorkerPaymentReceipt::getReceiptNumber, Function.identity(), (a, b) -> a));
+        Map<String, EmployerPaymentReceipt> existingReceipts = repository
+                .findByWorkerReceiptNumberIn(transactionReferences.keySet()).stream()
+                .collect(Collectors.toMap(EmployerPaymentReceipt::getWorkerReceiptNumber, Function.identity(), (a, b) -> a));
+        
+        List<EmployerPaymentReceipt> toSave = new ArrayList<>();
+        List<Map<String, Object>> failed = new ArrayList<>();
+        transactionReferences.forEach((workerReceiptNumber, transactionReference) -> {
+            WorkerPaymentReceipt workerReceipt = workerReceipts.get(workerReceiptNumber);
+            EmployerPaymentReceipt existing = existingReceipts.get(workerReceiptNumber);
+            if (transactionReference == null || transactionReference.isBlank()) {
+                failed.add(Map.of("workerReceiptNumber", workerReceiptNumber,
+                        "error", "transactionReference is required"));
+            } else if (workerReceipt == null) {
+                failed.add(Map.of("workerReceiptNumber", workerReceiptNumber,
+                        "error", "Worker receipt not found: " + workerReceiptNumber));
+            } else if (existing != null && ("VALIDATED".equals(existing.getStatus())
+                    || "SEND TO BOARD".equals(existing.getStatus()))) {
+                failed.add(Map.of("workerReceiptNumber", workerReceiptNumber,
+                        "error", "Worker receipt already validated: " + workerReceiptNumber));
+            } else {
+                toSave.add(applyValidation(existing, workerReceipt, transactionReference, validatedBy));
             }
+        });
+        
+        List<EmployerPaymentReceipt> savedReceipts = repository.saveAll(toSave);
+        Map<String, Map<String, Object>> events = new LinkedHashMap<>();
+        for (EmployerPaymentReceipt receipt : savedReceipts) {
+            events.put(receipt.getEmployerReceiptNumber(), validatedEventPayload(receipt));
         }
+        outbox.appendAll(ReceiptEventType.EMPLOYER_RECEIPT_VALIDATED, events);
         
-        log.info("Validated employer receipt {} for worker receipt {}, created board receipt, and updated {} worker payments to PAYMENT_INITIATED", 
-                savedReceipt.getEmployerReceiptNumber(), workerReceiptNumber, workerPayments.size());
+        List<String> validatedNumbers = savedReceipts.stream()
+                .map(EmployerPaymentReceipt::getWorkerReceiptNumber)
+                .toList();
+        paymentTransitions.transitionReceiptStatus(validatedNumbers, "VALIDATED");
+        int updatedPayments = paymentTransitions.transitionReceipts(validatedNumbers, "PAYMENT_REQUESTED", "PAYMENT_INITIATED");
         
-        return savedReceipt;
+        List<Map<String, Object>> validated = new ArrayList<>(savedReceipts.size());
+        for (EmployerPaymentReceipt receipt : savedReceipts) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("workerReceiptNumber", receipt.getWorkerReceiptNumber());
+            item.put("employerReceiptNumber", receipt.getEmployerReceiptNumber());
+            item.put("transactionReference", receipt.getTransactionReference());
+            item.put("totalAmount", receipt.getTotalAmount());
+            item.put("totalRecords", receipt.getTotalRecords());
+            validated.add(item);
+        }
+        
+        log.info("Bulk validated {} of {} worker receipts and updated {} worker payments to PAYMENT_INITIATED",
+                validated.size(), transactionReferences.size(), updatedPayments);
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("validated", validated);
+        result.put("failed", failed);
+        result.put("validatedCount", validated.size());
+        result.put("failedCount", failed.size());
+        result.put("updatedPaymentRecords", updatedPayments);
+        return result;
+    }
+
+    private static Map<String, Object> validatedEventPayload(EmployerPaymentReceipt receipt) {
+        return Map.of(
+                "workerReceiptNumber", receipt.getWorkerReceiptNumber(),
+                "transactionReference", receipt.getTransactionReference(),
+                "validatedBy", receipt.getValidatedBy(),
+                "totalAmount", receipt.getTotalAmount());
+    }
+
+    /**
+     * Fills in the validation details on the existing PENDING employer receipt, or builds a new one
+     * from the worker receipt when none exists (fallback if auto-creation failed). Not saved.
+     */
+    private EmployerPaymentReceipt applyValidation(EmployerPaymentReceipt existing, WorkerPaymentReceipt workerReceipt,
+                                                   String transactionReference, String validatedBy) {
+        EmployerPaymentReceipt employerReceipt = existing;
+        if (employerReceipt == null) {
+            employerReceipt = new EmployerPaymentReceipt();
+            employerReceipt.setEmployerReceiptNumber(referenceNumberService.next(ReferenceNumberFormat.EMPLOYER_RECEIPT));
+            employerReceipt.setWorkerReceiptNumber(workerReceipt.getReceiptNumber());
+            employerReceipt.setEmployerId(workerReceipt.getEmployerId());
+            employerReceipt.setToliId(workerReceipt.getToliId());
+            employerReceipt.setTotalRecords(workerReceipt.getTotalRecords());
+            employerReceipt.setTotalAmount(workerReceipt.getTotalAmount());
+        }
+        employerReceipt.setTransactionReference(transactionReference);
+        employerReceipt.setValidatedBy(validatedBy);
+        employerReceipt.setValidatedAt(LocalDateTime.now());
+        employerReceipt.setStatus("SEND TO BOARD");
+        return employerReceipt;
     }
 
     public EmployerPaymentReceipt createPendingEmployerReceipt(WorkerPaymentReceipt workerReceipt) {
@@ -213,7 +293,7 @@ public class EmployerPaymentReceiptService {
         
         // Create employer receipt with PENDING status
         EmployerPaymentReceipt employerReceipt = new EmployerPaymentReceipt();
-        employerReceipt.setEmployerReceiptNumber(generateEmployerReceiptNumber());
+        employerReceipt.setEmployerReceiptNumber(referenceNumberService.next(ReferenceNumberFormat.EMPLOYER_RECEIPT));
         employerReceipt.setWorkerReceiptNumber(workerReceipt.getReceiptNumber());
         employerReceipt.setEmployerId(workerReceipt.getEmployerId());
         employerReceipt.setToliId(workerReceipt.getToliId());
@@ -233,12 +313,42 @@ public class EmployerPaymentReceiptService {
         return savedReceipt;
     }
     
-    private String generateEmployerReceiptNumber() {
-        // Generate employer receipt number in format: EMP-YYYYMMDD-HHMMSS-XXX
-        LocalDateTime now = LocalDateTime.now();
-        String dateTime = now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
+    /**
+     * Hands a processed worker receipt to the employer: creates the pending employer receipt and
+     * moves the worker receipt and its payments to PAYMENT_INITIATED. Safe to repeat, since an
+     * existing employer receipt is reused.
+     *
+     * @throws IllegalArgumentException if the worker receipt does not exist
+     */
+    public Map<String, Object> sendWorkerReceiptToEmployer(String receiptNumber) {
+        log.info("Sending worker receipt {} to employer for validation", receiptNumber);
+        
+        WorkerPaymentReceipt workerReceipt = workerReceiptService.findByReceiptNumber(receiptNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Worker receipt not found"));
         
-        return "EMP-" + dateTime + "-" + sequence;
+        EmployerPaymentReceipt employerReceipt = createPendingEmployerReceipt(workerReceipt);
+        
+        // Update worker receipt status to PAYMENT_INITIATED
+        workerReceiptService.updateStatus(receiptNumber, "PAYMENT_INITIATED");
+        outbox.append(ReceiptEventType.WORKER_RECEIPT_SENT_TO_EMPLOYER, receiptNumber,
+                Map.of("employerReceiptNumber", employerReceipt.getEmployerReceiptNumber()));
+        log.info("Updated worker receipt {} status to PAYMENT_INITIATED", receiptNumber);
+        
+        // Update all related worker payment records to PAYMENT_INITIATED
+        int updatedPayments = paymentTransitions.transitionReceipts(List.of(receiptNumber),
+                List.of("VALIDATED", "PAYMENT_REQUESTED"), "PAYMENT_INITIATED");
+        log.info("Updated {} worker payment records to PAYMENT_INITIATED for receipt {}", updatedPayments, receiptNumber);
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("message", "Worker receipt sent to employer successfully");
+        result.put("workerReceiptNumber", receiptNumber);
+        result.put("employerReceiptNumber", employerReceipt.getEmployerReceiptNumber());
+        result.put("workerReceiptStatus", "PAYMENT_INITIATED");
+        result.put("employerReceiptStatus", "PENDING");
+        result.put("totalRecords", employerReceipt.getTotalRecords());
+        result.put("totalAmount", employerReceipt.getTotalAmount());
+        result.put("updatedPaymentRecords", updatedPayments);
+        return result;
     }
+    
 }
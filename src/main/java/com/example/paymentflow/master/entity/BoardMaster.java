@@ -15,6 +15,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -24,7 +25,8 @@ import jakarta.persistence.Table;
 public class BoardMaster extends AbstractAuditableEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_master_seq")
+    @SequenceGenerator(name = "board_master_seq", sequenceName = "board_master_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "board_id", nullable = false, unique = true, length = 64)
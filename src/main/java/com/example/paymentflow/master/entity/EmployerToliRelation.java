@@ -14,7 +14,8 @@ import java.util.Map;
 public class EmployerToliRelation extends AbstractAuditableEntity<Long> {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employer_toli_relation_seq")
+    @SequenceGenerator(name = "employer_toli_relation_seq", sequenceName = "employer_toli_relation_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "employer_id", nullable = false, length = 64)
@@ -15,6 +15,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -26,7 +27,8 @@ import jakarta.validation.constraints.Size;
 public class ToliMaster extends AbstractAuditableEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "toli_master_seq")
+    @SequenceGenerator(name = "toli_master_seq", sequenceName = "toli_master_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "board_id", nullable = false, length = 64)
@@ -15,6 +15,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -28,7 +29,8 @@ import jakarta.validation.constraints.Size;
 public class WorkerMaster extends AbstractAuditableEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "worker_master_seq")
+    @SequenceGenerator(name = "worker_master_seq", sequenceName = "worker_master_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "board_id", nullable = false, length = 64)
@@ -1,43 +1,29 @@
 package com.example.paymentflow.master.util;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.paymentflow.master.entity.BoardMaster;
 import com.example.paymentflow.master.entity.EmployerMaster;
 import com.example.paymentflow.master.entity.ToliMaster;
 import com.example.paymentflow.master.entity.WorkerMaster;
+import com.example.paymentflow.utilities.file.RowSource;
+import com.example.paymentflow.utilities.file.RowSources;
 
 public class MasterFileParser {
 
-    private static final DataFormatter DATA_FORMATTER = new DataFormatter();
-
     public static List<ToliMaster> parseToliCsv(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<ToliMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
+        try (RowSource rows = RowSources.openCsv(file)) {
+            rows.forEachRow(withHeader(record -> {
                 ToliMaster entity = new ToliMaster();
                 entity.setBoardId(boardId);
                 entity.setEmployerId(employerId);
@@ -69,7 +55,7 @@ public class MasterFileParser {
                     entity.setUpdatedAt(updatedAt);
                 }
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
@@ -77,15 +63,8 @@ public class MasterFileParser {
     public static List<ToliMaster> parseToliXls(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<ToliMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
+        try (RowSource rows = RowSources.openSpreadsheet(file, false)) {
+            rows.forEachRow(skipHeader((rowIndex, row) -> {
                 ToliMaster entity = new ToliMaster();
                 entity.setBoardId(boardId);
                 entity.setEmployerId(employerId);
@@ -108,7 +87,7 @@ public class MasterFileParser {
                     entity.setUpdatedAt(updatedAt);
                 }
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
@@ -116,10 +95,8 @@ public class MasterFileParser {
     public static List<WorkerMaster> parseWorkerCsv(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<WorkerMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
+        try (RowSource rows = RowSources.openCsv(file)) {
+            rows.forEachRow(withHeader(record -> {
                 WorkerMaster entity = new WorkerMaster();
                 String boardIdFromFile = getOptionalValue(record, "board_id");
                 entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
@@ -171,7 +148,7 @@ public class MasterFileParser {
                     entity.setUpdatedAt(updatedAt);
                 }
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
@@ -179,19 +156,17 @@ public class MasterFileParser {
     public static List<WorkerMaster> parseWorkerXls(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<WorkerMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (!rowIterator.hasNext()) {
-                return list;
-            }
-            Row headerRow = rowIterator.next();
-            Map<String, Integer> headerIndex = buildHeaderIndex(headerRow);
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
+        Map<String, Integer> headerIndex = new HashMap<>();
+        boolean[] headerSeen = {false};
+        try (RowSource rows = RowSources.openSpreadsheet(file, false)) {
+            rows.forEachRow((rowIndex, row) -> {
+                if (!headerSeen[0]) {
+                    headerSeen[0] = true;
+                    headerIndex.putAll(buildHeaderIndex(row));
+                    return;
+                }
                 if (isRowBlank(row)) {
-                    continue;
+                    return;
                 }
                 WorkerMaster entity = new WorkerMaster();
                 String boardIdFromFile = getOptionalCellValue(row, headerIndex, "board_id");
@@ -243,7 +218,7 @@ public class MasterFileParser {
                     entity.setUpdatedAt(updatedAt);
                 }
                 list.add(entity);
-            }
+            });
         }
         return list;
     }
@@ -251,10 +226,8 @@ public class MasterFileParser {
     public static List<BoardMaster> parseBoardCsv(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<BoardMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
+        try (RowSource rows = RowSources.openCsv(file)) {
+            rows.forEachRow(withHeader(record -> {
                 BoardMaster entity = new BoardMaster();
                 String boardIdFromFile = getOptionalValue(record, "board_id");
                 entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
@@ -265,7 +238,7 @@ public class MasterFileParser {
                 entity.setAddress(getOptionalValue(record, "address"));
                 // ... map other fields as needed ...
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
@@ -273,15 +246,8 @@ public class MasterFileParser {
     public static List<BoardMaster> parseBoardXls(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<BoardMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
+        try (RowSource rows = RowSources.openSpreadsheet(file, false)) {
+            rows.forEachRow(skipHeader((rowIndex, row) -> {
                 BoardMaster entity = new BoardMaster();
                 String boardIdFromFile = getCellValue(row, 0);
                 entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
@@ -292,7 +258,7 @@ public class MasterFileParser {
                 entity.setAddress(getCellValue(row, 5));
                 // ... map other fields as needed ...
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
@@ -300,10 +266,8 @@ public class MasterFileParser {
     public static List<EmployerMaster> parseEmployerCsv(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<EmployerMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
+        try (RowSource rows = RowSources.openCsv(file)) {
+            rows.forEachRow(withHeader(record -> {
                 EmployerMaster entity = new EmployerMaster();
                 String boardIdFromFile = getOptionalValue(record, "board_id");
                 entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
@@ -332,7 +296,7 @@ public class MasterFileParser {
                     entity.setUpdatedAt(updatedAt);
                 }
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
@@ -340,15 +304,8 @@ public class MasterFileParser {
     public static List<EmployerMaster> parseEmployerXls(MultipartFile file, String boardId, String employerId)
             throws Exception {
         List<EmployerMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
+        try (RowSource rows = RowSources.openSpreadsheet(file, false)) {
+            rows.forEachRow(skipHeader((rowIndex, row) -> {
                 EmployerMaster entity = new EmployerMaster();
                 String boardIdFromFile = getCellValue(row, 14);
                 entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
@@ -377,12 +334,64 @@ public class MasterFileParser {
                     entity.setUpdatedAt(updatedAt);
                 }
                 list.add(entity);
-            }
+            }));
         }
         return list;
     }
 
-    private static String getValue(CSVRecord record, String... headerOptions) {
+    /**
+     * Wraps a handler so the first row is read as the CSV header and every following row is
+     * exposed by column name.
+     */
+    private static RowSource.RowHandler withHeader(HeaderRecordHandler handler) {
+        Map<String, Integer> header = new HashMap<>();
+        boolean[] headerSeen = {false};
+        return (rowIndex, row) -> {
+            if (!headerSeen[0]) {
+                headerSeen[0] = true;
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] != null) {
+                        header.putIfAbsent(row[i], i);
+                    }
+                }
+                return;
+            }
+            handler.handle(new HeaderRecord(header, row));
+        };
+    }
+
+    @FunctionalInterface
+    private interface HeaderRecordHandler {
+        void handle(HeaderRecord record) throws Exception;
+    }
+
+    /**
+     * A CSV data row addressed by header name.
+     */
+    private static final class HeaderRecord {
+        private final Map<String, Integer> header;
+        private final String[] values;
+
+        private HeaderRecord(Map<String, Integer> header, String[] values) {
+            this.header = header;
+            this.values = values;
+        }
+
+        boolean isMapped(String name) {
+            return header.containsKey(name);
+        }
+
+        boolean isSet(String name) {
+            Integer idx = header.get(name);
+            return idx != null && idx < values.length;
+        }
+
+        String get(String name) {
+            return values[header.get(name)];
+        }
+    }
+
+    private static String getValue(HeaderRecord record, String... headerOptions) {
         for (String header : headerOptions) {
             if (header != null && record.isMapped(header) && record.isSet(header)) {
                 String value = record.get(header);
@@ -395,7 +404,7 @@ public class MasterFileParser {
                 "Missing required column. Expected one of " + String.join(", ", headerOptions));
     }
 
-    private static String getOptionalValue(CSVRecord record, String... headerOptions) {
+    private static String getOptionalValue(HeaderRecord record, String... headerOptions) {
         for (String header : headerOptions) {
             if (header != null && record.isMapped(header) && record.isSet(header)) {
                 String value = record.get(header);
@@ -439,19 +448,29 @@ public class MasterFileParser {
         throw new IllegalArgumentException("Unable to parse date value: " + value);
     }
 
-    private static String getCellValue(Row row, int cellIndex) {
-        if (row == null) {
-            return null;
-        }
-        Cell cell = row.getCell(cellIndex);
-        if (cell == null) {
+    /**
+     * Wraps a handler so the first (header) row of the sheet is ignored.
+     */
+    private static RowSource.RowHandler skipHeader(RowSource.RowHandler handler) {
+        boolean[] headerSeen = {false};
+        return (rowIndex, row) -> {
+            if (!headerSeen[0]) {
+                headerSeen[0] = true;
+                return;
+            }
+            handler.handle(rowIndex, row);
+        };
+    }
+
+    private static String getCellValue(String[] row, int cellIndex) {
+        if (row == null || cellIndex >= row.length) {
             return null;
         }
-        String value = DATA_FORMATTER.formatCellValue(cell);
+        String value = row[cellIndex];
         return value != null && !value.isBlank() ? value.trim() : null;
     }
 
-    private static String requireCellValue(Row row, int cellIndex, String columnName) {
+    private static String requireCellValue(String[] row, int cellIndex, String columnName) {
         String value = getCellValue(row, cellIndex);
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException(
@@ -460,13 +479,12 @@ public class MasterFileParser {
         return value;
     }
 
-    private static Map<String, Integer> buildHeaderIndex(Row headerRow) {
+    private static Map<String, Integer> buildHeaderIndex(String[] headerRow) {
         Map<String, Integer> headerIndex = new HashMap<>();
         if (headerRow == null) {
             return headerIndex;
         }
-        short lastCellNum = headerRow.getLastCellNum();
-        for (int i = 0; i < lastCellNum; i++) {
+        for (int i = 0; i < headerRow.length; i++) {
             String header = getCellValue(headerRow, i);
             if (header == null || header.isBlank()) {
                 continue;
@@ -484,7 +502,7 @@ public class MasterFileParser {
         return header.trim().toLowerCase().replaceAll("[^a-z0-9]+", "_");
     }
 
-    private static String getOptionalCellValue(Row row, Map<String, Integer> headerIndex, String... headerOptions) {
+    private static String getOptionalCellValue(String[] row, Map<String, Integer> headerIndex, String... headerOptions) {
         if (headerIndex == null || headerIndex.isEmpty()) {
             return null;
         }
@@ -500,7 +518,7 @@ public class MasterFileParser {
         return null;
     }
 
-    private static String requireCellValue(Row row, Map<String, Integer> headerIndex, String... headerOptions) {
+    private static String requireCellValue(String[] row, Map<String, Integer> headerIndex, String... headerOptions) {
         String value = getOptionalCellValue(row, headerIndex, headerOptions);
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException(
@@ -509,12 +527,11 @@ public class MasterFileParser {
         return value;
     }
 
-    private static boolean isRowBlank(Row row) {
+    private static boolean isRowBlank(String[] row) {
         if (row == null) {
             return true;
         }
-        short lastCellNum = row.getLastCellNum();
-        for (int i = 0; i < lastCellNum; i++) {
+        for (int i = 0; i < row.length; i++) {
             String value = getCellValue(row, i);
             if (value != null && !value.isBlank()) {
                 return false;
@@ -0,0 +1,160 @@
+package com.example.paymentflow.mt940.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mt940")
+public class Mt940Properties {
+
+    /**
+     * Whether this instance watches the inbox and ingests statement files.
+     */
+    private boolean enabled = true;
+
+    private String baseDir = "mt940/";
+
+    /**
+     * Where producers drop statement files. Write to a dot-file or a .tmp/.part name and rename
+     * when complete; those names are ignored.
+     */
+    private String inboxDir = "mt940/inbox/";
+
+    /**
+     * Each instance claims files into its own subdirectory here, named after the instance.
+     */
+    private String processingDir = "mt940/processing/";
+
+    private String archiveDir = "mt940/archive/";
+
+    private String quarantineDir = "mt940/quarantine/";
+
+    /**
+     * Full inbox scan interval, in milliseconds; catches files the watch service missed.
+     */
+    private long rescanIntervalMs = 30000;
+
+    /**
+     * Files modified more recently than this are assumed to be still written and left for a
+     * later scan.
+     */
+    private long minFileAgeMs = 2000;
+
+    /**
+     * An instance refreshes the timestamp of its processing subdirectory on every scan. Once that
+     * is older than this, in milliseconds, the instance is taken to be gone and its files are moved
+     * back to the inbox. Must be well above {@code rescan-interval-ms}.
+     */
+    private long processingLeaseMs = 300000;
+
+    /**
+     * Files ingested in parallel.
+     */
+    private int concurrency = 2;
+
+    /**
+     * Files that may wait for an ingest thread; the rest stay in the inbox until the next scan.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Statement lines buffered before they are written with one COPY.
+     */
+    private int copyBatchSize = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getBaseDir() {
+        return baseDir;
+    }
+
+    public void setBaseDir(String baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    public String getInboxDir() {
+        return inboxDir;
+    }
+
+    public void setInboxDir(String inboxDir) {
+        this.inboxDir = inboxDir;
+    }
+
+    public String getProcessingDir() {
+        return processingDir;
+    }
+
+    public void setProcessingDir(String processingDir) {
+        this.processingDir = processingDir;
+    }
+
+    public String getArchiveDir() {
+        return archiveDir;
+    }
+
+    public void setArchiveDir(String archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+
+    public String getQuarantineDir() {
+        return quarantineDir;
+    }
+
+    public void setQuarantineDir(String quarantineDir) {
+        this.quarantineDir = quarantineDir;
+    }
+
+    public long getRescanIntervalMs() {
+        return rescanIntervalMs;
+    }
+
+    public void setRescanIntervalMs(long rescanIntervalMs) {
+        this.rescanIntervalMs = rescanIntervalMs;
+    }
+
+    public long getMinFileAgeMs() {
+        return minFileAgeMs;
+    }
+
+    public void setMinFileAgeMs(long minFileAgeMs) {
+        this.minFileAgeMs = minFileAgeMs;
+    }
+
+    public long getProcessingLeaseMs() {
+        return processingLeaseMs;
+    }
+
+    public void setProcessingLeaseMs(long processingLeaseMs) {
+        this.processingLeaseMs = processingLeaseMs;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getCopyBatchSize() {
+        return copyBatchSize;
+    }
+
+    public void setCopyBatchSize(int copyBatchSize) {
+        this.copyBatchSize = copyBatchSize;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.paymentflow.mt940.dao;
+
+import com.example.paymentflow.common.jdbc.PgCopySupport;
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.mt940.entity.Mt940StatementLine;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes ingested MT940 files and their statement lines. Everything runs on the caller's
+ * transaction, so a file's row and its lines commit or roll back together.
+ * <p>
+ * Lines are streamed with {@code COPY ... FROM STDIN}, as in {@code WorkerUploadedDataBulkLoader}.
+ * PostgreSQL only, like the {@code ON CONFLICT} registration of a file.
+ */
+@Repository
+public class Mt940StatementDao {
+
+    private static final String REGISTER_TEMPLATE = "sql/mt940/mt940_statement_files_register.sql";
+    private static final String COMPLETE_TEMPLATE = "sql/mt940/mt940_statement_files_complete.sql";
+
+    private static final String COLUMNS = "file_id, statement_reference, account_id, statement_number, line_number, "
+            + "value_date, entry_date, dc_mark, funds_code, amount, transaction_type, identification_code, "
+            + "customer_reference, bank_reference, supplementary_details, narrative";
+
+    private static final String COPY_SQL = "COPY mt940_statement_lines (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public Mt940StatementDao(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                             SqlTemplateLoader sqlTemplates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * Records a file about to be loaded.
+     *
+     * @return the file's id, or empty if a file with the same content was already ingested
+     */
+    public Optional<Long> registerFile(String fileName, String sha256, long sizeBytes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fileName", fileName)
+                .addValue("sha256", sha256)
+                .addValue("sizeBytes", sizeBytes);
+        List<Long> ids = namedJdbcTemplate.queryForList(sqlTemplates.load(REGISTER_TEMPLATE), params, Long.class);
+        return ids.stream().findFirst();
+    }
+
+    public void completeFile(long fileId, int statementCount, long lineCount) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", fileId)
+                .addValue("statementCount", statementCount)
+                .addValue("lineCount", lineCount);
+        namedJdbcTemplate.update(sqlTemplates.load(COMPLETE_TEMPLATE), params);
+    }
+
+    /**
+     * Inserts the lines in one COPY round trip.
+     *
+     * @return number of lines inserted
+     * @throws IllegalStateException if the connection is not a PostgreSQL connection
+     */
+    public int insertLines(long fileId, List<Mt940StatementLine> lines) {
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!PgCopySupport.isPostgres(connection)) {
+                throw new IllegalStateException("Loading mt940_statement_lines requires PostgreSQL");
+            }
+            return copy(connection, fileId, lines);
+        });
+    }
+
+    private int copy(Connection connection, long fileId, List<Mt940StatementLine> lines) throws SQLException {
+        StringBuilder csv = new StringBuilder(lines.size() * 160);
+        for (Mt940StatementLine line : lines) {
+            Object[] values = values(fileId, line);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                PgCopySupport.appendValue(csv, values[i]);
+            }
+            csv.append('\n');
+        }
+        return (int) PgCopySupport.copyIn(connection, COPY_SQL, new StringReader(csv.toString()));
+    }
+
+    /**
+     * Column values in {@link #COLUMNS} order.
+     */
+    private static Object[] values(long fileId, Mt940StatementLine line) {
+        return new Object[] {
+                fileId,
+                line.statementReference(),
+                line.accountId(),
+                line.statementNumber(),
+                line.lineNumber(),
+                line.valueDate(),
+                line.entryDate(),
+                line.dcMark(),
+                line.fundsCode(),
+                line.amount(),
+                line.transactionType(),
+                line.identificationCode(),
+                line.customerReference(),
+                line.bankReference(),
+                line.supplementaryDetails(),
+                line.narrative()
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.paymentflow.mt940.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One statement line of an MT940 message: a tag 61 entry and the tag 86 narrative that follows it,
+ * with the statement-level reference (20), account (25) and statement number (28C) repeated.
+ *
+ * @param lineNumber 1-based position of the line within its statement
+ * @param entryDate  entry date as sent (MMDD), or null
+ * @param dcMark     debit/credit mark: C, D, RC or RD
+ */
+public record Mt940StatementLine(String statementReference,
+                                 String accountId,
+                                 String statementNumber,
+                                 int lineNumber,
+                                 LocalDate valueDate,
+                                 String entryDate,
+                                 String dcMark,
+                                 String fundsCode,
+                                 BigDecimal amount,
+                                 String transactionType,
+                                 String identificationCode,
+                                 String customerReference,
+                                 String bankReference,
+                                 String supplementaryDetails,
+                                 String narrative) {
+
+    public Mt940StatementLine withNarrative(String narrative) {
+        return new Mt940StatementLine(statementReference, accountId, statementNumber, lineNumber, valueDate,
+                entryDate, dcMark, fundsCode, amount, transactionType, identificationCode, customerReference,
+                bankReference, supplementaryDetails, narrative);
+    }
+}
@@ -0,0 +1,464 @@
+package com.example.paymentflow.mt940.service;
+
+import com.example.paymentflow.common.concurrency.BackgroundConnectionUser;
+import com.example.paymentflow.common.lease.Leases;
+import com.example.paymentflow.mt940.config.Mt940Properties;
+import com.example.paymentflow.mt940.dao.Mt940StatementDao;
+import com.example.paymentflow.mt940.entity.Mt940StatementLine;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Watches the MT940 inbox and loads every statement file dropped into it.
+ * <p>
+ * A file is claimed by an atomic move from the inbox into this instance's own subdirectory of the
+ * processing directory, so several instances can share one inbox and each file is taken once. It is then streamed through
+ * {@link Mt940StatementParser} and its lines written with COPY in batches of
+ * {@code mt940.copy-batch-size}, all in one transaction, and finally moved to the archive; a file
+ * that fails is moved to quarantine instead. Memory per file is bounded by one message and one
+ * batch of lines, whatever the file size.
+ * <p>
+ * The watch service gives low latency; a periodic full scan picks up files whose events were
+ * missed or that were still being written. Every scan also refreshes the timestamp of this
+ * instance's processing subdirectory; files in a subdirectory that has not been refreshed for
+ * {@code mt940.processing-lease-ms} belong to an instance that is gone and are moved back to the
+ * inbox. Files are recognised by content hash, so a file whose load committed just before a crash
+ * is archived again without loading twice.
+ * <p>
+ * Every move gives the file a fresh unique name ({@code <millis>-<random>-<original name>}) rather
+ * than checking whether the target exists, so a move never replaces another file; the original
+ * name is what gets registered.
+ * <p>
+ * Metrics: {@code mt940.file.duration} (timer, tagged {@code outcome} archived, duplicate or
+ * quarantined), {@code mt940.file.throughput} (lines per second per file),
+ * {@code mt940.statements.ingested} and {@code mt940.lines.ingested}.
+ */
+@Service
+public class Mt940IngestionService implements BackgroundConnectionUser {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(Mt940IngestionService.class);
+
+    /** Prefix {@link #move} puts in front of the original file name. */
+    private static final Pattern UNIQUE_PREFIX = Pattern.compile("^\\d+-[0-9a-f]{8}-");
+
+    private final Mt940Properties properties;
+    private final Mt940StatementParser parser;
+    private final Mt940StatementDao dao;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter statementsIngested;
+    private final Counter linesIngested;
+    private final DistributionSummary throughput;
+
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    private final String instanceId;
+    private volatile boolean running;
+    private Path inbox;
+    private Path processingRoot;
+    private Path processing;
+    private Path archive;
+    private Path quarantine;
+    private ThreadPoolExecutor executor;
+    private WatchService watchService;
+
+    /**
+     * Outcome of loading one file.
+     *
+     * @param duplicate true if a file with the same content was already ingested
+     */
+    public record IngestResult(int statements, long lines, boolean duplicate) {
+    }
+
+    public Mt940IngestionService(Mt940Properties properties,
+                                 Mt940StatementParser parser,
+                                 Mt940StatementDao dao,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.parser = parser;
+        this.dao = dao;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.instanceId = Leases.newHolderId();
+        this.statementsIngested = Counter.builder("mt940.statements.ingested")
+                .description("MT940 statements loaded")
+                .register(meterRegistry);
+        this.linesIngested = Counter.builder("mt940.lines.ingested")
+                .description("MT940 statement lines loaded")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("mt940.file.throughput")
+                .description("Statement lines loaded per second, per file")
+                .baseUnit("lines/s")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("MT940 ingestion is disabled");
+            return;
+        }
+        try {
+            inbox = createDirectory(properties.getInboxDir());
+            processingRoot = createDirectory(properties.getProcessingDir());
+            processing = Files.createDirectories(processingRoot.resolve(instanceId));
+            archive = createDirectory(properties.getArchiveDir());
+            quarantine = createDirectory(properties.getQuarantineDir());
+            recoverProcessing();
+            watchService = inbox.getFileSystem().newWatchService();
+            inbox.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("MT940 ingestion not started: cannot prepare directories under {}", properties.getBaseDir(), e);
+            return;
+        }
+        if (properties.getProcessingLeaseMs() <= properties.getRescanIntervalMs()) {
+            log.warn("mt940.processing-lease-ms ({}) is not above mt940.rescan-interval-ms ({}); files of live "
+                    + "instances may be taken back", properties.getProcessingLeaseMs(), properties.getRescanIntervalMs());
+        }
+        int concurrency = Math.max(1, properties.getConcurrency());
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                Thread.ofPlatform().name("mt940-ingest-", 1).daemon(true).factory());
+        running = true;
+        Thread.ofPlatform().name("mt940-watch").daemon(true).start(this::watchInbox);
+        log.info("Watching MT940 inbox {}", inbox);
+        rescan();
+    }
+
+    /**
+     * Full inbox scan; the safety net for missed watch events and files that were still being
+     * written when their event arrived. Also renews this instance's processing lease and takes
+     * back files from instances whose lease has expired.
+     */
+    @Scheduled(fixedDelayString = "${mt940.rescan-interval-ms:30000}")
+    public void rescan() {
+        if (!running) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(processing, FileTime.fromMillis(System.currentTimeMillis()));
+            recoverProcessing();
+        } catch (IOException e) {
+            log.error("Failed to renew or recover MT940 processing directories under {}", processingRoot, e);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox)) {
+            for (Path file : files) {
+                submit(file);
+            }
+        } catch (IOException e) {
+            log.error("Failed to scan MT940 inbox {}", inbox, e);
+        }
+    }
+
+    /**
+     * One connection per ingestion thread; the watcher and rescan only touch the file system.
+     */
+    @Override
+    public int maxConnections() {
+        return properties.isEnabled() ? Math.max(1, properties.getConcurrency()) : 0;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("Failed to close MT940 inbox watch service", e);
+            }
+        }
+        if (executor != null) {
+            // A file interrupted mid-load rolls back and is recovered from processing on restart
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (processing != null) {
+            try {
+                Files.deleteIfExists(processing);
+            } catch (DirectoryNotEmptyException e) {
+                log.info("MT940 files still in {}; another instance takes them back once the lease expires", processing);
+            } catch (IOException e) {
+                log.warn("Failed to remove MT940 processing directory {}", processing, e);
+            }
+        }
+    }
+
+    private void watchInbox() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    rescan();
+                } else {
+                    submit(inbox.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                log.error("MT940 inbox {} is no longer accessible; relying on periodic scans", inbox);
+                return;
+            }
+        }
+    }
+
+    private void submit(Path file) {
+        String name = file.getFileName().toString();
+        // Dot-files and .tmp/.part names are still being written by the producer
+        if (name.startsWith(".") || name.endsWith(".tmp") || name.endsWith(".part")
+                || !Files.isRegularFile(file) || !inFlight.add(file)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    claimAndIngest(file);
+                } finally {
+                    inFlight.remove(file);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down: the file stays in the inbox for the next scan
+            inFlight.remove(file);
+        }
+    }
+
+    private void claimAndIngest(Path file) {
+        Path claimed;
+        try {
+            long age = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+            if (age < properties.getMinFileAgeMs()) {
+                return;
+            }
+            claimed = move(file, processing);
+        } catch (NoSuchFileException e) {
+            return; // claimed by another instance
+        } catch (IOException e) {
+            log.warn("Could not claim MT940 file {}: {}", file, e.getMessage());
+            return;
+        }
+        ingest(claimed);
+    }
+
+    /**
+     * Loads a claimed file and archives it, or quarantines it if it cannot be loaded.
+     */
+    private void ingest(Path file) {
+        String name = originalName(file);
+        long started = System.nanoTime();
+        String outcome;
+        try {
+            long size = Files.size(file);
+            String sha256 = sha256(file);
+            IngestResult result = transactionTemplate.execute(status -> load(file, name, sha256, size));
+            move(file, archive);
+            long elapsedNanos = System.nanoTime() - started;
+            if (result.duplicate()) {
+                outcome = "duplicate";
+                log.info("MT940 file {} was already ingested (sha256 {}); archived without loading", name, sha256);
+            } else {
+                outcome = "archived";
+                double seconds = Math.max(elapsedNanos / 1e9, 1e-3);
+                statementsIngested.increment(result.statements());
+                linesIngested.increment(result.lines());
+                throughput.record(result.lines() / seconds);
+                log.info("Ingested MT940 file {}: {} statements, {} lines, {} bytes in {} ms ({} lines/s)",
+                        name, result.statements(), result.lines(), size, elapsedNanos / 1_000_000,
+                        Math.round(result.lines() / seconds));
+            }
+        } catch (Exception e) {
+            outcome = "quarantined";
+            log.error("Failed to ingest MT940 file {}; moving it to quarantine", name, e);
+            try {
+                move(file, quarantine);
+            } catch (IOException moveFailure) {
+                log.error("Failed to quarantine MT940 file {}", file, moveFailure);
+            }
+        }
+        Timer.builder("mt940.file.duration")
+                .description("Time to ingest one MT940 file")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private IngestResult load(Path file, String name, String sha256, long size) {
+        Optional<Long> registered = dao.registerFile(name, sha256, size);
+        if (registered.isEmpty()) {
+            return new IngestResult(0, 0, true);
+        }
+        long fileId = registered.get();
+        int batchSize = Math.max(1, properties.getCopyBatchSize());
+        List<Mt940StatementLine> batch = new ArrayList<>(batchSize);
+        AtomicLong lines = new AtomicLong();
+        // SWIFT FIN is ASCII; Latin-1 reads any stray byte without failing the decode
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.ISO_8859_1))) {
+            int statements = parser.parse(reader, line -> {
+                batch.add(line);
+                if (batch.size() >= batchSize) {
+                    lines.addAndGet(dao.insertLines(fileId, batch));
+                    batch.clear();
+                }
+            });
+            lines.addAndGet(dao.insertLines(fileId, batch));
+            dao.completeFile(fileId, statements, lines.get());
+            return new IngestResult(statements, lines.get(), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves the files of instances whose processing lease has expired back to the inbox. Files
+     * directly under the processing directory were claimed before per-instance subdirectories and
+     * are judged by their own timestamp.
+     */
+    private void recoverProcessing() throws IOException {
+        long cutoff = System.currentTimeMillis() - properties.getProcessingLeaseMs();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(processingRoot)) {
+            for (Path entry : entries) {
+                if (entry.equals(processing)) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(entry).toMillis() > cutoff) {
+                        continue;
+                    }
+                    if (Files.isDirectory(entry)) {
+                        recoverInstanceDirectory(entry);
+                    } else if (Files.isRegularFile(entry)) {
+                        log.info("Recovering MT940 file {} left in processing", entry.getFileName());
+                        move(entry, inbox);
+                    }
+                } catch (NoSuchFileException e) {
+                    // recovered by another instance
+                }
+            }
+        }
+    }
+
+    private void recoverInstanceDirectory(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                try {
+                    move(file, inbox);
+                    log.info("Recovering MT940 file {} left in processing by instance {}", file.getFileName(), dir.getFileName());
+                } catch (NoSuchFileException e) {
+                    // recovered by another instance
+                }
+            }
+        }
+        try {
+            Files.deleteIfExists(dir);
+        } catch (DirectoryNotEmptyException e) {
+            // something was added meanwhile; the next scan looks again
+        }
+    }
+
+    private static Path createDirectory(String dir) throws IOException {
+        return Files.createDirectories(Paths.get(dir)).toAbsolutePath();
+    }
+
+    /**
+     * Moves the file into {@code dir} under a new unique name built from its original name. A
+     * rename onto an existing file would silently replace it, so the target name is made unique
+     * up front instead of being checked. Atomic when both sides are on one file system.
+     */
+    private static Path move(Path source, Path dir) throws IOException {
+        Path target = dir.resolve(System.currentTimeMillis() + "-"
+                + UUID.randomUUID().toString().substring(0, 8) + "-" + originalName(source));
+        try {
+            return Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.warn("Atomic move from {} to {} is not supported; MT940 directories should share one file system",
+                    source.getParent(), dir);
+            return Files.move(source, target);
+        }
+    }
+
+    /**
+     * The file's name without the prefix added by {@link #move}, so repeated moves do not stack
+     * prefixes.
+     */
+    private static String originalName(Path file) {
+        return UNIQUE_PREFIX.matcher(file.getFileName().toString()).replaceFirst("");
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
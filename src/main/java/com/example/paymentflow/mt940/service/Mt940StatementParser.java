@@ -0,0 +1,145 @@
+package com.example.paymentflow.mt940.service;
+
+import com.example.paymentflow.mt940.entity.Mt940StatementLine;
+import com.prowidesoftware.swift.io.RJEReader;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.field.Field61;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+/**
+ * Streams the statement lines out of an MT940 file.
+ * <p>
+ * The file is read with Prowide's {@link RJEReader}, which splits on the {@code $} message
+ * separator and keeps only the current message in memory, so a file with any number of
+ * statements is parsed with bounded memory. A file holding one message without separators is
+ * read as one statement. Each tag 61 is paired with the tag 86 that immediately follows it.
+ */
+@Component
+public class Mt940StatementParser {
+
+    // Field61 component numbers
+    private static final int VALUE_DATE = 1;
+    private static final int ENTRY_DATE = 2;
+    private static final int DC_MARK = 3;
+    private static final int FUNDS_CODE = 4;
+    private static final int AMOUNT = 5;
+    private static final int TRANSACTION_TYPE = 6;
+    private static final int IDENTIFICATION_CODE = 7;
+    private static final int CUSTOMER_REFERENCE = 8;
+    private static final int BANK_REFERENCE = 9;
+    private static final int SUPPLEMENTARY_DETAILS = 10;
+
+    private static final DateTimeFormatter VALUE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyMMdd");
+
+    /**
+     * Thrown for content that is not a readable MT940 message.
+     */
+    public static class Mt940FormatException extends IOException {
+        public Mt940FormatException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Parses every statement and hands each line to {@code sink} in file order.
+     *
+     * @return number of statements read
+     * @throws Mt940FormatException if a message is not a valid MT940 or a line cannot be read
+     */
+    public int parse(Reader input, Consumer<Mt940StatementLine> sink) throws IOException {
+        RJEReader reader = new RJEReader(input);
+        int statements = 0;
+        while (reader.hasNext()) {
+            String fin = reader.next();
+            if (fin == null || fin.isBlank()) {
+                continue;
+            }
+            statements++;
+            parseStatement(fin, statements, sink);
+        }
+        return statements;
+    }
+
+    private void parseStatement(String fin, int statementIndex, Consumer<Mt940StatementLine> sink)
+            throws Mt940FormatException {
+        SwiftBlock4 block4 = new MT940(fin).getSwiftMessage().getBlock4();
+        if (block4 == null || block4.getTagValue("20") == null) {
+            throw new Mt940FormatException("Statement " + statementIndex + " is not a valid MT940 message");
+        }
+        String reference = block4.getTagValue("20");
+        String account = block4.getTagValue("25") != null ? block4.getTagValue("25") : block4.getTagValue("25P");
+        String statementNumber = block4.getTagValue("28C");
+
+        Mt940StatementLine pending = null;
+        int lineNumber = 0;
+        for (Tag tag : block4.getTags()) {
+            switch (tag.getName()) {
+                case "61" -> {
+                    if (pending != null) {
+                        sink.accept(pending);
+                    }
+                    lineNumber++;
+                    pending = toLine(new Field61(tag.getValue()), reference, account, statementNumber,
+                            statementIndex, lineNumber);
+                }
+                case "86" -> {
+                    // An 86 not preceded by a 61 is statement-level information
+                    if (pending != null) {
+                        sink.accept(pending.withNarrative(tag.getValue()));
+                        pending = null;
+                    }
+                }
+                default -> {
+                    if (pending != null) {
+                        sink.accept(pending);
+                        pending = null;
+                    }
+                }
+            }
+        }
+        if (pending != null) {
+            sink.accept(pending);
+        }
+    }
+
+    private static Mt940StatementLine toLine(Field61 field, String reference, String account, String statementNumber,
+                                             int statementIndex, int lineNumber) throws Mt940FormatException {
+        String where = "statement " + statementIndex + " line " + lineNumber;
+        String amount = field.getComponent(AMOUNT);
+        String valueDate = field.getComponent(VALUE_DATE);
+        if (amount == null || valueDate == null) {
+            throw new Mt940FormatException("Missing value date or amount in " + where);
+        }
+        try {
+            return new Mt940StatementLine(
+                    reference,
+                    account,
+                    statementNumber,
+                    lineNumber,
+                    LocalDate.parse(valueDate, VALUE_DATE_FORMAT),
+                    field.getComponent(ENTRY_DATE),
+                    field.getComponent(DC_MARK),
+                    field.getComponent(FUNDS_CODE),
+                    // SWIFT amounts use a decimal comma
+                    new BigDecimal(amount.replace(',', '.')),
+                    field.getComponent(TRANSACTION_TYPE),
+                    field.getComponent(IDENTIFICATION_CODE),
+                    field.getComponent(CUSTOMER_REFERENCE),
+                    field.getComponent(BANK_REFERENCE),
+                    field.getComponent(SUPPLEMENTARY_DETAILS),
+                    null);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new Mt940FormatException("Invalid value date or amount in " + where + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a CSV file into byte ranges that start and end on record boundaries so the ranges can be
+ * tokenized independently.
+ * <p>
+ * The split is found with one sequential pass over the raw bytes that tracks quoting with the same
+ * rules as {@link CsvTokenizer}, so line breaks inside quoted fields never become split points.
+ * The comma, quote, CR and LF bytes cannot occur inside a multi-byte UTF-8 sequence, which makes
+ * the scan safe without decoding. The pass also counts non-blank data records, giving every range
+ * the ordinal of its first record so row numbers stay globally correct.
+ */
+public final class CsvFileSplitter {
+
+    /**
+     * A slice of the file holding whole records.
+     *
+     * @param start            offset of the first byte of the range
+     * @param end              offset one past the last byte of the range
+     * @param firstRecordIndex zero-based index, among the non-blank data records of the file,
+     *                         of the first non-blank record in this range
+     */
+    public record Range(long start, long end, long firstRecordIndex) {
+    }
+
+    /**
+     * @param ranges      data ranges in file order; the header record is not part of any range
+     * @param recordCount number of non-blank data records in the file
+     */
+    public record Layout(List<Range> ranges, long recordCount) {
+    }
+
+    private CsvFileSplitter() {
+    }
+
+    /**
+     * Scans the file and cuts the data section (everything after the header record) into roughly
+     * {@code parts} ranges.
+     *
+     * @throws IOException if the file has no header record
+     */
+    public static Layout split(File file, int parts) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            Scanner scanner = new Scanner(size, Math.max(parts, 1));
+            // Scan through read-only mappings, one window at a time for files beyond a single mapping
+            for (long offset = 0; offset < size; offset += MappedFileReader.DEFAULT_WINDOW_SIZE) {
+                long length = Math.min(MappedFileReader.DEFAULT_WINDOW_SIZE, size - offset);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                for (int i = 0; i < length; i++) {
+                    scanner.accept(window.get(i), offset + i);
+                }
+            }
+            return scanner.finish(size);
+        }
+    }
+
+    /**
+     * Opens a UTF-8 reader over the range, decoding straight from a mapped buffer.
+     */
+    public static Reader openReader(File file, Range range) throws IOException {
+        return new MappedFileReader(file, range.start(), range.end());
+    }
+
+    /**
+     * Byte-level mirror of {@link CsvTokenizer}'s record grammar.
+     */
+    private static final class Scanner {
+        private static final int FIELD_START = 0;
+        private static final int UNQUOTED = 1;
+        private static final int QUOTED = 2;
+        private static final int QUOTE_IN_QUOTED = 3;
+
+        private final long partSize;
+        private final List<Range> ranges = new ArrayList<>();
+
+        private int state = FIELD_START;
+        private boolean pendingLf;
+        private boolean atRecordStart = true;
+        private boolean recordHasBytes;
+        private boolean recordNonBlank;
+
+        private boolean headerSeen;
+        private long dataRecords;
+        private long rangeStart = -1;
+        private long rangeFirstRecord;
+        private long nextCut;
+
+        private Scanner(long size, int parts) {
+            this.partSize = Math.max(size / parts, 1);
+        }
+
+        void accept(byte b, long offset) {
+            if (pendingLf) {
+                pendingLf = false;
+                if (b == '\n') {
+                    return; // second half of a CRLF terminator
+                }
+            }
+            if (atRecordStart) {
+                atRecordStart = false;
+                onRecordStart(offset);
+            }
+            recordHasBytes = true;
+
+            switch (state) {
+                case QUOTED:
+                    if (b == '"') {
+                        state = QUOTE_IN_QUOTED;
+                    }
+                    return;
+                case QUOTE_IN_QUOTED:
+                    if (b == '"') {
+                        state = QUOTED; // escaped quote
+                        return;
+                    }
+                    break; // closing quote; handle b as a delimiter or trailing text below
+                case FIELD_START:
+                    if (b == '"') {
+                        state = QUOTED;
+                        recordNonBlank = true;
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (b == ',') {
+                recordNonBlank = true;
+                state = FIELD_START;
+            } else if (b == '\n' || b == '\r') {
+                pendingLf = b == '\r';
+                endRecord();
+            } else {
+                if ((b & 0xFF) > ' ') {
+                    recordNonBlank = true;
+                }
+                state = UNQUOTED;
+            }
+        }
+
+        private void onRecordStart(long offset) {
+            if (!headerSeen) {
+                return;
+            }
+            if (rangeStart < 0) {
+                rangeStart = offset;
+                rangeFirstRecord = dataRecords;
+                nextCut = offset + partSize;
+            } else if (offset >= nextCut) {
+                ranges.add(new Range(rangeStart, offset, rangeFirstRecord));
+                rangeStart = offset;
+                rangeFirstRecord = dataRecords;
+                nextCut = offset + partSize;
+            }
+        }
+
+        private void endRecord() {
+            if (recordNonBlank) {
+                if (headerSeen) {
+                    dataRecords++;
+                } else {
+                    headerSeen = true;
+                }
+            }
+            state = FIELD_START;
+            atRecordStart = true;
+            recordHasBytes = false;
+            recordNonBlank = false;
+        }
+
+        Layout finish(long size) throws IOException {
+            if (recordHasBytes) {
+                endRecord();
+            }
+            if (!headerSeen) {
+                throw new IOException("File is empty or invalid");
+            }
+            if (rangeStart >= 0 && rangeStart < size) {
+                ranges.add(new Range(rangeStart, size, rangeFirstRecord));
+            }
+            return new Layout(List.copyOf(ranges), dataRecords);
+        }
+    }
+}
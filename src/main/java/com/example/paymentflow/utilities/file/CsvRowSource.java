@@ -0,0 +1,44 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link RowSource} over a UTF-8 CSV stream using {@link CsvTokenizer}.
+ * Blank lines are not reported, matching how empty rows are absent from a spreadsheet.
+ */
+public class CsvRowSource implements RowSource {
+
+    private final CsvTokenizer tokenizer;
+
+    public CsvRowSource(InputStream in) {
+        this.tokenizer = new CsvTokenizer(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a stored file through a memory mapping instead of a stream.
+     */
+    public CsvRowSource(File file) throws IOException {
+        this.tokenizer = new CsvTokenizer(new MappedFileReader(file));
+    }
+
+    @Override
+    public void forEachRow(RowHandler handler) throws Exception {
+        int rowIndex = 0;
+        String[] record;
+        while ((record = tokenizer.next()) != null) {
+            if (!tokenizer.isBlankLine()) {
+                handler.handle(rowIndex, record);
+            }
+            rowIndex++;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        tokenizer.close();
+    }
+}
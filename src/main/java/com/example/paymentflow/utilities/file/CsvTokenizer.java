@@ -0,0 +1,221 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * RFC-4180 CSV tokenizer working directly on a char buffer.
+ * <p>
+ * Fields are separated by commas and records by CRLF, LF or a lone CR. A field that starts with
+ * a double quote may contain commas, line breaks and escaped quotes ({@code ""}). Quotes that
+ * appear inside an unquoted field are kept literally. A leading UTF-8 byte order mark is skipped.
+ * <p>
+ * Unquoted fields that do not straddle a buffer refill are copied straight out of the read
+ * buffer; the scratch builder for quoted fields and the field array are reused across records,
+ * so the only per-record allocations are the field strings and the returned array.
+ */
+public final class CsvTokenizer implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean started;
+
+    private final StringBuilder scratch = new StringBuilder(128);
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private boolean recordQuoted;
+    private long recordNumber;
+
+    public CsvTokenizer(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvTokenizer(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buf = new char[Math.max(bufferSize, 1024)];
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record's fields, or {@code null} at end of input
+     */
+    public String[] next() throws IOException {
+        if (!started) {
+            started = true;
+            if (fill() && buf[pos] == '\uFEFF') {
+                pos++;
+            }
+        }
+        if (!fill()) {
+            return null;
+        }
+
+        fieldCount = 0;
+        recordQuoted = false;
+        boolean endOfRecord = false;
+        while (!endOfRecord) {
+            String value;
+            if (fill() && buf[pos] == '"') {
+                recordQuoted = true;
+                pos++;
+                value = readQuoted();
+            } else {
+                value = readUnquoted();
+            }
+            addField(value);
+            endOfRecord = consumeTerminator();
+        }
+        recordNumber++;
+        return Arrays.copyOf(fields, fieldCount);
+    }
+
+    /**
+     * True when the last record was an empty or whitespace-only line (no delimiters, no quotes),
+     * which callers typically skip the way a line-based reader would.
+     */
+    public boolean isBlankLine() {
+        return fieldCount == 1 && !recordQuoted && fields[0].trim().isEmpty();
+    }
+
+    /**
+     * Number of records returned so far, including blank lines.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private String readUnquoted() throws IOException {
+        int start = pos;
+        while (true) {
+            while (pos < limit) {
+                char c = buf[pos];
+                if (c == ',' || c == '\n' || c == '\r') {
+                    return finishUnquoted(start);
+                }
+                pos++;
+            }
+            // Buffer exhausted mid-field: move what we have into the scratch builder and refill
+            if (start >= 0) {
+                scratch.setLength(0);
+                scratch.append(buf, start, pos - start);
+                start = -1;
+            } else {
+                scratch.append(buf, 0, pos);
+            }
+            if (!refill()) {
+                return scratch.toString();
+            }
+        }
+    }
+
+    private String finishUnquoted(int start) {
+        if (start >= 0) {
+            return new String(buf, start, pos - start);
+        }
+        scratch.append(buf, 0, pos);
+        return scratch.toString();
+    }
+
+    private String readQuoted() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            int start = pos;
+            while (pos < limit && buf[pos] != '"') {
+                pos++;
+            }
+            scratch.append(buf, start, pos - start);
+            if (pos >= limit) {
+                if (!refill()) {
+                    // Unterminated quote at end of input: keep what was read
+                    return scratch.toString();
+                }
+                continue;
+            }
+            pos++; // past the quote
+            if (fill() && buf[pos] == '"') {
+                scratch.append('"');
+                pos++;
+                continue;
+            }
+            break;
+        }
+        // Lenient: characters between the closing quote and the next delimiter are kept
+        while (fill()) {
+            char c = buf[pos];
+            if (c == ',' || c == '\n' || c == '\r') {
+                break;
+            }
+            scratch.append(c);
+            pos++;
+        }
+        return scratch.toString();
+    }
+
+    /**
+     * Consumes the delimiter after a field.
+     *
+     * @return true if the record ended (line break or end of input)
+     */
+    private boolean consumeTerminator() throws IOException {
+        if (!fill()) {
+            return true;
+        }
+        char c = buf[pos++];
+        if (c == ',') {
+            if (!fill()) {
+                // Trailing comma at end of input still denotes an empty last field
+                addField("");
+                return true;
+            }
+            return false;
+        }
+        if (c == '\r' && fill() && buf[pos] == '\n') {
+            pos++;
+        }
+        return true;
+    }
+
+    private void addField(String value) {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fields.length * 2);
+        }
+        fields[fieldCount++] = value;
+    }
+
+    /**
+     * Ensures at least one unread char is buffered.
+     */
+    private boolean fill() throws IOException {
+        return pos < limit || refill();
+    }
+
+    private boolean refill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        pos = 0;
+        limit = 0;
+        while (limit == 0) {
+            int n = reader.read(buf, 0, buf.length);
+            if (n < 0) {
+                eof = true;
+                return false;
+            }
+            limit = n;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -2,7 +2,6 @@ package com.example.paymentflow.utilities.file;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,8 +15,6 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvValidationException;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 
 /**
@@ -44,14 +41,11 @@ public class FileParsingUtils {
     public static List<String[]> parseCsvFile(File file) throws IOException {
         List<String[]> rows = new ArrayList<>();
         log.info("Parsing CSV file: {}", file.getName());
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new MappedFileReader(file))) {
             String[] nextLine;
-            while ((nextLine = reader.readNext()) != null) {
+            while ((nextLine = tokenizer.next()) != null) {
                 rows.add(nextLine);
             }
-        } catch (CsvValidationException e) {
-            log.error("CSV validation error while parsing file: {}", file.getName(), e);
-            throw new IOException("CSV validation error: " + e.getMessage(), e);
         }
         return rows;
     }
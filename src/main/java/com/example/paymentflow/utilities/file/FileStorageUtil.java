@@ -7,6 +7,8 @@ import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.paymentflow.common.sequence.ReferenceNumberFormat;
+import com.example.paymentflow.common.sequence.ReferenceNumberService;
 import com.shared.utilities.fileupload.FileMetadata;
 import com.shared.utilities.fileupload.FileStorageService;
 import com.shared.utilities.logger.LoggerFactoryProvider;
@@ -16,10 +18,13 @@ public class FileStorageUtil {
     private static final Logger log = LoggerFactoryProvider.getLogger(FileStorageUtil.class);
     private final FileStorageService fileStorageService;
     private final UploadedFileRepository uploadedFileRepository;
+    private final ReferenceNumberService referenceNumberService;
 
-    public FileStorageUtil(FileStorageService fileStorageService, UploadedFileRepository uploadedFileRepository) {
+    public FileStorageUtil(FileStorageService fileStorageService, UploadedFileRepository uploadedFileRepository,
+            ReferenceNumberService referenceNumberService) {
         this.fileStorageService = fileStorageService;
         this.uploadedFileRepository = uploadedFileRepository;
+        this.referenceNumberService = referenceNumberService;
     }
 
     /**
@@ -72,18 +77,10 @@ public class FileStorageUtil {
         uploadedFile.setSuccessCount(0);
         uploadedFile.setFailureCount(0);
         uploadedFile.setStatus("UPLOADED");
-        uploadedFile.setFileReferenceNumber(generateRequestReferenceNumber());
+        uploadedFile.setFileReferenceNumber(referenceNumberService.next(ReferenceNumberFormat.REQUEST_REFERENCE));
 
         UploadedFile savedFile = uploadedFileRepository.save(uploadedFile);
         log.info("Saved UploadedFile with ID: {}", savedFile.getId());
         return savedFile;
     }
-
-    private String generateRequestReferenceNumber() {
-        // Generate request reference number in format: REQ-YYYYMMDD-HHMMSS-XXX
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
-        String dateTime = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        return "REQ-" + dateTime + "-" + sequence;
-    }
 }
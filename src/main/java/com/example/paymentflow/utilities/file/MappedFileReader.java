@@ -0,0 +1,117 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * UTF-8 reader over a memory-mapped byte range of a file.
+ * <p>
+ * Bytes are decoded straight from the mapped buffer into the caller's char array, skipping the
+ * kernel-to-heap copy and the intermediate byte and char buffers of {@code FileReader}. A single
+ * mapping is limited to 2 GB, so larger ranges are mapped as consecutive windows; a multi-byte
+ * sequence cut by a window edge is carried into the next window. Malformed input is replaced
+ * rather than rejected, as {@code InputStreamReader} does.
+ */
+public final class MappedFileReader extends Reader {
+
+    /** Upper bound for a single mapping; must stay below {@link Integer#MAX_VALUE}. */
+    public static final long DEFAULT_WINDOW_SIZE = 128L * 1024 * 1024;
+
+    /** A window must hold the longest UTF-8 sequence, or a cut sequence is re-mapped forever. */
+    private static final long MIN_WINDOW_SIZE = 4;
+
+    private final FileChannel channel;
+    private final long start;
+    private final long end;
+    private final long windowSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+
+    public MappedFileReader(File file) throws IOException {
+        this(file, 0, file.length(), DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileReader(File file, long start, long end) throws IOException {
+        this(file, start, end, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileReader(File file, long start, long end, long windowSize) throws IOException {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid range [" + start + ", " + end + ")");
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.start = start;
+        this.end = Math.min(end, channel.size());
+        this.windowSize = Math.max(MIN_WINDOW_SIZE, Math.min(windowSize, Integer.MAX_VALUE - 8));
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (out.position() == off) {
+            if (window == null && !mapFrom(start)) {
+                return -1;
+            }
+            boolean lastWindow = windowStart + window.limit() >= end;
+            CoderResult result = decoder.decode(window, out, lastWindow);
+            if (out.position() != off) {
+                break;
+            }
+            if (result.isOverflow()) {
+                throw new IOException("Read buffer too small to hold a decoded character");
+            }
+            if (lastWindow) {
+                if (flushed) {
+                    return -1;
+                }
+                decoder.flush(out);
+                flushed = true;
+                if (out.position() == off) {
+                    return -1;
+                }
+                break;
+            }
+            // Window exhausted, possibly with the head of a multi-byte sequence left over
+            mapFrom(windowStart + window.position());
+        }
+        return out.position() - off;
+    }
+
+    /**
+     * Maps the next window beginning at {@code offset}.
+     *
+     * @return false if the offset is at or past the end of the range
+     */
+    private boolean mapFrom(long offset) throws IOException {
+        if (offset >= end) {
+            return false;
+        }
+        long size = Math.min(windowSize, end - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sequential source of raw rows (String[]) from an uploaded file.
+ * <p>
+ * Implementations stream the underlying file so that only the current row is held in memory.
+ * Rows that are physically absent from the source are not reported; cells that are missing
+ * inside a reported row come back as {@code null}.
+ */
+public interface RowSource extends Closeable {
+
+    /**
+     * Pushes every row of the first sheet to the handler, in file order.
+     * Exceptions thrown by the handler abort the read and are rethrown unchanged.
+     */
+    void forEachRow(RowHandler handler) throws Exception;
+
+    @FunctionalInterface
+    interface RowHandler {
+        /**
+         * @param rowIndex zero-based physical row index in the source
+         * @param cells    cell values of the row; the array is owned by the handler
+         */
+        void handle(int rowIndex, String[] cells) throws Exception;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Factory for {@link RowSource}s. Spreadsheets are dispatched on their content, not their
+ * extension: OOXML (.xlsx) is streamed through the SAX reader, legacy OLE2 (.xls) falls back to
+ * the DOM reader.
+ */
+public final class RowSources {
+
+    private RowSources() {
+    }
+
+    /**
+     * Opens a UTF-8 CSV upload. The stream is read sequentially, so no spooling is needed.
+     */
+    public static RowSource openCsv(MultipartFile upload) throws IOException {
+        return new CsvRowSource(upload.getInputStream());
+    }
+
+    /**
+     * @param isoDates when true, date-formatted numeric cells are rendered as ISO-8601 dates
+     *                 (yyyy-MM-dd) instead of using the cell's display format
+     */
+    public static RowSource openSpreadsheet(File file, boolean isoDates) throws IOException {
+        DataFormatter formatter = isoDates ? new IsoDateDataFormatter() : new DataFormatter();
+        FileMagic magic = FileMagic.valueOf(file);
+        if (magic == FileMagic.OOXML) {
+            return new XlsxStreamingRowSource(file, formatter);
+        }
+        if (magic == FileMagic.OLE2) {
+            return new WorkbookRowSource(file, formatter, isoDates);
+        }
+        throw new IOException("Unsupported spreadsheet format: " + magic);
+    }
+
+    /**
+     * Spools a multipart upload to a temporary file so the package can be read with random
+     * access instead of being buffered in memory. The temporary file is removed on close.
+     */
+    public static RowSource openSpreadsheet(MultipartFile upload, boolean isoDates) throws IOException {
+        Path spool = Files.createTempFile("upload-", ".tmp");
+        try {
+            upload.transferTo(spool);
+            RowSource source = openSpreadsheet(spool.toFile(), isoDates);
+            return new RowSource() {
+                @Override
+                public void forEachRow(RowHandler handler) throws Exception {
+                    source.forEachRow(handler);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        source.close();
+                    } finally {
+                        Files.deleteIfExists(spool);
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+
+    /**
+     * Formats date-styled numeric cells as ISO dates; everything else uses the default rendering.
+     */
+    static final class IsoDateDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
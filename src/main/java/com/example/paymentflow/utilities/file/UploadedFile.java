@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Table(name = "uploaded_files")
 public class UploadedFile {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "uploaded_files_seq")
+    @SequenceGenerator(name = "uploaded_files_seq", sequenceName = "uploaded_files_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "filename", nullable = false)
@@ -43,6 +44,10 @@ public class UploadedFile {
     @Column(name = "file_reference_number", nullable = true, unique = true, length = 100)
     private String fileReferenceNumber;
 
+    // Last worker_uploaded_data id whose validation is committed; written only through UploadedFileRepository
+    @Column(name = "validation_checkpoint_id", insertable = false, updatable = false)
+    private Long validationCheckpointId;
+
     public Long getId() {
         return id;
     }
@@ -115,5 +120,8 @@ public class UploadedFile {
     public void setFileReferenceNumber(String fileReferenceNumber) {
         this.fileReferenceNumber = fileReferenceNumber;
     }
+    public Long getValidationCheckpointId() {
+        return validationCheckpointId;
+    }
 
 }
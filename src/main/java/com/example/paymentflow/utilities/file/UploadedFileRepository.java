@@ -1,10 +1,13 @@
 package com.example.paymentflow.utilities.file;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import java.time.LocalDateTime;
@@ -43,4 +46,66 @@ public interface UploadedFileRepository extends JpaRepository<UploadedFile, Long
                                                         @Param("startDate") LocalDateTime startDate, 
                                                         @Param("endDate") LocalDateTime endDate, 
                                                         Pageable pageable);
+
+    // Progress counter for chunked ingestion; incremented in the database so concurrent chunk writers never lose updates
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadedFile uf SET uf.totalRecords = COALESCE(uf.totalRecords, 0) + :delta WHERE uf.id = :id")
+    int incrementTotalRecords(@Param("id") Long id, @Param("delta") int delta);
+
+    // Resumable validation: the checkpoint moves forward in the same transaction as each validated slice
+    @Query("SELECT uf.validationCheckpointId FROM UploadedFile uf WHERE uf.id = :id")
+    Optional<Long> findValidationCheckpointId(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadedFile uf SET uf.validationCheckpointId = :checkpointId WHERE uf.id = :id")
+    int updateValidationCheckpoint(@Param("id") Long id, @Param("checkpointId") Long checkpointId);
+
+    // Compare-and-set on status; returns 0 when another writer changed the status first
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadedFile uf SET uf.status = :toStatus WHERE uf.id = :id AND uf.status = :fromStatus")
+    int transitionStatus(@Param("id") Long id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus);
+
+    // Upload job ownership: a runner claims a QUEUED file, or a PROCESSING file whose heartbeat is older than the lease
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE uploaded_files SET status = 'PROCESSING', job_owner = :owner, job_heartbeat_at = now() "
+            + "WHERE id = :id AND status = 'QUEUED'", nativeQuery = true)
+    int claimQueuedJob(@Param("id") Long id, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE uploaded_files SET job_owner = :owner, job_heartbeat_at = now() "
+            + "WHERE id = :id AND status = 'PROCESSING' "
+            + "AND (job_heartbeat_at IS NULL OR job_heartbeat_at < now() - make_interval(secs => :leaseSeconds))",
+            nativeQuery = true)
+    int claimStaleJob(@Param("id") Long id, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE uploaded_files SET job_heartbeat_at = now() "
+            + "WHERE id IN (:ids) AND job_owner = :owner AND status = 'PROCESSING'", nativeQuery = true)
+    int renewJobHeartbeats(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    // Owner-guarded job writes: a runner whose job was taken over after a stale lease updates 0 rows and must stop
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE uploaded_files SET total_records = COALESCE(total_records, 0) + :delta "
+            + "WHERE id = :id AND job_owner = :owner AND status = 'PROCESSING'", nativeQuery = true)
+    int incrementOwnedJobRecords(@Param("id") Long id, @Param("delta") int delta, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE uploaded_files SET status = :status, total_records = :totalRecords, "
+            + "success_count = 0, failure_count = 0 "
+            + "WHERE id = :id AND job_owner = :owner AND status = 'PROCESSING'", nativeQuery = true)
+    int finishOwnedJob(@Param("id") Long id, @Param("owner") String owner, @Param("status") String status,
+                       @Param("totalRecords") int totalRecords);
+
+    @Query(value = "SELECT id FROM uploaded_files WHERE status = 'PROCESSING' "
+            + "AND (job_heartbeat_at IS NULL OR job_heartbeat_at < now() - make_interval(secs => :leaseSeconds)) "
+            + "ORDER BY id", nativeQuery = true)
+    List<Long> findStaleJobIds(@Param("leaseSeconds") long leaseSeconds);
 }
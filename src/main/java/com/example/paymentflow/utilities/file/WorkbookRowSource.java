@@ -0,0 +1,60 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+/**
+ * DOM-based row source kept for legacy .xls (BIFF8) workbooks, which have no SAX reader.
+ */
+public class WorkbookRowSource implements RowSource {
+
+    private final Workbook workbook;
+    private final DataFormatter formatter;
+    private final boolean isoDates;
+
+    public WorkbookRowSource(File file, DataFormatter formatter, boolean isoDates) throws IOException {
+        this.workbook = WorkbookFactory.create(file, null, true);
+        this.formatter = formatter;
+        this.isoDates = isoDates;
+    }
+
+    @Override
+    public void forEachRow(RowHandler handler) throws Exception {
+        Sheet sheet = workbook.getNumberOfSheets() > 0 ? workbook.getSheetAt(0) : null;
+        if (sheet == null) {
+            throw new IOException("No sheet found in uploaded workbook");
+        }
+        for (Row row : sheet) {
+            short lastCellNum = row.getLastCellNum();
+            String[] cells = new String[Math.max(lastCellNum, 0)];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = formatCell(row.getCell(i));
+            }
+            handler.handle(row.getRowNum(), cells);
+        }
+    }
+
+    private String formatCell(Cell cell) {
+        if (cell == null) {
+            return null;
+        }
+        if (isoDates && cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
+            return cell.getLocalDateTimeCellValue().toLocalDate().toString();
+        }
+        return formatter.formatCellValue(cell);
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+}
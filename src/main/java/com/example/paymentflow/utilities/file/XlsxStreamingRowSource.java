@@ -0,0 +1,136 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * Streams the first sheet of an .xlsx workbook through POI's SAX event model.
+ * <p>
+ * Only the read-only shared strings table and the styles table are kept in memory; sheet XML
+ * is parsed row by row, so heap usage stays flat regardless of the number of rows, unlike
+ * {@code WorkbookFactory.create} which materialises the full DOM.
+ */
+public class XlsxStreamingRowSource implements RowSource {
+
+    private final OPCPackage pkg;
+    private final DataFormatter formatter;
+
+    public XlsxStreamingRowSource(File file, DataFormatter formatter) throws IOException {
+        try {
+            this.pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (Exception e) {
+            throw new IOException("Failed to open xlsx package: " + e.getMessage(), e);
+        }
+        this.formatter = formatter;
+    }
+
+    @Override
+    public void forEachRow(RowHandler handler) throws Exception {
+        XSSFReader reader = new XSSFReader(pkg);
+        ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+        StylesTable styles = reader.getStylesTable();
+
+        Iterator<InputStream> sheets = reader.getSheetsData();
+        if (!sheets.hasNext()) {
+            throw new IOException("No sheet found in uploaded workbook");
+        }
+
+        RowCollector collector = new RowCollector(handler);
+        try (InputStream sheet = sheets.next()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, collector, formatter, false));
+            parser.parse(new InputSource(sheet));
+        } catch (HandlerAbort abort) {
+            throw abort.failure;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Opened read-only, so revert() releases the file without attempting to save it
+        pkg.revert();
+    }
+
+    /**
+     * Converts column letters of an A1-style reference ("AB12") to a zero-based index.
+     */
+    static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static final class RowCollector implements SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private int nextColumn;
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? columnIndex(cellReference) : nextColumn;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            if (column < cells.size()) {
+                cells.set(column, formattedValue);
+            } else {
+                cells.add(formattedValue);
+            }
+            nextColumn = column + 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            try {
+                handler.handle(rowNum, cells.toArray(new String[0]));
+            } catch (Exception e) {
+                throw new HandlerAbort(e);
+            }
+        }
+    }
+
+    /**
+     * Carries a handler failure out of the SAX callback without wrapping it for the caller.
+     */
+    private static final class HandlerAbort extends RuntimeException {
+        private final Exception failure;
+
+        private HandlerAbort(Exception cause) {
+            super(cause.getMessage(), cause, false, false);
+            this.failure = cause;
+        }
+    }
+}
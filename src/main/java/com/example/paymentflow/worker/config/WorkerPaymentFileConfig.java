@@ -8,6 +8,74 @@ import org.springframework.context.annotation.Configuration;
 public class WorkerPaymentFileConfig {
     private String uploadDir = "upload-dir";
 
+    /**
+     * Number of parsed rows buffered before they are flushed to worker_uploaded_data.
+     */
+    private int ingestChunkSize = 1000;
+
+    /**
+     * Chunks at least this large are written with the PostgreSQL COPY bulk loader
+     * instead of JPA saveAll.
+     */
+    private int bulkLoadThreshold = 500;
+
+    /**
+     * Rows validated and committed per transaction; progress is checkpointed after every slice.
+     */
+    private int validationSliceSize = 1000;
+
+    /**
+     * Validation batches of at least this many rows are checked in parallel; keep it below
+     * validationSliceSize or slices are always checked sequentially.
+     */
+    private int validationParallelThreshold = 256;
+
+    /**
+     * Parse large CSV uploads as independent byte ranges on the upload parser pool.
+     */
+    private boolean parallelParseEnabled = false;
+
+    /**
+     * Files smaller than this are always parsed sequentially.
+     */
+    private long parallelParseThresholdBytes = 32L * 1024 * 1024;
+
+    /**
+     * Size of the upload parser pool; 0 uses the number of available processors.
+     */
+    private int parseParallelism = 0;
+
+    /**
+     * Uploads parsed concurrently by the background upload job pool.
+     */
+    private int uploadJobConcurrency = 2;
+
+    /**
+     * Accepted uploads that may wait for a job thread; further uploads are refused with 503.
+     */
+    private int uploadJobQueueCapacity = 10;
+
+    /**
+     * A PROCESSING upload whose heartbeat is older than this is assumed abandoned and restarted.
+     */
+    private long uploadJobLeaseSeconds = 300;
+
+    /**
+     * How often a runner renews the heartbeat of the uploads it is parsing; well below the lease.
+     */
+    private long uploadJobHeartbeatMs = 30_000;
+
+    /**
+     * When the job that repairs drift in file_status_counters runs.
+     */
+    private String counterReconcileCron = "0 30 * * * *";
+
+    /**
+     * The drift check compares only files whose counters changed within this many minutes; keep it
+     * longer than the interval between checks.
+     */
+    private long counterReconcileWindowMinutes = 180;
+
     public String getUploadDir() {
         return uploadDir;
     }
@@ -15,4 +83,108 @@ public class WorkerPaymentFileConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
+
+    public int getIngestChunkSize() {
+        return ingestChunkSize;
+    }
+
+    public void setIngestChunkSize(int ingestChunkSize) {
+        this.ingestChunkSize = ingestChunkSize;
+    }
+
+    public int getBulkLoadThreshold() {
+        return bulkLoadThreshold;
+    }
+
+    public void setBulkLoadThreshold(int bulkLoadThreshold) {
+        this.bulkLoadThreshold = bulkLoadThreshold;
+    }
+
+    public int getValidationSliceSize() {
+        return validationSliceSize;
+    }
+
+    public void setValidationSliceSize(int validationSliceSize) {
+        this.validationSliceSize = validationSliceSize;
+    }
+
+    public int getValidationParallelThreshold() {
+        return validationParallelThreshold;
+    }
+
+    public void setValidationParallelThreshold(int validationParallelThreshold) {
+        this.validationParallelThreshold = validationParallelThreshold;
+    }
+
+    public boolean isParallelParseEnabled() {
+        return parallelParseEnabled;
+    }
+
+    public void setParallelParseEnabled(boolean parallelParseEnabled) {
+        this.parallelParseEnabled = parallelParseEnabled;
+    }
+
+    public long getParallelParseThresholdBytes() {
+        return parallelParseThresholdBytes;
+    }
+
+    public void setParallelParseThresholdBytes(long parallelParseThresholdBytes) {
+        this.parallelParseThresholdBytes = parallelParseThresholdBytes;
+    }
+
+    public int getParseParallelism() {
+        return parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setParseParallelism(int parseParallelism) {
+        this.parseParallelism = parseParallelism;
+    }
+
+    public int getUploadJobConcurrency() {
+        return uploadJobConcurrency;
+    }
+
+    public void setUploadJobConcurrency(int uploadJobConcurrency) {
+        this.uploadJobConcurrency = uploadJobConcurrency;
+    }
+
+    public int getUploadJobQueueCapacity() {
+        return uploadJobQueueCapacity;
+    }
+
+    public void setUploadJobQueueCapacity(int uploadJobQueueCapacity) {
+        this.uploadJobQueueCapacity = uploadJobQueueCapacity;
+    }
+
+    public long getUploadJobLeaseSeconds() {
+        return uploadJobLeaseSeconds;
+    }
+
+    public void setUploadJobLeaseSeconds(long uploadJobLeaseSeconds) {
+        this.uploadJobLeaseSeconds = uploadJobLeaseSeconds;
+    }
+
+    public long getUploadJobHeartbeatMs() {
+        return uploadJobHeartbeatMs;
+    }
+
+    public void setUploadJobHeartbeatMs(long uploadJobHeartbeatMs) {
+        this.uploadJobHeartbeatMs = uploadJobHeartbeatMs;
+    }
+
+    public String getCounterReconcileCron() {
+        return counterReconcileCron;
+    }
+
+    public void setCounterReconcileCron(String counterReconcileCron) {
+        this.counterReconcileCron = counterReconcileCron;
+    }
+
+    public long getCounterReconcileWindowMinutes() {
+        return counterReconcileWindowMinutes;
+    }
+
+    public void setCounterReconcileWindowMinutes(long counterReconcileWindowMinutes) {
+        this.counterReconcileWindowMinutes = counterReconcileWindowMinutes;
+    }
 }
@@ -0,0 +1,65 @@
+package com.example.paymentflow.worker.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+/**
+ * Thread pools used by the worker upload pipeline.
+ * <p>
+ * Tasks are wrapped so they run with the submitting request's security context, which the
+ * shared auditing and row-level-security support rely on. With
+ * {@code spring.threads.virtual.enabled} the pools keep their bounds but start virtual threads,
+ * so a worker blocked on JDBC or file I/O no longer holds a carrier thread.
+ */
+@Configuration
+public class WorkerUploadExecutorConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(name = "workerUploadParseExecutor", destroyMethod = "shutdown")
+    public ExecutorService workerUploadParseExecutor(WorkerPaymentFileConfig config) {
+        int threads = config.getParseParallelism();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("upload-parse-", virtualThreads));
+        pool.allowCoreThreadTimeOut(true);
+        return new DelegatingSecurityContextExecutorService(pool);
+    }
+
+    /**
+     * Runs accepted uploads off the request threads. The queue is bounded; when it is full
+     * {@code execute} throws {@link java.util.concurrent.RejectedExecutionException} and the upload
+     * is refused instead of piling up.
+     */
+    @Bean(name = "workerUploadJobExecutor", destroyMethod = "shutdown")
+    public ExecutorService workerUploadJobExecutor(WorkerPaymentFileConfig config) {
+        int threads = Math.max(1, config.getUploadJobConcurrency());
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getUploadJobQueueCapacity())),
+                namedThreads("upload-job-", virtualThreads), new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return new DelegatingSecurityContextExecutorService(pool);
+    }
+
+    static ThreadFactory namedThreads(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.paymentflow.worker.controller;
 
+import com.example.paymentflow.common.json.JsonWriters;
+import com.example.paymentflow.common.pagination.KeysetPage;
+import com.example.paymentflow.common.web.ConditionalResponses;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.service.WorkerPaymentService;
 import com.shared.common.annotation.Auditable;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
 import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,7 +23,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,11 +39,15 @@ public class WorkerPaymentController {
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentController.class);
 
     private final WorkerPaymentService service;
-    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final ConditionalResponses conditionalResponses;
+    /** Typed writer for the paged list responses; the runtime class alone erases the row type. */
+    private final ObjectWriter pageWriter;
 
-    public WorkerPaymentController(WorkerPaymentService service, com.fasterxml.jackson.databind.ObjectMapper objectMapper) {
+    public WorkerPaymentController(WorkerPaymentService service, ConditionalResponses conditionalResponses,
+                                   JsonWriters jsonWriters) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.conditionalResponses = conditionalResponses;
+        this.pageWriter = jsonWriters.forPageOf(WorkerPayment.class);
     }
 
     @PostMapping
@@ -67,6 +73,8 @@ public class WorkerPaymentController {
             @Valid @RequestBody
             SecurePaginationRequest request,
             @Parameter(description = "Receipt number filter") @RequestParam(required = false) String receiptNumber,
+            @Parameter(description = "Keyset cursor from the previous page's X-Next-Cursor header; send an empty value to start keyset paging")
+            @RequestParam(required = false) String cursor,
             HttpServletRequest httpRequest) {
         log.info("Fetching worker payments with secure pagination, status: {}, receiptNumber: {}, request: {}", 
                 request.getStatus(), receiptNumber, request);
@@ -91,21 +99,29 @@ public class WorkerPaymentController {
                 sort
             );
             
-            // Fetch data using standard pagination
-            Page<WorkerPayment> paymentsPage =
-                service.findByStatusAndReceiptNumberAndDateRange(
+            // Seek past the cursor when one is given
+            if (cursor != null) {
+                KeysetPage<WorkerPayment> keysetPage = service.findByStatusAndReceiptNumberAndDateRangeKeyset(
+                    request.getStatus(), receiptNumber,
+                    validation.getStartDateTime(), validation.getEndDateTime(),
+                    cursor, request.getSize());
+                SecurePaginationResponse<WorkerPayment> response =
+                    SecurePaginationUtil.createSecureResponse(keysetPage.toPage(pageable), request);
+                return conditionalResponses.respond(httpRequest, pageWriter, response, keysetPage::addHeaders);
+            }
+
+            // Offset pagination: an unchanged page is answered from its row versions alone
+            String version = ConditionalResponses.version(
+                service.pageVersion(request.getStatus(), receiptNumber,
+                    validation.getStartDateTime(), validation.getEndDateTime(), pageable),
+                request.getStatus(), receiptNumber, validation.getStartDateTime(), validation.getEndDateTime(), pageable);
+            return conditionalResponses.respondVersioned(httpRequest, version, pageWriter, () -> {
+                Page<WorkerPayment> paymentsPage = service.findByStatusAndReceiptNumberAndDateRange(
                     request.getStatus(), receiptNumber, 
                     validation.getStartDateTime(), validation.getEndDateTime(), 
                     pageable);
-            SecurePaginationResponse<WorkerPayment> response =
-                SecurePaginationUtil.createSecureResponse(paymentsPage, request);
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+                return SecurePaginationUtil.createSecureResponse(paymentsPage, request);
+            });
         } catch (Exception e) {
             log.error("Error fetching worker payments (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -175,14 +191,7 @@ public class WorkerPaymentController {
             response.put("hasPrevious", paymentsPage.hasPrevious());
             response.put("uploadedFileRef", uploadedFileRef);
 
-            // Generate ETag from response content
-            String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponses.respond(request, response);
         } catch (Exception e) {
             log.error("Error fetching payments by uploadedFileRef: {}", uploadedFileRef, e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
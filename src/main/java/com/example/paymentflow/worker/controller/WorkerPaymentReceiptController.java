@@ -1,17 +1,17 @@
 package com.example.paymentflow.worker.controller;
 
+import com.example.paymentflow.common.json.JsonWriters;
+import com.example.paymentflow.common.pagination.KeysetPage;
+import com.example.paymentflow.common.web.ConditionalResponses;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.service.WorkerPaymentReceiptService;
-import com.example.paymentflow.worker.service.WorkerPaymentService;
 import com.example.paymentflow.employer.service.EmployerPaymentReceiptService;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
 import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -23,7 +23,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -38,15 +37,18 @@ public class WorkerPaymentReceiptController {
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentReceiptController.class);
     
     private final WorkerPaymentReceiptService service;
+    private final ConditionalResponses conditionalResponses;
+    /** Typed writer for the paged list responses; the runtime class alone erases the row type. */
+    private final ObjectWriter pageWriter;
     
     @Autowired
     private EmployerPaymentReceiptService employerReceiptService;
-    
-    @Autowired
-    private WorkerPaymentService workerPaymentService;
 
-    public WorkerPaymentReceiptController(WorkerPaymentReceiptService service) {
+    public WorkerPaymentReceiptController(WorkerPaymentReceiptService service, ConditionalResponses conditionalResponses,
+                                          JsonWriters jsonWriters) {
         this.service = service;
+        this.conditionalResponses = conditionalResponses;
+        this.pageWriter = jsonWriters.forPageOf(WorkerPaymentReceipt.class);
     }
 
 
@@ -68,6 +70,8 @@ public class WorkerPaymentReceiptController {
             )
             @Valid @RequestBody 
             SecurePaginationRequest request,
+            @Parameter(description = "Keyset cursor from the previous page's X-Next-Cursor header; send an empty value to start keyset paging")
+            @RequestParam(required = false) String cursor,
             HttpServletRequest httpRequest) {
         log.info("Fetching worker receipts with secure pagination, status: {}, request: {}", request.getStatus(), request);
         try {
@@ -90,31 +94,42 @@ public class WorkerPaymentReceiptController {
                 )
             );
             
-            // Fetch data using standard pagination
-            Page<WorkerPaymentReceipt> receiptsPage;
-            if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
-                receiptsPage = service.findByStatusAndDateRangePaginated(
-                    request.getStatus().trim().toUpperCase(), 
-                    validation.getStartDateTime(), 
-                    validation.getEndDateTime(), 
-                    pageable);
-            } else {
-                receiptsPage = service.findByDateRangePaginated(
-                    validation.getStartDateTime(), 
-                    validation.getEndDateTime(), 
-                    pageable);
+            String status = request.getStatus() != null && !request.getStatus().trim().isEmpty()
+                ? request.getStatus().trim().toUpperCase() : null;
+
+            // Seek past the cursor when one is given
+            if (cursor != null) {
+                KeysetPage<WorkerPaymentReceipt> keysetPage = service.findByDateRangeKeyset(
+                    status,
+                    validation.getStartDateTime(),
+                    validation.getEndDateTime(),
+                    cursor,
+                    request.getSize());
+                SecurePaginationResponse<WorkerPaymentReceipt> response =
+                    SecurePaginationUtil.createSecureResponse(keysetPage.toPage(pageable), request);
+                return conditionalResponses.respond(httpRequest, pageWriter, response, keysetPage::addHeaders);
             }
-            SecurePaginationResponse<WorkerPaymentReceipt> response = 
-                SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+
+            // Offset pagination: an unchanged page is answered from its row versions alone
+            String version = ConditionalResponses.version(
+                service.pageVersion(status, validation.getStartDateTime(), validation.getEndDateTime(), pageable),
+                status, validation.getStartDateTime(), validation.getEndDateTime(), pageable);
+            return conditionalResponses.respondVersioned(httpRequest, version, pageWriter, () -> {
+                Page<WorkerPaymentReceipt> receiptsPage;
+                if (status != null) {
+                    receiptsPage = service.findByStatusAndDateRangePaginated(
+                        status, 
+                        validation.getStartDateTime(), 
+                        validation.getEndDateTime(), 
+                        pageable);
+                } else {
+                    receiptsPage = service.findByDateRangePaginated(
+                        validation.getStartDateTime(), 
+                        validation.getEndDateTime(), 
+                        pageable);
+                }
+                return SecurePaginationUtil.createSecureResponse(receiptsPage, request);
+            });
         } catch (Exception e) {
             log.error("Error fetching worker receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -134,21 +149,7 @@ public class WorkerPaymentReceiptController {
         
         try {
             return service.findByReceiptNumber(receiptNumber)
-                    .map(receipt -> {
-                        try {
-                            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-                            String responseJson = objectMapper.writeValueAsString(receipt);
-                            String eTag = ETagUtil.generateETag(responseJson);
-                            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                            if (eTag.equals(ifNoneMatch)) {
-                                return ResponseEntity.status(304).eTag(eTag).build();
-                            }
-                            return ResponseEntity.ok().eTag(eTag).body(receipt);
-                        } catch (Exception ex) {
-                            return ResponseEntity.internalServerError().body(Map.of("error", ex.getMessage()));
-                        }
-                    })
+                    .<ResponseEntity<?>>map(receipt -> conditionalResponses.respond(request, receipt))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             log.error("Error fetching receipt: {}", receiptNumber, e);
@@ -169,49 +170,13 @@ public class WorkerPaymentReceiptController {
         log.info("Sending worker receipt {} to employer for validation", receiptNumber);
         
         try {
-            // Get the worker receipt
-            java.util.Optional<WorkerPaymentReceipt> workerReceiptOpt = service.findByReceiptNumber(receiptNumber);
-            
-            if (workerReceiptOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Worker receipt not found",
-                    "receiptNumber", receiptNumber
-                ));
-            }
-            
-            WorkerPaymentReceipt workerReceipt = workerReceiptOpt.get();
+            return ResponseEntity.ok(employerReceiptService.sendWorkerReceiptToEmployer(receiptNumber));
             
-            // Create employer receipt manually using injected service
-            com.example.paymentflow.employer.entity.EmployerPaymentReceipt employerReceipt = 
-                employerReceiptService.createPendingEmployerReceipt(workerReceipt);
-            
-            // Update worker receipt status to PAYMENT_INITIATED
-            service.updateStatus(receiptNumber, "PAYMENT_INITIATED");
-            log.info("Updated worker receipt {} status to PAYMENT_INITIATED", receiptNumber);
-            
-            // Update all related worker payment records to PAYMENT_INITIATED
-            java.util.List<com.example.paymentflow.worker.entity.WorkerPayment> workerPayments = 
-                workerPaymentService.findByReceiptNumber(receiptNumber, 
-                    PageRequest.of(0, 1000)).getContent();
-            
-            int updatedPayments = 0;
-            for (com.example.paymentflow.worker.entity.WorkerPayment payment : workerPayments) {
-                payment.setStatus("PAYMENT_INITIATED");
-                workerPaymentService.save(payment);
-                updatedPayments++;
-            }
-            log.info("Updated {} worker payment records to PAYMENT_INITIATED for receipt {}", updatedPayments, receiptNumber);
-            return ResponseEntity.ok(Map.of(
-                "message", "Worker receipt sent to employer successfully",
-                "workerReceiptNumber", receiptNumber,
-                "employerReceiptNumber", employerReceipt.getEmployerReceiptNumber(),
-                "workerReceiptStatus", "PAYMENT_INITIATED",
-                "employerReceiptStatus", "PENDING",
-                "totalRecords", employerReceipt.getTotalRecords(),
-                "totalAmount", employerReceipt.getTotalAmount(),
-                "updatedPaymentRecords", updatedPayments
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage(),
+                "receiptNumber", receiptNumber
             ));
-            
         } catch (Exception e) {
             log.error("Error sending worker receipt {} to employer", receiptNumber, e);
             
@@ -1,13 +1,18 @@
 package com.example.paymentflow.worker.controller;
 
+import com.example.paymentflow.common.queue.PipelineJobQueue;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.common.web.ConditionalResponses;
+import com.example.paymentflow.common.web.JsonStreamResponder;
+import com.example.paymentflow.utilities.file.UploadedFile;
 import com.example.paymentflow.worker.entity.WorkerUploadedData;
 import com.example.paymentflow.worker.service.WorkerPaymentFileService;
+import com.example.paymentflow.worker.service.WorkerUploadJobService;
 import com.example.paymentflow.worker.service.WorkerUploadedDataService;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.annotation.UiType;
 import com.shared.common.dto.SecurePaginationRequest;
 import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.common.util.UiTypes;
 import com.shared.utilities.logger.LoggerFactoryProvider;
@@ -30,9 +35,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/worker/uploaded-data")
@@ -47,6 +55,18 @@ public class WorkerUploadedDataController {
     @Autowired
     private WorkerPaymentFileService fileService;
 
+    @Autowired
+    private WorkerUploadJobService uploadJobService;
+
+    @Autowired
+    private PipelineJobQueue pipelineJobQueue;
+
+    @Autowired
+    private JsonStreamResponder streamResponder;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
     public WorkerUploadedDataController(WorkerUploadedDataService service) {
         this.service = service;
     }
@@ -89,15 +109,7 @@ public class WorkerUploadedDataController {
             // Create secure response with opaque tokens
             SecurePaginationResponse<WorkerUploadedData> response = 
                 SecurePaginationUtil.createSecureResponse(dataPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponses.respond(httpRequest, response);
         } catch (Exception e) {
             log.error("Error in secure paginated data retrieval", e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -109,7 +121,7 @@ public class WorkerUploadedDataController {
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload worker payment file", 
-               description = "Upload CSV, XLS, or XLSX file containing worker payment data. Returns fileId for subsequent operations.")
+               description = "Upload CSV, XLS, or XLSX file containing worker payment data. The file is processed in the background; returns 202 with a jobId (also the fileId for subsequent operations) to poll via /jobs/{jobId}.")
     @UiType(value = UiTypes.UPLOAD, usage = "File upload button for worker payment data")
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
         try {
@@ -144,14 +156,35 @@ public class WorkerUploadedDataController {
                 ));
             }
 
-            Map<String, Object> result = fileService.handleFileUpload(file);
-            
-            if (result.containsKey("error")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+            UploadedFile queued;
+            try {
+                queued = uploadJobService.submit(file);
+            } catch (IOException e) {
+                log.error("Failed to store uploaded file", e);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "error", "Failed to process uploaded file: " + e.getMessage()
+                ));
             }
 
-            return ResponseEntity.ok(result);
+            String jobId = queued.getId().toString();
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/worker/uploaded-data/jobs/" + jobId))
+                    .body(Map.of(
+                        "status", queued.getStatus(),
+                        "jobId", jobId,
+                        "fileId", jobId,
+                        "message", "File accepted for processing. Poll the job status endpoint until it completes, then proceed to validation."
+                    ));
             
+        } catch (RejectedExecutionException e) {
+            log.warn("Upload job queue is full; refusing upload {}", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of(
+                        "status", "failed",
+                        "error", "Too many uploads are being processed. Please retry shortly.",
+                        "message", "File upload rejected because the processing queue is full"
+                    ));
         } catch (Exception e) {
             log.error("File upload failed", e);
 
@@ -163,6 +196,19 @@ public class WorkerUploadedDataController {
         }
     }
 
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get upload job status", 
+               description = "Returns the processing status of an uploaded file: QUEUED, PROCESSING, UPLOADED (ready for validation) or FAILED")
+    public ResponseEntity<?> getUploadJobStatus(
+            @Parameter(description = "Job ID returned by the upload endpoint") 
+            @PathVariable Long jobId) {
+        return uploadJobService.getJobStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "Upload job not found: " + jobId
+                )));
+    }
+
     @PostMapping("/files/secure-summaries")
     @Operation(summary = "Get secure paginated file summaries", 
                description = "Returns paginated list of all uploaded files with comprehensive summaries, validation counts, and total amounts. Uses secure pagination with mandatory date range and opaque tokens.")
@@ -233,6 +279,28 @@ public class WorkerUploadedDataController {
         }
     }
 
+    @PostMapping("/file/{fileId}/pipeline")
+    @Operation(summary = "Run the remaining pipeline in the background", 
+               description = "Queues validation for an uploaded file; request generation and sending to the employer follow automatically when records pass")
+    public ResponseEntity<?> startPipeline(
+            @Parameter(description = "File ID") 
+            @PathVariable String fileId) {
+        log.info("Queueing pipeline for fileId: {}", fileId);
+        
+        try {
+            boolean queued = pipelineJobQueue.enqueue(PipelineStage.VALIDATE, fileId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "fileId", fileId,
+                "stage", PipelineStage.VALIDATE.name(),
+                "queued", queued,
+                "message", queued ? "Validation queued" : "Validation is already queued for this file"
+            ));
+        } catch (Exception e) {
+            log.error("Error queueing pipeline for fileId: {}", fileId, e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/results/{fileId}")
     @Operation(summary = "Get uploaded data results with pagination and filtering", 
                description = "Returns paginated uploaded data results with optional status and date range filtering")
@@ -263,15 +331,7 @@ public class WorkerUploadedDataController {
                 return ResponseEntity.badRequest().body(result);
             }
             
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper2 = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper2.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper2.writeValueAsString(result);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(result);
+            return conditionalResponses.respond(request, result);
             
         } catch (Exception e) {
             log.error("Error fetching validation results for fileId: {}", fileId, e);
@@ -337,6 +397,32 @@ public class WorkerUploadedDataController {
         }
     }
 
+    @GetMapping("/results/{fileId}/export")
+    @Operation(summary = "Stream validation results of a file",
+               description = "Streams validated and rejected records (or only the given status) as they are read, without paging")
+    public ResponseEntity<?> exportValidationResults(
+            @Parameter(description = "File ID")
+            @PathVariable String fileId,
+            @Parameter(description = "Status filter", example = "VALIDATED")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Output format: json (array) or ndjson (one record per line)", example = "ndjson")
+            @RequestParam(defaultValue = "json") String format) {
+        log.info("Streaming validation results for fileId: {}, status: {}, format: {}", fileId, status, format);
+        return streamResponder.respond(format, fileService.exportValidationResults(fileId, status));
+    }
+
+    @GetMapping("/receipt/{receiptNumber}/export")
+    @Operation(summary = "Stream request details by receipt number",
+               description = "Streams all records of a payment request in row order as they are read, without paging")
+    public ResponseEntity<?> exportRequestByReceiptNumber(
+            @Parameter(description = "Receipt number")
+            @PathVariable String receiptNumber,
+            @Parameter(description = "Output format: json (array) or ndjson (one record per line)", example = "ndjson")
+            @RequestParam(defaultValue = "json") String format) {
+        log.info("Streaming request details for receiptNumber: {}, format: {}", receiptNumber, format);
+        return streamResponder.respond(format, service.exportByReceiptNumber(receiptNumber));
+    }
+
     @GetMapping("/receipt/{receiptNumber}")
     @Operation(summary = "Get request details by receipt number", 
                description = "Returns all records associated with a specific receipt number")
@@ -364,15 +450,7 @@ public class WorkerUploadedDataController {
             response.put("hasPrevious", requestPage.hasPrevious());
             response.put("receiptNumber", receiptNumber);
             
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper3 = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper3.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper3.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return conditionalResponses.respond(request, response);
             
         } catch (Exception e) {
             log.error("Error fetching request details for receiptNumber: {}", receiptNumber, e);
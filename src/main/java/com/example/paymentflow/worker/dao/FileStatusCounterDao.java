@@ -0,0 +1,173 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-file, per-status row counts and amount sums of worker_uploaded_data, kept in
+ * {@code file_status_counters}.
+ * <p>
+ * Every writer applies its deltas on the transaction that changes the rows, so the counters commit
+ * or roll back with them. Writers take a shared per-file advisory lock, so parallel writers of one
+ * file do not wait for each other; a recount takes it exclusively and then either sees a writer's
+ * committed rows or runs before the writer adds its delta, never a mix.
+ */
+@Repository
+public class FileStatusCounterDao {
+
+    private static final String LOCK_TEMPLATE = "sql/worker/file_status_counters_lock.sql";
+    private static final String SHARED_LOCK_TEMPLATE = "sql/worker/file_status_counters_lock_shared.sql";
+    private static final String RECONCILE_LOCK_TEMPLATE = "sql/worker/file_status_counters_reconcile_lock.sql";
+    private static final String RECONCILE_UNLOCK_TEMPLATE = "sql/worker/file_status_counters_reconcile_unlock.sql";
+    private static final String ADD_TEMPLATE = "sql/worker/file_status_counters_add.sql";
+    private static final String BY_FILE_TEMPLATE = "sql/worker/file_status_counters_by_file.sql";
+    private static final String RECOUNT_TEMPLATE = "sql/worker/file_status_counters_recount.sql";
+    private static final String DRIFT_TEMPLATE = "sql/worker/file_status_counters_drift.sql";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public FileStatusCounterDao(NamedParameterJdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    public record Counter(long count, BigDecimal amount) {
+    }
+
+    /**
+     * Adds the deltas to the file's counters on the caller's transaction. Call it after the row
+     * changes it accounts for: the lock and the upserted counter rows are held until commit.
+     */
+    public void apply(String fileId, Deltas deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        lock(SHARED_LOCK_TEMPLATE, fileId);
+        SqlParameterSource[] batch = deltas.byStatus.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("fileId", fileId)
+                        .addValue("status", e.getKey())
+                        .addValue("count", e.getValue().count())
+                        .addValue("amount", e.getValue().amount()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(sqlTemplates.load(ADD_TEMPLATE), batch);
+    }
+
+    /**
+     * @return the file's counters keyed by status; statuses never seen are absent
+     */
+    public Map<String, Counter> findByFileId(String fileId) {
+        Map<String, Counter> counters = new LinkedHashMap<>();
+        jdbcTemplate.query(sqlTemplates.load(BY_FILE_TEMPLATE), new MapSqlParameterSource("fileId", fileId),
+                rs -> {
+                    counters.put(rs.getString("status"),
+                            new Counter(rs.getLong("record_count"), rs.getBigDecimal("amount_sum")));
+                });
+        return counters;
+    }
+
+    public void deleteByFileId(String fileId) {
+        lock(LOCK_TEMPLATE, fileId);
+        jdbcTemplate.update("DELETE FROM file_status_counters WHERE file_id = :fileId",
+                new MapSqlParameterSource("fileId", fileId));
+    }
+
+    /**
+     * Rebuilds the file's counters from worker_uploaded_data. Must run in a transaction.
+     */
+    public void recount(String fileId) {
+        deleteByFileId(fileId);
+        jdbcTemplate.update(sqlTemplates.load(RECOUNT_TEMPLATE), new MapSqlParameterSource("fileId", fileId));
+    }
+
+    /**
+     * Files whose counters disagree with worker_uploaded_data, among those whose counters changed
+     * within the window. Takes no locks, so files with writes in flight may show up too;
+     * {@link #recount} settles them either way.
+     */
+    public List<String> findDriftedFileIds(long windowSeconds) {
+        return jdbcTemplate.queryForList(sqlTemplates.load(DRIFT_TEMPLATE),
+                new MapSqlParameterSource("windowSeconds", windowSeconds), String.class);
+    }
+
+    /**
+     * Runs the task while holding the cluster-wide reconcile lock, a session-level advisory lock
+     * on a connection kept for the duration of the task.
+     *
+     * @return false, without running the task, if another instance holds the lock
+     */
+    public boolean runWithReconcileLock(Runnable task) {
+        Boolean ran = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection -> {
+            if (!queryBoolean(connection, sqlTemplates.load(RECONCILE_LOCK_TEMPLATE))) {
+                return false;
+            }
+            try {
+                task.run();
+            } finally {
+                queryBoolean(connection, sqlTemplates.load(RECONCILE_UNLOCK_TEMPLATE));
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void lock(String template, String fileId) {
+        jdbcTemplate.query(sqlTemplates.load(template), new MapSqlParameterSource("fileId", fileId),
+                rs -> null);
+    }
+
+    /**
+     * Accumulates signed count and amount changes per status for one file.
+     */
+    public static final class Deltas {
+        // Sorted so concurrent writers upsert status rows in the same order
+        private final Map<String, Counter> byStatus = new TreeMap<>();
+
+        public Deltas add(String status, long count, BigDecimal amount) {
+            BigDecimal value = amount != null ? amount : BigDecimal.ZERO;
+            byStatus.merge(status, new Counter(count, value),
+                    (a, b) -> new Counter(a.count() + b.count(), a.amount().add(b.amount())));
+            return this;
+        }
+
+        /**
+         * Counts each row under its current status, with {@code sign} +1 or -1.
+         */
+        public Deltas addRows(Collection<WorkerUploadedData> rows, int sign) {
+            for (WorkerUploadedData row : rows) {
+                BigDecimal amount = row.getPaymentAmount() != null ? row.getPaymentAmount() : BigDecimal.ZERO;
+                add(row.getStatus(), sign, sign < 0 ? amount.negate() : amount);
+            }
+            return this;
+        }
+
+        public boolean isEmpty() {
+            byStatus.values().removeIf(c -> c.count() == 0 && c.amount().signum() == 0);
+            return byStatus.isEmpty();
+        }
+    }
+}
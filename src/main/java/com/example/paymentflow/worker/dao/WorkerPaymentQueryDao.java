@@ -1,5 +1,7 @@
 package com.example.paymentflow.worker.dao;
 
+import com.example.paymentflow.common.pagination.KeysetCursor;
+import com.example.paymentflow.common.pagination.KeysetPage;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.shared.common.dao.BaseQueryDao;
@@ -26,6 +28,9 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
     private static final String BASE_SELECT_TEMPLATE = "sql/worker/worker_payments_base_select.sql";
     private static final String BASE_COUNT_TEMPLATE = "sql/worker/worker_payments_count.sql";
 
+    /** Ordering of keyset pages, recorded in their cursors. */
+    private static final String KEYSET_SORT = "created_at:DESC";
+
     private final DSLContext dsl;
     private final SqlTemplateLoader sqlTemplates;
 
@@ -60,8 +65,67 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
         
         StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         Map<String, Object> params = new HashMap<>();
+        appendFilters(whereClause, params, status, receiptNumber, fileId, startDate, endDate);
+        
+        String baseSql = baseSelect() + whereClause + " ORDER BY created_at DESC, id DESC";
+        String countSql = baseCount() + whereClause;
+        
+        return queryForPage(baseSql, countSql, params, page, size, this::mapWorkerPayment);
+    }
+    
+    /**
+     * Version of the page {@link #findWithFilters} would return: the total plus id and row version
+     * (xmin) of every row on the page. It changes whenever a row on the page is inserted, updated
+     * or deleted, or the total changes.
+     */
+    public String pageVersion(String status, String receiptNumber, String fileId,
+                              LocalDateTime startDate, LocalDateTime endDate, int page, int size) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(whereClause, params, status, receiptNumber, fileId, startDate, endDate);
+        
+        long total = queryForObject(baseCount() + whereClause, params, (rs, rowNum) -> rs.getLong(1)).orElse(0L);
+        params.put("limit", Math.max(size, 1));
+        params.put("offset", Math.max(page, 0) * Math.max(size, 1));
+        String sql = "SELECT id::text || ':' || xmin::text FROM worker_payments" + whereClause
+                + " ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset";
+        List<String> rowVersions = queryForList(sql, params, (rs, rowNum) -> rs.getString(1));
+        return total + ";" + String.join(",", rowVersions);
+    }
+    
+    /**
+     * Keyset variant of {@link #findWithFilters}: rows after {@code cursor} in (created_at, id)
+     * descending order, so every page costs the same however deep it is. The total is a count
+     * capped at {@link KeysetPage#COUNT_CAP}.
+     */
+    public KeysetPage<WorkerPayment> findWithFiltersKeyset(String status, String receiptNumber,
+                                                        String fileId, LocalDateTime startDate,
+                                                        LocalDateTime endDate, String cursor, int size) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(whereClause, params, status, receiptNumber, fileId, startDate, endDate);
+        
+        long total = queryForObject(KeysetPage.cappedCountSql("SELECT 1 FROM worker_payments" + whereClause),
+                params, (rs, rowNum) -> rs.getLong(1)).orElse(0L);
         
-        // Build dynamic where clause
+        StringBuilder pageClause = new StringBuilder(whereClause);
+        KeysetCursor after = KeysetCursor.decode(cursor, KEYSET_SORT);
+        if (after != null) {
+            pageClause.append(" AND (created_at, id) < (:afterCreatedAt, :afterId)");
+            params.put("afterCreatedAt", LocalDateTime.parse(after.value()));
+            params.put("afterId", after.id());
+        }
+        int sizeSafe = Math.max(size, 1);
+        params.put("limit", sizeSafe + 1);
+        String sql = baseSelect() + pageClause + " ORDER BY created_at DESC, id DESC LIMIT :limit";
+        List<WorkerPayment> rows = queryForList(sql, params, this::mapWorkerPayment);
+        return KeysetPage.of(rows, sizeSafe, total,
+                payment -> new KeysetCursor(KEYSET_SORT, payment.getCreatedAt().toString(), payment.getId()));
+    }
+    
+    private void appendFilters(StringBuilder whereClause, Map<String, Object> params, String status,
+                               String receiptNumber, String fileId, LocalDateTime startDate,
+                               LocalDateTime endDate) {
         if (status != null && !status.trim().isEmpty()) {
             whereClause.append(" AND status = :status");
             params.put("status", status);
@@ -86,11 +150,6 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
             whereClause.append(" AND created_at <= :endDate");
             params.put("endDate", endDate);
         }
-        
-        String baseSql = baseSelect() + whereClause + " ORDER BY created_at DESC";
-        String countSql = baseCount() + whereClause;
-        
-        return queryForPage(baseSql, countSql, params, page, size, this::mapWorkerPayment);
     }
     
     /**
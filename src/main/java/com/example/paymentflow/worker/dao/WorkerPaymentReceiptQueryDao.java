@@ -1,5 +1,7 @@
 package com.example.paymentflow.worker.dao;
 
+import com.example.paymentflow.common.pagination.KeysetCursor;
+import com.example.paymentflow.common.pagination.KeysetPage;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.shared.common.dao.BaseQueryDao;
@@ -8,7 +10,9 @@ import org.springframework.stereotype.Repository;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,6 +25,9 @@ public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
     private static final String COUNT_BY_STATUS_TEMPLATE = "sql/worker/worker_payment_receipts_count_by_status.sql";
     private static final String TOTAL_AMOUNT_BY_STATUS_TEMPLATE = "sql/worker/worker_payment_receipts_total_amount_by_status.sql";
 
+    /** Ordering of keyset pages, recorded in their cursors. */
+    private static final String KEYSET_SORT = "created_at:DESC";
+
     private final SqlTemplateLoader sqlTemplates;
 
     public WorkerPaymentReceiptQueryDao(SqlTemplateLoader sqlTemplates) {
@@ -52,7 +59,7 @@ public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
                 "startDate", startDate,
                 "endDate", endDate
         );
-        String baseSql = baseSelect() + " WHERE wpr.created_at BETWEEN :startDate AND :endDate ORDER BY wpr.created_at DESC";
+        String baseSql = baseSelect() + " WHERE wpr.created_at BETWEEN :startDate AND :endDate ORDER BY wpr.created_at DESC, wpr.id DESC";
         String countSql = baseCount() + " WHERE wpr.created_at BETWEEN :startDate AND :endDate";
         return queryForPage(baseSql, countSql, params, page, size, this::mapReceipt);
     }
@@ -64,11 +71,66 @@ public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
                 "startDate", startDate,
                 "endDate", endDate
         );
-        String baseSql = baseSelect() + " WHERE wpr.status = :status AND wpr.created_at BETWEEN :startDate AND :endDate ORDER BY wpr.created_at DESC";
+        String baseSql = baseSelect() + " WHERE wpr.status = :status AND wpr.created_at BETWEEN :startDate AND :endDate ORDER BY wpr.created_at DESC, wpr.id DESC";
         String countSql = baseCount() + " WHERE wpr.status = :status AND wpr.created_at BETWEEN :startDate AND :endDate";
         return queryForPage(baseSql, countSql, params, page, size, this::mapReceipt);
     }
 
+    /**
+     * Version of the page {@link #findByStatusAndDateRange} (status given) or {@link #findByDateRange}
+     * (status null) would return: the total plus id and row version (xmin) of every row on the
+     * page. It changes whenever a row on the page is inserted, updated or deleted, or the total
+     * changes.
+     */
+    public String pageVersion(String status, LocalDateTime startDate, LocalDateTime endDate, int page, int size) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = new StringBuilder(" WHERE wpr.created_at BETWEEN :startDate AND :endDate");
+        params.put("startDate", startDate);
+        params.put("endDate", endDate);
+        if (status != null) {
+            where.append(" AND wpr.status = :status");
+            params.put("status", status);
+        }
+        long total = queryForObject(baseCount() + where, params, (rs, rowNum) -> rs.getLong(1)).orElse(0L);
+        params.put("limit", Math.max(size, 1));
+        params.put("offset", Math.max(page, 0) * Math.max(size, 1));
+        String sql = "SELECT wpr.id::text || ':' || wpr.xmin::text FROM worker_payment_receipts wpr" + where
+                + " ORDER BY wpr.created_at DESC, wpr.id DESC LIMIT :limit OFFSET :offset";
+        List<String> rowVersions = queryForList(sql, params, (rs, rowNum) -> rs.getString(1));
+        return total + ";" + String.join(",", rowVersions);
+    }
+
+    /**
+     * Keyset page of receipts created in the range, optionally with one status, in (created_at, id)
+     * descending order. The total is a count capped at {@link KeysetPage#COUNT_CAP}.
+     */
+    public KeysetPage<WorkerPaymentReceipt> findByDateRangeKeyset(String status, LocalDateTime startDate,
+                                                                  LocalDateTime endDate, String cursor, int size) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = new StringBuilder(" WHERE wpr.created_at BETWEEN :startDate AND :endDate");
+        params.put("startDate", startDate);
+        params.put("endDate", endDate);
+        if (status != null) {
+            where.append(" AND wpr.status = :status");
+            params.put("status", status);
+        }
+        long total = queryForObject(KeysetPage.cappedCountSql("SELECT 1 FROM worker_payment_receipts wpr" + where),
+                params, (rs, rowNum) -> rs.getLong(1)).orElse(0L);
+
+        KeysetCursor after = KeysetCursor.decode(cursor, KEYSET_SORT);
+        if (after != null) {
+            where.append(" AND (wpr.created_at, wpr.id) < (:afterCreatedAt, :afterId)");
+            params.put("afterCreatedAt", LocalDateTime.parse(after.value()));
+            params.put("afterId", after.id());
+        }
+        int sizeSafe = Math.max(size, 1);
+        params.put("limit", sizeSafe + 1);
+        String sql = baseSelect() + where + " ORDER BY wpr.created_at DESC, wpr.id DESC LIMIT :limit";
+        List<WorkerPaymentReceipt> rows = queryForList(sql, params, this::mapReceipt);
+        return KeysetPage.of(rows, sizeSafe, total,
+                receipt -> new KeysetCursor(KEYSET_SORT, receipt.getCreatedAt().toString(), receipt.getId()));
+    }
+
     public Optional<WorkerPaymentReceipt> findById(Long id) {
         String sql = baseSelect() + " WHERE wpr.id = :id";
         return queryForObject(sql, Map.of("id", id), this::mapReceipt);
@@ -79,6 +141,17 @@ public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
         return queryForObject(sql, Map.of("receiptNumber", receiptNumber), this::mapReceipt);
     }
 
+    /**
+     * Resolves many receipts in one query; numbers that do not exist are simply absent.
+     */
+    public List<WorkerPaymentReceipt> findByReceiptNumbers(Collection<String> receiptNumbers) {
+        if (receiptNumbers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String sql = baseSelect() + " WHERE wpr.receipt_number IN (:receiptNumbers)";
+        return queryForList(sql, Map.of("receiptNumbers", receiptNumbers), this::mapReceipt);
+    }
+
     public List<WorkerPaymentReceipt> findByEmployerId(String employerId) {
         String sql = baseSelect() + " WHERE wpr.employer_id = :employerId ORDER BY wpr.created_at DESC";
         return queryForList(sql, Map.of("employerId", employerId), this::mapReceipt);
@@ -0,0 +1,66 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based writes that turn the VALIDATED rows of an upload into worker payment requests.
+ * Statements run on the caller's transaction; neither one grows in round trips with row count.
+ */
+@Repository
+public class WorkerPaymentRequestDao {
+
+    private static final String VALIDATED_TOTALS_TEMPLATE = "sql/worker/worker_uploaded_data_validated_totals.sql";
+    private static final String GENERATE_TEMPLATE = "sql/worker/worker_payments_generate_from_uploaded.sql";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public WorkerPaymentRequestDao(NamedParameterJdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * Count, amount and the employer/toli of the first (lowest id) VALIDATED row of a file.
+     */
+    public record ValidatedTotals(int totalRecords, BigDecimal totalAmount, String employerId, String toliId) {
+    }
+
+    /**
+     * @return totals of the file's VALIDATED rows, or empty if there are none
+     */
+    public Optional<ValidatedTotals> findValidatedTotals(String fileId) {
+        List<ValidatedTotals> rows = jdbcTemplate.query(
+                sqlTemplates.load(VALIDATED_TOTALS_TEMPLATE),
+                new MapSqlParameterSource("fileId", fileId),
+                (rs, rowNum) -> new ValidatedTotals(
+                        rs.getInt("total_records"),
+                        rs.getBigDecimal("total_amount"),
+                        rs.getString("employer_id"),
+                        rs.getString("toli_id")));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Marks the file's VALIDATED rows as REQUEST_GENERATED under the given receipt and inserts one
+     * worker payment per row, in a single statement.
+     *
+     * @return number of worker payments inserted
+     */
+    public int generatePaymentRequests(String fileId, String receiptNumber, LocalDateTime processedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fileId", fileId)
+                .addValue("receiptNumber", receiptNumber)
+                .addValue("processedAt", Timestamp.valueOf(processedAt));
+        return jdbcTemplate.update(sqlTemplates.load(GENERATE_TEMPLATE), params);
+    }
+}
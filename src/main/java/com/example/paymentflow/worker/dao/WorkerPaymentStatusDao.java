@@ -0,0 +1,113 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Set-based status changes for worker payments and worker payment receipts. Each call is one
+ * UPDATE, with receipt numbers and source statuses bound as array parameters, so the statement
+ * text and round trips stay the same however many receipts or payments move.
+ * <p>
+ * Statements run on the caller's transaction and bypass the persistence context; callers must not
+ * rely on already loaded entities of the same rows afterwards. Which transitions are allowed is
+ * decided by {@code WorkerPaymentStatusTransitionService}, not here.
+ */
+@Repository
+public class WorkerPaymentStatusDao {
+
+    private static final String MOVE_PAYMENTS_TEMPLATE = "sql/worker/worker_payments_move_status.sql";
+    private static final String MOVE_FILE_PAYMENTS_TEMPLATE = "sql/worker/worker_payments_move_status_by_file.sql";
+    private static final String FILE_TOTALS_TEMPLATE = "sql/worker/worker_payments_totals_by_file_status.sql";
+    private static final String SET_RECEIPTS_TEMPLATE = "sql/worker/worker_payment_receipts_set_status.sql";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public WorkerPaymentStatusDao(JdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * Count, amount and the employer/toli of the first (lowest id) payment in a status.
+     */
+    public record StatusTotals(int totalRecords, BigDecimal totalAmount, String employerId, String toliId) {
+    }
+
+    /**
+     * Moves the payments of the given receipts that are in one of {@code fromStatuses} to
+     * {@code toStatus}; payments in any other status are left alone.
+     *
+     * @return number of payments moved, by receipt; receipts with none moved are absent
+     */
+    public Map<String, Integer> movePayments(Collection<String> receiptNumbers, Collection<String> fromStatuses,
+                                             String toStatus) {
+        if (receiptNumbers.isEmpty() || fromStatuses.isEmpty()) {
+            return Map.of();
+        }
+        String[] numbers = receiptNumbers.toArray(String[]::new);
+        String[] statuses = fromStatuses.toArray(String[]::new);
+        Map<String, Integer> moved = new TreeMap<>();
+        jdbcTemplate.query(sqlTemplates.load(MOVE_PAYMENTS_TEMPLATE), ps -> {
+            ps.setString(1, toStatus);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", numbers));
+            ps.setArray(3, ps.getConnection().createArrayOf("text", statuses));
+        }, rs -> {
+            moved.put(rs.getString(1), rs.getInt(2));
+        });
+        return moved;
+    }
+
+    /**
+     * Moves the file's payments in {@code fromStatus} to {@code toStatus} and assigns them to the
+     * receipt.
+     *
+     * @return number of payments moved
+     */
+    public int moveFilePayments(String fileId, String fromStatus, String toStatus, String receiptNumber) {
+        return jdbcTemplate.update(sqlTemplates.load(MOVE_FILE_PAYMENTS_TEMPLATE),
+                toStatus, receiptNumber, fileId, fromStatus);
+    }
+
+    /**
+     * @return totals of the file's payments in {@code status}, or empty if there are none
+     */
+    public Optional<StatusTotals> findFileTotals(String fileId, String status) {
+        StatusTotals totals = jdbcTemplate.queryForObject(sqlTemplates.load(FILE_TOTALS_TEMPLATE),
+                (rs, rowNum) -> new StatusTotals(
+                        rs.getInt("total_records"),
+                        rs.getBigDecimal("total_amount"),
+                        rs.getString("employer_id"),
+                        rs.getString("toli_id")),
+                fileId, status);
+        return totals == null || totals.totalRecords() == 0 ? Optional.empty() : Optional.of(totals);
+    }
+
+    /**
+     * Sets the given worker payment receipts to {@code status}.
+     *
+     * @return the status each receipt had before, for the receipts whose status changed
+     */
+    public Map<String, String> setReceiptStatus(Collection<String> receiptNumbers, String status) {
+        if (receiptNumbers.isEmpty()) {
+            return Map.of();
+        }
+        String[] numbers = receiptNumbers.toArray(String[]::new);
+        Map<String, String> previous = new TreeMap<>();
+        jdbcTemplate.query(sqlTemplates.load(SET_RECEIPTS_TEMPLATE), ps -> {
+            ps.setString(1, status);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", numbers));
+            ps.setString(3, status);
+        }, rs -> {
+            previous.put(rs.getString(1), rs.getString(2));
+        });
+        return previous;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.jdbc.PgCopySupport;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Bulk insert path for parsed upload rows.
+ * <p>
+ * Rows are streamed with {@code COPY ... FROM STDIN} on the connection of the current
+ * transaction, so row-level-security session settings apply. PostgreSQL only: the rest of the
+ * insert path ({@code FileStatusCounterDao}, the upload job claims) is PostgreSQL-specific too, so
+ * there is no portable fallback. Ids are drawn from {@code worker_uploaded_data_seq} with
+ * {@code pooled_ids} (V20251203), one nextval per 50 rows as Hibernate does, instead of the column
+ * default, which would take a whole block per row; they are not written back to the entities. {@code WorkerUploadedData} carries no entity listeners, so bypassing the
+ * persistence context does not skip any auditing.
+ */
+@Repository
+public class WorkerUploadedDataBulkLoader {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataBulkLoader.class);
+
+    private static final String COLUMNS = "file_id, row_num, worker_id, worker_name, employer_id, toli_id, "
+            + "company_name, department, position, work_date, hours_worked, hourly_rate, payment_amount, "
+            + "bank_account, phone_number, email, address, status, rejection_reason, created_at, "
+            + "validated_at, processed_at, receipt_number";
+
+    private static final String COPY_SQL = "COPY worker_uploaded_data (id, " + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String IDS_SQL = "SELECT id FROM pooled_ids('worker_uploaded_data_seq', ?) AS id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkerUploadedDataBulkLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the rows in two round trips: one for their ids, one for the COPY.
+     *
+     * @return number of rows inserted
+     * @throws IllegalStateException if the connection is not a PostgreSQL connection
+     */
+    public int insert(List<WorkerUploadedData> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!PgCopySupport.isPostgres(connection)) {
+                throw new IllegalStateException("Bulk loading worker_uploaded_data requires PostgreSQL");
+            }
+            return copy(connection, rows);
+        });
+    }
+
+    private int copy(Connection connection, List<WorkerUploadedData> rows) throws SQLException {
+        long[] ids = allocateIds(connection, rows.size());
+        StringBuilder csv = new StringBuilder(rows.size() * 256);
+        for (int r = 0; r < rows.size(); r++) {
+            csv.append(ids[r]);
+            for (Object value : values(rows.get(r))) {
+                csv.append(',');
+                PgCopySupport.appendValue(csv, value);
+            }
+            csv.append('\n');
+        }
+        long copied = PgCopySupport.copyIn(connection, COPY_SQL, new StringReader(csv.toString()));
+        log.debug("COPY loaded {} worker_uploaded_data rows", copied);
+        return (int) copied;
+    }
+
+    private static long[] allocateIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement ps = connection.prepareStatement(IDS_SQL)) {
+            ps.setLong(1, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getLong(1);
+                }
+                if (i != count) {
+                    throw new SQLException("pooled_ids returned " + i + " ids for " + count + " rows");
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Column values in {@link #COLUMNS} order.
+     */
+    private static Object[] values(WorkerUploadedData row) {
+        return new Object[] {
+                row.getFileId(),
+                row.getRowNumber(),
+                row.getWorkerId(),
+                row.getWorkerName(),
+                row.getEmployerId(),
+                row.getToliId(),
+                row.getCompanyName(),
+                row.getDepartment(),
+                row.getPosition(),
+                row.getWorkDate(),
+                row.getHoursWorked(),
+                row.getHourlyRate(),
+                row.getPaymentAmount(),
+                row.getBankAccount(),
+                row.getPhoneNumber(),
+                row.getEmail(),
+                row.getAddress(),
+                row.getStatus(),
+                row.getRejectionReason(),
+                row.getCreatedAt(),
+                row.getValidatedAt(),
+                row.getProcessedAt(),
+                row.getReceiptNumber()
+        };
+    }
+}
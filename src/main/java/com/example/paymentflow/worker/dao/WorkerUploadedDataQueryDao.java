@@ -0,0 +1,229 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.jdbc.JdbcRowStreamer;
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.shared.common.dao.BaseQueryDao;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * DAO for Worker Uploaded Data reads and set-based writes that bypass the persistence context.
+ * Rows returned here are detached; they are never dirty-checked.
+ */
+@Repository
+public class WorkerUploadedDataQueryDao extends BaseQueryDao {
+
+    private static final String BASE_SELECT_TEMPLATE = "sql/worker/worker_uploaded_data_base_select.sql";
+    private static final String UPDATE_VALIDATION_TEMPLATE = "sql/worker/worker_uploaded_data_update_validation.sql";
+    private static final String FILE_SUMMARIES_TEMPLATE = "sql/worker/uploaded_file_summaries.sql";
+
+    private static final Map<String, String> FILE_SUMMARY_SORT_COLUMNS = Map.of(
+            "uploadDate", "uf.upload_date",
+            "totalRecords", "counts.total_records",
+            "validatedCount", "counts.validated_count",
+            "totalValidatedAmount", "counts.total_validated_amount");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SqlTemplateLoader sqlTemplates;
+    private final JdbcRowStreamer rowStreamer;
+
+    public WorkerUploadedDataQueryDao(NamedParameterJdbcTemplate jdbcTemplate, SqlTemplateLoader sqlTemplates,
+                                      JdbcRowStreamer rowStreamer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlTemplates = sqlTemplates;
+        this.rowStreamer = rowStreamer;
+    }
+
+    private String baseSelect() {
+        return sqlTemplates.load(BASE_SELECT_TEMPLATE);
+    }
+
+    /**
+     * Keyset slice: the next {@code limit} rows of the file with the given status and an id greater
+     * than {@code afterId}, in id order.
+     */
+    public List<WorkerUploadedData> findSliceByFileIdAndStatus(String fileId, String status, long afterId, int limit) {
+        String sql = baseSelect()
+                + " WHERE file_id = :fileId AND status = :status AND id > :afterId ORDER BY id LIMIT :limit";
+        Map<String, Object> params = Map.of(
+                "fileId", fileId,
+                "status", status,
+                "afterId", afterId,
+                "limit", limit);
+        return queryForList(sql, params, this::mapWorkerUploadedData);
+    }
+
+    /**
+     * Streams the file's rows in any of the given statuses, in row order. Must run in a transaction
+     * for the fetch size to take effect.
+     */
+    public void streamByFileIdAndStatuses(String fileId, List<String> statuses, Consumer<WorkerUploadedData> sink) {
+        String sql = baseSelect() + " WHERE file_id = :fileId AND status IN (:statuses) ORDER BY row_num, id";
+        rowStreamer.stream(sql, Map.of("fileId", fileId, "statuses", statuses), this::mapWorkerUploadedData, sink);
+    }
+
+    /**
+     * Streams the rows of one payment request, in row order. Must run in a transaction for the
+     * fetch size to take effect.
+     */
+    public void streamByReceiptNumber(String receiptNumber, Consumer<WorkerUploadedData> sink) {
+        String sql = baseSelect() + " WHERE receipt_number = :receiptNumber ORDER BY row_num, id";
+        rowStreamer.stream(sql, Map.of("receiptNumber", receiptNumber), this::mapWorkerUploadedData, sink);
+    }
+
+    /**
+     * Writes status, rejection reason and validatedAt of the rows back in one JDBC batch.
+     *
+     * @return number of rows updated
+     */
+    public int updateValidationResults(List<WorkerUploadedData> rows) {
+        SqlParameterSource[] batch = new SqlParameterSource[rows.size()];
+        for (int i = 0; i < batch.length; i++) {
+            WorkerUploadedData row = rows.get(i);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("id", row.getId())
+                    .addValue("status", row.getStatus())
+                    .addValue("rejectionReason", row.getRejectionReason())
+                    .addValue("validatedAt", row.getValidatedAt() != null ? Timestamp.valueOf(row.getValidatedAt()) : null);
+        }
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(sqlTemplates.load(UPDATE_VALIDATION_TEMPLATE), batch)) {
+            updated += count >= 0 ? count : 1; // SUCCESS_NO_INFO counts as one row
+        }
+        return updated;
+    }
+
+    /**
+     * One page of per-file summaries: uploaded_files joined with the file's status counters,
+     * filtered, sorted and paged in the database. Files without uploaded rows are left out.
+     * Unknown sort keys fall back to file id order.
+     *
+     * @param uploadedFileId restrict to one file, or null
+     * @param status         only files with at least one row in this status, or null
+     * @param startDate      inclusive lower bound on the upload date, or null
+     * @param endDate        inclusive upper bound on the upload date, or null
+     */
+    public FileSummaryPage findFileSummaries(Long uploadedFileId, String status, LocalDateTime startDate,
+            LocalDateTime endDate, String sortBy, String sortDir, int page, int size) {
+        int pageSafe = Math.max(page, 0);
+        int sizeSafe = Math.max(size, 1);
+        StringBuilder sql = new StringBuilder(sqlTemplates.load(FILE_SUMMARIES_TEMPLATE));
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (uploadedFileId != null) {
+            sql.append(" AND uf.id = :uploadedFileId");
+            params.addValue("uploadedFileId", uploadedFileId);
+        }
+        if (startDate != null) {
+            sql.append(" AND uf.upload_date >= :startDate");
+            params.addValue("startDate", Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND uf.upload_date <= :endDate");
+            params.addValue("endDate", Timestamp.valueOf(endDate));
+        }
+        if (status != null && !status.isBlank()) {
+            sql.append(" AND EXISTS (SELECT 1 FROM file_status_counters s")
+                    .append(" WHERE s.file_id = CAST(uf.id AS VARCHAR) AND s.status = :status AND s.record_count > 0)");
+            params.addValue("status", status.trim().toUpperCase());
+        }
+        String sortColumn = FILE_SUMMARY_SORT_COLUMNS.get(sortBy);
+        String direction = "desc".equalsIgnoreCase(sortDir) ? "DESC" : "ASC";
+        sql.append(" ORDER BY ");
+        if (sortColumn != null) {
+            sql.append(sortColumn).append(' ').append(direction).append(", ");
+        }
+        sql.append("uf.id ").append(direction);
+        sql.append(" LIMIT :limit OFFSET :offset");
+        params.addValue("limit", sizeSafe);
+        params.addValue("offset", (long) pageSafe * sizeSafe);
+
+        long[] total = {0L};
+        List<FileSummary> content = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            total[0] = rs.getLong("total_elements");
+            return mapFileSummary(rs);
+        });
+        if (content.isEmpty() && pageSafe > 0) {
+            // Past the last page: the window count came back with no rows, so ask for it directly
+            return new FileSummaryPage(content, findFileSummaries(uploadedFileId, status, startDate, endDate,
+                    sortBy, sortDir, 0, 1).totalElements());
+        }
+        return new FileSummaryPage(content, total[0]);
+    }
+
+    private FileSummary mapFileSummary(ResultSet rs) throws SQLException {
+        Timestamp uploadDate = rs.getTimestamp("upload_date");
+        return new FileSummary(
+                String.valueOf(rs.getLong("uploaded_file_id")),
+                rs.getString("filename"),
+                uploadDate != null ? uploadDate.toLocalDateTime() : null,
+                rs.getInt("total_records"),
+                rs.getInt("uploaded_count"),
+                rs.getInt("validated_count"),
+                rs.getInt("rejected_count"),
+                rs.getInt("request_generated_count"),
+                rs.getBigDecimal("total_validated_amount"));
+    }
+
+    private WorkerUploadedData mapWorkerUploadedData(ResultSet rs, int rowNum) throws SQLException {
+        WorkerUploadedData data = new WorkerUploadedData();
+        data.setId(rs.getObject("id", Long.class));
+        data.setFileId(rs.getString("file_id"));
+        data.setRowNumber(rs.getObject("row_num", Integer.class));
+        data.setWorkerId(rs.getString("worker_id"));
+        data.setWorkerName(rs.getString("worker_name"));
+        data.setEmployerId(rs.getString("employer_id"));
+        data.setToliId(rs.getString("toli_id"));
+        data.setCompanyName(rs.getString("company_name"));
+        data.setDepartment(rs.getString("department"));
+        data.setPosition(rs.getString("position"));
+        java.sql.Date workDate = rs.getDate("work_date");
+        if (workDate != null) {
+            data.setWorkDate(workDate.toLocalDate());
+        }
+        data.setHoursWorked(rs.getBigDecimal("hours_worked"));
+        data.setHourlyRate(rs.getBigDecimal("hourly_rate"));
+        data.setPaymentAmount(rs.getBigDecimal("payment_amount"));
+        data.setBankAccount(rs.getString("bank_account"));
+        data.setPhoneNumber(rs.getString("phone_number"));
+        data.setEmail(rs.getString("email"));
+        data.setAddress(rs.getString("address"));
+        data.setStatus(rs.getString("status"));
+        data.setRejectionReason(rs.getString("rejection_reason"));
+
+        // Handle timestamps
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            data.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        Timestamp validatedAt = rs.getTimestamp("validated_at");
+        if (validatedAt != null) {
+            data.setValidatedAt(validatedAt.toLocalDateTime());
+        }
+        Timestamp processedAt = rs.getTimestamp("processed_at");
+        if (processedAt != null) {
+            data.setProcessedAt(processedAt.toLocalDateTime());
+        }
+        data.setReceiptNumber(rs.getString("receipt_number"));
+        return data;
+    }
+
+    public record FileSummary(String fileId, String fileName, LocalDateTime uploadDate, int totalRecords,
+            int uploadedCount, int validatedCount, int rejectedCount, int requestGeneratedCount,
+            BigDecimal totalValidatedAmount) {
+    }
+
+    public record FileSummaryPage(List<FileSummary> content, long totalElements) {
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
@@ -25,7 +26,8 @@ import java.util.UUID;
 public class WorkerPayment extends AbstractAuditableEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "worker_payments_seq")
+    @SequenceGenerator(name = "worker_payments_seq", sequenceName = "worker_payments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "worker_reference", nullable = false, length = 64)
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "worker_payment_receipts")
 public class WorkerPaymentReceipt {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "worker_payment_receipts_seq")
+    @SequenceGenerator(name = "worker_payment_receipts_seq", sequenceName = "worker_payment_receipts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "receipt_number", nullable = false, unique = true, length = 40)
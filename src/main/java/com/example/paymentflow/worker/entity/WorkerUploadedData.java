@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "worker_uploaded_data")
 public class WorkerUploadedData {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "worker_uploaded_data_seq")
+    @SequenceGenerator(name = "worker_uploaded_data_seq", sequenceName = "worker_uploaded_data_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "file_id", nullable = false, length = 100)
@@ -0,0 +1,42 @@
+package com.example.paymentflow.worker.pipeline;
+
+import com.example.paymentflow.common.queue.PipelineJob;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.common.queue.PipelineStageHandler;
+import com.example.paymentflow.worker.service.WorkerPaymentFileService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the payment request for a validated file and hands its receipt on to the employer.
+ * <p>
+ * The request is committed before the worker enqueues the next stage, so a job re-claimed after
+ * its worker died in between finds the request already generated; the service then returns the
+ * existing receipt, and SEND_TO_EMPLOYER is still enqueued for it.
+ */
+@Component
+public class GenerateRequestStageHandler implements PipelineStageHandler {
+
+    private final WorkerPaymentFileService fileService;
+
+    public GenerateRequestStageHandler(WorkerPaymentFileService fileService) {
+        this.fileService = fileService;
+    }
+
+    @Override
+    public PipelineStage stage() {
+        return PipelineStage.GENERATE_REQUEST;
+    }
+
+    @Override
+    public List<String> handle(PipelineJob job) {
+        Map<String, Object> result = fileService.generateRequest(job.subject());
+        if (result.containsKey("error")) {
+            throw new IllegalStateException(String.valueOf(result.get("error")));
+        }
+        Object receiptNumber = result.get("receiptNumber");
+        return receiptNumber != null ? List.of(receiptNumber.toString()) : List.of();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.paymentflow.worker.pipeline;
+
+import com.example.paymentflow.common.queue.PipelineJob;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.common.queue.PipelineStageHandler;
+import com.example.paymentflow.worker.service.WorkerUploadJobService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Parses a stored upload. Validation after an upload stays a user action, so the chain ends here.
+ */
+@Component
+public class ParseUploadStageHandler implements PipelineStageHandler {
+
+    private final WorkerUploadJobService uploadJobService;
+
+    public ParseUploadStageHandler(WorkerUploadJobService uploadJobService) {
+        this.uploadJobService = uploadJobService;
+    }
+
+    @Override
+    public PipelineStage stage() {
+        return PipelineStage.PARSE_UPLOAD;
+    }
+
+    @Override
+    public List<String> handle(PipelineJob job) {
+        // Parse failures are data errors: the file is marked FAILED and retrying would not help
+        uploadJobService.process(Long.valueOf(job.subject()));
+        return List.of();
+    }
+}
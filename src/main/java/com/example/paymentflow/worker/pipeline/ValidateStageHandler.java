@@ -0,0 +1,38 @@
+package com.example.paymentflow.worker.pipeline;
+
+import com.example.paymentflow.common.queue.PipelineJob;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.common.queue.PipelineStageHandler;
+import com.example.paymentflow.worker.service.WorkerPaymentFileService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates an uploaded file and, if any records passed, hands it on to request generation.
+ */
+@Component
+public class ValidateStageHandler implements PipelineStageHandler {
+
+    private final WorkerPaymentFileService fileService;
+
+    public ValidateStageHandler(WorkerPaymentFileService fileService) {
+        this.fileService = fileService;
+    }
+
+    @Override
+    public PipelineStage stage() {
+        return PipelineStage.VALIDATE;
+    }
+
+    @Override
+    public List<String> handle(PipelineJob job) {
+        Map<String, Object> result = fileService.validateFileRecords(job.subject());
+        if (result.containsKey("error")) {
+            throw new IllegalStateException(String.valueOf(result.get("error")));
+        }
+        Object passed = result.get("passed");
+        return passed instanceof Number count && count.intValue() > 0 ? List.of(job.subject()) : List.of();
+    }
+}
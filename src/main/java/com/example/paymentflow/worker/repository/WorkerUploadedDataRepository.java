@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface WorkerUploadedDataRepository extends JpaRepository<WorkerUploadedData, Long> {
     // READ operations - to be moved to WorkerUploadedDataQueryDao in future
@@ -26,6 +27,9 @@ public interface WorkerUploadedDataRepository extends JpaRepository<WorkerUpload
                                                              LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
     Page<WorkerUploadedData> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
     
+    // A row of a file that already has its request generated, to recover the receipt on a re-run
+    Optional<WorkerUploadedData> findFirstByFileIdAndStatusAndReceiptNumberIsNotNull(String fileId, String status);
+    
     @Query("SELECT COUNT(w) FROM WorkerUploadedData w WHERE w.fileId = :fileId AND w.status = :status")
     long countByFileIdAndStatus(@Param("fileId") String fileId, @Param("status") String status);
     
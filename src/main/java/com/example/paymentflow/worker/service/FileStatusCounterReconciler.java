@@ -0,0 +1,78 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.common.concurrency.BackgroundConnectionUser;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.dao.FileStatusCounterDao;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Periodically compares file_status_counters with worker_uploaded_data and rebuilds the counters
+ * of any file that has drifted, e.g. after a failed writer or a manual data fix. Only files whose
+ * counters changed within {@code workerpayment.file.counter-reconcile-window-minutes} are compared,
+ * and one instance at a time runs the check under a cluster-wide advisory lock. Each file is
+ * recounted in its own transaction under the file's counter lock.
+ */
+@Component
+public class FileStatusCounterReconciler implements BackgroundConnectionUser {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(FileStatusCounterReconciler.class);
+
+    private final FileStatusCounterDao statusCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkerPaymentFileConfig fileConfig;
+
+    public FileStatusCounterReconciler(FileStatusCounterDao statusCounters, TransactionTemplate transactionTemplate,
+                                       WorkerPaymentFileConfig fileConfig) {
+        this.statusCounters = statusCounters;
+        this.transactionTemplate = transactionTemplate;
+        this.fileConfig = fileConfig;
+    }
+
+    @Scheduled(cron = "${workerpayment.file.counter-reconcile-cron:0 30 * * * *}")
+    public void reconcile() {
+        try {
+            if (!statusCounters.runWithReconcileLock(this::reconcileRecentFiles)) {
+                log.debug("File status counter check is running on another instance");
+            }
+        } catch (Exception e) {
+            log.error("Failed to check file status counters for drift", e);
+        }
+    }
+
+    /**
+     * The session holding the advisory lock, plus the transaction recounting one file.
+     */
+    @Override
+    public int maxConnections() {
+        return 2;
+    }
+
+    private void reconcileRecentFiles() {
+        List<String> drifted;
+        try {
+            drifted = statusCounters.findDriftedFileIds(
+                    Math.max(1, fileConfig.getCounterReconcileWindowMinutes()) * 60L);
+        } catch (Exception e) {
+            log.error("Failed to check file status counters for drift", e);
+            return;
+        }
+        if (drifted.isEmpty()) {
+            log.debug("File status counters are in sync");
+            return;
+        }
+        log.warn("Recounting file status counters for {} file(s)", drifted.size());
+        for (String fileId : drifted) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> statusCounters.recount(fileId));
+            } catch (Exception e) {
+                log.error("Failed to recount file status counters for fileId: {}", fileId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.paymentflow.worker.service;
+
+/**
+ * Thrown when an upload job's runner finds that another runner has taken the job over after its
+ * lease went stale. The runner must stop without touching the file's rows or status, which now
+ * belong to the new owner.
+ */
+public class UploadJobOwnershipLostException extends IllegalStateException {
+
+    public UploadJobOwnershipLostException(Long uploadedFileId, String owner) {
+        super("Upload job " + uploadedFileId + " is no longer owned by " + owner);
+    }
+}
@@ -2,29 +2,40 @@ package com.example.paymentflow.worker.service;
 
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
+import com.example.paymentflow.common.jdbc.RowProducer;
+import com.example.paymentflow.utilities.file.CsvFileSplitter;
+import com.example.paymentflow.utilities.file.CsvRowSource;
+import com.example.paymentflow.utilities.file.CsvTokenizer;
 import com.example.paymentflow.utilities.file.FileStorageUtil;
+import com.example.paymentflow.utilities.file.RowSource;
+import com.example.paymentflow.utilities.file.RowSources;
 import com.example.paymentflow.utilities.file.UploadedFile;
 import com.example.paymentflow.utilities.file.UploadedFileRepository;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.dao.WorkerPaymentQueryDao;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
 import org.slf4j.Logger;
 import org.springframework.web.multipart.MultipartFile;
 
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
-import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.CellType;
 
 @Service
 public class WorkerPaymentFileService {
@@ -42,48 +53,36 @@ public class WorkerPaymentFileService {
     
     @Autowired
     private WorkerPaymentReceiptService receiptService;
+
+    @Autowired
+    private WorkerPaymentQueryDao workerPaymentQueryDao;
     
     @Autowired
     private WorkerUploadedDataService workerUploadedDataService;
 
+    @Autowired
+    private WorkerPaymentFileConfig workerPaymentFileConfig;
+
+    @Autowired
+    @Qualifier("workerUploadParseExecutor")
+    private ExecutorService workerUploadParseExecutor;
+
     public Map<String, Object> handleFileUpload(MultipartFile file) {
         log.info("Received file upload: name={}, size={} bytes", file.getOriginalFilename(), file.getSize());
         
         try {
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            
-            // Use the new method that returns the entity directly to avoid lookup issues
-            UploadedFile uploadedFile = fileStorageUtil.storeFileAndReturnEntity(file, "workerpayments", fileName);
+            UploadedFile uploadedFile = storeUpload(file);
             String storedPath = uploadedFile.getStoredPath();
             String fileId = uploadedFile.getId().toString();
             
-            log.info("File saved to {} with fileId: {}", storedPath, fileId);
-            
-            // Parse the file and extract worker uploaded data
-            File fileToRead = new File(storedPath);
-            List<com.example.paymentflow.worker.entity.WorkerUploadedData> uploadedDataList = 
-                parseFileToUploadedData(fileToRead, file.getOriginalFilename(), fileId);
-            
-            // Update the uploaded file record with parsing results
-            uploadedFile.setTotalRecords(uploadedDataList.size());
-            uploadedFile.setSuccessCount(0); // Will be updated after validation
-            uploadedFile.setFailureCount(0);
-            uploadedFile.setStatus("UPLOADED");
-            uploadedFileRepository.save(uploadedFile);
-            
-            // Save uploaded data to WorkerUploadedData table
-            List<com.example.paymentflow.worker.entity.WorkerUploadedData> savedData = 
-                workerUploadedDataService.saveAll(uploadedDataList);
-            
-            log.info("File {} parsed and {} records saved to WorkerUploadedData (fileId={})", 
-                file.getOriginalFilename(), savedData.size(), fileId);
+            int recordCount = ingestStoredFile(uploadedFile);
             
             // Create response map step by step to identify any null values
             Map<String, Object> response = new HashMap<>();
             response.put("fileId", fileId);
-            response.put("message", "File uploaded successfully. " + savedData.size() + " records loaded. Proceed to validation.");
+            response.put("message", "File uploaded successfully. " + recordCount + " records loaded. Proceed to validation.");
             response.put("path", storedPath);
-            response.put("recordCount", savedData.size());
+            response.put("recordCount", recordCount);
             
             log.info("Returning response: {}", response);
             return response;
@@ -98,6 +97,79 @@ public class WorkerPaymentFileService {
         }
     }
 
+    /**
+     * Stores the upload and creates its {@link UploadedFile} record; nothing is parsed yet.
+     */
+    public UploadedFile storeUpload(MultipartFile file) throws IOException {
+        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
+        
+        // Use the new method that returns the entity directly to avoid lookup issues
+        UploadedFile uploadedFile = fileStorageUtil.storeFileAndReturnEntity(file, "workerpayments", fileName);
+        log.info("File saved to {} with fileId: {}", uploadedFile.getStoredPath(), uploadedFile.getId());
+        return uploadedFile;
+    }
+
+    /**
+     * Parses a stored upload into WorkerUploadedData and marks the file UPLOADED (ready for
+     * validation). The format is taken from the stored file name, which keeps the original
+     * extension. On failure the rows loaded so far are removed and the file is marked FAILED.
+     *
+     * @return number of records loaded
+     */
+    public int ingestStoredFile(UploadedFile uploadedFile) throws Exception {
+        return ingestStoredFile(uploadedFile, null);
+    }
+
+    /**
+     * Same as {@link #ingestStoredFile(UploadedFile)} for an upload job held by {@code jobOwner}.
+     * Every chunk, the final status and the failure cleanup only apply while that runner still
+     * owns the job; if another runner has taken it over, parsing stops and the file is left alone.
+     *
+     * @throws UploadJobOwnershipLostException if the job was taken over while parsing
+     */
+    public int ingestStoredFile(UploadedFile uploadedFile, String jobOwner) throws Exception {
+        String storedPath = uploadedFile.getStoredPath();
+        String fileId = uploadedFile.getId().toString();
+        
+        // Stream the file into WorkerUploadedData in bounded chunks; progress is tracked on the uploaded file row
+        File fileToRead = new File(storedPath);
+        String storedName = fileToRead.getName();
+        List<WorkerUploadedDataChunkWriter> writers = new ArrayList<>();
+        int recordCount;
+        try {
+            if (useParallelParse(fileToRead, storedName)) {
+                parseCsvInParallel(fileToRead, fileId, uploadedFile.getId(), jobOwner, writers);
+            } else {
+                WorkerUploadedDataChunkWriter writer = newChunkWriter(uploadedFile.getId(), jobOwner);
+                writers.add(writer);
+                parseFileToUploadedData(fileToRead, storedName, fileId, writer);
+                writer.flush();
+            }
+            recordCount = totalWritten(writers);
+        } catch (UploadJobOwnershipLostException e) {
+            // The rows and status belong to the runner that took the job over
+            throw e;
+        } catch (Exception e) {
+            discardPartialUpload(uploadedFile, totalWritten(writers), jobOwner);
+            throw e;
+        }
+        
+        // Update the uploaded file record with parsing results
+        uploadedFile.setTotalRecords(recordCount);
+        uploadedFile.setSuccessCount(0); // Will be updated after validation
+        uploadedFile.setFailureCount(0);
+        uploadedFile.setStatus("UPLOADED");
+        if (jobOwner == null) {
+            uploadedFileRepository.save(uploadedFile);
+        } else if (uploadedFileRepository.finishOwnedJob(uploadedFile.getId(), jobOwner, "UPLOADED", recordCount) == 0) {
+            throw new UploadJobOwnershipLostException(uploadedFile.getId(), jobOwner);
+        }
+        
+        log.info("File {} parsed and {} records saved to WorkerUploadedData (fileId={})", 
+            storedName, recordCount, fileId);
+        return recordCount;
+    }
+
     public Map<String, Object> validateFileRecords(String fileId) {
         log.info("Validating records for fileId={}", fileId);
         
@@ -175,6 +247,18 @@ public class WorkerPaymentFileService {
     
 
 
+    /**
+     * Record summaries of the file's validated and rejected rows (or only those in {@code status}),
+     * read lazily so they can be streamed to the client.
+     */
+    public RowProducer<Map<String, Object>> exportValidationResults(String fileId, String status) {
+        List<String> statuses = status != null && !status.trim().isEmpty()
+                ? List.of(status.trim().toUpperCase())
+                : List.of("VALIDATED", "REJECTED");
+        return workerUploadedDataService.exportByFileIdAndStatuses(fileId, statuses)
+                .map(this::createUploadedDataSummary);
+    }
+
     private Map<String, Object> createUploadedDataSummary(com.example.paymentflow.worker.entity.WorkerUploadedData data) {
         Map<String, Object> summary = new HashMap<>();
         summary.put("id", data.getId());
@@ -289,23 +373,37 @@ public class WorkerPaymentFileService {
             String uploadedFileRef = uploadedFile.getFileReferenceNumber();
             
             // Generate request for validated data (keep data in WorkerUploadedData with receipt number)
-            int processedCount = workerUploadedDataService.generateRequestForValidatedData(fileId, uploadedFileRef);
+            WorkerUploadedDataService.GeneratedRequest generated =
+                    workerUploadedDataService.generateRequest(fileId, uploadedFileRef);
+            int processedCount = generated.processedCount();
+            String receiptNumber = generated.receiptNumber();
+            boolean alreadyGenerated = false;
             
             if (processedCount == 0) {
-                return Map.of("error", "No validated records found to generate request");
+                // A re-run after the request committed (e.g. a re-claimed pipeline job) reports the existing receipt
+                Optional<String> existing = workerUploadedDataService.findGeneratedReceiptNumber(fileId);
+                if (existing.isEmpty()) {
+                    return Map.of("error", "No validated records found to generate request");
+                }
+                receiptNumber = existing.get();
+                alreadyGenerated = true;
+                log.info("Request for fileId={} was already generated under receipt {}", fileId, receiptNumber);
             }
             
             // Update the uploaded file status
-            uploadedFile.setStatus("REQUEST_GENERATED");
-            uploadedFileRepository.save(uploadedFile);
+            if (!"REQUEST_GENERATED".equals(uploadedFile.getStatus())) {
+                uploadedFile.setStatus("REQUEST_GENERATED");
+                uploadedFileRepository.save(uploadedFile);
+            }
             
             log.info("Request generated successfully for fileId={}: {} records processed with receipt numbers", fileId, processedCount);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("message", "Request generated successfully");
+            response.put("message", alreadyGenerated ? "Request already generated" : "Request generated successfully");
             response.put("fileId", fileId);
             response.put("requestReference", uploadedFileRef);
             response.put("processedRecords", processedCount);
+            response.put("receiptNumber", receiptNumber);
             response.put("status", "REQUEST_GENERATED");
             response.put("nextAction", "VIEW_REQUESTS");
             
@@ -321,36 +419,12 @@ public class WorkerPaymentFileService {
         log.info("Processing valid records for fileId={}", fileId);
         
         try {
-            List<WorkerPayment> payments = workerPaymentService.findByFileId(fileId);
-            
-            int processedCount = 0;
-            List<WorkerPayment> toUpdate = new ArrayList<>();
-            
-            for (WorkerPayment payment : payments) {
-                // Only process records that passed validation
-                if ("VALIDATED".equals(payment.getStatus())) {
-                    payment.setStatus("PAYMENT_REQUESTED");
-                    toUpdate.add(payment);
-                    processedCount++;
-                }
-            }
-            
-            // Update statuses in bulk
-            String receiptNumber = null;
-            if (!toUpdate.isEmpty()) {
-                // First, create the receipt for all processed payments
-                WorkerPaymentReceipt receipt = receiptService.createReceipt(toUpdate);
-                receiptNumber = receipt.getReceiptNumber();
-                
-                // Assign the receipt number to all processed payments
-                for (WorkerPayment payment : toUpdate) {
-                    payment.setReceiptNumber(receiptNumber);
-                }
-                
-                // Update payments with new status and receipt number assignment
-                workerPaymentService.updateBulk(toUpdate);
-                
-                log.info("Generated receipt {} for {} processed payments", receipt.getReceiptNumber(), processedCount);
+            // Receipt totals and the VALIDATED -> PAYMENT_REQUESTED move are set-based
+            Optional<WorkerPaymentReceipt> receipt = receiptService.createReceiptForValidatedPayments(fileId);
+            int processedCount = receipt.map(WorkerPaymentReceipt::getTotalRecords).orElse(0);
+            String receiptNumber = receipt.map(WorkerPaymentReceipt::getReceiptNumber).orElse(null);
+            if (receiptNumber != null) {
+                log.info("Generated receipt {} for {} processed payments", receiptNumber, processedCount);
             }
             
             // Keep uploaded file status as UPLOADED - do not change it to PROCESSED
@@ -408,7 +482,8 @@ public class WorkerPaymentFileService {
         log.info("Getting status summary for fileId={}", fileId);
         
         try {
-            List<WorkerPayment> payments = workerPaymentService.findByFileId(fileId);
+            // Grouped count in the database instead of loading every payment of the file
+            Map<String, Long> counts = workerPaymentQueryDao.getStatusCountsByFileId(fileId);
             
             Map<String, Integer> statusCounts = new HashMap<>();
             
@@ -420,14 +495,15 @@ public class WorkerPaymentFileService {
             }
             
             // Count by status
-            for (WorkerPayment payment : payments) {
-                String status = payment.getStatus();
-                statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
+            int totalRecords = 0;
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                statusCounts.put(entry.getKey(), entry.getValue().intValue());
+                totalRecords += entry.getValue().intValue();
             }
             
             Map<String, Object> result = new HashMap<>();
             result.put("fileId", fileId);
-            result.put("totalRecords", payments.size());
+            result.put("totalRecords", totalRecords);
             result.put("uploadedCount", statusCounts.get("UPLOADED"));
             result.put("validatedCount", statusCounts.get("VALIDATED"));
             result.put("failedCount", statusCounts.get("FAILED"));
@@ -499,101 +575,279 @@ public class WorkerPaymentFileService {
         return workerPaymentService.findByFileId(fileId);
     }
 
-    private List<com.example.paymentflow.worker.entity.WorkerUploadedData> parseFileToUploadedData(
-            File file, String originalFilename, String fileId) throws java.io.IOException {
-        log.info("Parsing file {} to WorkerUploadedData format", originalFilename);
-
-        String extension = getFileExtension(originalFilename);
-        if ("csv".equalsIgnoreCase(extension)) {
-            return parseCsvToUploadedData(file, fileId);
+    /**
+     * Chunks already committed before a failure would otherwise leave a half-loaded file behind,
+     * so they are removed and the file is marked FAILED. For a job, the file is marked FAILED
+     * first and only if {@code jobOwner} still owns it; otherwise the rows are left to the new owner.
+     */
+    private void discardPartialUpload(UploadedFile uploadedFile, int writtenRows, String jobOwner) {
+        String fileId = uploadedFile.getId().toString();
+        try {
+            if (jobOwner != null) {
+                if (uploadedFileRepository.finishOwnedJob(uploadedFile.getId(), jobOwner, "FAILED", 0) == 0) {
+                    log.warn("Upload job {} was taken over by another runner; leaving its rows alone", fileId);
+                    return;
+                }
+                uploadedFile.setTotalRecords(0);
+                uploadedFile.setStatus("FAILED");
+                workerUploadedDataService.deleteByFileId(fileId);
+                return;
+            }
+            if (writtenRows > 0) {
+                log.warn("Discarding {} partially loaded rows for fileId={}", writtenRows, fileId);
+                workerUploadedDataService.deleteByFileId(fileId);
+            }
+            uploadedFile.setTotalRecords(0);
+            uploadedFile.setStatus("FAILED");
+            uploadedFileRepository.save(uploadedFile);
+        } catch (Exception cleanupEx) {
+            log.error("Failed to clean up partial upload for fileId={}", fileId, cleanupEx);
         }
-        if ("xls".equalsIgnoreCase(extension) || "xlsx".equalsIgnoreCase(extension)) {
-            return parseExcelToUploadedData(file, fileId);
+    }
+
+    private WorkerUploadedDataChunkWriter newChunkWriter(Long uploadedFileId, String jobOwner) {
+        return new WorkerUploadedDataChunkWriter(workerUploadedDataService, uploadedFileId, jobOwner,
+            workerPaymentFileConfig.getIngestChunkSize());
+    }
+
+    private int totalWritten(List<WorkerUploadedDataChunkWriter> writers) {
+        int total = 0;
+        for (WorkerUploadedDataChunkWriter writer : writers) {
+            total += writer.getWritten();
         }
+        return total;
+    }
 
-        throw new java.io.IOException("Unsupported file type: " + extension);
+    private boolean useParallelParse(File file, String originalFilename) {
+        return workerPaymentFileConfig.isParallelParseEnabled()
+            && "csv".equalsIgnoreCase(getFileExtension(originalFilename))
+            && file.length() >= workerPaymentFileConfig.getParallelParseThresholdBytes();
     }
 
-    private List<com.example.paymentflow.worker.entity.WorkerUploadedData> parseCsvToUploadedData(
-            File file, String fileId) throws java.io.IOException {
-        List<com.example.paymentflow.worker.entity.WorkerUploadedData> uploadedDataList = new ArrayList<>();
+    /**
+     * Splits the CSV into record-aligned byte ranges and parses each range on the upload parser
+     * pool with its own chunk writer. Every range knows how many data records precede it, so row
+     * numbers match the sequential parser exactly. Ranges are collected as they complete, so the
+     * first failure is seen at once: the running ranges are told to stop, the queued ones are
+     * cancelled, and only the ranges that had started are awaited before the failure is rethrown,
+     * so cleanup never races a writer.
+     */
+    private void parseCsvInParallel(File file, String fileId, Long uploadedFileId, String jobOwner,
+            List<WorkerUploadedDataChunkWriter> writers) throws Exception {
+        CsvFileSplitter.Layout layout = CsvFileSplitter.split(file, workerPaymentFileConfig.getParseParallelism() * 4);
+        log.info("Parsing {} in parallel: {} ranges, {} records", file.getName(), layout.ranges().size(),
+            layout.recordCount());
 
-        try (java.io.BufferedReader br = new java.io.BufferedReader(new java.io.FileReader(file))) {
-            String header = br.readLine();
-            if (header == null) {
-                throw new java.io.IOException("File is empty or invalid");
-            }
+        AtomicBoolean aborted = new AtomicBoolean();
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(workerUploadParseExecutor);
+        List<RangeTask> tasks = new ArrayList<>();
+        for (CsvFileSplitter.Range range : layout.ranges()) {
+            WorkerUploadedDataChunkWriter writer = newChunkWriter(uploadedFileId, jobOwner);
+            writers.add(writer);
+            RangeTask task = new RangeTask(() -> parseCsvRange(file, range, fileId, writer, aborted));
+            task.future = completion.submit(task);
+            tasks.add(task);
+        }
 
-            int rowNumber = 1;
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
+        int parsed = 0;
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                parsed += completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            stopRanges(tasks, aborted);
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            stopRanges(tasks, aborted);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        log.info("Parsed {} records from CSV file in parallel", parsed);
+    }
 
+    /**
+     * Stops every range after a failure and waits for the ones that had started. A range that had
+     * not started when the abort flag was raised checks the flag before writing anything, so it is
+     * safe to leave it behind.
+     */
+    private static void stopRanges(List<RangeTask> tasks, AtomicBoolean aborted) {
+        aborted.set(true);
+        for (RangeTask task : tasks) {
+            task.future.cancel(false);
+        }
+        boolean interrupted = false;
+        for (RangeTask task : tasks) {
+            while (task.started.get()) {
                 try {
-                    com.example.paymentflow.worker.entity.WorkerUploadedData uploadedData =
-                        parseCSVLineToUploadedData(line, fileId, rowNumber++);
-                    uploadedDataList.add(uploadedData);
-                } catch (Exception e) {
-                    log.error("Error parsing CSV line {}: {}", rowNumber, e.getMessage());
+                    task.finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
             }
         }
-
-        log.info("Parsed {} records from CSV file", uploadedDataList.size());
-        return uploadedDataList;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 
-    private List<com.example.paymentflow.worker.entity.WorkerUploadedData> parseExcelToUploadedData(
-            File file, String fileId) throws java.io.IOException {
-        List<com.example.paymentflow.worker.entity.WorkerUploadedData> uploadedDataList = new ArrayList<>();
-        DataFormatter formatter = new DataFormatter();
+    /**
+     * One range's parse, recording whether it ever ran; a cancelled range's future completes at
+     * once even while the range is still running, so it cannot be awaited through the future.
+     */
+    private static final class RangeTask implements Callable<Integer> {
+        private final Callable<Integer> parse;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private Future<Integer> future;
+
+        private RangeTask(Callable<Integer> parse) {
+            this.parse = parse;
+        }
 
-        try (FileInputStream fis = new FileInputStream(file); Workbook workbook = WorkbookFactory.create(fis)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
-                throw new java.io.IOException("No sheet found in uploaded workbook");
+        @Override
+        public Integer call() throws Exception {
+            started.set(true);
+            try {
+                return parse.call();
+            } finally {
+                finished.countDown();
             }
+        }
+    }
 
-            boolean isHeader = true;
-            int rowNumber = 1;
-            for (Row row : sheet) {
-                if (row == null) {
-                    continue;
-                }
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
+    private int parseCsvRange(File file, CsvFileSplitter.Range range, String fileId,
+            WorkerUploadedDataChunkWriter writer, AtomicBoolean aborted) throws IOException {
+        int parsed = 0;
+        long recordIndex = range.firstRecordIndex();
 
-                String[] fields = extractExcelRow(row, formatter);
-                if (isRowEmpty(fields)) {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(CsvFileSplitter.openReader(file, range))) {
+            String[] fields;
+            while (!aborted.get() && (fields = tokenizer.next()) != null) {
+                if (tokenizer.isBlankLine()) {
                     continue;
                 }
 
+                int rowNumber = (int) ++recordIndex;
+                WorkerUploadedData uploadedData;
                 try {
-                    com.example.paymentflow.worker.entity.WorkerUploadedData uploadedData =
-                        populateUploadedDataFromFields(fields, fileId, rowNumber++);
-                    uploadedDataList.add(uploadedData);
+                    uploadedData = populateUploadedDataFromFields(fields, fileId, rowNumber);
                 } catch (Exception e) {
-                    log.error("Error parsing Excel row {}: {}", rowNumber, e.getMessage());
+                    log.error("Error parsing CSV line {}: {}", rowNumber, e.getMessage());
+                    continue;
                 }
+                writer.accept(uploadedData);
+                parsed++;
             }
+        }
+
+        if (!aborted.get()) {
+            writer.flush();
+        }
+        return parsed;
+    }
+
+    private int parseFileToUploadedData(File file, String originalFilename, String fileId,
+            Consumer<WorkerUploadedData> sink) throws IOException {
+        log.info("Parsing file {} to WorkerUploadedData format", originalFilename);
+
+        String extension = getFileExtension(originalFilename);
+        if ("csv".equalsIgnoreCase(extension)) {
+            return parseCsvToUploadedData(file, fileId, sink);
+        }
+        if ("xls".equalsIgnoreCase(extension) || "xlsx".equalsIgnoreCase(extension)) {
+            return parseExcelToUploadedData(file, fileId, sink);
+        }
+
+        throw new java.io.IOException("Unsupported file type: " + extension);
+    }
+
+    private int parseCsvToUploadedData(File file, String fileId, Consumer<WorkerUploadedData> sink)
+            throws IOException {
+        UploadedRowHandler handler = new UploadedRowHandler(fileId, sink, "CSV line", false);
+
+        try (RowSource rows = new CsvRowSource(file)) {
+            rows.forEachRow(handler);
+        } catch (java.io.IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new java.io.IOException("Failed to read CSV file: " + e.getMessage(), e);
+        }
+
+        if (!handler.headerSeen) {
+            throw new java.io.IOException("File is empty or invalid");
+        }
+        log.info("Parsed {} records from CSV file", handler.parsed);
+        return handler.parsed;
+    }
+
+    private int parseExcelToUploadedData(File file, String fileId, Consumer<WorkerUploadedData> sink)
+            throws IOException {
+        UploadedRowHandler handler = new UploadedRowHandler(fileId, sink, "Excel row", true);
+
+        try (RowSource rows = RowSources.openSpreadsheet(file, true)) {
+            rows.forEachRow(handler);
+        } catch (org.springframework.dao.DataAccessException e) {
+            // Persistence failures from the sink are not read errors
+            throw e;
         } catch (Exception e) {
             throw new java.io.IOException("Failed to read Excel file: " + e.getMessage(), e);
         }
 
-        log.info("Parsed {} records from Excel file", uploadedDataList.size());
-        return uploadedDataList;
+        log.info("Parsed {} records from Excel file", handler.parsed);
+        return handler.parsed;
     }
 
-    private com.example.paymentflow.worker.entity.WorkerUploadedData parseCSVLineToUploadedData(
-            String csvLine, String fileId, int rowNumber) {
-        String[] fields = csvLine.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-        return populateUploadedDataFromFields(fields, fileId, rowNumber);
+    /**
+     * Turns the data rows of an upload into {@link WorkerUploadedData} for the sink. The first
+     * row is the header; data rows are numbered from 1 in the order they are accepted.
+     */
+    private final class UploadedRowHandler implements RowSource.RowHandler {
+        private final String fileId;
+        private final Consumer<WorkerUploadedData> sink;
+        private final String rowLabel;
+        private final boolean excelRows;
+
+        private boolean headerSeen;
+        private int nextRowNumber = 1;
+        private int parsed;
+
+        private UploadedRowHandler(String fileId, Consumer<WorkerUploadedData> sink, String rowLabel,
+                boolean excelRows) {
+            this.fileId = fileId;
+            this.sink = sink;
+            this.rowLabel = rowLabel;
+            this.excelRows = excelRows;
+        }
+
+        @Override
+        public void handle(int rowIndex, String[] cells) {
+            if (!headerSeen) {
+                headerSeen = true;
+                return;
+            }
+
+            String[] fields = cells;
+            if (excelRows) {
+                fields = padExcelRow(cells);
+                if (isRowEmpty(fields)) {
+                    return;
+                }
+            }
+
+            int rowNumber = nextRowNumber++;
+            WorkerUploadedData uploadedData;
+            try {
+                uploadedData = populateUploadedDataFromFields(fields, fileId, rowNumber);
+            } catch (Exception e) {
+                log.error("Error parsing {} {}: {}", rowLabel, rowNumber, e.getMessage());
+                return;
+            }
+            sink.accept(uploadedData);
+            parsed++;
+        }
     }
-    
+
     private String cleanField(String field) {
         if (field == null) return null;
         // Remove quotes and trim whitespace
@@ -728,29 +982,10 @@ public class WorkerPaymentFileService {
         return uploadedData;
     }
 
-    private String[] extractExcelRow(Row row, DataFormatter formatter) {
-        // Support both old format (13 fields) and new format (15 fields)
-        int maxColumns = Math.max(15, row.getLastCellNum());
-        String[] fields = new String[maxColumns];
-        
-        for (int i = 0; i < maxColumns; i++) {
-            Cell cell = row.getCell(i);
-            if (cell == null) {
-                fields[i] = null;
-                continue;
-            }
-
-            // Handle date formatting for work_date column
-            // In new format: work_date is at index 7
-            // In old format: work_date is at index 5
-            if ((i == 7 || i == 5) && cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                java.time.LocalDate date = cell.getLocalDateTimeCellValue().toLocalDate();
-                fields[i] = date.toString();
-            } else {
-                fields[i] = formatter.formatCellValue(cell);
-            }
-        }
-        return fields;
+    private String[] padExcelRow(String[] cells) {
+        // Support both old format (13 fields) and new format (15 fields); work_date cells
+        // arrive already rendered as ISO dates by the row source
+        return cells.length >= 15 ? cells : Arrays.copyOf(cells, 15);
     }
 
     private boolean isRowEmpty(String[] fields) {
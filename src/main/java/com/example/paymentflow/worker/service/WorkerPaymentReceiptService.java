@@ -1,9 +1,13 @@
 package com.example.paymentflow.worker.service;
 
+import com.example.paymentflow.common.pagination.KeysetPage;
+import com.example.paymentflow.common.sequence.ReferenceNumberFormat;
+import com.example.paymentflow.common.sequence.ReferenceNumberService;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.repository.WorkerPaymentReceiptRepository;
 import com.example.paymentflow.worker.dao.WorkerPaymentReceiptQueryDao;
+import com.example.paymentflow.worker.dao.WorkerPaymentStatusDao;
 import com.shared.common.dao.BaseQueryDao.PageResult;
 import org.slf4j.Logger;
 import com.shared.utilities.logger.LoggerFactoryProvider;
@@ -12,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -27,10 +30,15 @@ public class WorkerPaymentReceiptService {
     
     private final WorkerPaymentReceiptRepository repository;
     private final WorkerPaymentReceiptQueryDao queryDao;
+    private final ReferenceNumberService referenceNumberService;
+    private final WorkerPaymentStatusTransitionService paymentTransitions;
 
-    public WorkerPaymentReceiptService(WorkerPaymentReceiptRepository repository, WorkerPaymentReceiptQueryDao queryDao) {
+    public WorkerPaymentReceiptService(WorkerPaymentReceiptRepository repository, WorkerPaymentReceiptQueryDao queryDao,
+            ReferenceNumberService referenceNumberService, WorkerPaymentStatusTransitionService paymentTransitions) {
         this.repository = repository;
         this.queryDao = queryDao;
+        this.referenceNumberService = referenceNumberService;
+        this.paymentTransitions = paymentTransitions;
     }
 
     private static final int FETCH_BATCH_SIZE = 500;
@@ -70,13 +78,23 @@ public class WorkerPaymentReceiptService {
                 .map(WorkerPayment::getPaymentAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        // Generate receipt number
-        String receiptNumber = generateReceiptNumber();
-        
         // Get employer_id and toli_id from the first payment (all payments in a batch should have the same employer/toli)
         WorkerPayment firstPayment = processedPayments.get(0);
-        String employerId = firstPayment.getEmployerId();
-        String toliId = firstPayment.getToliId();
+        return createReceipt(firstPayment.getEmployerId(), firstPayment.getToliId(),
+                processedPayments.size(), totalAmount);
+    }
+
+    /**
+     * Creates a receipt from totals computed by the caller, for set-based request generation where
+     * the payments are never loaded as entities.
+     */
+    public WorkerPaymentReceipt createReceipt(String employerId, String toliId, int totalRecords, BigDecimal totalAmount) {
+        if (totalRecords <= 0) {
+            throw new IllegalArgumentException("Cannot create receipt for empty payment list");
+        }
+        
+        // Generate receipt number
+        String receiptNumber = referenceNumberService.next(ReferenceNumberFormat.WORKER_RECEIPT);
         
         // Create receipt
         WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
@@ -84,51 +102,39 @@ public class WorkerPaymentReceiptService {
         receipt.setEmployerId(employerId);
         receipt.setToliId(toliId);
         receipt.setCreatedAt(LocalDateTime.now());
-        receipt.setTotalRecords(processedPayments.size());
+        receipt.setTotalRecords(totalRecords);
         receipt.setTotalAmount(totalAmount);
         receipt.setStatus("PROCESSED"); // Changed from GENERATED to match constraint
         
         // Save receipt first to get ID
         WorkerPaymentReceipt savedReceipt = repository.save(receipt);
         
-        log.info("Created receipt {} with {} payments totaling {}", receiptNumber, processedPayments.size(), totalAmount);
+        log.info("Created receipt {} with {} payments totaling {}", receiptNumber, totalRecords, totalAmount);
         
         return savedReceipt;
     }
     
-    private String generateReceiptNumber() {
-        // Generate receipt number in format: RCP-YYYYMMDD-HHMMSS-XXX
-        // Use retry mechanism to ensure uniqueness
-        String receiptNumber;
-        int maxAttempts = 10;
-        int attempt = 0;
-        
-        do {
-            LocalDateTime now = LocalDateTime.now();
-            String dateTime = now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-            
-            // Use a combination of current nanos and a random component for better uniqueness
-            long nanos = System.nanoTime();
-            int randomComponent = (int) (Math.random() * 1000);
-            String sequence = String.format("%03d", (nanos % 1000 + randomComponent) % 1000);
-            
-            receiptNumber = "RCP-" + dateTime + "-" + sequence;
-            attempt++;
-            
-            // Check if this receipt number already exists in database
-            if (queryDao.findByReceiptNumber(receiptNumber).isEmpty()) {
-                log.info("Generated unique receipt number: {} (attempt {})", receiptNumber, attempt);
-                return receiptNumber;
-            }
-            
-            log.warn("Receipt number {} already exists, retrying... (attempt {})", receiptNumber, attempt);
-            
-            // No artificial delay needed - the next iteration will use a different nanoTime()
-            // and random component, ensuring uniqueness without blocking
-            
-        } while (attempt < maxAttempts);
-        
-        throw new RuntimeException("Failed to generate unique receipt number after " + maxAttempts + " attempts");
+    /**
+     * Creates a receipt for the file's VALIDATED payments and moves them to PAYMENT_REQUESTED
+     * under it, in one transaction. The payments are never loaded: totals come from one aggregate
+     * query and the move is one guarded UPDATE.
+     *
+     * @return the receipt, or empty if the file has no VALIDATED payments
+     */
+    public Optional<WorkerPaymentReceipt> createReceiptForValidatedPayments(String fileId) {
+        Optional<WorkerPaymentStatusDao.StatusTotals> totals = paymentTransitions.findFileTotals(fileId, "VALIDATED");
+        if (totals.isEmpty()) {
+            return Optional.empty();
+        }
+        WorkerPaymentStatusDao.StatusTotals t = totals.get();
+        WorkerPaymentReceipt receipt = createReceipt(t.employerId(), t.toliId(), t.totalRecords(), t.totalAmount());
+        int moved = paymentTransitions.transitionFile(fileId, "VALIDATED", "PAYMENT_REQUESTED", receipt.getReceiptNumber());
+        if (moved != t.totalRecords()) {
+            // Payments changed between the totals and the move; the receipt would not match them
+            throw new IllegalStateException("Worker payments of fileId=" + fileId + " changed while generating receipt "
+                    + receipt.getReceiptNumber() + ": expected " + t.totalRecords() + ", moved " + moved);
+        }
+        return Optional.of(receipt);
     }
 
     public List<WorkerPaymentReceipt> findByStatus(String status) {
@@ -174,6 +180,25 @@ public class WorkerPaymentReceiptService {
         return new org.springframework.data.domain.PageImpl<>(pageResult.getContent(), pageable, pageResult.getTotalElements());
     }
 
+    /**
+     * Version of the page {@link #findByStatusAndDateRangePaginated} (status given) or
+     * {@link #findByDateRangePaginated} (status null) would return, for conditional requests.
+     */
+    public String pageVersion(String status, LocalDateTime startDate, LocalDateTime endDate,
+                              org.springframework.data.domain.Pageable pageable) {
+        return queryDao.pageVersion(status, startDate, endDate, pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    /**
+     * Keyset page of receipts in the range, optionally with one status; {@code cursor} is the
+     * previous page's next cursor, or blank for the first page.
+     */
+    public KeysetPage<WorkerPaymentReceipt> findByDateRangeKeyset(
+            String status, LocalDateTime startDate, LocalDateTime endDate, String cursor, int size) {
+        log.info("Finding worker payment receipts with status: {} between {} and {} (keyset)", status, startDate, endDate);
+        return queryDao.findByDateRangeKeyset(status, startDate, endDate, cursor, size);
+    }
+
     public WorkerPaymentReceipt updateStatus(String receiptNumber, String newStatus) {
         log.info("Updating status of worker payment receipt {} to {}", receiptNumber, newStatus);
         
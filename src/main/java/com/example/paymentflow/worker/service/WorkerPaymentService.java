@@ -4,6 +4,7 @@ import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.shared.exception.ResourceNotFoundException;
 import com.example.paymentflow.worker.repository.WorkerPaymentRepository;
 import com.example.paymentflow.worker.dao.WorkerPaymentQueryDao;
+import com.example.paymentflow.common.pagination.KeysetPage;
 import com.shared.common.dao.BaseQueryDao.PageResult; // Uncomment if exists
 import java.util.ArrayList;
 import java.util.List;
@@ -244,6 +245,38 @@ public class WorkerPaymentService {
         return createPageFromPageResult(result, pageable);
     }
     
+    /**
+     * Version of the page {@link #findByStatusAndReceiptNumberAndDateRange} would return, for
+     * conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public String pageVersion(
+            String status,
+            String receiptNumber,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Pageable pageable) {
+        return workerPaymentQueryDao.pageVersion(status, receiptNumber, null, startDate, endDate,
+                                                 pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    /**
+     * Keyset variant of {@link #findByStatusAndReceiptNumberAndDateRange}; {@code cursor} is the
+     * previous page's next cursor, or blank for the first page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<WorkerPayment> findByStatusAndReceiptNumberAndDateRangeKeyset(
+            String status,
+            String receiptNumber,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size) {
+        log.info("Finding worker payments with status: {}, receipt number: {}, date range: {} to {} (keyset)",
+                status, receiptNumber, startDate, endDate);
+        return workerPaymentQueryDao.findWithFiltersKeyset(status, receiptNumber, null, startDate, endDate, cursor, size);
+    }
+
     // Utility method to convert PageResult to Spring Page
     private Page<WorkerPayment> createPageFromPageResult(PageResult<WorkerPayment> pageResult, Pageable pageable) {
         return new PageImpl<>(pageResult.getContent(), pageable, pageResult.getTotalElements());
@@ -0,0 +1,76 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService.PaymentStatusTransitionEvent;
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService.ReceiptStatusTransitionEvent;
+import com.shared.audit.AuditHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audits worker payment and bulk worker receipt status transitions.
+ * <p>
+ * Transitions are applied as set-based UPDATEs, which the per-entity audit listener never sees, so
+ * they are recorded here from the {@link PaymentStatusTransitionEvent} or
+ * {@link ReceiptStatusTransitionEvent} instead. A file-scoped payment move is one record under the
+ * file; receipt-scoped moves get one record per receipt that changed, with that receipt's own
+ * counts or previous status and the size of the batch it moved in. Records are written before
+ * commit, inside the transition's transaction, so a status change is never committed without its
+ * audit records.
+ */
+@Component
+public class WorkerPaymentStatusAuditListener {
+
+    private static final String ACTION = "WORKER_PAYMENT_STATUS_TRANSITION";
+    private static final String RECEIPT_ACTION = "WORKER_RECEIPT_STATUS_TRANSITION";
+    private static final String RECEIPT_RESOURCE = "WORKER_PAYMENT_RECEIPT";
+
+    private final AuditHelper auditHelper;
+
+    public WorkerPaymentStatusAuditListener(AuditHelper auditHelper) {
+        this.auditHelper = auditHelper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTransition(PaymentStatusTransitionEvent event) {
+        if (event.fileId() != null) {
+            Map<String, Object> details = paymentDetails(event, event.affected());
+            details.put("fileId", event.fileId());
+            if (!event.movedByReceipt().isEmpty()) {
+                details.put("receiptNumber", event.movedByReceipt().keySet().iterator().next());
+            }
+            auditHelper.recordAudit(ACTION, "WORKER_UPLOADED_FILE", event.fileId(), "SUCCESS", details);
+            return;
+        }
+        event.movedByReceipt().forEach((receiptNumber, moved) -> {
+            Map<String, Object> details = paymentDetails(event, moved);
+            details.put("batchReceipts", event.movedByReceipt().size());
+            auditHelper.recordAudit(ACTION, RECEIPT_RESOURCE, receiptNumber, "SUCCESS", details);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReceiptTransition(ReceiptStatusTransitionEvent event) {
+        event.previousStatuses().forEach((receiptNumber, previousStatus) -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("fromStatus", previousStatus);
+            details.put("toStatus", event.toStatus());
+            details.put("batchReceipts", event.previousStatuses().size());
+            details.put("occurredAt", event.occurredAt().toString());
+            auditHelper.recordAudit(RECEIPT_ACTION, RECEIPT_RESOURCE, receiptNumber, "SUCCESS", details);
+        });
+    }
+
+    private static Map<String, Object> paymentDetails(PaymentStatusTransitionEvent event, int affected) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("fromStatuses", List.copyOf(event.fromStatuses()));
+        details.put("toStatus", event.toStatus());
+        details.put("affected", affected);
+        details.put("occurredAt", event.occurredAt().toString());
+        return details;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.worker.dao.WorkerPaymentStatusDao;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Single owner of worker payment status changes. Every transition is checked against the allowed
+ * graph and then applied as one guarded UPDATE ({@code ... AND status = ANY(from)}), so its cost
+ * does not depend on how many payments a receipt or file holds, and rows that have already moved
+ * on are never dragged back.
+ * <p>
+ * Each applied transition publishes one {@link PaymentStatusTransitionEvent} covering all rows it
+ * moved, rather than one event per payment. Listeners that must only see committed changes should
+ * use {@code @TransactionalEventListener}. The guarded UPDATEs bypass the per-entity audit listener;
+ * {@link WorkerPaymentStatusAuditListener} audits each event instead, so payment and bulk receipt
+ * status changes must go through this service to be audited.
+ */
+@Service
+@Transactional
+public class WorkerPaymentStatusTransitionService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentStatusTransitionService.class);
+
+    /** Allowed transitions: current status to the statuses it may move to. */
+    private static final Map<String, Set<String>> ALLOWED = Map.of(
+            "VALIDATED", Set.of("PAYMENT_REQUESTED", "PAYMENT_INITIATED"),
+            "PAYMENT_REQUESTED", Set.of("PAYMENT_INITIATED"),
+            "PAYMENT_INITIATED", Set.of("PAYMENT_PROCESSED"),
+            "PAYMENT_PROCESSED", Set.of("PAYMENT_RECONCILED"));
+
+    /**
+     * One applied transition.
+     *
+     * @param movedByReceipt number of payments moved, by receipt; for a file-scoped move, the receipt
+     *                       the payments were assigned to, if any
+     * @param fileId         file whose payments were targeted; null for receipt-scoped moves
+     * @param affected       number of payments that moved
+     */
+    public record PaymentStatusTransitionEvent(Collection<String> fromStatuses, String toStatus,
+                                               Map<String, Integer> movedByReceipt, String fileId,
+                                               int affected, LocalDateTime occurredAt) {
+    }
+
+    /**
+     * One applied worker receipt status change.
+     *
+     * @param previousStatuses the status each moved receipt had before; receipts already in
+     *                         {@code toStatus} are absent
+     */
+    public record ReceiptStatusTransitionEvent(Map<String, String> previousStatuses, String toStatus,
+                                               LocalDateTime occurredAt) {
+    }
+
+    private final WorkerPaymentStatusDao statusDao;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WorkerPaymentStatusTransitionService(WorkerPaymentStatusDao statusDao,
+                                                ApplicationEventPublisher eventPublisher) {
+        this.statusDao = statusDao;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Moves the payments of the given receipts from {@code fromStatus} to {@code toStatus}.
+     *
+     * @return number of payments moved
+     */
+    public int transitionReceipts(Collection<String> receiptNumbers, String fromStatus, String toStatus) {
+        return transitionReceipts(receiptNumbers, Set.of(fromStatus), toStatus);
+    }
+
+    /**
+     * Moves the payments of the given receipts that are in any of {@code fromStatuses} to
+     * {@code toStatus}.
+     *
+     * @return number of payments moved
+     * @throws IllegalArgumentException if any source status may not move to {@code toStatus}
+     */
+    public int transitionReceipts(Collection<String> receiptNumbers, Collection<String> fromStatuses, String toStatus) {
+        fromStatuses.forEach(from -> requireAllowed(from, toStatus));
+        List<String> receipts = List.copyOf(receiptNumbers);
+        Map<String, Integer> moved = statusDao.movePayments(receipts, fromStatuses, toStatus);
+        int affected = moved.values().stream().mapToInt(Integer::intValue).sum();
+        log.info("Moved {} worker payments of {} receipts from {} to {}", affected, receipts.size(), fromStatuses, toStatus);
+        publish(new PaymentStatusTransitionEvent(Set.copyOf(fromStatuses), toStatus, moved, null,
+                affected, LocalDateTime.now()));
+        return affected;
+    }
+
+    /**
+     * Totals of the file's payments in {@code status}, for sizing a receipt before
+     * {@link #transitionFile} assigns the payments to it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<WorkerPaymentStatusDao.StatusTotals> findFileTotals(String fileId, String status) {
+        return statusDao.findFileTotals(fileId, status);
+    }
+
+    /**
+     * Moves the file's payments from {@code fromStatus} to {@code toStatus} and assigns them to
+     * the receipt.
+     *
+     * @return number of payments moved
+     * @throws IllegalArgumentException if {@code fromStatus} may not move to {@code toStatus}
+     */
+    public int transitionFile(String fileId, String fromStatus, String toStatus, String receiptNumber) {
+        requireAllowed(fromStatus, toStatus);
+        int affected = statusDao.moveFilePayments(fileId, fromStatus, toStatus, receiptNumber);
+        log.info("Moved {} worker payments of fileId={} from {} to {} under receipt {}",
+                affected, fileId, fromStatus, toStatus, receiptNumber);
+        publish(new PaymentStatusTransitionEvent(Set.of(fromStatus), toStatus,
+                receiptNumber == null ? Map.of() : Map.of(receiptNumber, affected), fileId, affected,
+                LocalDateTime.now()));
+        return affected;
+    }
+
+    /**
+     * Sets the given worker receipts to {@code toStatus}, leaving those already in it alone.
+     *
+     * @return number of receipts moved
+     */
+    public int transitionReceiptStatus(Collection<String> receiptNumbers, String toStatus) {
+        List<String> receipts = List.copyOf(receiptNumbers);
+        Map<String, String> previous = statusDao.setReceiptStatus(receipts, toStatus);
+        log.info("Moved {} of {} worker receipts from {} to {}", previous.size(), receipts.size(),
+                Set.copyOf(previous.values()), toStatus);
+        if (!previous.isEmpty()) {
+            eventPublisher.publishEvent(new ReceiptStatusTransitionEvent(previous, toStatus, LocalDateTime.now()));
+        }
+        return previous.size();
+    }
+
+    private void publish(PaymentStatusTransitionEvent event) {
+        if (event.affected() > 0) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private static void requireAllowed(String fromStatus, String toStatus) {
+        if (!ALLOWED.getOrDefault(fromStatus, Set.of()).contains(toStatus)) {
+            throw new IllegalArgumentException("Worker payment status transition not allowed: "
+                    + fromStatus + " -> " + toStatus);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.common.concurrency.BackgroundConnectionUser;
+import com.example.paymentflow.common.lease.Leases;
+import com.example.paymentflow.common.queue.PipelineJobQueue;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.utilities.file.UploadedFile;
+import com.example.paymentflow.utilities.file.UploadedFileRepository;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs worker payment uploads as background jobs.
+ * <p>
+ * The request thread only stores the file; parsing and persistence run on the bounded upload job
+ * pool. The job id is the {@link UploadedFile} id and the job state is its status:
+ * QUEUED, PROCESSING, then UPLOADED (ready for validation) or FAILED. Because the state lives in
+ * the database, jobs that were queued or running when the service stopped are picked up again
+ * through the pipeline queue.
+ * <p>
+ * A runner owns a PROCESSING file through {@code job_owner} and renews {@code job_heartbeat_at}
+ * while it parses. Another runner only takes the file over, dropping its partial rows, once the
+ * heartbeat is older than {@code workerpayment.file.upload-job-lease-seconds}. Chunk writes and the
+ * final status are guarded by {@code job_owner}, so a runner that was only paused and has lost
+ * the job stops at its next chunk instead of mixing its rows with the new owner's.
+ */
+@Service
+public class WorkerUploadJobService implements BackgroundConnectionUser {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadJobService.class);
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_PROCESSING = "PROCESSING";
+
+    private final WorkerPaymentFileService fileService;
+    private final WorkerUploadedDataService workerUploadedDataService;
+    private final UploadedFileRepository uploadedFileRepository;
+    private final ExecutorService jobExecutor;
+    private final PipelineJobQueue pipelineJobQueue;
+    private final WorkerPaymentFileConfig fileConfig;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    private final String ownerId;
+
+    public WorkerUploadJobService(WorkerPaymentFileService fileService,
+                                  WorkerUploadedDataService workerUploadedDataService,
+                                  UploadedFileRepository uploadedFileRepository,
+                                  @Qualifier("workerUploadJobExecutor") ExecutorService jobExecutor,
+                                  PipelineJobQueue pipelineJobQueue,
+                                  WorkerPaymentFileConfig fileConfig) {
+        this.fileService = fileService;
+        this.workerUploadedDataService = workerUploadedDataService;
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.jobExecutor = jobExecutor;
+        this.pipelineJobQueue = pipelineJobQueue;
+        this.fileConfig = fileConfig;
+        this.ownerId = Leases.newHolderId();
+    }
+
+    /**
+     * Stores the upload and queues it for processing.
+     *
+     * @return the queued file; its id is the job id
+     * @throws RejectedExecutionException if the job queue is full; the stored file is withdrawn
+     *                                    so the same upload can be retried
+     */
+    public UploadedFile submit(MultipartFile file) throws IOException {
+        UploadedFile uploadedFile = fileService.storeUpload(file);
+        uploadedFile.setStatus(STATUS_QUEUED);
+        UploadedFile queued = uploadedFileRepository.save(uploadedFile);
+        try {
+            enqueue(queued.getId());
+        } catch (RejectedExecutionException e) {
+            withdraw(queued);
+            throw e;
+        }
+        log.info("Queued upload job {} for file {}", queued.getId(), file.getOriginalFilename());
+        return queued;
+    }
+
+    public Optional<Map<String, Object>> getJobStatus(Long jobId) {
+        return uploadedFileRepository.findById(jobId).map(uploadedFile -> {
+            Map<String, Object> status = new HashMap<>();
+            status.put("jobId", uploadedFile.getId());
+            status.put("fileId", uploadedFile.getId().toString());
+            status.put("filename", uploadedFile.getFilename());
+            status.put("status", uploadedFile.getStatus());
+            status.put("recordCount", uploadedFile.getTotalRecords());
+            status.put("uploadDate", uploadedFile.getUploadDate());
+            status.put("completed", !STATUS_QUEUED.equals(uploadedFile.getStatus())
+                    && !STATUS_PROCESSING.equals(uploadedFile.getStatus()));
+            return status;
+        });
+    }
+
+    /**
+     * Hands jobs left QUEUED, or PROCESSING with a stale heartbeat, by a previous run to the
+     * durable pipeline queue as PARSE_UPLOAD jobs. The queue de-duplicates open jobs, so when
+     * several replicas start at once each file is still processed only once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<Long> unfinished = new ArrayList<>();
+        for (UploadedFile uploadedFile : uploadedFileRepository.findByStatus(STATUS_QUEUED)) {
+            unfinished.add(uploadedFile.getId());
+        }
+        unfinished.addAll(uploadedFileRepository.findStaleJobIds(leaseSeconds()));
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        unfinished.sort(Comparator.naturalOrder());
+        log.info("Resuming {} unfinished upload jobs through the pipeline queue", unfinished.size());
+        for (Long jobId : unfinished) {
+            pipelineJobQueue.enqueue(PipelineStage.PARSE_UPLOAD, jobId.toString());
+        }
+    }
+
+    /**
+     * Renews the heartbeat of the uploads this instance is parsing, then queues uploads whose
+     * runner has stopped renewing so a live replica restarts them.
+     */
+    @Scheduled(fixedDelayString = "${workerpayment.file.upload-job-heartbeat-ms:30000}")
+    public void heartbeat() {
+        try {
+            if (!runningJobs.isEmpty()) {
+                uploadedFileRepository.renewJobHeartbeats(List.copyOf(runningJobs), ownerId);
+            }
+            for (Long jobId : uploadedFileRepository.findStaleJobIds(leaseSeconds())) {
+                if (!runningJobs.contains(jobId)) {
+                    log.warn("Upload job {} stopped renewing its heartbeat; queueing a restart", jobId);
+                    pipelineJobQueue.enqueue(PipelineStage.PARSE_UPLOAD, jobId.toString());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to renew upload job heartbeats", e);
+        }
+    }
+
+    /**
+     * One connection per job thread, one per parser thread when uploads are parsed in parallel
+     * (their byte ranges write their own chunks), and one for the heartbeat.
+     */
+    @Override
+    public int maxConnections() {
+        int parsers = fileConfig.isParallelParseEnabled() ? fileConfig.getParseParallelism() : 0;
+        return Math.max(1, fileConfig.getUploadJobConcurrency()) + parsers + 1;
+    }
+
+    private void enqueue(Long jobId) {
+        jobExecutor.execute(() -> process(jobId));
+    }
+
+    /**
+     * Parses a queued upload. Does nothing if the job has already finished or another runner
+     * holds it with a live heartbeat, so it is safe to run again for the same job.
+     */
+    public void process(Long jobId) {
+        Optional<UploadedFile> found = uploadedFileRepository.findById(jobId);
+        if (found.isEmpty()) {
+            log.warn("Upload job {} no longer exists", jobId);
+            return;
+        }
+        UploadedFile uploadedFile = found.get();
+        String previousStatus = uploadedFile.getStatus();
+        if (!STATUS_QUEUED.equals(previousStatus) && !STATUS_PROCESSING.equals(previousStatus)) {
+            log.info("Upload job {} already finished with status {}", jobId, previousStatus);
+            return;
+        }
+        // Claim with a conditional update: a QUEUED job, or a PROCESSING job whose runner stopped heartbeating
+        boolean restart;
+        if (uploadedFileRepository.claimQueuedJob(jobId, ownerId) > 0) {
+            restart = false;
+        } else if (uploadedFileRepository.claimStaleJob(jobId, ownerId, leaseSeconds()) > 0) {
+            restart = true;
+        } else {
+            log.info("Upload job {} is held by a live runner or has finished", jobId);
+            return;
+        }
+        runningJobs.add(jobId);
+        try {
+            if (restart) {
+                // Abandoned mid-parse: drop the committed chunks and start the file over
+                log.info("Restarting interrupted upload job {}", jobId);
+                workerUploadedDataService.deleteByFileId(jobId.toString());
+                uploadedFile.setTotalRecords(0);
+            }
+            uploadedFile.setStatus(STATUS_PROCESSING);
+            uploadedFile = uploadedFileRepository.save(uploadedFile);
+
+            int recordCount = fileService.ingestStoredFile(uploadedFile, ownerId);
+            log.info("Upload job {} loaded {} records", jobId, recordCount);
+        } catch (UploadJobOwnershipLostException e) {
+            log.warn("Upload job {} was taken over by another runner after its lease went stale; stopping", jobId);
+        } catch (Exception e) {
+            // ingestStoredFile has already removed partial rows and marked the file FAILED
+            log.error("Upload job {} failed", jobId, e);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private long leaseSeconds() {
+        return Math.max(1, fileConfig.getUploadJobLeaseSeconds());
+    }
+
+    private void withdraw(UploadedFile uploadedFile) {
+        try {
+            uploadedFileRepository.delete(uploadedFile);
+            Files.deleteIfExists(Path.of(uploadedFile.getStoredPath()));
+        } catch (Exception e) {
+            log.error("Failed to withdraw rejected upload {}", uploadedFile.getId(), e);
+        }
+    }
+}
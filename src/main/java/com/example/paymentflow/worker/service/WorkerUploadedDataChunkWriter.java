@@ -0,0 +1,69 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Buffers parsed upload rows and persists them in bounded chunks.
+ * <p>
+ * The parser pushes rows in one at a time; once {@code chunkSize} rows are buffered they are
+ * written in their own transaction and the buffer is released, so the parser blocks on the
+ * database (natural backpressure) and peak heap stays at one chunk regardless of file size.
+ * Every flush adds its rows to {@code uploaded_files.total_records} in the chunk's transaction so
+ * clients polling the file can follow progress. For a background job that update is guarded by
+ * the job owner: once another runner has taken the job over, the flush rolls back and throws
+ * {@link UploadJobOwnershipLostException}.
+ */
+class WorkerUploadedDataChunkWriter implements Consumer<WorkerUploadedData> {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataChunkWriter.class);
+
+    private final WorkerUploadedDataService workerUploadedDataService;
+    private final Long uploadedFileId;
+    private final String jobOwner;
+    private final int chunkSize;
+    private final List<WorkerUploadedData> buffer;
+    private int written;
+
+    WorkerUploadedDataChunkWriter(WorkerUploadedDataService workerUploadedDataService,
+                                  Long uploadedFileId,
+                                  String jobOwner,
+                                  int chunkSize) {
+        this.workerUploadedDataService = workerUploadedDataService;
+        this.uploadedFileId = uploadedFileId;
+        this.jobOwner = jobOwner;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.buffer = new ArrayList<>(this.chunkSize);
+    }
+
+    @Override
+    public void accept(WorkerUploadedData data) {
+        buffer.add(data);
+        if (buffer.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Persists whatever is buffered. Safe to call repeatedly.
+     */
+    void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        int size = buffer.size();
+        workerUploadedDataService.insertChunk(buffer, uploadedFileId, jobOwner);
+        written += size;
+        buffer.clear();
+        log.debug("Flushed {} rows for uploaded file {} ({} so far)", size, uploadedFileId, written);
+    }
+
+    int getWritten() {
+        return written;
+    }
+}
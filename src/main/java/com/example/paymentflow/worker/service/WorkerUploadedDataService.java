@@ -1,18 +1,27 @@
 package com.example.paymentflow.worker.service;
 
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.dao.WorkerPaymentRequestDao;
+import com.example.paymentflow.worker.dao.WorkerUploadedDataBulkLoader;
+import com.example.paymentflow.worker.dao.FileStatusCounterDao;
+import com.example.paymentflow.common.jdbc.RowProducer;
+import com.example.paymentflow.worker.dao.WorkerUploadedDataQueryDao;
 import com.example.paymentflow.worker.entity.WorkerUploadedData;
-import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.repository.WorkerUploadedDataRepository;
+import com.example.paymentflow.worker.validation.WorkerUploadedDataValidator;
 import com.example.paymentflow.utilities.file.UploadedFileRepository;
 import com.example.paymentflow.utilities.file.UploadedFile;
+import com.shared.audit.AuditHelper;
 import org.slf4j.Logger;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -33,12 +42,33 @@ public class WorkerUploadedDataService {
     @Autowired
     private UploadedFileRepository uploadedFileRepository;
     
-    @Autowired
-    private WorkerPaymentService workerPaymentService;
-    
     @Autowired
     private WorkerPaymentReceiptService workerPaymentReceiptService;
 
+    @Autowired
+    private WorkerUploadedDataBulkLoader bulkLoader;
+
+    @Autowired
+    private WorkerPaymentRequestDao paymentRequestDao;
+
+    @Autowired
+    private AuditHelper auditHelper;
+
+    @Autowired
+    private WorkerUploadedDataValidator validator;
+
+    @Autowired
+    private WorkerUploadedDataQueryDao queryDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WorkerPaymentFileConfig fileConfig;
+
+    @Autowired
+    private FileStatusCounterDao statusCounters;
+
     public WorkerUploadedDataService(WorkerUploadedDataRepository repository) {
         this.repository = repository;
     }
@@ -54,6 +84,45 @@ public class WorkerUploadedDataService {
         return repository.saveAll(uploadedDataList);
     }
 
+    /**
+     * Inserts freshly parsed rows. Large chunks bypass the persistence context and go through the
+     * bulk loader; generated ids are not populated on the entities in that case.
+     *
+     * @return number of rows inserted
+     */
+    public int insertAll(List<WorkerUploadedData> uploadedDataList) {
+        int inserted;
+        if (uploadedDataList.size() >= fileConfig.getBulkLoadThreshold()) {
+            log.info("Bulk loading {} worker uploaded data records", uploadedDataList.size());
+            inserted = bulkLoader.insert(uploadedDataList);
+        } else {
+            inserted = saveAll(uploadedDataList).size();
+        }
+        // Counters last, so the file's counter lock and rows are held only from here to commit
+        Map<String, List<WorkerUploadedData>> byFile = uploadedDataList.stream()
+                .collect(java.util.stream.Collectors.groupingBy(WorkerUploadedData::getFileId));
+        byFile.forEach((fileId, rows) -> statusCounters.apply(fileId, new FileStatusCounterDao.Deltas().addRows(rows, 1)));
+        return inserted;
+    }
+
+    /**
+     * Inserts one chunk of an upload and adds it to the file's {@code total_records} in the same
+     * transaction. When {@code jobOwner} is set the count update only applies while that runner
+     * still owns the job, so a runner that lost its job to a stale-lease takeover writes nothing.
+     *
+     * @throws UploadJobOwnershipLostException if {@code jobOwner} no longer owns the job; the
+     *                                         chunk is rolled back
+     */
+    public int insertChunk(List<WorkerUploadedData> uploadedDataList, Long uploadedFileId, String jobOwner) {
+        int inserted = insertAll(uploadedDataList);
+        if (jobOwner == null) {
+            uploadedFileRepository.incrementTotalRecords(uploadedFileId, uploadedDataList.size());
+        } else if (uploadedFileRepository.incrementOwnedJobRecords(uploadedFileId, uploadedDataList.size(), jobOwner) == 0) {
+            throw new UploadJobOwnershipLostException(uploadedFileId, jobOwner);
+        }
+        return inserted;
+    }
+
     public List<WorkerUploadedData> findByFileId(String fileId) {
         log.info("Finding worker uploaded data for fileId: {}", fileId);
         return repository.findByFileId(fileId);
@@ -77,7 +146,7 @@ public class WorkerUploadedDataService {
     public Map<String, Integer> getFileStatusSummary(String fileId) {
         log.info("Getting status summary for fileId: {}", fileId);
         
-        List<Object[]> statusCounts = repository.getStatusCountsByFileId(fileId);
+        Map<String, FileStatusCounterDao.Counter> counters = statusCounters.findByFileId(fileId);
         Map<String, Integer> summary = new HashMap<>();
         
         // Initialize with common statuses
@@ -86,20 +155,18 @@ public class WorkerUploadedDataService {
         summary.put("REJECTED", 0);
         summary.put("REQUEST_GENERATED", 0);
         
-        // Populate with actual counts
-        for (Object[] result : statusCounts) {
-            String status = (String) result[0];
-            Long count = (Long) result[1];
-            summary.put(status, count.intValue());
-        }
+        // Populate with actual counts; zero counters are kept only for the common statuses
+        counters.forEach((status, counter) -> {
+            if (counter.count() != 0 || summary.containsKey(status)) {
+                summary.put(status, (int) counter.count());
+            }
+        });
         
         return summary;
     }
 
-    private String determineOverallFileStatus(Map<String, Integer> statusSummary) {
+    private String determineOverallFileStatus(Map<String, Integer> statusSummary, int totalRecords) {
         // Determine overall file status based on the distribution of record statuses
-        int totalRecords = statusSummary.values().stream().mapToInt(Integer::intValue).sum();
-        
         if (totalRecords == 0) {
             return "EMPTY";
         }
@@ -152,13 +219,10 @@ public class WorkerUploadedDataService {
             // Get status summary
             Map<String, Integer> statusSummary = getFileStatusSummary(fileId);
             
-            // Calculate validated count and total amount for validated records
-            List<WorkerUploadedData> validatedRecords = repository.findByFileIdAndStatus(fileId, "VALIDATED");
-            int validatedCount = validatedRecords.size();
-            
-            BigDecimal totalValidatedAmount = validatedRecords.stream()
-                .map(record -> record.getPaymentAmount() != null ? record.getPaymentAmount() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            // Validated count and amount come straight from the file's counters
+            FileStatusCounterDao.Counter validated = statusCounters.findByFileId(fileId).get("VALIDATED");
+            int validatedCount = validated != null ? (int) validated.count() : 0;
+            BigDecimal totalValidatedAmount = validated != null ? validated.amount() : BigDecimal.ZERO;
             
             // Build comprehensive response
             Map<String, Object> summary = new HashMap<>();
@@ -203,122 +267,48 @@ public class WorkerUploadedDataService {
                 page, size, fileId, status);
         
         try {
-            // Get distinct file IDs from worker_uploaded_data table with filters
-            List<String> distinctFileIds = repository.findDistinctFileIds();
-            
-            // Apply fileId filter if provided
+            Long uploadedFileId = null;
             if (fileId != null && !fileId.trim().isEmpty()) {
-                distinctFileIds = distinctFileIds.stream()
-                    .filter(id -> id.equals(fileId.trim()))
-                    .collect(java.util.stream.Collectors.toList());
-            }
-            
-            // Build summary for each file and apply filters
-            java.util.List<Map<String, Object>> allFileSummaries = new java.util.ArrayList<>();
-            
-            for (String currentFileId : distinctFileIds) {
-                try {
-                    // Get file metadata from uploaded_files table
-                    Long uploadedFileId = Long.parseLong(currentFileId);
-                    Optional<UploadedFile> uploadedFileOpt = uploadedFileRepository.findById(uploadedFileId);
-                    
-                    if (uploadedFileOpt.isEmpty()) {
-                        log.warn("File metadata not found for fileId: {}", currentFileId);
-                        continue;
-                    }
-                    
-                    UploadedFile file = uploadedFileOpt.get();
-                    
-                    // Apply date range filter
-                    if (startDate != null && endDate != null) {
-                        java.time.LocalDateTime startDateTime = java.time.LocalDate.parse(startDate).atStartOfDay();
-                        java.time.LocalDateTime endDateTime = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
-                        
-                        if (file.getUploadDate().isBefore(startDateTime) || file.getUploadDate().isAfter(endDateTime)) {
-                            continue;
-                        }
-                    }
-                    
-                    // Get aggregated data from worker_uploaded_data
-                    Map<String, Integer> statusSummary = getFileStatusSummary(currentFileId);
-                    int totalRecords = statusSummary.values().stream().mapToInt(Integer::intValue).sum();
-                    
-                    // Skip if no records found
-                    if (totalRecords == 0) {
-                        continue;
-                    }
-                    
-                    // Apply status filter based on majority status or specific criteria
-                    if (status != null && !status.trim().isEmpty()) {
-                        String filterStatus = status.trim().toUpperCase();
-                        // Only include if the file has records with the requested status
-                        if (!statusSummary.containsKey(filterStatus) || statusSummary.get(filterStatus) == 0) {
-                            continue;
-                        }
-                    }
-                    
-                    // Calculate validated amount
-                    List<WorkerUploadedData> validatedRecords = 
-                        repository.findByFileIdAndStatus(currentFileId, "VALIDATED");
-                    int validatedCount = validatedRecords.size();
-                    
-                    BigDecimal totalValidatedAmount = validatedRecords.stream()
-                        .map(record -> record.getPaymentAmount() != null ? record.getPaymentAmount() : BigDecimal.ZERO)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    // Determine overall file status based on aggregated data
-                    String overallStatus = determineOverallFileStatus(statusSummary);
-                    
-                    // Build file summary
-                    Map<String, Object> fileSummary = new HashMap<>();
-                    fileSummary.put("fileId", currentFileId);
-                    fileSummary.put("fileName", file.getFilename());
-                    fileSummary.put("uploadDate", file.getUploadDate());
-                    fileSummary.put("totalRecords", totalRecords);
-                    fileSummary.put("validatedCount", validatedCount);
-                    fileSummary.put("totalValidatedAmount", totalValidatedAmount);
-                    fileSummary.put("statusSummary", statusSummary);
-                    fileSummary.put("overallStatus", overallStatus);
-                    
-                    // Add ready for payment flag
-                    boolean readyForPayment = validatedCount > 0;
-                    fileSummary.put("readyForPayment", readyForPayment);
-                    
-                    // Add upload timestamp for sorting
-                    fileSummary.put("uploadTimestamp", file.getUploadDate());
-                    
-                    allFileSummaries.add(fileSummary);
-                    
-                } catch (NumberFormatException e) {
-                    log.warn("Invalid fileId format: {}", currentFileId);
-                } catch (Exception e) {
-                    log.error("Error processing fileId: {}", currentFileId, e);
+                uploadedFileId = parseUploadedFileId(fileId.trim());
+                if (uploadedFileId == null) {
+                    log.warn("Invalid fileId format: {}", fileId);
+                    uploadedFileId = -1L; // matches nothing, as the old id comparison did
                 }
             }
-            
-            // Sort the results
-            if ("uploadDate".equals(sortBy)) {
-                allFileSummaries.sort((a, b) -> {
-                    java.time.LocalDateTime dateA = (java.time.LocalDateTime) a.get("uploadTimestamp");
-                    java.time.LocalDateTime dateB = (java.time.LocalDateTime) b.get("uploadTimestamp");
-                    return "desc".equalsIgnoreCase(sortDir) ? dateB.compareTo(dateA) : dateA.compareTo(dateB);
-                });
-            } else if ("totalRecords".equals(sortBy)) {
-                allFileSummaries.sort((a, b) -> {
-                    Integer countA = (Integer) a.get("totalRecords");
-                    Integer countB = (Integer) b.get("totalRecords");
-                    return "desc".equalsIgnoreCase(sortDir) ? countB.compareTo(countA) : countA.compareTo(countB);
-                });
+            java.time.LocalDateTime startDateTime = null;
+            java.time.LocalDateTime endDateTime = null;
+            if (startDate != null && endDate != null) {
+                startDateTime = java.time.LocalDate.parse(startDate).atStartOfDay();
+                endDateTime = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
             }
-            
-            // Apply pagination manually
-            int totalElements = allFileSummaries.size();
+
+            WorkerUploadedDataQueryDao.FileSummaryPage result = queryDao.findFileSummaries(
+                    uploadedFileId, status, startDateTime, endDateTime, sortBy, sortDir, page, size);
+
+            List<Map<String, Object>> paginatedSummaries = new ArrayList<>(result.content().size());
+            for (WorkerUploadedDataQueryDao.FileSummary file : result.content()) {
+                Map<String, Integer> statusSummary = new HashMap<>();
+                statusSummary.put("UPLOADED", file.uploadedCount());
+                statusSummary.put("VALIDATED", file.validatedCount());
+                statusSummary.put("REJECTED", file.rejectedCount());
+                statusSummary.put("REQUEST_GENERATED", file.requestGeneratedCount());
+
+                Map<String, Object> fileSummary = new HashMap<>();
+                fileSummary.put("fileId", file.fileId());
+                fileSummary.put("fileName", file.fileName());
+                fileSummary.put("uploadDate", file.uploadDate());
+                fileSummary.put("totalRecords", file.totalRecords());
+                fileSummary.put("validatedCount", file.validatedCount());
+                fileSummary.put("totalValidatedAmount", file.totalValidatedAmount());
+                fileSummary.put("statusSummary", statusSummary);
+                fileSummary.put("overallStatus", determineOverallFileStatus(statusSummary, file.totalRecords()));
+                fileSummary.put("readyForPayment", file.validatedCount() > 0);
+                fileSummary.put("uploadTimestamp", file.uploadDate());
+                paginatedSummaries.add(fileSummary);
+            }
+
+            long totalElements = result.totalElements();
             int totalPages = (int) Math.ceil((double) totalElements / size);
-            int start = page * size;
-            int end = Math.min(start + size, totalElements);
-            
-            List<Map<String, Object>> paginatedSummaries = start < totalElements ? 
-                allFileSummaries.subList(start, end) : new ArrayList<>();
             
             // Build paginated response
             Map<String, Object> response = new HashMap<>();
@@ -343,259 +333,136 @@ public class WorkerUploadedDataService {
         }
     }
 
-    @Transactional
+    /**
+     * Validates the file's UPLOADED rows in id-ordered keyset slices. Each slice is validated,
+     * written back with one batched UPDATE and committed together with the file's validation
+     * checkpoint, so an interrupted run resumes after the last committed slice. Runs outside any
+     * caller transaction so slices commit independently.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void validateUploadedData(String fileId) {
         log.info("Starting validation for fileId: {}", fileId);
         
-        List<WorkerUploadedData> uploadedRecords = repository.findByFileIdAndStatus(fileId, "UPLOADED");
-        log.info("Found {} uploaded records to validate", uploadedRecords.size());
+        Long uploadedFileId = parseUploadedFileId(fileId);
+        long afterId = uploadedFileId == null ? 0L
+                : uploadedFileRepository.findValidationCheckpointId(uploadedFileId).orElse(0L);
+        if (afterId > 0) {
+            log.info("Resuming validation for fileId: {} after row id {}", fileId, afterId);
+        }
         
-        for (WorkerUploadedData record : uploadedRecords) {
-            try {
-                validateRecord(record);
-                if (record.getStatus().equals("VALIDATED")) {
-                    record.setValidatedAt(LocalDateTime.now());
+        int sliceSize = Math.max(1, fileConfig.getValidationSliceSize());
+        int validatedTotal = 0;
+        while (true) {
+            long sliceStart = afterId;
+            List<WorkerUploadedData> slice = transactionTemplate.execute(status -> {
+                List<WorkerUploadedData> rows = queryDao.findSliceByFileIdAndStatus(fileId, "UPLOADED", sliceStart, sliceSize);
+                if (rows.isEmpty()) {
+                    return rows;
+                }
+                FileStatusCounterDao.Deltas deltas = new FileStatusCounterDao.Deltas().addRows(rows, -1);
+                validator.validateAll(rows);
+                queryDao.updateValidationResults(rows);
+                statusCounters.apply(fileId, deltas.addRows(rows, 1));
+                if (uploadedFileId != null) {
+                    uploadedFileRepository.updateValidationCheckpoint(uploadedFileId, rows.get(rows.size() - 1).getId());
                 }
-            } catch (Exception e) {
-                log.error("Error validating record {} for fileId: {}", record.getRowNumber(), fileId, e);
-                record.setStatus("REJECTED");
-                record.setRejectionReason("Validation error: " + e.getMessage());
+                return rows;
+            });
+            if (slice == null || slice.isEmpty()) {
+                break;
             }
+            validatedTotal += slice.size();
+            afterId = slice.get(slice.size() - 1).getId();
+            log.debug("Validated {} records for fileId: {} (up to row id {})", validatedTotal, fileId, afterId);
         }
         
-        repository.saveAll(uploadedRecords);
-        log.info("Validation completed for fileId: {}", fileId);
+        if (uploadedFileId != null) {
+            // Done: a later re-validation must start from the beginning
+            uploadedFileRepository.updateValidationCheckpoint(uploadedFileId, null);
+        }
+        log.info("Validation completed for fileId: {} ({} records)", fileId, validatedTotal);
     }
 
-    private void validateRecord(WorkerUploadedData record) {
-        StringBuilder errors = new StringBuilder();
-        
-        // Required field validations
-        if (record.getWorkerId() == null || record.getWorkerId().trim().isEmpty()) {
-            errors.append("Worker ID is required. ");
-        }
-        
-        if (record.getWorkerName() == null || record.getWorkerName().trim().isEmpty()) {
-            errors.append("Worker name is required. ");
-        }
-        
-        if (record.getPaymentAmount() == null || record.getPaymentAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            errors.append("Valid payment amount greater than 0 is required. ");
-        }
-        
-        if (record.getBankAccount() == null || record.getBankAccount().trim().isEmpty()) {
-            errors.append("Bank account is required. ");
-        }
-        
-        if (record.getWorkDate() == null) {
-            errors.append("Work date is required. ");
-        }
-        
-        // Field length validations
-        if (record.getWorkerName() != null && record.getWorkerName().length() > 100) {
-            errors.append("Worker name must not exceed 100 characters. ");
-        }
-        
-        if (record.getCompanyName() != null && record.getCompanyName().length() > 100) {
-            errors.append("Company name must not exceed 100 characters. ");
-        }
-        
-        if (record.getDepartment() != null && record.getDepartment().length() > 50) {
-            errors.append("Department must not exceed 50 characters. ");
-        }
-        
-        if (record.getPosition() != null && record.getPosition().length() > 50) {
-            errors.append("Position must not exceed 50 characters. ");
-        }
-        
-        if (record.getWorkerId() != null && record.getWorkerId().length() > 50) {
-            errors.append("Worker ID must not exceed 50 characters. ");
-        }
-        
-        if (record.getEmail() != null && record.getEmail().length() > 100) {
-            errors.append("Email must not exceed 100 characters. ");
-        }
-        
-        // Bank account validation
-        if (record.getBankAccount() != null) {
-            String bankAccount = record.getBankAccount().trim();
-            if (bankAccount.length() < 10 || bankAccount.length() > 20) {
-                errors.append("Bank account must be between 10-20 characters. ");
-            }
-            // Allow alphanumeric characters for bank accounts (more realistic)
-            if (!bankAccount.matches("^[A-Za-z0-9]+$")) {
-                errors.append("Bank account must contain only letters and digits. ");
-            }
-        }
-        
-        // Phone number validation
-        if (record.getPhoneNumber() != null && !record.getPhoneNumber().trim().isEmpty()) {
-            String phone = record.getPhoneNumber().trim();
-            if (phone.length() > 15) {
-                errors.append("Phone number must not exceed 15 characters. ");
-            }
-            // Valid phone formats: +91-9876543210, +919876543210, 9876543210
-            if (!phone.matches("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$")) {
-                errors.append("Invalid phone number format. ");
-            }
-        }
-        
-        // Email format validation
-        if (record.getEmail() != null && !record.getEmail().trim().isEmpty()) {
-            if (!record.getEmail().matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-                errors.append("Invalid email format. ");
-            }
-        }
-        
-        // Date validations
-        if (record.getWorkDate() != null) {
-            java.time.LocalDate today = java.time.LocalDate.now();
-            if (record.getWorkDate().isAfter(today)) {
-                errors.append("Work date cannot be in the future. ");
-            }
-            // Check if work date is too far in the past (more than 1 year)
-            if (record.getWorkDate().isBefore(today.minusYears(1))) {
-                errors.append("Work date cannot be more than 1 year old. ");
-            }
-        }
-        
-        // Hours worked validation
-        if (record.getHoursWorked() != null) {
-            if (record.getHoursWorked().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                errors.append("Hours worked must be greater than 0. ");
-            }
-            if (record.getHoursWorked().compareTo(new java.math.BigDecimal("24")) > 0) {
-                errors.append("Hours worked cannot exceed 24 hours per day. ");
-            }
-        }
-        
-        // Hourly rate validation
-        if (record.getHourlyRate() != null) {
-            if (record.getHourlyRate().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                errors.append("Hourly rate must be greater than 0. ");
-            }
-            if (record.getHourlyRate().compareTo(new java.math.BigDecimal("10000")) > 0) {
-                errors.append("Hourly rate seems unreasonably high (max 10,000). ");
-            }
-        }
-        
-        // Payment amount validation
-        if (record.getPaymentAmount() != null) {
-            if (record.getPaymentAmount().compareTo(new java.math.BigDecimal("1000000")) > 0) {
-                errors.append("Payment amount seems unreasonably high (max 1,000,000). ");
-            }
-        }
-        
-        // Business logic validations
-        if (record.getHoursWorked() != null && record.getHourlyRate() != null && record.getPaymentAmount() != null) {
-            java.math.BigDecimal calculatedAmount = record.getHoursWorked().multiply(record.getHourlyRate());
-            // Allow for small rounding differences (0.01)
-            java.math.BigDecimal difference = record.getPaymentAmount().subtract(calculatedAmount).abs();
-            if (difference.compareTo(new java.math.BigDecimal("0.01")) > 0) {
-                errors.append("Payment amount doesn't match hours worked × hourly rate (calculated: " + calculatedAmount + "). ");
-            }
-        }
-        
-        if (errors.length() > 0) {
-            record.setStatus("REJECTED");
-            record.setRejectionReason(errors.toString().trim());
-        } else {
-            record.setStatus("VALIDATED");
+    private static Long parseUploadedFileId(String fileId) {
+        try {
+            return Long.valueOf(fileId);
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
     @Transactional
     public int generateRequestForValidatedData(String fileId, String uploadedFileRef) {
+        return generateRequest(fileId, uploadedFileRef).processedCount();
+    }
+
+    /**
+     * Outcome of request generation; {@code receiptNumber} is null when nothing was generated.
+     */
+    public record GeneratedRequest(String receiptNumber, int processedCount) {
+    }
+
+    /**
+     * @return the receipt a file's request was already generated under, if any
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findGeneratedReceiptNumber(String fileId) {
+        return repository.findFirstByFileIdAndStatusAndReceiptNumberIsNotNull(fileId, "REQUEST_GENERATED")
+                .map(WorkerUploadedData::getReceiptNumber);
+    }
+
+    /**
+     * Turns the VALIDATED rows of a file into worker payment requests under one receipt. The
+     * payments are inserted and the uploaded rows marked REQUEST_GENERATED by a single set-based
+     * statement, so the number of round trips does not depend on the row count.
+     */
+    @Transactional
+    public GeneratedRequest generateRequest(String fileId, String uploadedFileRef) {
         log.info("Generating request for validated data in fileId: {}", fileId);
         
-        List<WorkerUploadedData> validatedRecords = repository.findByFileIdAndStatus(fileId, "VALIDATED");
-        log.info("Found {} validated records to process", validatedRecords.size());
-        
-        if (validatedRecords.isEmpty()) {
-            return 0;
+        Optional<WorkerPaymentRequestDao.ValidatedTotals> totals = paymentRequestDao.findValidatedTotals(fileId);
+        if (totals.isEmpty() || totals.get().totalRecords() == 0) {
+            log.info("Found 0 validated records to process");
+            return new GeneratedRequest(null, 0);
         }
+        WorkerPaymentRequestDao.ValidatedTotals validated = totals.get();
+        log.info("Found {} validated records to process", validated.totalRecords());
         
         try {
-            // Step 1: Convert WorkerUploadedData to WorkerPayment objects
-            List<WorkerPayment> workerPayments = new ArrayList<>();
-            for (WorkerUploadedData uploadedData : validatedRecords) {
-                WorkerPayment payment = convertUploadedDataToPayment(uploadedData);
-                WorkerPayment savedPayment = workerPaymentService.save(payment);
-                workerPayments.add(savedPayment);
-                log.debug("Created WorkerPayment record for worker: {}", uploadedData.getWorkerId());
-            }
-            
-            // Step 2: Create WorkerPaymentReceipt using the receipt service
-            WorkerPaymentReceipt receipt = workerPaymentReceiptService.createReceipt(workerPayments);
+            WorkerPaymentReceipt receipt = workerPaymentReceiptService.createReceipt(
+                    validated.employerId(), validated.toliId(), validated.totalRecords(), validated.totalAmount());
             log.info("Created WorkerPaymentReceipt with number: {}", receipt.getReceiptNumber());
             
-            // Step 3: Update WorkerPayment records with receipt number (IMPORTANT LINK!)
-            for (WorkerPayment payment : workerPayments) {
-                try {
-                    payment.setReceiptNumber(receipt.getReceiptNumber());
-                    workerPaymentService.save(payment);
-                    log.debug("Updated WorkerPayment {} with receipt number: {}", payment.getId(), receipt.getReceiptNumber());
-                } catch (Exception e) {
-                    log.error("Error updating WorkerPayment {} with receipt number", payment.getId(), e);
-                }
+            int processedCount = paymentRequestDao.generatePaymentRequests(
+                    fileId, receipt.getReceiptNumber(), LocalDateTime.now());
+            if (processedCount != validated.totalRecords()) {
+                // Rows changed status between the totals query and the insert; the receipt would be wrong
+                throw new IllegalStateException("Validated record count changed from " + validated.totalRecords()
+                        + " to " + processedCount + " while generating the request");
             }
             
-            // Step 4: Update uploaded data records with receipt info and status
-            int processedCount = 0;
-            for (WorkerUploadedData validatedData : validatedRecords) {
-                try {
-                    validatedData.setStatus("REQUEST_GENERATED");
-                    validatedData.setReceiptNumber(receipt.getReceiptNumber());
-                    validatedData.setProcessedAt(LocalDateTime.now());
-                    repository.save(validatedData);
-                    processedCount++;
-                } catch (Exception e) {
-                    log.error("Error updating uploaded data record {} after payment creation", validatedData.getId(), e);
-                }
-            }
+            statusCounters.apply(fileId, new FileStatusCounterDao.Deltas()
+                    .add("VALIDATED", -processedCount, validated.totalAmount().negate())
+                    .add("REQUEST_GENERATED", processedCount, validated.totalAmount()));
+            
+            auditHelper.recordAudit("GENERATE_PAYMENT_REQUEST", "WORKER_PAYMENT_RECEIPT", receipt.getReceiptNumber(),
+                    "SUCCESS", Map.of("fileId", fileId,
+                            "totalRecords", processedCount,
+                            "totalAmount", validated.totalAmount()));
             
             log.info("Successfully generated request for {} records with receipt: {}", processedCount, receipt.getReceiptNumber());
-            return processedCount;
+            return new GeneratedRequest(receipt.getReceiptNumber(), processedCount);
             
         } catch (Exception e) {
             log.error("Error generating payment request for fileId: {}", fileId, e);
             throw new RuntimeException("Failed to generate payment request: " + e.getMessage(), e);
         }
     }
-    
-    private WorkerPayment convertUploadedDataToPayment(WorkerUploadedData uploadedData) {
-        WorkerPayment payment = new WorkerPayment();
-        
-        // Map fields from WorkerUploadedData to WorkerPayment based on available fields
-        payment.setWorkerRef(uploadedData.getWorkerId()); // worker_id → worker_reference
-        payment.setName(uploadedData.getWorkerName()); // worker_name → name
-        payment.setPaymentAmount(uploadedData.getPaymentAmount());
-        payment.setBankAccount(uploadedData.getBankAccount());
-        payment.setFileId(uploadedData.getFileId());
-        
-        // Set the required employer_id and toli_id fields
-        payment.setEmployerId(uploadedData.getEmployerId());
-        payment.setToliId(uploadedData.getToliId());
-        
-        // Set fields that might not have direct mappings but are required
-        payment.setRegId(uploadedData.getWorkerId()); // Use worker_id as reg_id for now
-        payment.setToli(uploadedData.getDepartment() != null ? uploadedData.getDepartment() : "DEFAULT");
-        
-        // Set default values for required fields that don't have mappings
-        payment.setAadhar(""); // Will need to be updated with actual data
-        payment.setPan(""); // Will need to be updated with actual data
-        
-        // Set status and other metadata
-        // Using VALIDATED since these records have already passed validation
-        payment.setStatus("VALIDATED");
-        payment.setCreatedAt(LocalDateTime.now());
-        
-        return payment;
-    }
 
     public void deleteByFileId(String fileId) {
         log.info("Deleting all uploaded data for fileId: {}", fileId);
         repository.deleteByFileId(fileId);
+        statusCounters.deleteByFileId(fileId);
     }
 
     public List<WorkerUploadedData> findRejectedRecords(String fileId) {
@@ -613,6 +480,22 @@ public class WorkerUploadedDataService {
         return repository.findByReceiptNumber(receiptNumber);
     }
 
+    /**
+     * Rows of the file in any of the given statuses, read lazily when the producer runs.
+     */
+    public RowProducer<WorkerUploadedData> exportByFileIdAndStatuses(String fileId, List<String> statuses) {
+        log.info("Exporting records by fileId: {} with statuses: {}", fileId, statuses);
+        return sink -> queryDao.streamByFileIdAndStatuses(fileId, statuses, sink::accept);
+    }
+
+    /**
+     * Rows of the payment request, read lazily when the producer runs.
+     */
+    public RowProducer<WorkerUploadedData> exportByReceiptNumber(String receiptNumber) {
+        log.info("Exporting records by receipt number: {}", receiptNumber);
+        return sink -> queryDao.streamByReceiptNumber(receiptNumber, sink::accept);
+    }
+
     public Page<WorkerUploadedData> findByReceiptNumberPaginated(String receiptNumber, Pageable pageable) {
         log.info("Finding records by receipt number: {} (paginated)", receiptNumber);
         return repository.findByReceiptNumber(receiptNumber, pageable);
@@ -0,0 +1,125 @@
+package com.example.paymentflow.worker.validation;
+
+/**
+ * Single-pass matchers for the field formats of {@link WorkerUploadedDataRule}. Each accepts
+ * exactly what the regex in its comment accepts, without the matcher allocation and backtracking
+ * that made the three patterns most of the per-row validation cost.
+ */
+final class FieldFormats {
+
+    private FieldFormats() {
+    }
+
+    /**
+     * {@code ^[A-Za-z0-9]+$} over {@code value[from, to)}.
+     */
+    static boolean isAlphanumeric(String value, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code ^(\+\d{1,3}[\s\-]?)?\d{10}$} over {@code value[from, to)}, e.g. +91-9876543210,
+     * +919876543210 or 9876543210.
+     */
+    static boolean isPhoneNumber(String value, int from, int to) {
+        if (from < to && value.charAt(from) == '+') {
+            for (int code = 1; code <= 3 && from + code < to && isDigit(value.charAt(from + code)); code++) {
+                int next = from + 1 + code;
+                if (isDigits(value, next, to, 10)) {
+                    return true;
+                }
+                if (next < to && isSeparator(value.charAt(next)) && isDigits(value, next + 1, to, 10)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return isDigits(value, from, to, 10);
+    }
+
+    /**
+     * {@code ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}. The top-level domain holds no dots,
+     * so it is whatever follows the last one.
+     */
+    static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        int dot = value.lastIndexOf('.');
+        if (at < 1 || dot < at + 2 || value.length() - dot - 1 < 2) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        for (int i = at + 1; i < dot; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isDigit(c) && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        for (int i = dot + 1; i < value.length(); i++) {
+            if (!isAsciiLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Start of {@code value} once leading characters {@link String#trim()} would drop are skipped.
+     */
+    static int trimmedStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * End of {@code value} once trailing characters {@link String#trim()} would drop are skipped.
+     */
+    static int trimmedEnd(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isDigits(String value, int from, int to, int count) {
+        if (to - from != count) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /** {@code [\s\-]}: the six ASCII whitespace characters of {@code \s}, or a hyphen. */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r' || c == '-';
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.paymentflow.worker.validation;
+
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * Validation rules for uploaded worker rows, in the order their messages are reported.
+ * <p>
+ * Each rule owns one bit ({@code 1L << ordinal()}) so the failures of a row fit in a single
+ * {@code long}. Numeric limits are built once in {@link Limits}; field formats are checked by the
+ * single-pass matchers of {@link FieldFormats}.
+ */
+public enum WorkerUploadedDataRule {
+
+    // Required fields
+    WORKER_ID_REQUIRED("Worker ID is required.",
+            (row, today) -> isBlank(row.getWorkerId())),
+    WORKER_NAME_REQUIRED("Worker name is required.",
+            (row, today) -> isBlank(row.getWorkerName())),
+    PAYMENT_AMOUNT_REQUIRED("Valid payment amount greater than 0 is required.",
+            (row, today) -> row.getPaymentAmount() == null || row.getPaymentAmount().signum() <= 0),
+    BANK_ACCOUNT_REQUIRED("Bank account is required.",
+            (row, today) -> isBlank(row.getBankAccount())),
+    WORK_DATE_REQUIRED("Work date is required.",
+            (row, today) -> row.getWorkDate() == null),
+
+    // Field lengths
+    WORKER_NAME_TOO_LONG("Worker name must not exceed 100 characters.",
+            (row, today) -> longerThan(row.getWorkerName(), 100)),
+    COMPANY_NAME_TOO_LONG("Company name must not exceed 100 characters.",
+            (row, today) -> longerThan(row.getCompanyName(), 100)),
+    DEPARTMENT_TOO_LONG("Department must not exceed 50 characters.",
+            (row, today) -> longerThan(row.getDepartment(), 50)),
+    POSITION_TOO_LONG("Position must not exceed 50 characters.",
+            (row, today) -> longerThan(row.getPosition(), 50)),
+    WORKER_ID_TOO_LONG("Worker ID must not exceed 50 characters.",
+            (row, today) -> longerThan(row.getWorkerId(), 50)),
+    EMAIL_TOO_LONG("Email must not exceed 100 characters.",
+            (row, today) -> longerThan(row.getEmail(), 100)),
+
+    // Bank account
+    BANK_ACCOUNT_LENGTH("Bank account must be between 10-20 characters.",
+            (row, today) -> {
+                if (row.getBankAccount() == null) {
+                    return false;
+                }
+                int length = trimmedLength(row.getBankAccount());
+                return length < 10 || length > 20;
+            }),
+    BANK_ACCOUNT_CHARACTERS("Bank account must contain only letters and digits.",
+            (row, today) -> row.getBankAccount() != null && !FieldFormats.isAlphanumeric(row.getBankAccount(),
+                    FieldFormats.trimmedStart(row.getBankAccount()), FieldFormats.trimmedEnd(row.getBankAccount()))),
+
+    // Phone number
+    PHONE_TOO_LONG("Phone number must not exceed 15 characters.",
+            (row, today) -> !isBlank(row.getPhoneNumber()) && trimmedLength(row.getPhoneNumber()) > 15),
+    PHONE_FORMAT("Invalid phone number format.",
+            (row, today) -> !isBlank(row.getPhoneNumber()) && !FieldFormats.isPhoneNumber(row.getPhoneNumber(),
+                    FieldFormats.trimmedStart(row.getPhoneNumber()), FieldFormats.trimmedEnd(row.getPhoneNumber()))),
+
+    // Email
+    EMAIL_FORMAT("Invalid email format.",
+            (row, today) -> !isBlank(row.getEmail()) && !FieldFormats.isEmail(row.getEmail())),
+
+    // Work date
+    WORK_DATE_IN_FUTURE("Work date cannot be in the future.",
+            (row, today) -> row.getWorkDate() != null && row.getWorkDate().isAfter(today)),
+    WORK_DATE_TOO_OLD("Work date cannot be more than 1 year old.",
+            (row, today) -> row.getWorkDate() != null && row.getWorkDate().isBefore(today.minusYears(1))),
+
+    // Hours and rate
+    HOURS_NOT_POSITIVE("Hours worked must be greater than 0.",
+            (row, today) -> row.getHoursWorked() != null && row.getHoursWorked().signum() <= 0),
+    HOURS_TOO_HIGH("Hours worked cannot exceed 24 hours per day.",
+            (row, today) -> row.getHoursWorked() != null && row.getHoursWorked().compareTo(Limits.MAX_HOURS) > 0),
+    RATE_NOT_POSITIVE("Hourly rate must be greater than 0.",
+            (row, today) -> row.getHourlyRate() != null && row.getHourlyRate().signum() <= 0),
+    RATE_TOO_HIGH("Hourly rate seems unreasonably high (max 10,000).",
+            (row, today) -> row.getHourlyRate() != null && row.getHourlyRate().compareTo(Limits.MAX_RATE) > 0),
+
+    // Payment amount
+    PAYMENT_TOO_HIGH("Payment amount seems unreasonably high (max 1,000,000).",
+            (row, today) -> row.getPaymentAmount() != null
+                    && row.getPaymentAmount().compareTo(Limits.MAX_PAYMENT) > 0),
+    PAYMENT_MISMATCH(row -> "Payment amount doesn't match hours worked × hourly rate (calculated: "
+                    + calculatedAmount(row) + ").",
+            (row, today) -> row.getHoursWorked() != null && row.getHourlyRate() != null
+                    && row.getPaymentAmount() != null
+                    // Allow for small rounding differences (0.01)
+                    && row.getPaymentAmount().subtract(calculatedAmount(row)).abs().compareTo(Limits.TOLERANCE) > 0);
+
+    static {
+        if (values().length > Long.SIZE) {
+            throw new IllegalStateException("Rule bitset supports at most " + Long.SIZE + " rules");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean fails(WorkerUploadedData row, LocalDate today);
+    }
+
+    private final Function<WorkerUploadedData, String> message;
+    private final Check check;
+
+    WorkerUploadedDataRule(String message, Check check) {
+        this(row -> message, check);
+    }
+
+    WorkerUploadedDataRule(Function<WorkerUploadedData, String> message, Check check) {
+        this.message = message;
+        this.check = check;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * @param today reference date for the work-date rules, fixed once per validation run
+     */
+    public boolean fails(WorkerUploadedData row, LocalDate today) {
+        return check.fails(row, today);
+    }
+
+    /**
+     * Renders the user-facing message; some messages quote values from the row.
+     */
+    public String message(WorkerUploadedData row) {
+        return message.apply(row);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || FieldFormats.trimmedStart(value) == value.length();
+    }
+
+    /** Length of {@code value.trim()}, without allocating the trimmed copy. */
+    private static int trimmedLength(String value) {
+        return Math.max(0, FieldFormats.trimmedEnd(value) - FieldFormats.trimmedStart(value));
+    }
+
+    private static boolean longerThan(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    private static BigDecimal calculatedAmount(WorkerUploadedData row) {
+        return row.getHoursWorked().multiply(row.getHourlyRate());
+    }
+
+    /**
+     * Numeric limits. A separate holder because enum constant arguments cannot refer to the
+     * enum's own static fields.
+     */
+    private static final class Limits {
+        static final BigDecimal MAX_HOURS = new BigDecimal("24");
+        static final BigDecimal MAX_RATE = new BigDecimal("10000");
+        static final BigDecimal MAX_PAYMENT = new BigDecimal("1000000");
+        static final BigDecimal TOLERANCE = new BigDecimal("0.01");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.paymentflow.worker.validation;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Validates uploaded worker rows against {@link WorkerUploadedDataRule}.
+ * <p>
+ * Checking a row yields a bitset of failed rules; message text is only rendered for rows that
+ * are rejected. Batches of at least {@code workerpayment.file.validation-parallel-threshold} rows
+ * are checked in parallel, since rows are independent; statuses are applied afterwards on the
+ * calling thread.
+ */
+@Component
+public class WorkerUploadedDataValidator {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataValidator.class);
+
+    private static final WorkerUploadedDataRule[] RULES = WorkerUploadedDataRule.values();
+
+    private final int parallelThreshold;
+
+    public WorkerUploadedDataValidator(WorkerPaymentFileConfig config) {
+        this.parallelThreshold = Math.max(1, config.getValidationParallelThreshold());
+        if (parallelThreshold > config.getValidationSliceSize()) {
+            log.warn("Validation parallel threshold {} exceeds the slice size {}; slices are validated sequentially",
+                    parallelThreshold, config.getValidationSliceSize());
+        }
+    }
+
+    /**
+     * @return bitset of the rules the row fails; 0 if it is valid
+     */
+    public long check(WorkerUploadedData row, LocalDate today) {
+        long failures = 0L;
+        for (WorkerUploadedDataRule rule : RULES) {
+            if (rule.fails(row, today)) {
+                failures |= rule.bit();
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Renders the messages of the failed rules in rule order, space separated.
+     */
+    public String describe(long failures, WorkerUploadedData row) {
+        StringBuilder text = new StringBuilder(64 * Long.bitCount(failures));
+        for (WorkerUploadedDataRule rule : RULES) {
+            if ((failures & rule.bit()) != 0) {
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(rule.message(row));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Checks every row and sets its status to VALIDATED (with validatedAt) or REJECTED (with the
+     * rendered rejection reason).
+     *
+     * @return number of rows validated
+     */
+    public int validateAll(List<WorkerUploadedData> rows) {
+        int size = rows.size();
+        LocalDate today = LocalDate.now();
+        long[] failures = new long[size];
+        RuntimeException[] errors = new RuntimeException[size];
+
+        IntStream indexes = IntStream.range(0, size);
+        if (size >= parallelThreshold) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            try {
+                failures[i] = check(rows.get(i), today);
+            } catch (RuntimeException e) {
+                errors[i] = e;
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        int validated = 0;
+        for (int i = 0; i < size; i++) {
+            WorkerUploadedData row = rows.get(i);
+            if (errors[i] != null) {
+                log.error("Error validating record {} for fileId: {}", row.getRowNumber(), row.getFileId(), errors[i]);
+                row.setStatus("REJECTED");
+                row.setRejectionReason("Validation error: " + errors[i].getMessage());
+            } else if (failures[i] != 0L) {
+                row.setStatus("REJECTED");
+                row.setRejectionReason(describe(failures[i], row));
+            } else {
+                row.setStatus("VALIDATED");
+                row.setValidatedAt(now);
+                validated++;
+            }
+        }
+        return validated;
+    }
+}
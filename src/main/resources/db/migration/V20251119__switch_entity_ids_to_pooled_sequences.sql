@@ -0,0 +1,42 @@
+-- Migration: Replace IDENTITY id columns with pooled sequences so Hibernate can batch inserts.
+-- Existing ids are kept; each <table>_seq starts after the table's current max(id) and
+-- advances by the entity allocationSize (50). The column default keeps plain SQL inserts working.
+DO
+$$
+DECLARE
+    tbl     TEXT;
+    seq     TEXT;
+    next_id BIGINT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY[
+        'worker_payments',
+        'worker_uploaded_data',
+        'worker_payment_receipts',
+        'uploaded_files',
+        'employer_payment_receipts',
+        'board_receipts',
+        'board_master',
+        'employer_master',
+        'toli_master',
+        'worker_master',
+        'employer_toli_relation'
+    ]
+    LOOP
+        IF to_regclass('payment_flow.' || tbl) IS NULL THEN
+            CONTINUE;
+        END IF;
+        seq := tbl || '_seq';
+
+        EXECUTE format('ALTER TABLE payment_flow.%I ALTER COLUMN id DROP IDENTITY IF EXISTS', tbl);
+
+        IF to_regclass('payment_flow.' || seq) IS NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) + 1 FROM payment_flow.%I', tbl) INTO next_id;
+            EXECUTE format('CREATE SEQUENCE payment_flow.%I INCREMENT BY 50 START WITH %s', seq, next_id);
+        END IF;
+
+        EXECUTE format('ALTER SEQUENCE payment_flow.%I OWNED BY payment_flow.%I.id', seq, tbl);
+        EXECUTE format('ALTER TABLE payment_flow.%I ALTER COLUMN id SET DEFAULT nextval(%L)',
+                       tbl, 'payment_flow.' || seq);
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,7 @@
+-- Migration: Track validation progress so an interrupted validation resumes after the last committed slice
+ALTER TABLE payment_flow.uploaded_files
+    ADD COLUMN IF NOT EXISTS validation_checkpoint_id BIGINT;
+
+-- Keyset slices scan UPLOADED rows of one file in id order
+CREATE INDEX IF NOT EXISTS idx_worker_uploaded_data_file_status_id
+    ON payment_flow.worker_uploaded_data (file_id, status, id);
@@ -0,0 +1,32 @@
+-- Migration: Durable work queue for pipeline stages (upload parse, validate, generate request, send to employer).
+-- Workers claim PENDING rows with FOR UPDATE SKIP LOCKED, so replicas share the queue without double processing.
+CREATE TABLE IF NOT EXISTS payment_flow.pipeline_jobs (
+    id           BIGSERIAL PRIMARY KEY,
+    stage        VARCHAR(40)  NOT NULL,
+    subject      VARCHAR(100) NOT NULL,
+    status       VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts     INTEGER      NOT NULL DEFAULT 0,
+    max_attempts INTEGER      NOT NULL DEFAULT 5,
+    run_after    TIMESTAMP    NOT NULL DEFAULT now(),
+    locked_by    VARCHAR(100),
+    locked_at    TIMESTAMP,
+    last_error   TEXT,
+    created_at   TIMESTAMP    NOT NULL DEFAULT now(),
+    updated_at   TIMESTAMP    NOT NULL DEFAULT now(),
+    CONSTRAINT pipeline_jobs_status_check CHECK (status IN ('PENDING', 'RUNNING', 'DONE', 'DEAD'))
+);
+
+-- Claim scan: due PENDING jobs in order
+CREATE INDEX IF NOT EXISTS idx_pipeline_jobs_pending
+    ON payment_flow.pipeline_jobs (run_after, id)
+    WHERE status = 'PENDING';
+
+-- Lease expiry scan for RUNNING jobs abandoned by a crashed worker
+CREATE INDEX IF NOT EXISTS idx_pipeline_jobs_running
+    ON payment_flow.pipeline_jobs (locked_at)
+    WHERE status = 'RUNNING';
+
+-- At most one open job per stage and subject; enqueueing the same work twice is a no-op
+CREATE UNIQUE INDEX IF NOT EXISTS uq_pipeline_jobs_open
+    ON payment_flow.pipeline_jobs (stage, subject)
+    WHERE status IN ('PENDING', 'RUNNING');
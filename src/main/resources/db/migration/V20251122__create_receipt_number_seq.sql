@@ -0,0 +1,8 @@
+-- Migration: Sequence behind worker receipt numbers (RCP-yyyyMMdd-HHmmss-NNNNNN).
+-- Each node reserves INCREMENT BY numbers per nextval() and hands them out in memory, so the
+-- increment must match the allocator's block size (100).
+CREATE SEQUENCE IF NOT EXISTS payment_flow.receipt_number_seq
+    START WITH 1
+    INCREMENT BY 100
+    MINVALUE 1
+    NO CYCLE;
@@ -0,0 +1,11 @@
+-- Migration: Sequences behind EMP, BRD and REQ reference numbers (RCP uses receipt_number_seq).
+-- Like receipt_number_seq, each node reserves INCREMENT BY numbers per nextval(); the increment
+-- must match the block size in ReferenceNumberFormat.
+CREATE SEQUENCE IF NOT EXISTS payment_flow.employer_receipt_number_seq
+    START WITH 1 INCREMENT BY 100 MINVALUE 1 NO CYCLE;
+
+CREATE SEQUENCE IF NOT EXISTS payment_flow.board_reference_seq
+    START WITH 1 INCREMENT BY 100 MINVALUE 1 NO CYCLE;
+
+CREATE SEQUENCE IF NOT EXISTS payment_flow.request_reference_seq
+    START WITH 1 INCREMENT BY 100 MINVALUE 1 NO CYCLE;
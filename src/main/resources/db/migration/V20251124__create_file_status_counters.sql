@@ -0,0 +1,21 @@
+-- Migration: Per-file status counters for worker_uploaded_data.
+-- Maintained in the same transaction as every status change (ingest, validation, request generation),
+-- so file summaries read a handful of rows by primary key instead of aggregating the upload.
+CREATE TABLE IF NOT EXISTS payment_flow.file_status_counters (
+    file_id      VARCHAR(100)  NOT NULL,
+    status       VARCHAR(32)   NOT NULL,
+    record_count BIGINT        NOT NULL DEFAULT 0,
+    amount_sum   NUMERIC(19,2) NOT NULL DEFAULT 0,
+    updated_at   TIMESTAMP     NOT NULL DEFAULT now(),
+    CONSTRAINT file_status_counters_pkey PRIMARY KEY (file_id, status)
+);
+
+-- Backfill from the rows already uploaded
+INSERT INTO payment_flow.file_status_counters (file_id, status, record_count, amount_sum)
+SELECT file_id, status, COUNT(*), COALESCE(SUM(payment_amount), 0)
+FROM payment_flow.worker_uploaded_data
+GROUP BY file_id, status
+ON CONFLICT (file_id, status) DO UPDATE
+SET record_count = EXCLUDED.record_count,
+    amount_sum = EXCLUDED.amount_sum,
+    updated_at = now();
@@ -0,0 +1,13 @@
+-- Keyset pages seek on (sort column, id) so each page is an index range scan, whatever its depth.
+
+CREATE INDEX IF NOT EXISTS idx_worker_payments_created_at_id
+    ON payment_flow.worker_payments (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_worker_payment_receipts_created_at_id
+    ON payment_flow.worker_payment_receipts (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_worker_payment_receipts_status_created_at_id
+    ON payment_flow.worker_payment_receipts (status, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_board_receipts_receipt_date_id
+    ON payment_flow.board_receipts (receipt_date DESC, id DESC);
@@ -0,0 +1,7 @@
+-- Bulk validation resolves and updates rows by receipt number sets (= ANY / IN), one statement per table.
+
+CREATE INDEX IF NOT EXISTS idx_worker_payments_receipt_number_status
+    ON payment_flow.worker_payments (receipt_number, status);
+
+CREATE INDEX IF NOT EXISTS idx_employer_payment_receipts_worker_receipt_number
+    ON payment_flow.employer_payment_receipts (worker_receipt_number);
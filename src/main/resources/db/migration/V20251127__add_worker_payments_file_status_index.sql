@@ -0,0 +1,4 @@
+-- File-scoped status transitions aggregate and update worker_payments by (file_id, status) in one statement each.
+
+CREATE INDEX IF NOT EXISTS idx_worker_payments_file_id_status
+    ON payment_flow.worker_payments (file_id, status);
@@ -0,0 +1,33 @@
+-- Migration: Transactional outbox for receipt state changes (worker -> employer -> board).
+-- Rows are written in the same transaction as the state change; a relay claims PENDING rows with
+-- FOR UPDATE SKIP LOCKED and publishes them, so delivery is at-least-once and consumers are idempotent.
+CREATE TABLE IF NOT EXISTS payment_flow.receipt_outbox_events (
+    id           BIGSERIAL PRIMARY KEY,
+    event_type   VARCHAR(60)  NOT NULL,
+    aggregate_id VARCHAR(100) NOT NULL,
+    payload      JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    status       VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts     INTEGER      NOT NULL DEFAULT 0,
+    max_attempts INTEGER      NOT NULL DEFAULT 10,
+    available_at TIMESTAMP    NOT NULL DEFAULT now(),
+    locked_by    VARCHAR(100),
+    locked_at    TIMESTAMP,
+    last_error   TEXT,
+    created_at   TIMESTAMP    NOT NULL DEFAULT now(),
+    published_at TIMESTAMP,
+    CONSTRAINT receipt_outbox_events_status_check CHECK (status IN ('PENDING', 'RUNNING', 'PUBLISHED', 'DEAD'))
+);
+
+-- Claim scan: due PENDING events in commit order
+CREATE INDEX IF NOT EXISTS idx_receipt_outbox_events_pending
+    ON payment_flow.receipt_outbox_events (available_at, id)
+    WHERE status = 'PENDING';
+
+-- Lease expiry scan for RUNNING events abandoned by a crashed relay
+CREATE INDEX IF NOT EXISTS idx_receipt_outbox_events_running
+    ON payment_flow.receipt_outbox_events (locked_at)
+    WHERE status = 'RUNNING';
+
+-- Idempotency lookup of the board receipt consumer
+CREATE INDEX IF NOT EXISTS idx_board_receipts_employer_reference
+    ON payment_flow.board_receipts (employer_reference);
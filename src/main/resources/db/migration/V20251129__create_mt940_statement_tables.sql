@@ -0,0 +1,44 @@
+-- Migration: MT940 statement ingestion. One row per ingested file, keyed by content hash so a file
+-- re-delivered (or re-run after a crash between commit and archive) is recognised and skipped.
+CREATE TABLE IF NOT EXISTS payment_flow.mt940_statement_files (
+    id              BIGSERIAL PRIMARY KEY,
+    file_name       VARCHAR(255) NOT NULL,
+    sha256          CHAR(64)     NOT NULL,
+    size_bytes      BIGINT       NOT NULL,
+    statement_count INTEGER      NOT NULL DEFAULT 0,
+    line_count      INTEGER      NOT NULL DEFAULT 0,
+    ingested_at     TIMESTAMP    NOT NULL DEFAULT now(),
+    CONSTRAINT uq_mt940_statement_files_sha256 UNIQUE (sha256)
+);
+
+-- Statement lines (tag 61 with its tag 86 narrative), loaded with COPY
+CREATE TABLE IF NOT EXISTS payment_flow.mt940_statement_lines (
+    id                    BIGSERIAL PRIMARY KEY,
+    file_id               BIGINT        NOT NULL REFERENCES payment_flow.mt940_statement_files (id),
+    statement_reference   VARCHAR(35)   NOT NULL,
+    account_id            VARCHAR(64),
+    statement_number      VARCHAR(16),
+    line_number           INTEGER       NOT NULL,
+    value_date            DATE          NOT NULL,
+    entry_date            VARCHAR(4),
+    dc_mark               VARCHAR(2)    NOT NULL,
+    funds_code            VARCHAR(1),
+    amount                NUMERIC(18,3) NOT NULL,
+    transaction_type      VARCHAR(1),
+    identification_code   VARCHAR(3),
+    customer_reference    VARCHAR(35),
+    bank_reference        VARCHAR(35),
+    supplementary_details VARCHAR(64),
+    narrative             TEXT,
+    created_at            TIMESTAMP     NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_mt940_statement_lines_file_id
+    ON payment_flow.mt940_statement_lines (file_id);
+
+-- Reconciliation lookups by account and date, and by the account owner's reference (UTR)
+CREATE INDEX IF NOT EXISTS idx_mt940_statement_lines_account_value_date
+    ON payment_flow.mt940_statement_lines (account_id, value_date);
+
+CREATE INDEX IF NOT EXISTS idx_mt940_statement_lines_customer_reference
+    ON payment_flow.mt940_statement_lines (customer_reference);
@@ -0,0 +1,11 @@
+-- Migration: Owner and heartbeat for background upload jobs
+-- A runner claims a QUEUED file, or a PROCESSING file whose heartbeat is older than the lease,
+-- so a file that is still being parsed is never restarted by another runner.
+ALTER TABLE payment_flow.uploaded_files
+    ADD COLUMN IF NOT EXISTS job_owner VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS job_heartbeat_at TIMESTAMP;
+
+-- Stale-job scan over the few files that are mid-parse
+CREATE INDEX IF NOT EXISTS idx_uploaded_files_processing_heartbeat
+    ON payment_flow.uploaded_files (job_heartbeat_at)
+    WHERE status = 'PROCESSING';
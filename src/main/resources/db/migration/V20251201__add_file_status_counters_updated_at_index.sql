@@ -0,0 +1,3 @@
+-- Migration: The counter drift check only recounts files whose counters changed recently
+CREATE INDEX IF NOT EXISTS idx_file_status_counters_updated_at
+    ON payment_flow.file_status_counters (updated_at);
@@ -0,0 +1,15 @@
+-- Migration: One board receipt per employer receipt.
+-- The outbox consumer inserts with ON CONFLICT (employer_reference) DO NOTHING, so a redelivered
+-- or concurrently re-claimed event can no longer create a second PENDING board receipt. PENDING
+-- duplicates left by earlier redeliveries are removed first, keeping the oldest; duplicates that
+-- already moved past PENDING make this migration fail and must be resolved by hand.
+DELETE FROM payment_flow.board_receipts dup
+USING payment_flow.board_receipts kept
+WHERE dup.employer_reference = kept.employer_reference
+  AND dup.id > kept.id
+  AND dup.status = 'PENDING';
+
+DROP INDEX IF EXISTS payment_flow.idx_board_receipts_employer_reference;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_board_receipts_employer_reference
+    ON payment_flow.board_receipts (employer_reference);
@@ -0,0 +1,24 @@
+-- Migration: Ids for set-based inserts into tables with pooled sequences (V20251119).
+-- Hibernate's pooled-lo optimizer takes one nextval per allocationSize ids and uses the whole
+-- block; a plain INSERT relying on the nextval column default takes one block per row and skips
+-- the other 49 ids. pooled_ids hands out row_count ids the way Hibernate does, one nextval per
+-- block of the sequence's increment, so bulk paths consume ids at the same density. The blocks
+-- come from the same sequence and never overlap Hibernate's.
+CREATE OR REPLACE FUNCTION payment_flow.pooled_ids(seq REGCLASS, row_count BIGINT)
+    RETURNS SETOF BIGINT
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    block_size BIGINT;
+    remaining  BIGINT := row_count;
+    lo         BIGINT;
+BEGIN
+    SELECT seqincrement INTO block_size FROM pg_catalog.pg_sequence WHERE seqrelid = seq;
+    WHILE remaining > 0 LOOP
+        lo := nextval(seq);
+        RETURN QUERY SELECT generate_series(lo, lo + LEAST(block_size, remaining) - 1);
+        remaining := remaining - block_size;
+    END LOOP;
+END;
+$$;
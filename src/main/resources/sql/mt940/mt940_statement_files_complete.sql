@@ -0,0 +1,5 @@
+UPDATE mt940_statement_files
+SET statement_count = :statementCount,
+    line_count = :lineCount,
+    ingested_at = now()
+WHERE id = :id
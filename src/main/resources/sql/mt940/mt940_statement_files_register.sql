@@ -0,0 +1,4 @@
+INSERT INTO mt940_statement_files (file_name, sha256, size_bytes)
+VALUES (:fileName, :sha256, :sizeBytes)
+ON CONFLICT (sha256) DO NOTHING
+RETURNING id
@@ -0,0 +1,2 @@
+INSERT INTO receipt_outbox_events (event_type, aggregate_id, payload, max_attempts)
+VALUES (:eventType, :aggregateId, CAST(:payload AS jsonb), :maxAttempts)
@@ -0,0 +1,16 @@
+UPDATE receipt_outbox_events
+SET status = 'RUNNING',
+    attempts = attempts + 1,
+    locked_by = :relayId,
+    locked_at = now()
+WHERE id IN (
+    SELECT id
+    FROM receipt_outbox_events
+    WHERE (status = 'PENDING' AND available_at <= now())
+       OR (status = 'RUNNING' AND attempts < max_attempts
+           AND locked_at < now() - make_interval(secs => :leaseSeconds))
+    ORDER BY available_at, id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+)
+RETURNING id, event_type, aggregate_id, payload::text AS payload, attempts, max_attempts
@@ -0,0 +1,15 @@
+UPDATE receipt_outbox_events
+SET status = 'DEAD',
+    locked_by = NULL,
+    locked_at = NULL,
+    last_error = 'Lease expired on attempt ' || attempts || ' of ' || max_attempts
+        || ' without the event being published or failing'
+WHERE id IN (
+    SELECT id
+    FROM receipt_outbox_events
+    WHERE status = 'RUNNING'
+      AND attempts >= max_attempts
+      AND locked_at < now() - make_interval(secs => :leaseSeconds)
+    FOR UPDATE SKIP LOCKED
+)
+RETURNING id, event_type, aggregate_id, payload::text AS payload, attempts, max_attempts
@@ -0,0 +1,9 @@
+UPDATE receipt_outbox_events
+SET status = CASE WHEN attempts >= max_attempts THEN 'DEAD' ELSE 'PENDING' END,
+    available_at = now() + make_interval(secs => :delaySeconds),
+    locked_by = NULL,
+    locked_at = NULL,
+    last_error = :error
+WHERE id = :id
+  AND locked_by = :relayId
+RETURNING status
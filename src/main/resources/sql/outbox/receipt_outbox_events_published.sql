@@ -0,0 +1,8 @@
+UPDATE receipt_outbox_events
+SET status = 'PUBLISHED',
+    locked_by = NULL,
+    locked_at = NULL,
+    last_error = NULL,
+    published_at = now()
+WHERE id IN (:ids)
+  AND locked_by = :relayId
@@ -0,0 +1,17 @@
+UPDATE pipeline_jobs
+SET status = 'RUNNING',
+    attempts = attempts + 1,
+    locked_by = :workerId,
+    locked_at = now(),
+    updated_at = now()
+WHERE id IN (
+    SELECT id
+    FROM pipeline_jobs
+    WHERE (status = 'PENDING' AND run_after <= now())
+       OR (status = 'RUNNING' AND attempts < max_attempts
+           AND locked_at < now() - make_interval(secs => :leaseSeconds))
+    ORDER BY run_after, id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+)
+RETURNING id, stage, subject, attempts, max_attempts
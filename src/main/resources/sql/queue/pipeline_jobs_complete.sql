@@ -0,0 +1,8 @@
+UPDATE pipeline_jobs
+SET status = 'DONE',
+    locked_by = NULL,
+    locked_at = NULL,
+    last_error = NULL,
+    updated_at = now()
+WHERE id = :id
+  AND locked_by = :workerId
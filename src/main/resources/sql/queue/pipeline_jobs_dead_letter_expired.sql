@@ -0,0 +1,16 @@
+UPDATE pipeline_jobs
+SET status = 'DEAD',
+    locked_by = NULL,
+    locked_at = NULL,
+    last_error = 'Lease expired on attempt ' || attempts || ' of ' || max_attempts
+        || ' without the job completing or failing',
+    updated_at = now()
+WHERE id IN (
+    SELECT id
+    FROM pipeline_jobs
+    WHERE status = 'RUNNING'
+      AND attempts >= max_attempts
+      AND locked_at < now() - make_interval(secs => :leaseSeconds)
+    FOR UPDATE SKIP LOCKED
+)
+RETURNING id, stage, subject, attempts, max_attempts
@@ -0,0 +1,3 @@
+INSERT INTO pipeline_jobs (stage, subject, max_attempts)
+VALUES (:stage, :subject, :maxAttempts)
+ON CONFLICT (stage, subject) WHERE status IN ('PENDING', 'RUNNING') DO NOTHING
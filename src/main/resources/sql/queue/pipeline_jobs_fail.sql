@@ -0,0 +1,10 @@
+UPDATE pipeline_jobs
+SET status = CASE WHEN attempts >= max_attempts THEN 'DEAD' ELSE 'PENDING' END,
+    run_after = now() + make_interval(secs => :delaySeconds),
+    locked_by = NULL,
+    locked_at = NULL,
+    last_error = :error,
+    updated_at = now()
+WHERE id = :id
+  AND locked_by = :workerId
+RETURNING status
@@ -0,0 +1,6 @@
+UPDATE pipeline_jobs
+SET locked_at = now(),
+    updated_at = now()
+WHERE id IN (:ids)
+  AND locked_by = :workerId
+  AND status = 'RUNNING'
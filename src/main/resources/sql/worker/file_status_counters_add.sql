@@ -0,0 +1,6 @@
+INSERT INTO file_status_counters (file_id, status, record_count, amount_sum, updated_at)
+VALUES (:fileId, :status, :count, :amount, now())
+ON CONFLICT (file_id, status) DO UPDATE
+SET record_count = file_status_counters.record_count + EXCLUDED.record_count,
+    amount_sum = file_status_counters.amount_sum + EXCLUDED.amount_sum,
+    updated_at = now()
@@ -0,0 +1,3 @@
+SELECT status, record_count, amount_sum
+FROM file_status_counters
+WHERE file_id = :fileId
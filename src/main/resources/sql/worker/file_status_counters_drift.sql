@@ -0,0 +1,25 @@
+WITH recent AS (
+    SELECT DISTINCT file_id
+    FROM file_status_counters
+    WHERE updated_at >= now() - make_interval(secs => :windowSeconds)
+),
+actual AS (
+    SELECT w.file_id, w.status, COUNT(*) AS record_count, COALESCE(SUM(w.payment_amount), 0) AS amount_sum
+    FROM worker_uploaded_data w
+    JOIN recent r ON r.file_id = w.file_id
+    GROUP BY w.file_id, w.status
+),
+counted AS (
+    SELECT c.file_id, c.status, c.record_count, c.amount_sum
+    FROM file_status_counters c
+    JOIN recent r ON r.file_id = c.file_id
+    WHERE c.record_count <> 0 OR c.amount_sum <> 0
+)
+SELECT DISTINCT COALESCE(a.file_id, c.file_id) AS file_id
+FROM actual a
+FULL OUTER JOIN counted c
+    ON c.file_id = a.file_id AND c.status = a.status
+WHERE a.file_id IS NULL
+   OR c.file_id IS NULL
+   OR a.record_count <> c.record_count
+   OR a.amount_sum <> c.amount_sum
@@ -0,0 +1 @@
+SELECT pg_try_advisory_lock(hashtext('file_status_counters_reconcile'), 0)
@@ -0,0 +1 @@
+SELECT pg_advisory_unlock(hashtext('file_status_counters_reconcile'), 0)
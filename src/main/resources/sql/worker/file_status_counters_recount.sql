@@ -0,0 +1,5 @@
+INSERT INTO file_status_counters (file_id, status, record_count, amount_sum, updated_at)
+SELECT file_id, status, COUNT(*), COALESCE(SUM(payment_amount), 0), now()
+FROM worker_uploaded_data
+WHERE file_id = :fileId
+GROUP BY file_id, status
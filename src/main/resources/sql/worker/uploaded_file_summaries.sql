@@ -0,0 +1,24 @@
+SELECT
+    uf.id AS uploaded_file_id,
+    uf.filename,
+    uf.upload_date,
+    counts.total_records,
+    counts.uploaded_count,
+    counts.validated_count,
+    counts.rejected_count,
+    counts.request_generated_count,
+    counts.total_validated_amount,
+    COUNT(*) OVER () AS total_elements
+FROM uploaded_files uf
+CROSS JOIN LATERAL (
+    SELECT
+        COALESCE(SUM(c.record_count), 0) AS total_records,
+        COALESCE(SUM(c.record_count) FILTER (WHERE c.status = 'UPLOADED'), 0) AS uploaded_count,
+        COALESCE(SUM(c.record_count) FILTER (WHERE c.status = 'VALIDATED'), 0) AS validated_count,
+        COALESCE(SUM(c.record_count) FILTER (WHERE c.status = 'REJECTED'), 0) AS rejected_count,
+        COALESCE(SUM(c.record_count) FILTER (WHERE c.status = 'REQUEST_GENERATED'), 0) AS request_generated_count,
+        COALESCE(SUM(c.amount_sum) FILTER (WHERE c.status = 'VALIDATED'), 0) AS total_validated_amount
+    FROM file_status_counters c
+    WHERE c.file_id = CAST(uf.id AS VARCHAR)
+) counts
+WHERE counts.total_records > 0
@@ -0,0 +1,11 @@
+UPDATE worker_payment_receipts r
+SET status = ?
+FROM (
+    SELECT id, status
+    FROM worker_payment_receipts
+    WHERE receipt_number = ANY(?)
+      AND status <> ?
+    FOR UPDATE
+) previous
+WHERE r.id = previous.id
+RETURNING r.receipt_number, previous.status
@@ -0,0 +1,57 @@
+WITH moved AS (
+    UPDATE worker_uploaded_data
+    SET status = 'REQUEST_GENERATED',
+        receipt_number = :receiptNumber,
+        processed_at = :processedAt
+    WHERE file_id = :fileId
+      AND status = 'VALIDATED'
+    RETURNING id, worker_id, worker_name, employer_id, toli_id, department,
+              bank_account, payment_amount, file_id
+),
+-- One nextval per 50 payments, as Hibernate allocates, rather than one per row (V20251203)
+ids AS (
+    SELECT id, rn
+    FROM pooled_ids('worker_payments_seq', (SELECT count(*) FROM moved)) WITH ORDINALITY AS ids (id, rn)
+),
+numbered AS (
+    SELECT moved.*, row_number() OVER (ORDER BY id) AS rn
+    FROM moved
+)
+INSERT INTO worker_payments (
+    id,
+    worker_reference,
+    registration_id,
+    worker_name,
+    employer_id,
+    toli_id,
+    toli,
+    aadhar,
+    pan,
+    bank_account,
+    payment_amount,
+    file_id,
+    request_reference_number,
+    status,
+    receipt_number,
+    created_at
+)
+SELECT
+    ids.id,
+    worker_id,
+    worker_id,
+    worker_name,
+    employer_id,
+    toli_id,
+    COALESCE(department, 'DEFAULT'),
+    '',
+    '',
+    bank_account,
+    payment_amount,
+    file_id,
+    'WRK-' || UPPER(SUBSTRING(REPLACE(gen_random_uuid()::text, '-', '') FROM 1 FOR 12)),
+    'VALIDATED',
+    :receiptNumber,
+    :processedAt
+FROM numbered
+JOIN ids ON ids.rn = numbered.rn
+ORDER BY ids.id
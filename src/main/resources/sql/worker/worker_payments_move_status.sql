@@ -0,0 +1,10 @@
+WITH moved AS (
+    UPDATE worker_payments
+    SET status = ?
+    WHERE receipt_number = ANY(?)
+      AND status = ANY(?)
+    RETURNING receipt_number
+)
+SELECT receipt_number, COUNT(*) AS moved
+FROM moved
+GROUP BY receipt_number
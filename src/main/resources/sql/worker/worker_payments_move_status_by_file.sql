@@ -0,0 +1,5 @@
+UPDATE worker_payments
+SET status = ?,
+    receipt_number = ?
+WHERE file_id = ?
+  AND status = ?
@@ -0,0 +1,8 @@
+SELECT
+    COUNT(*) AS total_records,
+    COALESCE(SUM(payment_amount), 0) AS total_amount,
+    (ARRAY_AGG(employer_id ORDER BY id))[1] AS employer_id,
+    (ARRAY_AGG(toli_id ORDER BY id))[1] AS toli_id
+FROM worker_payments
+WHERE file_id = ?
+  AND status = ?
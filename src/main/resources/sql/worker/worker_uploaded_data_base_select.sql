@@ -0,0 +1,25 @@
+SELECT id,
+       file_id,
+       row_num,
+       worker_id,
+       worker_name,
+       employer_id,
+       toli_id,
+       company_name,
+       department,
+       position,
+       work_date,
+       hours_worked,
+       hourly_rate,
+       payment_amount,
+       bank_account,
+       phone_number,
+       email,
+       address,
+       status,
+       rejection_reason,
+       created_at,
+       validated_at,
+       processed_at,
+       receipt_number
+FROM worker_uploaded_data
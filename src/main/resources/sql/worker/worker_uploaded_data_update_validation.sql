@@ -0,0 +1,5 @@
+UPDATE worker_uploaded_data
+SET status = :status,
+    rejection_reason = :rejectionReason,
+    validated_at = :validatedAt
+WHERE id = :id
@@ -0,0 +1,18 @@
+WITH validated AS (
+    SELECT id, employer_id, toli_id, payment_amount
+    FROM worker_uploaded_data
+    WHERE file_id = :fileId
+      AND status = 'VALIDATED'
+),
+first_row AS (
+    SELECT employer_id, toli_id
+    FROM validated
+    ORDER BY id
+    LIMIT 1
+)
+SELECT
+    (SELECT COUNT(*) FROM validated) AS total_records,
+    (SELECT COALESCE(SUM(payment_amount), 0) FROM validated) AS total_amount,
+    first_row.employer_id,
+    first_row.toli_id
+FROM first_row
@@ -0,0 +1,58 @@
+package com.example.paymentflow.common.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.FilterChain;
+
+class DbConcurrencyLimitFilterTest {
+
+    private DbConcurrencyLimiter limiter;
+    private DbConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DbConcurrencyProperties properties = new DbConcurrencyProperties();
+        properties.setEnabled(true);
+        properties.setPermits(1);
+        properties.setAcquireTimeoutMs(0);
+        limiter = new DbConcurrencyLimiter(mock(DataSource.class), properties, true, List.of());
+        filter = new DbConcurrencyLimitFilter(limiter);
+    }
+
+    @Test
+    void synchronousRequestReleasesItsPermitWhenTheChainReturns() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/receipts"), new MockHttpServletResponse(),
+                (request, response) -> assertEquals(0, limiter.getAvailablePermits()));
+
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void streamedRequestKeepsItsPermitUntilTheResponseCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/receipts/stream");
+        request.setAsyncSupported(true);
+        FilterChain startsStreaming = (req, res) -> req.startAsync();
+
+        filter.doFilter(request, new MockHttpServletResponse(), startsStreaming);
+        assertEquals(0, limiter.getAvailablePermits(), "the streaming body still queries the database");
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/receipts"), rejected,
+                (req, res) -> { throw new AssertionError("must not run without a permit"); });
+        assertEquals(503, rejected.getStatus());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+}
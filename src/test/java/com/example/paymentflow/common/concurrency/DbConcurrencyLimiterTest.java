@@ -0,0 +1,23 @@
+package com.example.paymentflow.common.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DbConcurrencyLimiterTest {
+
+    @Test
+    void requestPermitsLeaveRoomForBackgroundConnections() {
+        List<BackgroundConnectionUser> background = List.of(() -> 3, () -> 1, () -> 0);
+
+        assertEquals(16, DbConcurrencyLimiter.requestPermits(20, background));
+        assertEquals(20, DbConcurrencyLimiter.requestPermits(20, List.of()));
+    }
+
+    @Test
+    void requestsKeepOnePermitWhenBackgroundWorkCanFillThePool() {
+        assertEquals(1, DbConcurrencyLimiter.requestPermits(10, List.of(() -> 6, () -> 6)));
+    }
+}
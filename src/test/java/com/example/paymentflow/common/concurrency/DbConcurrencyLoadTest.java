@@ -0,0 +1,176 @@
+package com.example.paymentflow.common.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Compares request throughput and latency against a small pool that background work also draws
+ * from, with no limiter, with permits sized to the whole pool, and with the background
+ * connections reserved. Run with {@code mvn -Pload-tests test}; the results are printed.
+ */
+@Tag("load")
+class DbConcurrencyLoadTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int BACKGROUND_THREADS = 4;
+    private static final int REQUESTS = 2000;
+    private static final int CALLERS = 400;
+    private static final long CONNECTION_TIMEOUT_MS = 1000;
+    private static final long ACQUIRE_TIMEOUT_MS = 500;
+
+    private static EmbeddedPostgres postgres;
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(postgres.getPostgresDatabase());
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+        dataSource = new HikariDataSource(config);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void compareLimiterModes() throws Exception {
+        Result unlimited = run("no limiter", null);
+        Result wholePool = run("permits = pool size", limiter(POOL_SIZE));
+        Result reserved = run("permits = pool - background",
+                limiter(DbConcurrencyLimiter.requestPermits(POOL_SIZE, List.of(() -> BACKGROUND_THREADS))));
+
+        System.out.println(Result.HEADER);
+        System.out.println(unlimited);
+        System.out.println(wholePool);
+        System.out.println(reserved);
+
+        // With the background connections reserved, a request that holds a permit always gets a
+        // connection; excess load is shed up front as 503s instead
+        assertEquals(0, reserved.connectionTimeouts());
+    }
+
+    private static DbConcurrencyLimiter limiter(int permits) {
+        DbConcurrencyProperties properties = new DbConcurrencyProperties();
+        properties.setEnabled(true);
+        properties.setPermits(permits);
+        properties.setAcquireTimeoutMs(ACQUIRE_TIMEOUT_MS);
+        return new DbConcurrencyLimiter(dataSource, properties, true, List.of());
+    }
+
+    private static Result run(String mode, DbConcurrencyLimiter limiter) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> background = new ArrayList<>();
+        for (int i = 0; i < BACKGROUND_THREADS; i++) {
+            background.add(Thread.ofPlatform().daemon(true).start(() -> {
+                while (!stop.get()) {
+                    try {
+                        query("SELECT pg_sleep(0.05)");
+                    } catch (SQLException e) {
+                        // keep loading the pool
+                    }
+                }
+            }));
+        }
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger timeouts = new AtomicInteger();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger completed = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newFixedThreadPool(CALLERS, Thread.ofVirtual().factory())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(callers.submit(() -> {
+                    long begin = System.nanoTime();
+                    if (limiter != null && !limiter.tryAcquire()) {
+                        shed.incrementAndGet();
+                        return null;
+                    }
+                    try {
+                        query("SELECT pg_sleep(0.005)");
+                        latencies[completed.getAndIncrement()] = System.nanoTime() - begin;
+                    } catch (SQLTransientConnectionException e) {
+                        timeouts.incrementAndGet();
+                    } finally {
+                        if (limiter != null) {
+                            limiter.release();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            stop.set(true);
+            for (Thread thread : background) {
+                thread.join();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] served = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(served);
+        return new Result(mode, served.length, shed.get(), timeouts.get(), served.length / seconds,
+                percentileMs(served, 0.50), percentileMs(served, 0.99));
+    }
+
+    private static void query(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(String mode, int served, int shed, int connectionTimeouts, double perSecond,
+                          double p50Ms, double p99Ms) {
+
+        static final String HEADER = String.format("%-30s %8s %8s %10s %10s %9s %9s",
+                "mode", "served", "503", "timeouts", "req/s", "p50 ms", "p99 ms");
+
+        @Override
+        public String toString() {
+            return String.format("%-30s %8d %8d %10d %10.1f %9.1f %9.1f",
+                    mode, served, shed, connectionTimeouts, perSecond, p50Ms, p99Ms);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.paymentflow.common.json;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.paymentflow.board.entity.BoardReceipt;
+import com.example.paymentflow.worker.entity.WorkerPayment;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Serialisation throughput per entity type: a mapper built per call, as the controllers did
+ * before, against a shared mapper and against the cached typed writers of {@link JsonWriters} on
+ * the Blackbird-equipped mapper. {@code workerPaymentPage} is a page of {@value #PAGE_SIZE}
+ * payments, the body of the worker payment list endpoint.
+ * <p>
+ * {@code mvn -Pbenchmarks test -Djmh.include=JsonSerializationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"boardReceipt", "workerUploadedData", "workerPayment", "workerPaymentPage"})
+    public String entity;
+
+    private Object value;
+    private ObjectMapper sharedMapper;
+    private ObjectWriter cachedWriter;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper applicationMapper = newMapper().registerModule(new BlackbirdModule());
+        JsonWriters jsonWriters = new JsonWriters(applicationMapper);
+        sharedMapper = newMapper();
+        switch (entity) {
+            case "boardReceipt" -> {
+                value = boardReceipt();
+                cachedWriter = jsonWriters.forValue(value);
+            }
+            case "workerUploadedData" -> {
+                value = workerUploadedData();
+                cachedWriter = jsonWriters.forValue(value);
+            }
+            case "workerPayment" -> {
+                value = workerPayment(1);
+                cachedWriter = jsonWriters.forValue(value);
+            }
+            case "workerPaymentPage" -> {
+                List<WorkerPayment> rows = new ArrayList<>(PAGE_SIZE);
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    rows.add(workerPayment(i + 1));
+                }
+                value = new PageImpl<>(rows, PageRequest.of(0, PAGE_SIZE), 1000);
+                JavaType pageType = applicationMapper.getTypeFactory()
+                        .constructParametricType(PageImpl.class, WorkerPayment.class);
+                cachedWriter = jsonWriters.forType(pageType);
+            }
+            default -> throw new IllegalArgumentException("Unknown entity " + entity);
+        }
+    }
+
+    @Benchmark
+    public byte[] mapperPerCall() throws JsonProcessingException {
+        return newMapper().writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] sharedMapper() throws JsonProcessingException {
+        return sharedMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] cachedWriter() throws JsonProcessingException {
+        return cachedWriter.writeValueAsBytes(value);
+    }
+
+    private static ObjectMapper newMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static BoardReceipt boardReceipt() {
+        BoardReceipt receipt = new BoardReceipt();
+        receipt.setId(42L);
+        receipt.setBoardId("BOARD-1");
+        receipt.setBoardRef("BRD-20251101-000042");
+        receipt.setEmployerRef("EMP-20251101-000042");
+        receipt.setEmployerId("EMP-1");
+        receipt.setToliId("TOLI-7");
+        receipt.setAmount(new BigDecimal("125000.50"));
+        receipt.setUtrNumber("UTR0000000042");
+        receipt.setStatus("VERIFIED");
+        receipt.setMaker("maker");
+        receipt.setChecker("checker");
+        receipt.setDate(LocalDate.of(2025, 11, 1));
+        return receipt;
+    }
+
+    private static WorkerUploadedData workerUploadedData() {
+        WorkerUploadedData row = new WorkerUploadedData();
+        row.setFileId("17");
+        row.setRowNumber(42);
+        row.setWorkerId("W100042");
+        row.setWorkerName("Worker 42");
+        row.setCompanyName("Acme Construction");
+        row.setDepartment("Site 3");
+        row.setPosition("Mason");
+        row.setWorkDate(LocalDate.of(2025, 11, 1));
+        row.setHoursWorked(new BigDecimal("8"));
+        row.setHourlyRate(new BigDecimal("12.50"));
+        row.setPaymentAmount(new BigDecimal("100.00"));
+        row.setBankAccount("ACC1000000042");
+        row.setPhoneNumber("+91-9876500042");
+        row.setEmail("worker42@example.com");
+        row.setStatus("VALIDATED");
+        row.setValidatedAt(LocalDateTime.of(2025, 11, 1, 10, 15));
+        return row;
+    }
+
+    private static WorkerPayment workerPayment(int n) {
+        WorkerPayment payment = new WorkerPayment();
+        payment.setId((long) n);
+        payment.setWorkerRef("WRK" + (100000 + n));
+        payment.setRegId("REG" + n);
+        payment.setName("Worker " + n);
+        payment.setEmployerId("EMP-1");
+        payment.setToliId("TOLI-7");
+        payment.setToli("Toli 7");
+        payment.setAadhar("1234" + (10000000 + n));
+        payment.setPan("ABCDE" + (1000 + n) + "F");
+        payment.setBankAccount("ACC" + (1000000000L + n));
+        payment.setPaymentAmount(new BigDecimal("1500.00"));
+        payment.setFileId("17");
+        payment.setUploadedFileRef("workers-20251101.csv");
+        payment.setRequestReferenceNumber("REQ-20251101-" + n);
+        payment.setStatus("PAYMENT_REQUESTED");
+        payment.setReceiptNumber("RCP-20251101-0001");
+        payment.setCreatedAt(LocalDateTime.of(2025, 11, 1, 10, 15));
+        return payment;
+    }
+}
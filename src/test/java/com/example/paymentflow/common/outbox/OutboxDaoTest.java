@@ -0,0 +1,104 @@
+package com.example.paymentflow.common.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class OutboxDaoTest {
+
+    private static final long LEASE_SECONDS = 300;
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    private NamedParameterJdbcTemplate jdbc;
+    private OutboxDao dao;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        String migration = StreamUtils.copyToString(
+                new ClassPathResource("db/migration/V20251128__create_receipt_outbox_events.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        JdbcTemplate setup = new JdbcTemplate(postgres.getPostgresDatabase());
+        setup.execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        // The migration also indexes the board receipt consumer's lookup column
+        setup.execute("CREATE TABLE payment_flow.board_receipts (employer_reference VARCHAR(64))");
+        setup.execute(migration);
+        dataSource = postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow"));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("TRUNCATE receipt_outbox_events");
+        dao = new OutboxDao(jdbc, new SqlTemplateLoader(new DefaultResourceLoader()));
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedWhileAttemptsRemain() {
+        append("EMP-1", 2);
+        OutboxEvent first = dao.claim("relay-a", 10, LEASE_SECONDS).get(0);
+        expireLease(first.id());
+
+        assertTrue(dao.deadLetterExpired(LEASE_SECONDS).isEmpty());
+        List<OutboxEvent> reclaimed = dao.claim("relay-b", 10, LEASE_SECONDS);
+        assertEquals(1, reclaimed.size());
+        assertEquals(2, reclaimed.get(0).attempts());
+    }
+
+    @Test
+    void expiredLeaseOnLastAttemptIsDeadLetteredNotReclaimed() {
+        append("EMP-2", 1);
+        OutboxEvent event = dao.claim("relay-a", 10, LEASE_SECONDS).get(0);
+        assertTrue(dao.deadLetterExpired(LEASE_SECONDS).isEmpty(), "the lease is still live");
+
+        expireLease(event.id());
+        assertTrue(dao.claim("relay-b", 10, LEASE_SECONDS).isEmpty(), "no attempts left to re-claim");
+
+        List<OutboxEvent> dead = dao.deadLetterExpired(LEASE_SECONDS);
+        assertEquals(1, dead.size());
+        assertEquals(event.id(), dead.get(0).id());
+        assertEquals("DEAD", jdbc.getJdbcTemplate().queryForObject(
+                "SELECT status FROM receipt_outbox_events WHERE id = ?", String.class, event.id()));
+        assertEquals(0, dao.markPublished(List.of(event.id()), "relay-a"),
+                "the former holder can no longer acknowledge it");
+    }
+
+    private void append(String aggregateId, int maxAttempts) {
+        dao.append(List.of(new OutboxDao.NewEvent(ReceiptEventType.EMPLOYER_RECEIPT_VALIDATED, aggregateId, "{}")),
+                maxAttempts);
+    }
+
+    private void expireLease(Long id) {
+        jdbc.getJdbcTemplate().update(
+                "UPDATE receipt_outbox_events SET locked_at = now() - interval '1 hour' WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.paymentflow.common.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class PipelineJobDaoTest {
+
+    private static final long LEASE_SECONDS = 300;
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    private NamedParameterJdbcTemplate jdbc;
+    private PipelineJobDao dao;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = PipelineTestDatabase.start();
+        dataSource = PipelineTestDatabase.dataSource(postgres);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("TRUNCATE pipeline_jobs");
+        dao = new PipelineJobDao(jdbc, new SqlTemplateLoader(new DefaultResourceLoader()));
+    }
+
+    @Test
+    void enqueueIgnoresDuplicateOpenJob() {
+        assertTrue(dao.enqueue(PipelineStage.VALIDATE, "42", 5));
+        assertFalse(dao.enqueue(PipelineStage.VALIDATE, "42", 5));
+        assertTrue(dao.enqueue(PipelineStage.GENERATE_REQUEST, "42", 5));
+
+        assertEquals(2, count("PENDING"));
+    }
+
+    @Test
+    void claimHandsEachJobToOneWorker() {
+        for (int i = 1; i <= 5; i++) {
+            dao.enqueue(PipelineStage.VALIDATE, String.valueOf(i), 5);
+        }
+
+        List<PipelineJob> first = dao.claim("worker-a", 3, LEASE_SECONDS);
+        List<PipelineJob> second = dao.claim("worker-b", 3, LEASE_SECONDS);
+        List<PipelineJob> third = dao.claim("worker-c", 3, LEASE_SECONDS);
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertTrue(third.isEmpty());
+        Set<Long> ids = new HashSet<>();
+        first.forEach(job -> ids.add(job.id()));
+        second.forEach(job -> ids.add(job.id()));
+        assertEquals(5, ids.size());
+        assertEquals(1, first.get(0).attempts());
+    }
+
+    @Test
+    void claimSkipsRowsLockedByAnotherTransaction() throws Exception {
+        dao.enqueue(PipelineStage.VALIDATE, "1", 5);
+        dao.enqueue(PipelineStage.VALIDATE, "2", 5);
+        String claimSql = new SqlTemplateLoader(new DefaultResourceLoader()).load("sql/queue/pipeline_jobs_claim.sql")
+                .replace(":workerId", "?").replace(":limit", "?").replace(":leaseSeconds", "?");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            List<Long> lockedByA = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(claimSql)) {
+                statement.setString(1, "worker-a");
+                statement.setLong(2, LEASE_SECONDS);
+                statement.setInt(3, 1);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        lockedByA.add(rs.getLong("id"));
+                    }
+                }
+            }
+
+            // worker-a has not committed; worker-b must skip its row instead of blocking on it
+            List<PipelineJob> claimedByB = dao.claim("worker-b", 10, LEASE_SECONDS);
+
+            assertEquals(1, lockedByA.size());
+            assertEquals(1, claimedByB.size());
+            assertFalse(lockedByA.contains(claimedByB.get(0).id()));
+            connection.rollback();
+        }
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndOldHolderLosesIt() {
+        dao.enqueue(PipelineStage.PARSE_UPLOAD, "7", 5);
+        PipelineJob job = dao.claim("worker-a", 1, LEASE_SECONDS).get(0);
+
+        assertTrue(dao.claim("worker-b", 1, LEASE_SECONDS).isEmpty());
+        expireLease(job.id());
+
+        List<PipelineJob> reclaimed = dao.claim("worker-b", 1, LEASE_SECONDS);
+        assertEquals(1, reclaimed.size());
+        assertEquals(job.id(), reclaimed.get(0).id());
+        assertEquals(2, reclaimed.get(0).attempts());
+        assertFalse(dao.complete(job.id(), "worker-a"));
+        assertEquals(0, dao.renew(List.of(job.id()), "worker-a"));
+        assertTrue(dao.complete(job.id(), "worker-b"));
+        assertEquals(1, count("DONE"));
+    }
+
+    @Test
+    void renewedLeaseIsNotReclaimed() {
+        dao.enqueue(PipelineStage.VALIDATE, "8", 5);
+        PipelineJob job = dao.claim("worker-a", 1, LEASE_SECONDS).get(0);
+        expireLease(job.id());
+
+        assertEquals(1, dao.renew(List.of(job.id()), "worker-a"));
+
+        assertTrue(dao.claim("worker-b", 1, LEASE_SECONDS).isEmpty());
+    }
+
+    @Test
+    void failedJobIsRetriedAfterBackoffThenDeadLettered() {
+        dao.enqueue(PipelineStage.VALIDATE, "9", 2);
+        PipelineJob first = dao.claim("worker-a", 1, LEASE_SECONDS).get(0);
+
+        assertEquals(Optional.of("PENDING"), dao.fail(first.id(), "worker-a", "boom", 60));
+        assertTrue(dao.claim("worker-a", 1, LEASE_SECONDS).isEmpty(), "not due before its backoff");
+
+        makeDue(first.id());
+        PipelineJob second = dao.claim("worker-a", 1, LEASE_SECONDS).get(0);
+        assertEquals(2, second.attempts());
+        assertEquals(Optional.of("DEAD"), dao.fail(second.id(), "worker-a", "boom again", 60));
+
+        makeDue(first.id());
+        assertTrue(dao.claim("worker-a", 1, LEASE_SECONDS).isEmpty(), "dead jobs are never claimed");
+        assertEquals("boom again", jdbc.getJdbcTemplate().queryForObject(
+                "SELECT last_error FROM pipeline_jobs WHERE id = ?", String.class, first.id()));
+        // A dead job no longer blocks new work for the same subject
+        assertTrue(dao.enqueue(PipelineStage.VALIDATE, "9", 2));
+    }
+
+    @Test
+    void expiredLeaseOnLastAttemptIsDeadLetteredNotReclaimed() {
+        dao.enqueue(PipelineStage.PARSE_UPLOAD, "11", 2);
+        PipelineJob first = dao.claim("worker-a", 1, LEASE_SECONDS).get(0);
+        expireLease(first.id());
+        assertTrue(dao.deadLetterExpired(LEASE_SECONDS).isEmpty(), "attempts left, so it is re-claimed");
+        PipelineJob second = dao.claim("worker-b", 1, LEASE_SECONDS).get(0);
+        assertEquals(2, second.attempts());
+
+        // worker-b dies on the last attempt as well
+        expireLease(second.id());
+        assertTrue(dao.claim("worker-c", 1, LEASE_SECONDS).isEmpty(), "no attempts left to re-claim");
+
+        List<PipelineJob> dead = dao.deadLetterExpired(LEASE_SECONDS);
+        assertEquals(1, dead.size());
+        assertEquals(second.id(), dead.get(0).id());
+        assertEquals(1, count("DEAD"));
+        assertTrue(dao.deadLetterExpired(LEASE_SECONDS).isEmpty());
+        assertFalse(dao.complete(second.id(), "worker-b"), "the former holder can no longer complete it");
+        assertTrue(dao.enqueue(PipelineStage.PARSE_UPLOAD, "11", 2));
+    }
+
+    @Test
+    void liveLeaseOnLastAttemptIsNotDeadLettered() {
+        dao.enqueue(PipelineStage.VALIDATE, "12", 1);
+        dao.claim("worker-a", 1, LEASE_SECONDS);
+
+        assertTrue(dao.deadLetterExpired(LEASE_SECONDS).isEmpty());
+        assertEquals(1, count("RUNNING"));
+    }
+
+    @Test
+    void failByFormerHolderIsIgnored() {
+        dao.enqueue(PipelineStage.VALIDATE, "10", 5);
+        PipelineJob job = dao.claim("worker-a", 1, LEASE_SECONDS).get(0);
+        expireLease(job.id());
+        dao.claim("worker-b", 1, LEASE_SECONDS);
+
+        assertEquals(Optional.empty(), dao.fail(job.id(), "worker-a", "late failure", 0));
+        assertEquals(1, count("RUNNING"));
+    }
+
+    private void expireLease(Long id) {
+        jdbc.getJdbcTemplate().update(
+                "UPDATE pipeline_jobs SET locked_at = now() - interval '1 hour' WHERE id = ?", id);
+    }
+
+    private void makeDue(Long id) {
+        jdbc.getJdbcTemplate().update(
+                "UPDATE pipeline_jobs SET run_after = now() - interval '1 second' WHERE id = ?", id);
+    }
+
+    private int count(String status) {
+        return jdbc.getJdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM pipeline_jobs WHERE status = ?", Integer.class, status);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.paymentflow.common.queue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Embedded PostgreSQL with the pipeline_jobs migration applied. The queue SQL relies on SKIP
+ * LOCKED, partial unique indexes and UPDATE ... RETURNING, which H2 does not reproduce.
+ */
+final class PipelineTestDatabase {
+
+    private PipelineTestDatabase() {
+    }
+
+    static EmbeddedPostgres start() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        String migration = StreamUtils.copyToString(
+                new ClassPathResource("db/migration/V20251121__create_pipeline_jobs.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        jdbc.execute(migration);
+        return postgres;
+    }
+
+    /**
+     * Connections resolve the unqualified table names of the SQL templates in payment_flow.
+     */
+    static DataSource dataSource(EmbeddedPostgres postgres) {
+        return postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.paymentflow.common.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class PipelineWorkerTest {
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+    private PipelineJobDao dao;
+    private PipelineProperties properties;
+    private PipelineWorker worker;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = PipelineTestDatabase.start();
+        dataSource = PipelineTestDatabase.dataSource(postgres);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("TRUNCATE pipeline_jobs");
+        dao = new PipelineJobDao(new NamedParameterJdbcTemplate(dataSource),
+                new SqlTemplateLoader(new DefaultResourceLoader()));
+        properties = new PipelineProperties();
+        properties.setConcurrency(1);
+        properties.setMaxAttempts(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void completedJobEnqueuesNextStage() {
+        worker = newWorker(stageHandler(PipelineStage.VALIDATE, job -> List.of(job.subject())));
+        new PipelineJobQueue(dao, properties).enqueue(PipelineStage.VALIDATE, "11");
+
+        worker.poll();
+
+        awaitTrue(() -> status(PipelineStage.VALIDATE, "11").equals("DONE"));
+        assertEquals("PENDING", status(PipelineStage.GENERATE_REQUEST, "11"));
+    }
+
+    @Test
+    void failingJobIsDeadLetteredAfterMaxAttempts() {
+        worker = newWorker(stageHandler(PipelineStage.VALIDATE, job -> {
+            throw new IllegalStateException("invalid file");
+        }));
+        new PipelineJobQueue(dao, properties).enqueue(PipelineStage.VALIDATE, "12");
+
+        worker.poll();
+        awaitTrue(() -> attempts("12") == 1 && status(PipelineStage.VALIDATE, "12").equals("PENDING"));
+        jdbc.update("UPDATE pipeline_jobs SET run_after = now() WHERE subject = '12'");
+        worker.poll();
+
+        awaitTrue(() -> status(PipelineStage.VALIDATE, "12").equals("DEAD"));
+        assertEquals("IllegalStateException: invalid file", jdbc.queryForObject(
+                "SELECT last_error FROM pipeline_jobs WHERE subject = '12'", String.class));
+    }
+
+    @Test
+    void pollClaimsNoMoreJobsThanIdleThreadsAndRenewsTheirLeases() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        worker = newWorker(stageHandler(PipelineStage.PARSE_UPLOAD, job -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        }));
+        PipelineJobQueue queue = new PipelineJobQueue(dao, properties);
+        queue.enqueue(PipelineStage.PARSE_UPLOAD, "21");
+        queue.enqueue(PipelineStage.PARSE_UPLOAD, "22");
+
+        worker.poll();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        worker.poll();
+
+        assertEquals(1, countByStatus("RUNNING"), "the busy worker must not claim a job it cannot start");
+        assertEquals(1, countByStatus("PENDING"));
+
+        jdbc.update("UPDATE pipeline_jobs SET locked_at = now() - interval '1 hour' WHERE status = 'RUNNING'");
+        worker.renewLeases();
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM pipeline_jobs "
+                + "WHERE status = 'RUNNING' AND locked_at < now() - interval '1 minute'", Integer.class));
+
+        release.countDown();
+        awaitTrue(() -> countByStatus("DONE") == 1);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        List<String> handle(PipelineJob job) throws Exception;
+    }
+
+    private static PipelineStageHandler stageHandler(PipelineStage stage, Handler handler) {
+        return new PipelineStageHandler() {
+            @Override
+            public PipelineStage stage() {
+                return stage;
+            }
+
+            @Override
+            public List<String> handle(PipelineJob job) throws Exception {
+                return handler.handle(job);
+            }
+        };
+    }
+
+    private PipelineWorker newWorker(PipelineStageHandler handler) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return new PipelineWorker(dao, new PipelineJobQueue(dao, properties), properties, transactionTemplate,
+                List.of(handler));
+    }
+
+    private String status(PipelineStage stage, String subject) {
+        return jdbc.queryForObject("SELECT status FROM pipeline_jobs WHERE stage = ? AND subject = ? "
+                + "ORDER BY id DESC LIMIT 1", String.class, stage.name(), subject);
+    }
+
+    private int attempts(String subject) {
+        return jdbc.queryForObject("SELECT attempts FROM pipeline_jobs WHERE subject = ?", Integer.class, subject);
+    }
+
+    private int countByStatus(String status) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM pipeline_jobs WHERE status = ?", Integer.class, status);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
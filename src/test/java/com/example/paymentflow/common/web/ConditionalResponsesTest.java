@@ -0,0 +1,86 @@
+package com.example.paymentflow.common.web;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.example.paymentflow.common.json.JsonWriters;
+import com.example.paymentflow.worker.entity.WorkerPayment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+class ConditionalResponsesTest {
+
+    private JsonWriters jsonWriters;
+    private ConditionalResponses responses;
+
+    @BeforeEach
+    void setUp() {
+        jsonWriters = new JsonWriters(new ObjectMapper());
+        responses = new ConditionalResponses(jsonWriters);
+    }
+
+    @Test
+    void pageWritersAreBuiltOncePerRowType() {
+        assertSame(jsonWriters.forPageOf(WorkerPayment.class), jsonWriters.forPageOf(WorkerPayment.class));
+    }
+
+    @Test
+    void typedWriterBodyIsTaggedAndAnswered304OnMatch() throws NoSuchAlgorithmException {
+        ObjectWriter writer = jsonWriters.forType(new ObjectMapper().getTypeFactory()
+                .constructCollectionType(List.class, Map.class));
+        List<Map<String, Integer>> body = List.of(Map.of("id", 1));
+
+        ResponseEntity<?> ok = responses.respond(new MockHttpServletRequest(), writer, body, UnaryOperator.identity());
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, ok.getHeaders().getContentType());
+        assertArrayEquals("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8), (byte[]) ok.getBody());
+        // The tag is the digest of exactly the bytes sent
+        byte[] sha256 = MessageDigest.getInstance("SHA-256").digest((byte[]) ok.getBody());
+        assertEquals("\"" + HexFormat.of().formatHex(sha256, 0, 16) + "\"", ok.getHeaders().getETag());
+
+        MockHttpServletRequest revalidation = new MockHttpServletRequest();
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, ok.getHeaders().getETag());
+        ResponseEntity<?> notModified = responses.respond(revalidation, writer, body, UnaryOperator.identity());
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    }
+
+    @Test
+    void versionedTypedResponseLoadsTheBodyOnlyWhenStale() {
+        ObjectWriter writer = jsonWriters.forClass(Map.class);
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<?> ok = responses.respondVersioned(new MockHttpServletRequest(), "v1", writer, () -> {
+            loads.incrementAndGet();
+            return Map.of("id", 1);
+        });
+        assertEquals(MediaType.APPLICATION_JSON, ok.getHeaders().getContentType());
+        assertArrayEquals("{\"id\":1}".getBytes(StandardCharsets.UTF_8), (byte[]) ok.getBody());
+
+        MockHttpServletRequest revalidation = new MockHttpServletRequest();
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, ok.getHeaders().getETag());
+        ResponseEntity<?> notModified = responses.respondVersioned(revalidation, "v1", writer, () -> {
+            loads.incrementAndGet();
+            return Map.of("id", 1);
+        });
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(1, loads.get());
+    }
+}
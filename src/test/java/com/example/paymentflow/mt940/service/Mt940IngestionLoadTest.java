@@ -0,0 +1,257 @@
+package com.example.paymentflow.mt940.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.mt940.config.Mt940Properties;
+import com.example.paymentflow.mt940.dao.Mt940StatementDao;
+import com.example.paymentflow.mt940.entity.Mt940StatementLine;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * End-to-end MT940 ingestion through {@link Mt940IngestionService}: files dropped into a watched
+ * inbox, parsed, COPY-loaded and archived, with the default concurrency and COPY batch size.
+ * Two things are measured. Throughput: {@value #FILES} files of {@value #STATEMENTS_PER_FILE}
+ * statements, reported as statements per minute and lines per second. Memory: the live heap
+ * after a full GC, sampled at every COPY batch while loading a file of
+ * {@value #SMALL_FILE_STATEMENTS} statements and one of {@value #LARGE_FILE_STATEMENTS}; bounded
+ * memory means the second peak does not grow with the file. Run with
+ * {@code mvn -Pload-tests test}; the results are printed.
+ */
+@Tag("load")
+class Mt940IngestionLoadTest {
+
+    private static final int FILES = 200;
+    private static final int STATEMENTS_PER_FILE = 25;
+    private static final int LINES_PER_STATEMENT = 10;
+    private static final int SMALL_FILE_STATEMENTS = 1_000;
+    private static final int LARGE_FILE_STATEMENTS = 40_000;
+    private static final long TIMEOUT_MS = 600_000;
+
+    private static EmbeddedPostgres postgres;
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        // One pooled connection per ingestion thread, as in the application
+        dataSource = new HikariDataSource();
+        dataSource.setDataSource(postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow")));
+        dataSource.setMaximumPoolSize(new Mt940Properties().getConcurrency());
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute(StreamUtils.copyToString(new ClassPathResource(
+                "db/migration/V20251129__create_mt940_statement_tables.sql").getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void ingestsThousandsOfStatementsPerMinute(@TempDir Path base) throws Exception {
+        Mt940Properties properties = properties(base);
+        Mt940IngestionService service = service(properties, new Mt940StatementDao(jdbc,
+                new NamedParameterJdbcTemplate(jdbc), new SqlTemplateLoader(new DefaultResourceLoader())));
+
+        // Warm up parser, COPY path and connections before the timed drop
+        Path staging = Files.createDirectories(base.resolve("staging"));
+        writeStatementFile(staging.resolve("warmup.sta"), 0, STATEMENTS_PER_FILE * 20);
+        for (int f = 1; f <= FILES; f++) {
+            writeStatementFile(staging.resolve("batch-" + f + ".sta"), f * STATEMENTS_PER_FILE, STATEMENTS_PER_FILE);
+        }
+        service.start();
+        try {
+            dropAndAwait(service, properties, staging.resolve("warmup.sta"), 1);
+
+            long start = System.nanoTime();
+            try (Stream<Path> files = Files.list(staging)) {
+                for (Path file : files.toList()) {
+                    Files.move(file, Path.of(properties.getInboxDir()).resolve(file.getFileName()));
+                }
+            }
+            awaitArchived(service, properties, 1 + FILES);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            int statements = FILES * STATEMENTS_PER_FILE;
+            long lines = (long) statements * LINES_PER_STATEMENT;
+            System.out.printf("%-12s %-12s %-12s %10s %16s %14s%n",
+                    "files", "statements", "lines", "seconds", "statements/min", "lines/s");
+            System.out.printf("%-12d %-12d %-12d %10.1f %16.0f %14.0f%n",
+                    FILES, statements, lines, seconds, statements / seconds * 60, lines / seconds);
+
+            assertEquals(lines + (long) STATEMENTS_PER_FILE * 20 * LINES_PER_STATEMENT,
+                    jdbc.queryForObject("SELECT count(*) FROM mt940_statement_lines", Long.class));
+            assertTrue(statements / seconds * 60 >= 1_000, () -> statements / seconds * 60 + " statements/min");
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    void liveHeapDoesNotGrowWithTheFile(@TempDir Path base) throws Exception {
+        Mt940Properties properties = properties(base);
+        properties.setConcurrency(1);
+        HeapSamplingDao dao = new HeapSamplingDao();
+        Mt940IngestionService service = service(properties, dao);
+
+        Path staging = Files.createDirectories(base.resolve("staging"));
+        Path small = staging.resolve("small.sta");
+        Path large = staging.resolve("large.sta");
+        writeStatementFile(small, 10_000_000, SMALL_FILE_STATEMENTS);
+        writeStatementFile(large, 20_000_000, LARGE_FILE_STATEMENTS);
+        long smallBytes = Files.size(small);
+        long largeBytes = Files.size(large);
+
+        service.start();
+        try {
+            long baseline = liveHeap();
+            dropAndAwait(service, properties, small, 1);
+            long smallPeak = dao.peak.getAndSet(0) - baseline;
+            dropAndAwait(service, properties, large, 2);
+            long largePeak = dao.peak.get() - baseline;
+
+            System.out.printf("%-12s %12s %12s %16s%n", "file", "statements", "MB on disk", "peak live MB");
+            System.out.printf("%-12s %12d %12.1f %16.1f%n", "small", SMALL_FILE_STATEMENTS, smallBytes / 1e6, smallPeak / 1e6);
+            System.out.printf("%-12s %12d %12.1f %16.1f%n", "large", LARGE_FILE_STATEMENTS, largeBytes / 1e6, largePeak / 1e6);
+
+            // Forty times the statements; the live set stays one message and one COPY batch
+            assertTrue(largePeak < smallPeak + largeBytes / 10,
+                    () -> "large file peak " + largePeak + " bytes, small file peak " + smallPeak + " bytes");
+        } finally {
+            service.stop();
+        }
+    }
+
+    private static Mt940Properties properties(Path base) {
+        Mt940Properties properties = new Mt940Properties();
+        properties.setBaseDir(base.toString());
+        properties.setInboxDir(base.resolve("inbox").toString());
+        properties.setProcessingDir(base.resolve("processing").toString());
+        properties.setArchiveDir(base.resolve("archive").toString());
+        properties.setQuarantineDir(base.resolve("quarantine").toString());
+        // Files are moved in complete, so there is nothing to wait for
+        properties.setMinFileAgeMs(0);
+        return properties;
+    }
+
+    private static Mt940IngestionService service(Mt940Properties properties, Mt940StatementDao dao) {
+        return new Mt940IngestionService(properties, new Mt940StatementParser(), dao,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new SimpleMeterRegistry());
+    }
+
+    private static void dropAndAwait(Mt940IngestionService service, Mt940Properties properties, Path file,
+                                     int archived) throws Exception {
+        Files.move(file, Path.of(properties.getInboxDir()).resolve(file.getFileName()));
+        awaitArchived(service, properties, archived);
+    }
+
+    /**
+     * Polls the archive, rescanning once a second as the scheduler would for files the bounded
+     * queue turned away.
+     */
+    private static void awaitArchived(Mt940IngestionService service, Mt940Properties properties, int expected)
+            throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        long nextRescan = System.currentTimeMillis() + 1_000;
+        while (count(Path.of(properties.getArchiveDir())) < expected) {
+            assertEquals(0, count(Path.of(properties.getQuarantineDir())), "files quarantined");
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for the archive");
+            if (System.currentTimeMillis() >= nextRescan) {
+                service.rescan();
+                nextRescan = System.currentTimeMillis() + 1_000;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static long count(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    /**
+     * Writes {@code statements} MT940 messages separated by {@code $}, each with
+     * {@value #LINES_PER_STATEMENT} tag 61/86 pairs.
+     */
+    private static void writeStatementFile(Path file, int firstStatement, int statements) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            for (int s = firstStatement; s < firstStatement + statements; s++) {
+                if (s > firstStatement) {
+                    out.write('$');
+                }
+                out.write("{1:F01BANKINBBAXXX0000000000}{2:O9401200251101BANKINBBAXXX00000000002511011200N}{4:\r\n");
+                out.write(":20:STMT" + s + "\r\n");
+                out.write(":25:ACC" + (1000000000L + s % 500) + "\r\n");
+                out.write(":28C:" + (s % 99999 + 1) + "/1\r\n");
+                out.write(":60F:C251101INR1000000,00\r\n");
+                for (int l = 0; l < LINES_PER_STATEMENT; l++) {
+                    long n = (long) s * LINES_PER_STATEMENT + l;
+                    out.write(":61:2511011101C1500,00NTRFUTR" + n + "//BR" + n + "\r\n");
+                    out.write(":86:Worker payment " + n + " TOLI-7 EMP-1\r\n");
+                }
+                out.write(":62F:C251101INR1015000,00\r\n-}");
+            }
+        }
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Samples the live heap at every COPY batch, while the service holds the batch and the parser
+     * its current message.
+     */
+    private static class HeapSamplingDao extends Mt940StatementDao {
+
+        final AtomicLong peak = new AtomicLong();
+
+        HeapSamplingDao() {
+            super(jdbc, new NamedParameterJdbcTemplate(jdbc), new SqlTemplateLoader(new DefaultResourceLoader()));
+        }
+
+        @Override
+        public int insertLines(long fileId, List<Mt940StatementLine> lines) {
+            peak.accumulateAndGet(liveHeap(), Math::max);
+            return super.insertLines(fileId, lines);
+        }
+    }
+}
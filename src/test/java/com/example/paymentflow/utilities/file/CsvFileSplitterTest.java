@@ -0,0 +1,168 @@
+package com.example.paymentflow.utilities.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvFileSplitterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rangesCoverDataSectionOnRecordBoundaries() throws IOException {
+        String csv = sampleCsv(200);
+        File file = write(csv);
+
+        CsvFileSplitter.Layout layout = CsvFileSplitter.split(file, 7);
+
+        assertTrue(layout.ranges().size() > 1);
+        long headerEnd = csv.substring(0, csv.indexOf('\n') + 1).getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(headerEnd, layout.ranges().get(0).start());
+        assertEquals(file.length(), layout.ranges().get(layout.ranges().size() - 1).end());
+        for (int i = 1; i < layout.ranges().size(); i++) {
+            assertEquals(layout.ranges().get(i - 1).end(), layout.ranges().get(i).start());
+        }
+    }
+
+    @Test
+    void rangeRowNumbersMatchSequentialTokenizer() throws IOException {
+        String csv = sampleCsv(300);
+        File file = write(csv);
+        List<Numbered> sequential = tokenizeSequentially(csv);
+
+        for (int parts = 1; parts <= 16; parts++) {
+            CsvFileSplitter.Layout layout = CsvFileSplitter.split(file, parts);
+            List<Numbered> split = new ArrayList<>();
+            for (CsvFileSplitter.Range range : layout.ranges()) {
+                split.addAll(tokenizeRange(file, range));
+            }
+
+            assertEquals(sequential.size(), layout.recordCount(), "parts " + parts);
+            assertEquals(sequential.size(), split.size(), "parts " + parts);
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i).rowNumber(), split.get(i).rowNumber(), "parts " + parts);
+                assertArrayEquals(sequential.get(i).fields(), split.get(i).fields(), "parts " + parts);
+            }
+        }
+    }
+
+    @Test
+    void quotedLineBreaksAreNeverSplitPoints() throws IOException {
+        // Every data record is one long quoted field full of line breaks
+        StringBuilder csv = new StringBuilder("id,notes\r\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append(i).append(",\"").append("a\nb\r\nc\r".repeat(10)).append("\"\r\n");
+        }
+        File file = write(csv.toString());
+
+        CsvFileSplitter.Layout layout = CsvFileSplitter.split(file, 50);
+
+        assertEquals(20, layout.recordCount());
+        for (CsvFileSplitter.Range range : layout.ranges()) {
+            for (Numbered record : tokenizeRange(file, range)) {
+                assertEquals(2, record.fields().length);
+                assertEquals(String.valueOf(record.rowNumber() - 1), record.fields()[0]);
+            }
+        }
+    }
+
+    @Test
+    void headerOnlyFileHasNoRecords() throws IOException {
+        File file = write("\uFEFFid,name\r\n\r\n  \n");
+
+        CsvFileSplitter.Layout layout = CsvFileSplitter.split(file, 4);
+
+        assertEquals(0, layout.recordCount());
+        for (CsvFileSplitter.Range range : layout.ranges()) {
+            assertTrue(tokenizeRange(file, range).isEmpty());
+        }
+    }
+
+    @Test
+    void rejectsFileWithoutHeader() throws IOException {
+        File empty = write("\n  \n");
+
+        assertThrows(IOException.class, () -> CsvFileSplitter.split(empty, 4));
+    }
+
+    /**
+     * Mixes quoted delimiters, escaped quotes, blank and whitespace-only lines, CRLF and LF,
+     * multi-byte text and a last record without a terminator.
+     */
+    private static String sampleCsv(int records) {
+        StringBuilder csv = new StringBuilder("\uFEFFworker_id,name,notes\r\n");
+        for (int i = 0; i < records; i++) {
+            switch (i % 5) {
+                case 0 -> csv.append(i).append(",plain,x\n");
+                case 1 -> csv.append(i).append(",\"Doe, J\",\"said \"\"ok\"\"\"\r\n");
+                case 2 -> csv.append(i).append(",\u00E9\u20AC,\"multi\nline\"\n\n");
+                case 3 -> csv.append(i).append(",tail,\r\n   \r\n");
+                default -> csv.append(i).append(",ab\"c,d\n");
+            }
+        }
+        csv.append("last,row,end");
+        return csv.toString();
+    }
+
+    private record Numbered(long rowNumber, String[] fields) {
+    }
+
+    /**
+     * Mirrors the sequential upload path: header first, blank lines skipped, rows numbered from 1.
+     */
+    private static List<Numbered> tokenizeSequentially(String csv) throws IOException {
+        List<Numbered> records = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv))) {
+            boolean headerSeen = false;
+            String[] fields;
+            while ((fields = tokenizer.next()) != null) {
+                if (tokenizer.isBlankLine()) {
+                    continue;
+                }
+                if (!headerSeen) {
+                    headerSeen = true;
+                    continue;
+                }
+                records.add(new Numbered(records.size() + 1, fields));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Mirrors the parallel upload path: rows numbered from the range's first record index.
+     */
+    private static List<Numbered> tokenizeRange(File file, CsvFileSplitter.Range range) throws IOException {
+        List<Numbered> records = new ArrayList<>();
+        long recordIndex = range.firstRecordIndex();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(CsvFileSplitter.openReader(file, range))) {
+            String[] fields;
+            while ((fields = tokenizer.next()) != null) {
+                if (!tokenizer.isBlankLine()) {
+                    records.add(new Numbered(++recordIndex, fields));
+                }
+            }
+        }
+        return records;
+    }
+
+    private File write(String csv) throws IOException {
+        File file = tempDir.resolve("upload.csv").toFile();
+        Files.writeString(file.toPath(), csv, StandardCharsets.UTF_8);
+        return file;
+    }
+}
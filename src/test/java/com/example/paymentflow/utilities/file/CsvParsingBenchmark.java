@@ -0,0 +1,117 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+/**
+ * Per-row parse cost of {@link CsvTokenizer} against the lookahead-regex split it replaced,
+ * OpenCSV and commons-csv. The input is the dev sample upload in {@code uploads/dev/workerpayments},
+ * its data rows repeated to {@value #ROWS} rows and parsed from memory, so only parsing is timed.
+ * <p>
+ * {@code mvn -Pbenchmarks test -Djmh.include=CsvParsingBenchmark} (from the project directory)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final Path SAMPLE_DIR = Paths.get("uploads", "dev", "workerpayments");
+    private static final String SPLIT_REGEX = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+    private String csv;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path sample;
+        try (Stream<Path> files = Files.list(SAMPLE_DIR)) {
+            sample = files.filter(p -> p.toString().endsWith(".csv")).sorted().findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No sample CSV in " + SAMPLE_DIR.toAbsolutePath()));
+        }
+        List<String> lines = Files.readAllLines(sample, StandardCharsets.UTF_8);
+        List<String> data = lines.subList(1, lines.size()).stream().filter(line -> !line.isBlank()).toList();
+        StringBuilder text = new StringBuilder(lines.get(0)).append('\n');
+        for (int i = 0; i < ROWS; i++) {
+            text.append(data.get(i % data.size())).append('\n');
+        }
+        csv = text.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void regexSplit(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(line.split(SPLIT_REGEX, -1));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csvTokenizer(Blackhole blackhole) throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv))) {
+            tokenizer.next();
+            String[] fields;
+            while ((fields = tokenizer.next()) != null) {
+                blackhole.consume(fields);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void openCsv(Blackhole blackhole) throws IOException, CsvValidationException {
+        try (CSVReader reader = new CSVReader(new StringReader(csv))) {
+            reader.readNext();
+            String[] fields;
+            while ((fields = reader.readNext()) != null) {
+                blackhole.consume(fields);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void commonsCsv(Blackhole blackhole) throws IOException {
+        try (Reader reader = new StringReader(csv);
+             CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build().parse(reader)) {
+            for (CSVRecord record : parser) {
+                blackhole.consume(record.values());
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.paymentflow.utilities.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvRowSourceTest {
+
+    private static final String CSV = "\uFEFFid,name\r\n1,\"Doe, J\"\r\n\r\n2,\"multi\nline\"\r\n   \r\n3,\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void skipsBlankLinesButKeepsPhysicalRowIndex() throws Exception {
+        List<Integer> indexes = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+        try (RowSource source = new CsvRowSource(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)))) {
+            source.forEachRow((rowIndex, cells) -> {
+                indexes.add(rowIndex);
+                rows.add(cells);
+            });
+        }
+
+        assertEquals(List.of(0, 1, 3, 5), indexes);
+        assertArrayEquals(new String[] {"id", "name"}, rows.get(0));
+        assertArrayEquals(new String[] {"1", "Doe, J"}, rows.get(1));
+        assertArrayEquals(new String[] {"2", "multi\nline"}, rows.get(2));
+        assertArrayEquals(new String[] {"3", ""}, rows.get(3));
+    }
+
+    @Test
+    void mappedFileGivesSameRowsAsStream() throws Exception {
+        File file = tempDir.resolve("upload.csv").toFile();
+        Files.writeString(file.toPath(), CSV, StandardCharsets.UTF_8);
+
+        List<String[]> fromStream = collect(new CsvRowSource(
+                new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8))));
+        List<String[]> fromFile = collect(new CsvRowSource(file));
+
+        assertEquals(fromStream.size(), fromFile.size());
+        for (int i = 0; i < fromStream.size(); i++) {
+            assertArrayEquals(fromStream.get(i), fromFile.get(i), "row " + i);
+        }
+    }
+
+    private static List<String[]> collect(RowSource source) throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        try (source) {
+            source.forEachRow((rowIndex, cells) -> rows.add(cells));
+        }
+        return rows;
+    }
+}
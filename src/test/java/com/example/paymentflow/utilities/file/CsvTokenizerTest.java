@@ -0,0 +1,167 @@
+package com.example.paymentflow.utilities.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvTokenizerTest {
+
+    @Test
+    void splitsRecordsOnLfCrlfAndLoneCr() throws IOException {
+        List<String[]> records = readAll("a,b\nc,d\r\ne,f\rg,h");
+
+        assertEquals(4, records.size());
+        assertArrayEquals(new String[] {"a", "b"}, records.get(0));
+        assertArrayEquals(new String[] {"c", "d"}, records.get(1));
+        assertArrayEquals(new String[] {"e", "f"}, records.get(2));
+        assertArrayEquals(new String[] {"g", "h"}, records.get(3));
+    }
+
+    @Test
+    void keepsDelimitersAndLineBreaksInsideQuotes() throws IOException {
+        List<String[]> records = readAll("\"a,1\",\"line\r\nbreak\",\"cr\ronly\",\"lf\nonly\"\nnext");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {"a,1", "line\r\nbreak", "cr\ronly", "lf\nonly"}, records.get(0));
+        assertArrayEquals(new String[] {"next"}, records.get(1));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        List<String[]> records = readAll("\"say \"\"hi\"\"\",\"\"\"\",\"\"\n");
+
+        assertArrayEquals(new String[] {"say \"hi\"", "\"", ""}, records.get(0));
+    }
+
+    @Test
+    void keepsQuotesInsideUnquotedFieldsLiterally() throws IOException {
+        List<String[]> records = readAll("ab\"c,d\"\n");
+
+        assertArrayEquals(new String[] {"ab\"c", "d\""}, records.get(0));
+    }
+
+    @Test
+    void skipsLeadingByteOrderMark() throws IOException {
+        List<String[]> records = readAll("\uFEFFworker_id,name\n1,x\n");
+
+        assertArrayEquals(new String[] {"worker_id", "name"}, records.get(0));
+        assertArrayEquals(new String[] {"1", "x"}, records.get(1));
+    }
+
+    @Test
+    void trailingCommaDenotesEmptyLastField() throws IOException {
+        assertArrayEquals(new String[] {"a", "b", ""}, readAll("a,b,").get(0));
+        assertArrayEquals(new String[] {"a", "b", ""}, readAll("a,b,\n").get(0));
+        assertArrayEquals(new String[] {"a", "b", ""}, readAll("a,b,\r\nc").get(0));
+    }
+
+    @Test
+    void reportsBlankLinesButNotEmptyQuotedFields() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a\n\n  \n\"\"\n,\n"))) {
+            tokenizer.next();
+            assertFalse(tokenizer.isBlankLine());
+            tokenizer.next();
+            assertTrue(tokenizer.isBlankLine());
+            tokenizer.next();
+            assertTrue(tokenizer.isBlankLine());
+            tokenizer.next();
+            assertFalse(tokenizer.isBlankLine());
+            tokenizer.next();
+            assertFalse(tokenizer.isBlankLine());
+            assertNull(tokenizer.next());
+            assertEquals(5, tokenizer.getRecordNumber());
+        }
+    }
+
+    @Test
+    void unterminatedQuoteKeepsRestOfInput() throws IOException {
+        assertArrayEquals(new String[] {"a", "open\nend"}, readAll("a,\"open\nend").get(0));
+    }
+
+    @Test
+    void sameRecordsWhenEveryReadReturnsOneChar() throws IOException {
+        String csv = "\uFEFFh1,h2\r\n\"q,\"\"x\"\"\r\ny\",plain\r\n\r\nlast,\r\n";
+
+        List<String[]> expected = readAll(csv);
+        List<String[]> trickled = readAll(new CsvTokenizer(new TrickleReader(csv)));
+
+        assertRecordsEqual(expected, trickled);
+        assertArrayEquals(new String[] {"q,\"x\"\r\ny", "plain"}, trickled.get(1));
+    }
+
+    @Test
+    void fieldsStraddlingBufferRefillsAreReassembled() throws IOException {
+        // With a 1024-char buffer: the CRLF straddles offset 1024, the unquoted field spans
+        // 2048 and the escaped quote pair straddles 4096
+        String longUnquoted = "u".repeat(1500);
+        String longQuoted = "q".repeat(1568) + "\"\"" + "q".repeat(1000);
+        StringBuilder csv = new StringBuilder();
+        csv.append("x".repeat(1022)).append(",\r\n");
+        csv.append(longUnquoted).append(',').append('"').append(longQuoted).append("\"\n");
+        csv.append("tail");
+
+        List<String[]> records = readAll(new CsvTokenizer(new StringReader(csv.toString()), 1024));
+
+        assertEquals(3, records.size());
+        assertArrayEquals(new String[] {"x".repeat(1022), ""}, records.get(0));
+        assertArrayEquals(new String[] {longUnquoted, longQuoted.replace("\"\"", "\"")}, records.get(1));
+        assertArrayEquals(new String[] {"tail"}, records.get(2));
+    }
+
+    private static List<String[]> readAll(String csv) throws IOException {
+        return readAll(new CsvTokenizer(new StringReader(csv)));
+    }
+
+    private static List<String[]> readAll(CsvTokenizer tokenizer) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (tokenizer) {
+            String[] record;
+            while ((record = tokenizer.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static void assertRecordsEqual(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "record " + i);
+        }
+    }
+
+    /**
+     * Hands out one char per read so every buffer position is a refill boundary.
+     */
+    private static final class TrickleReader extends Reader {
+        private final String text;
+        private int pos;
+
+        private TrickleReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (pos >= text.length()) {
+                return -1;
+            }
+            cbuf[off] = text.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.paymentflow.utilities.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedFileReaderTest {
+
+    // 1-, 2-, 3- and 4-byte UTF-8 sequences
+    private static final String TEXT = "a,\u00E9,\u20AC,\uD83D\uDE00\n".repeat(50);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void decodesWholeFile() throws IOException {
+        File file = write(TEXT);
+
+        try (Reader reader = new MappedFileReader(file)) {
+            assertEquals(TEXT, readAll(reader, 8192));
+        }
+    }
+
+    @Test
+    void carriesMultiByteSequencesAcrossWindowEdges() throws IOException {
+        File file = write(TEXT);
+        long size = file.length();
+
+        // Every window size from the longest sequence up cuts some character in half
+        for (long windowSize = 4; windowSize <= 9; windowSize++) {
+            try (Reader reader = new MappedFileReader(file, 0, size, windowSize)) {
+                assertEquals(TEXT, readAll(reader, 3), "window size " + windowSize);
+            }
+        }
+    }
+
+    @Test
+    void readsOnlyTheRequestedRange() throws IOException {
+        File file = write("header\nbody-\u00E9\ntrailer\n");
+        long start = "header\n".length();
+        long end = start + "body-\u00E9\n".getBytes(StandardCharsets.UTF_8).length;
+
+        try (Reader reader = new MappedFileReader(file, start, end, 4)) {
+            assertEquals("body-\u00E9\n", readAll(reader, 2));
+        }
+    }
+
+    @Test
+    void emptyRangeIsEndOfInput() throws IOException {
+        File file = write("abc");
+
+        try (Reader reader = new MappedFileReader(file, 2, 2)) {
+            assertEquals(-1, reader.read(new char[4], 0, 4));
+        }
+    }
+
+    @Test
+    void replacesMalformedInput() throws IOException {
+        File file = tempDir.resolve("bad.csv").toFile();
+        Files.write(file.toPath(), new byte[] {'a', (byte) 0xC3, ',', 'b'});
+
+        try (Reader reader = new MappedFileReader(file)) {
+            assertEquals("a\uFFFD,b", readAll(reader, 16));
+        }
+    }
+
+    @Test
+    void windowSmallerThanASequenceIsWidened() throws IOException {
+        File file = write(TEXT);
+
+        try (Reader reader = new MappedFileReader(file, 0, file.length(), 1)) {
+            assertEquals(TEXT, readAll(reader, 3));
+        }
+    }
+
+    @Test
+    void rejectsInvalidRange() throws IOException {
+        File file = write("abc");
+
+        assertThrows(IllegalArgumentException.class, () -> new MappedFileReader(file, 2, 1));
+    }
+
+    private File write(String text) throws IOException {
+        File file = tempDir.resolve("data.csv").toFile();
+        Files.writeString(file.toPath(), text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String readAll(Reader reader, int chunk) throws IOException {
+        StringBuilder out = new StringBuilder();
+        char[] buf = new char[chunk];
+        int n;
+        while ((n = reader.read(buf, 0, buf.length)) != -1) {
+            out.append(buf, 0, n);
+        }
+        return out.toString();
+    }
+}
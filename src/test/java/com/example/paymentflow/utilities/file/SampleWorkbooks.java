@@ -0,0 +1,63 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Worker-upload shaped .xlsx files of any size, written through SXSSF so that generating a large
+ * one does not itself need the heap being measured. Strings go to the shared strings table, as
+ * Excel writes them.
+ */
+final class SampleWorkbooks {
+
+    static final String[] HEADER = {"worker_id", "worker_name", "company_name", "department", "position",
+            "work_date", "hours_worked", "hourly_rate", "payment_amount", "bank_account", "phone_number", "email"};
+
+    private SampleWorkbooks() {
+    }
+
+    static Path writeXlsx(int rows) throws IOException {
+        Path file = Files.createTempFile("sample-", ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true);
+             OutputStream out = Files.newOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("Workers");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADER.length; c++) {
+                header.createCell(c).setCellValue(HEADER[c]);
+            }
+            LocalDate workDate = LocalDate.of(2025, 11, 1);
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("W" + (100000 + i));
+                row.createCell(1).setCellValue("Worker " + i);
+                row.createCell(2).setCellValue("Acme Construction");
+                row.createCell(3).setCellValue("Site " + (i % 7));
+                row.createCell(4).setCellValue("Mason");
+                row.createCell(5).setCellValue(workDate);
+                row.getCell(5).setCellStyle(dateStyle);
+                row.createCell(6).setCellValue(8);
+                row.createCell(7).setCellValue(12.5);
+                row.createCell(8).setCellValue(100);
+                row.createCell(9).setCellValue("ACC" + (1000000000L + i));
+                row.createCell(10).setCellValue("+91-98765" + String.format("%05d", i % 100000));
+                row.createCell(11).setCellValue("worker" + i + "@example.com");
+            }
+            workbook.write(out);
+            workbook.dispose();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time to first row and to the last row of an .xlsx upload, read through the SAX
+ * {@link XlsxStreamingRowSource} and through {@link WorkbookRowSource}, which loads the workbook
+ * with {@code WorkbookFactory.create} as the parsers did before. Heap held while reading is
+ * compared by {@link XlsxRowSourceHeapTest}.
+ * <p>
+ * {@code mvn -Pbenchmarks test -Djmh.include=XlsxReadingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class XlsxReadingBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = SampleWorkbooks.writeXlsx(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int streamingFirstRow() throws Exception {
+        try (RowSource source = new XlsxStreamingRowSource(file.toFile(), new DataFormatter())) {
+            return firstRow(source);
+        }
+    }
+
+    @Benchmark
+    public int workbookFirstRow() throws Exception {
+        try (RowSource source = new WorkbookRowSource(file.toFile(), new DataFormatter(), false)) {
+            return firstRow(source);
+        }
+    }
+
+    @Benchmark
+    public void streamingAllRows(Blackhole blackhole) throws Exception {
+        try (RowSource source = new XlsxStreamingRowSource(file.toFile(), new DataFormatter())) {
+            source.forEachRow((rowIndex, cells) -> blackhole.consume(cells));
+        }
+    }
+
+    @Benchmark
+    public void workbookAllRows(Blackhole blackhole) throws Exception {
+        try (RowSource source = new WorkbookRowSource(file.toFile(), new DataFormatter(), false)) {
+            source.forEachRow((rowIndex, cells) -> blackhole.consume(cells));
+        }
+    }
+
+    private static int firstRow(RowSource source) throws Exception {
+        try {
+            source.forEachRow((rowIndex, cells) -> {
+                throw new FirstRow(cells.length);
+            });
+        } catch (FirstRow first) {
+            return first.cells;
+        }
+        throw new IllegalStateException("Sample workbook has no rows");
+    }
+
+    /** Stops the read at the first row; row sources rethrow handler exceptions unchanged. */
+    private static final class FirstRow extends Exception {
+        private final int cells;
+
+        private FirstRow(int cells) {
+            super(null, null, false, false);
+            this.cells = cells;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.paymentflow.utilities.file;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Heap held by each .xlsx row source at the first and at the last row of a {@value #ROWS}-row
+ * upload: live heap after a full GC, less the heap live before the source was opened. Time to
+ * first row is measured by {@link XlsxReadingBenchmark}. Run with {@code mvn -Pload-tests test};
+ * the results are printed.
+ */
+@Tag("load")
+class XlsxRowSourceHeapTest {
+
+    private static final int ROWS = 100_000;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private static Path file;
+
+    @BeforeAll
+    static void writeSample() throws IOException {
+        file = SampleWorkbooks.writeXlsx(ROWS);
+    }
+
+    @AfterAll
+    static void deleteSample() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void streamingReaderHoldsLessHeapThanTheWorkbook() throws Exception {
+        Held workbook = measure("WorkbookFactory (DOM)",
+                f -> new WorkbookRowSource(f, new DataFormatter(), false));
+        Held streaming = measure("XlsxStreamingRowSource (SAX)",
+                f -> new XlsxStreamingRowSource(f, new DataFormatter()));
+
+        System.out.printf("%,d rows, %,d KB on disk%n", ROWS, Files.size(file) / 1024);
+        System.out.println(Held.HEADER);
+        System.out.println(workbook);
+        System.out.println(streaming);
+
+        assertTrue(streaming.firstRowBytes() < workbook.firstRowBytes());
+        assertTrue(streaming.lastRowBytes() < workbook.lastRowBytes());
+    }
+
+    private static Held measure(String reader, Opener opener) throws Exception {
+        long baseline = liveHeap();
+        long[] held = new long[2];
+        int[] lastRow = {-1};
+        long start = System.nanoTime();
+        long[] firstRowNanos = new long[1];
+        try (RowSource source = opener.open(file.toFile())) {
+            source.forEachRow((rowIndex, cells) -> {
+                if (rowIndex == 0) {
+                    firstRowNanos[0] = System.nanoTime() - start;
+                    held[0] = liveHeap() - baseline;
+                }
+                if (rowIndex == ROWS) {
+                    held[1] = liveHeap() - baseline;
+                }
+                lastRow[0] = rowIndex;
+            });
+        }
+        assertTrue(lastRow[0] == ROWS, "read " + lastRow[0] + " of " + ROWS + " rows");
+        return new Held(reader, firstRowNanos[0] / 1_000_000, held[0], held[1]);
+    }
+
+    private static long liveHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    @FunctionalInterface
+    private interface Opener {
+        RowSource open(File file) throws IOException;
+    }
+
+    private record Held(String reader, long firstRowMs, long firstRowBytes, long lastRowBytes) {
+
+        static final String HEADER = String.format("%-30s %16s %20s %20s",
+                "reader", "first row (ms)", "held at first (MB)", "held at last (MB)");
+
+        @Override
+        public String toString() {
+            return String.format("%-30s %16d %20.1f %20.1f",
+                    reader, firstRowMs, firstRowBytes / 1048576.0, lastRowBytes / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.paymentflow.worker.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.StreamUtils;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * File summary reads from {@code file_status_counters} against the GROUP BY over
+ * {@code worker_uploaded_data} they replaced, at {@code -DfileSummary.rows} rows (10M by
+ * default) spread over {@value #FILES} files. Two reads are timed: one file's status summary, and
+ * one page of the per-file summaries list, whose total count makes the old query aggregate every
+ * file. Run with {@code mvn -Pload-tests test}; the results are printed.
+ */
+@Tag("load")
+class FileStatusSummaryLoadTest {
+
+    private static final int ROWS = Integer.getInteger("fileSummary.rows", 10_000_000);
+    private static final int FILES = 100;
+    private static final int RUNS = 10;
+
+    /** The per-file summary query before the counters. */
+    private static final String GROUP_BY_FILE = """
+            SELECT status, COUNT(*) AS record_count, COALESCE(SUM(payment_amount), 0) AS amount_sum
+            FROM worker_uploaded_data
+            WHERE file_id = ?
+            GROUP BY status""";
+
+    /** uploaded_file_summaries.sql before the counters. */
+    private static final String GROUP_BY_SUMMARIES = """
+            SELECT
+                uf.id AS uploaded_file_id,
+                uf.filename,
+                uf.upload_date,
+                counts.total_records,
+                counts.uploaded_count,
+                counts.validated_count,
+                counts.rejected_count,
+                counts.request_generated_count,
+                counts.total_validated_amount,
+                COUNT(*) OVER () AS total_elements
+            FROM uploaded_files uf
+            CROSS JOIN LATERAL (
+                SELECT
+                    COUNT(*) AS total_records,
+                    COUNT(*) FILTER (WHERE wud.status = 'UPLOADED') AS uploaded_count,
+                    COUNT(*) FILTER (WHERE wud.status = 'VALIDATED') AS validated_count,
+                    COUNT(*) FILTER (WHERE wud.status = 'REJECTED') AS rejected_count,
+                    COUNT(*) FILTER (WHERE wud.status = 'REQUEST_GENERATED') AS request_generated_count,
+                    COALESCE(SUM(wud.payment_amount) FILTER (WHERE wud.status = 'VALIDATED'), 0) AS total_validated_amount
+                FROM worker_uploaded_data wud
+                WHERE wud.file_id = CAST(uf.id AS VARCHAR)
+            ) counts
+            WHERE counts.total_records > 0""";
+
+    private static final String PAGE = " ORDER BY uf.id LIMIT 20";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static long loadMs;
+    private static long backfillMs;
+
+    @BeforeAll
+    static void loadRows() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        // One connection throughout, so connection setup stays out of the timings
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(
+                postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow")).getConnection(), true));
+        jdbc.execute("""
+                CREATE TABLE uploaded_files (
+                    id BIGINT PRIMARY KEY,
+                    filename VARCHAR(255) NOT NULL,
+                    upload_date TIMESTAMP NOT NULL
+                )""");
+        jdbc.execute("""
+                CREATE TABLE worker_uploaded_data (
+                    id BIGINT PRIMARY KEY,
+                    file_id VARCHAR(100) NOT NULL,
+                    row_number INTEGER NOT NULL,
+                    worker_id VARCHAR(50),
+                    worker_name VARCHAR(100),
+                    bank_account VARCHAR(20),
+                    payment_amount NUMERIC(15, 2),
+                    status VARCHAR(32) NOT NULL
+                )""");
+        long start = System.nanoTime();
+        jdbc.update("INSERT INTO uploaded_files SELECT f, 'workers-' || f || '.csv', now() FROM generate_series(1, ?) f",
+                FILES);
+        jdbc.update("""
+                INSERT INTO worker_uploaded_data
+                SELECT n, CAST(n % ? + 1 AS VARCHAR), n / ?, 'W' || n, 'Worker ' || n, 'ACC' || (1000000000 + n), 100.00,
+                       (ARRAY['UPLOADED', 'VALIDATED', 'REJECTED', 'REQUEST_GENERATED'])[n / ? % 4 + 1]
+                FROM generate_series(1, ?) n""", FILES, FILES, FILES, ROWS);
+        // The index the validation and generation paths read by (V20251120)
+        jdbc.execute("CREATE INDEX idx_worker_uploaded_data_file_status_id ON worker_uploaded_data (file_id, status, id)");
+        loadMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        jdbc.execute(migration("V20251124__create_file_status_counters.sql"));
+        backfillMs = (System.nanoTime() - start) / 1_000_000;
+        jdbc.execute("VACUUM ANALYZE");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void countersAnswerSummariesWithoutAggregatingTheUpload() {
+        String fileId = "1";
+        String countersByFile = template("file_status_counters_by_file.sql").replace(":fileId", "?");
+        String countersSummaries = template("uploaded_file_summaries.sql") + PAGE;
+        assertEquals(sorted(jdbc.queryForList(GROUP_BY_FILE, fileId)), sorted(jdbc.queryForList(countersByFile, fileId)));
+        // SUM over the counters is NUMERIC where COUNT(*) was BIGINT, so compare the rendered values
+        assertEquals(jdbc.queryForList(GROUP_BY_SUMMARIES + PAGE).toString(),
+                jdbc.queryForList(countersSummaries).toString());
+
+        double groupByFile = medianMs(() -> jdbc.queryForList(GROUP_BY_FILE, fileId));
+        double countersFile = medianMs(() -> jdbc.queryForList(countersByFile, fileId));
+        double groupByPage = medianMs(() -> jdbc.queryForList(GROUP_BY_SUMMARIES + PAGE));
+        double countersPage = medianMs(() -> jdbc.queryForList(countersSummaries));
+
+        System.out.printf("%,d rows in %d files; load %,d ms, counters backfill %,d ms%n",
+                ROWS, FILES, loadMs, backfillMs);
+        System.out.printf("%-36s %14s %14s%n", "median of " + RUNS + " (ms)", "GROUP BY", "counters");
+        System.out.printf("%-36s %14.2f %14.2f%n", "one file's status summary", groupByFile, countersFile);
+        System.out.printf("%-36s %14.2f %14.2f%n", "page of file summaries", groupByPage, countersPage);
+    }
+
+    private static double medianMs(Runnable query) {
+        query.run();
+        long[] runs = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            runs[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(runs);
+        return runs[RUNS / 2] / 1e6;
+    }
+
+    private static List<String> sorted(List<Map<String, Object>> rows) {
+        return rows.stream()
+                .map(row -> row.get("status") + "=" + row.get("record_count") + "/" + row.get("amount_sum"))
+                .sorted()
+                .toList();
+    }
+
+    private static String migration(String name) {
+        return resource("db/migration/" + name);
+    }
+
+    private static String template(String name) {
+        return resource("sql/worker/" + name);
+    }
+
+    private static String resource(String path) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + path, e);
+        }
+    }
+}
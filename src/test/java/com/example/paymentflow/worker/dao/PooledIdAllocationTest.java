@@ -0,0 +1,171 @@
+package com.example.paymentflow.worker.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * The set-based inserts into pooled-sequence tables take one nextval per 50 rows, as Hibernate
+ * does, rather than one per row.
+ */
+class PooledIdAllocationTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        DataSource dataSource = postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow"));
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE worker_uploaded_data (
+                    id BIGINT PRIMARY KEY,
+                    file_id VARCHAR(100) NOT NULL,
+                    row_num INTEGER NOT NULL,
+                    worker_id VARCHAR(50),
+                    worker_name VARCHAR(100),
+                    employer_id VARCHAR(64) NOT NULL,
+                    toli_id VARCHAR(64) NOT NULL,
+                    company_name VARCHAR(100),
+                    department VARCHAR(50),
+                    position VARCHAR(50),
+                    work_date DATE,
+                    hours_worked NUMERIC(5, 2),
+                    hourly_rate NUMERIC(10, 2),
+                    payment_amount NUMERIC(15, 2),
+                    bank_account VARCHAR(20),
+                    phone_number VARCHAR(15),
+                    email VARCHAR(100),
+                    address TEXT,
+                    status VARCHAR(32) NOT NULL,
+                    rejection_reason TEXT,
+                    created_at TIMESTAMP NOT NULL,
+                    validated_at TIMESTAMP,
+                    processed_at TIMESTAMP,
+                    receipt_number VARCHAR(40)
+                )""");
+        jdbc.execute("""
+                CREATE TABLE worker_payments (
+                    id BIGINT PRIMARY KEY,
+                    worker_reference VARCHAR(64) NOT NULL,
+                    registration_id VARCHAR(64) NOT NULL,
+                    worker_name VARCHAR(120) NOT NULL,
+                    employer_id VARCHAR(64) NOT NULL,
+                    toli_id VARCHAR(64) NOT NULL,
+                    toli VARCHAR(64) NOT NULL,
+                    aadhar VARCHAR(16) NOT NULL,
+                    pan VARCHAR(16) NOT NULL,
+                    bank_account VARCHAR(34) NOT NULL,
+                    payment_amount NUMERIC(15, 2) NOT NULL,
+                    file_id VARCHAR(20),
+                    request_reference_number VARCHAR(40) NOT NULL,
+                    status VARCHAR(40) NOT NULL,
+                    receipt_number VARCHAR(40),
+                    created_at TIMESTAMP NOT NULL
+                )""");
+        jdbc.execute(migration("V20251119__switch_entity_ids_to_pooled_sequences.sql"));
+        jdbc.execute(migration("V20251203__add_pooled_ids_function.sql"));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void bulkLoaderTakesOneBlockPerFiftyRows() {
+        long before = lastValue("worker_uploaded_data_seq");
+        // A block handed to Hibernate meanwhile must not be reused
+        long hibernateBlock = jdbc.queryForObject("SELECT nextval('worker_uploaded_data_seq')", Long.class);
+
+        assertEquals(120, new WorkerUploadedDataBulkLoader(jdbc).insert(rows("bulk", 120)));
+
+        List<Long> ids = jdbc.queryForList("SELECT id FROM worker_uploaded_data WHERE file_id = 'bulk' ORDER BY id",
+                Long.class);
+        assertEquals(120, ids.size());
+        assertEquals(hibernateBlock + 50, ids.get(0));
+        assertEquals(hibernateBlock + 50 + 119, ids.get(119));
+        assertEquals(before + 4 * 50, lastValue("worker_uploaded_data_seq"));
+    }
+
+    @Test
+    void generatedPaymentsTakeOneBlockPerFiftyRows() {
+        new WorkerUploadedDataBulkLoader(jdbc).insert(rows("generate", 75));
+        long before = lastValue("worker_payments_seq");
+
+        WorkerPaymentRequestDao dao = new WorkerPaymentRequestDao(new NamedParameterJdbcTemplate(jdbc),
+                new SqlTemplateLoader(new DefaultResourceLoader()));
+        assertEquals(75, dao.generatePaymentRequests("generate", "RCP-1", LocalDateTime.of(2025, 12, 3, 10, 0)));
+
+        assertEquals(75, jdbc.queryForObject(
+                "SELECT max(id) - min(id) + 1 FROM worker_payments WHERE file_id = 'generate'", Long.class));
+        assertEquals(before + 2 * 50, lastValue("worker_payments_seq"));
+        // Payments follow the upload rows' order
+        assertEquals(List.of(), jdbc.queryForList("""
+                SELECT p.id FROM worker_payments p
+                JOIN worker_payments q ON q.file_id = p.file_id AND q.id > p.id
+                WHERE p.file_id = 'generate' AND q.worker_reference::int < p.worker_reference::int""", Long.class));
+    }
+
+    private static List<WorkerUploadedData> rows(String fileId, int count) {
+        List<WorkerUploadedData> rows = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            WorkerUploadedData row = new WorkerUploadedData();
+            row.setFileId(fileId);
+            row.setRowNumber(n + 1);
+            row.setWorkerId(String.valueOf(1000 + n));
+            row.setWorkerName("Worker " + n);
+            row.setEmployerId("EMP-1");
+            row.setToliId("TOLI-7");
+            row.setBankAccount("ACC" + (1000000000L + n));
+            row.setPaymentAmount(new BigDecimal("1500.00"));
+            row.setStatus("VALIDATED");
+            row.setCreatedAt(LocalDateTime.of(2025, 12, 3, 9, 0));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * The last value nextval returned, or one increment below the start if it has not been called.
+     */
+    private static long lastValue(String sequence) {
+        return jdbc.queryForObject("SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM "
+                + sequence, Long.class);
+    }
+
+    private static String migration(String name) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource("db/migration/" + name).getInputStream(),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + name, e);
+        }
+    }
+}
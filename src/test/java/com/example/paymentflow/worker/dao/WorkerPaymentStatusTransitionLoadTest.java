@@ -0,0 +1,141 @@
+package com.example.paymentflow.worker.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.StreamUtils;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Latency of moving one receipt's payments PAYMENT_REQUESTED to PAYMENT_INITIATED, for receipts of
+ * 1k, 10k and 100k payments, through {@link WorkerPaymentStatusDao} against the load-and-save loop
+ * it replaced (one SELECT, then one UPDATE by id per payment). Both move the same rows, so the
+ * row work grows with the receipt either way; what the guarded UPDATE keeps constant is the number
+ * of statements and round trips. Run with {@code mvn -Pload-tests test}; the results are printed.
+ */
+@Tag("load")
+class WorkerPaymentStatusTransitionLoadTest {
+
+    private static final int[] RECEIPT_SIZES = {1_000, 10_000, 100_000};
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static WorkerPaymentStatusDao statusDao;
+
+    @BeforeAll
+    static void startDatabase() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        // One connection throughout, so connection setup stays out of the timings
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(
+                postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow")).getConnection(), true));
+        jdbc.execute("""
+                CREATE TABLE worker_payments (
+                    id BIGINT PRIMARY KEY,
+                    worker_reference VARCHAR(64) NOT NULL,
+                    worker_name VARCHAR(120) NOT NULL,
+                    employer_id VARCHAR(64) NOT NULL,
+                    toli_id VARCHAR(64) NOT NULL,
+                    bank_account VARCHAR(34) NOT NULL,
+                    payment_amount NUMERIC(15, 2) NOT NULL,
+                    file_id VARCHAR(20),
+                    status VARCHAR(40) NOT NULL,
+                    receipt_number VARCHAR(40),
+                    created_at TIMESTAMP NOT NULL DEFAULT now()
+                )""");
+        // The receipt lookup index of V20251126
+        jdbc.execute("CREATE INDEX idx_worker_payments_receipt_number_status ON worker_payments (receipt_number, status)");
+        jdbc.execute(resource("db/migration/V20251127__add_worker_payments_file_status_index.sql"));
+        statusDao = new WorkerPaymentStatusDao(jdbc, new SqlTemplateLoader(new DefaultResourceLoader()));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void guardedUpdateMovesAReceiptInOneStatement() {
+        long nextId = 1;
+        // Warm both paths up before the timed receipts
+        nextId = insertPayments(nextId, "RCP-WARMUP-LOOP", 2_000);
+        nextId = insertPayments(nextId, "RCP-WARMUP-BULK", 2_000);
+        loadAndSave("RCP-WARMUP-LOOP");
+        statusDao.movePayments(List.of("RCP-WARMUP-BULK"), List.of("PAYMENT_REQUESTED"), "PAYMENT_INITIATED");
+
+        System.out.printf("%-10s %-22s %12s %14s %12s%n", "payments", "approach", "ms", "us/payment", "statements");
+        for (int size : RECEIPT_SIZES) {
+            String loopReceipt = "RCP-LOOP-" + size;
+            String bulkReceipt = "RCP-BULK-" + size;
+            nextId = insertPayments(nextId, loopReceipt, size);
+            nextId = insertPayments(nextId, bulkReceipt, size);
+            jdbc.execute("VACUUM ANALYZE worker_payments");
+
+            report(size, "load and save per row", size + 1, () -> loadAndSave(loopReceipt));
+            report(size, "guarded bulk UPDATE", 1, () -> statusDao.movePayments(
+                    List.of(bulkReceipt), List.of("PAYMENT_REQUESTED"), "PAYMENT_INITIATED").get(bulkReceipt));
+        }
+    }
+
+    /**
+     * The transition before the engine: load the receipt's payments, then save each one.
+     */
+    private static int loadAndSave(String receiptNumber) {
+        List<Long> ids = jdbc.queryForList(
+                "SELECT id FROM worker_payments WHERE receipt_number = ? AND status = 'PAYMENT_REQUESTED'",
+                Long.class, receiptNumber);
+        int moved = 0;
+        for (Long id : ids) {
+            moved += jdbc.update("UPDATE worker_payments SET status = 'PAYMENT_INITIATED' WHERE id = ?", id);
+        }
+        return moved;
+    }
+
+    private static void report(int size, String approach, int statements, IntSupplier transition) {
+        jdbc.execute("BEGIN");
+        long start = System.nanoTime();
+        int moved = transition.getAsInt();
+        long nanos = System.nanoTime() - start;
+        jdbc.execute("COMMIT");
+        assertEquals(size, moved);
+        System.out.printf("%-10d %-22s %12.1f %14.2f %12d%n",
+                size, approach, nanos / 1e6, nanos / 1e3 / size, statements);
+    }
+
+    private static long insertPayments(long firstId, String receiptNumber, int count) {
+        jdbc.update("""
+                INSERT INTO worker_payments (id, worker_reference, worker_name, employer_id, toli_id, bank_account,
+                                             payment_amount, file_id, status, receipt_number)
+                SELECT n, 'WRK' || n, 'Worker ' || n, 'EMP-1', 'TOLI-7', 'ACC' || (1000000000 + n), 1500.00, '17',
+                       'PAYMENT_REQUESTED', ?
+                FROM generate_series(?::bigint, ?::bigint) n""", receiptNumber, firstId, firstId + count - 1);
+        return firstId + count;
+    }
+
+    private static String resource(String path) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + path, e);
+        }
+    }
+}
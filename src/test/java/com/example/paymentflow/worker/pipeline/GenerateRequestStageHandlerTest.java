@@ -0,0 +1,99 @@
+package com.example.paymentflow.worker.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.paymentflow.common.queue.PipelineJob;
+import com.example.paymentflow.common.queue.PipelineStage;
+import com.example.paymentflow.utilities.file.UploadedFile;
+import com.example.paymentflow.utilities.file.UploadedFileRepository;
+import com.example.paymentflow.worker.service.WorkerPaymentFileService;
+import com.example.paymentflow.worker.service.WorkerUploadedDataService;
+
+@ExtendWith(MockitoExtension.class)
+class GenerateRequestStageHandlerTest {
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private WorkerUploadedDataService workerUploadedDataService;
+
+    @InjectMocks
+    private WorkerPaymentFileService fileService;
+
+    @Test
+    void firstRunReturnsNewReceipt() throws Exception {
+        UploadedFile file = file("COMPLETED");
+        when(uploadedFileRepository.findById(7L)).thenReturn(Optional.of(file));
+        when(workerUploadedDataService.generateRequest("7", "FILE-7"))
+                .thenReturn(new WorkerUploadedDataService.GeneratedRequest("RCP-1", 3));
+
+        assertEquals(List.of("RCP-1"), handler().handle(job()));
+        assertEquals("REQUEST_GENERATED", file.getStatus());
+        verify(uploadedFileRepository).save(file);
+    }
+
+    @Test
+    void rerunAfterCommittedRequestReturnsExistingReceipt() throws Exception {
+        UploadedFile file = file("REQUEST_GENERATED");
+        when(uploadedFileRepository.findById(7L)).thenReturn(Optional.of(file));
+        when(workerUploadedDataService.generateRequest("7", "FILE-7"))
+                .thenReturn(new WorkerUploadedDataService.GeneratedRequest(null, 0));
+        when(workerUploadedDataService.findGeneratedReceiptNumber("7")).thenReturn(Optional.of("RCP-1"));
+
+        assertEquals(List.of("RCP-1"), handler().handle(job()));
+        verify(uploadedFileRepository, never()).save(any());
+    }
+
+    @Test
+    void rerunBeforeFileStatusWasSavedStillMarksFile() throws Exception {
+        UploadedFile file = file("COMPLETED");
+        when(uploadedFileRepository.findById(7L)).thenReturn(Optional.of(file));
+        when(workerUploadedDataService.generateRequest("7", "FILE-7"))
+                .thenReturn(new WorkerUploadedDataService.GeneratedRequest(null, 0));
+        when(workerUploadedDataService.findGeneratedReceiptNumber("7")).thenReturn(Optional.of("RCP-1"));
+
+        assertEquals(List.of("RCP-1"), handler().handle(job()));
+        assertEquals("REQUEST_GENERATED", file.getStatus());
+    }
+
+    @Test
+    void fileWithoutValidatedOrGeneratedRecordsFails() {
+        when(uploadedFileRepository.findById(7L)).thenReturn(Optional.of(file("COMPLETED")));
+        when(workerUploadedDataService.generateRequest("7", "FILE-7"))
+                .thenReturn(new WorkerUploadedDataService.GeneratedRequest(null, 0));
+        when(workerUploadedDataService.findGeneratedReceiptNumber("7")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> handler().handle(job()));
+    }
+
+    private GenerateRequestStageHandler handler() {
+        return new GenerateRequestStageHandler(fileService);
+    }
+
+    private static PipelineJob job() {
+        return new PipelineJob(1L, PipelineStage.GENERATE_REQUEST, "7", 2, 5);
+    }
+
+    private static UploadedFile file(String status) {
+        UploadedFile file = new UploadedFile();
+        file.setId(7L);
+        file.setFileReferenceNumber("FILE-7");
+        file.setStatus(status);
+        return file;
+    }
+}
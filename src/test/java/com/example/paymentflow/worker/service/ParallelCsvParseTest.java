@@ -0,0 +1,127 @@
+package com.example.paymentflow.worker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.paymentflow.utilities.file.CsvFileSplitter;
+import com.example.paymentflow.utilities.file.UploadedFile;
+import com.example.paymentflow.utilities.file.UploadedFileRepository;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelCsvParseTest {
+
+    private static final int ROWS = 400;
+    private static final int CHUNK_SIZE = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private WorkerUploadedDataService workerUploadedDataService;
+
+    @InjectMocks
+    private WorkerPaymentFileService fileService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        WorkerPaymentFileConfig config = new WorkerPaymentFileConfig();
+        config.setParallelParseEnabled(true);
+        config.setParallelParseThresholdBytes(0);
+        config.setParseParallelism(2);
+        config.setIngestChunkSize(CHUNK_SIZE);
+        executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(fileService, "workerPaymentFileConfig", config);
+        ReflectionTestUtils.setField(fileService, "workerUploadParseExecutor", executor);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void failingRangeStopsEarlierRangesWithoutWaitingForThem() throws IOException {
+        UploadedFile file = new UploadedFile();
+        file.setId(7L);
+        Path csv = writeCsv();
+        file.setStoredPath(csv.toString());
+        // The service splits into parallelism * 4 ranges
+        List<CsvFileSplitter.Range> ranges = CsvFileSplitter.split(csv.toFile(), 8).ranges();
+        long firstRangeRows = ranges.get(1).firstRecordIndex();
+
+        // The first range writes slowly; the second fails on its first chunk
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicInteger firstRangeChunks = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<WorkerUploadedData> chunk = invocation.getArgument(0);
+            int firstRow = chunk.get(0).getRowNumber();
+            if (firstRow == firstRangeRows + 1) {
+                failed.countDown();
+                throw new IllegalStateException("database down");
+            }
+            if (firstRow <= firstRangeRows) {
+                firstRangeChunks.incrementAndGet();
+                failed.await(5, TimeUnit.SECONDS);
+                Thread.sleep(200);
+            }
+            return chunk.size();
+        }).when(workerUploadedDataService).insertChunk(anyList(), eq(7L), any());
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> fileService.ingestStoredFile(file));
+
+        assertEquals("database down", thrown.getMessage());
+        // Awaited in submission order, the first range would only learn of the failure after writing
+        // all of its chunks
+        assertTrue(firstRangeChunks.get() < firstRangeRows / CHUNK_SIZE,
+                () -> firstRangeChunks + " of " + firstRangeRows / CHUNK_SIZE + " chunks");
+        assertEquals("FAILED", file.getStatus());
+    }
+
+    private Path writeCsv() throws IOException {
+        StringBuilder csv = new StringBuilder("worker_id,worker_name,employer_id,toli_id,company_name,department,"
+                + "position,work_date,hours_worked,hourly_rate,payment_amount,bank_account,phone_number,email,address\n");
+        for (int n = 1; n <= ROWS; n++) {
+            csv.append("W").append(n).append(",Worker ").append(n).append(",EMP-1,TOLI-7,Acme,Site 3,Mason,")
+                    .append("2025-11-01,8,12.50,100.00,ACC").append(1000000000L + n)
+                    .append(",9876500000,w").append(n).append("@example.com,Pune\n");
+        }
+        Path path = tempDir.resolve("workers.csv");
+        Files.writeString(path, csv, StandardCharsets.UTF_8);
+        return path;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.paymentflow.worker.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Rows per second of {@code createBulk} (persist a list, flush on commit) against
+ * {@code worker_payments} before and after the pooled-sequence migration. The same table is
+ * loaded with an IDENTITY id, migrated with {@code V20251119}, then loaded again through a
+ * pooled-lo sequence id, with the Hibernate batching settings of {@code application.yml}. The
+ * entities are stand-ins with the columns of {@code WorkerPayment}, so the shared auditing base
+ * class stays out of the measurement. Run with {@code mvn -Pload-tests test}; the results are
+ * printed.
+ */
+@Tag("load")
+class WorkerPaymentBulkInsertLoadTest {
+
+    private static final int ROWS = 20_000;
+    private static final int ROWS_PER_CALL = 1_000;
+    private static final int WARMUP_ROWS = 2_000;
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("CREATE SCHEMA IF NOT EXISTS payment_flow");
+        // worker_payments as ddl-auto created it while the entity used GenerationType.IDENTITY
+        jdbc.execute("""
+                CREATE TABLE payment_flow.worker_payments (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    worker_reference VARCHAR(64) NOT NULL,
+                    registration_id VARCHAR(64) NOT NULL,
+                    worker_name VARCHAR(120) NOT NULL,
+                    employer_id VARCHAR(64) NOT NULL,
+                    toli_id VARCHAR(64) NOT NULL,
+                    toli VARCHAR(64) NOT NULL,
+                    aadhar VARCHAR(16) NOT NULL,
+                    pan VARCHAR(16) NOT NULL,
+                    bank_account VARCHAR(34) NOT NULL,
+                    payment_amount NUMERIC(15, 2) NOT NULL,
+                    file_id VARCHAR(20),
+                    uploaded_file_ref VARCHAR(100),
+                    request_reference_number VARCHAR(40) NOT NULL,
+                    status VARCHAR(40) NOT NULL,
+                    receipt_number VARCHAR(40),
+                    created_at TIMESTAMP NOT NULL
+                )""");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void pooledSequenceIdsBatchTheInserts() throws IOException {
+        double identityRowsPerSecond;
+        try (SessionFactory sessions = sessionFactory(IdentityPayment.class)) {
+            createBulk(sessions, WARMUP_ROWS, n -> fill(new IdentityPayment(), n));
+            identityRowsPerSecond = createBulk(sessions, ROWS, n -> fill(new IdentityPayment(), n));
+        }
+        long lastIdentityId = jdbc.queryForObject("SELECT max(id) FROM payment_flow.worker_payments", Long.class);
+
+        jdbc.execute(StreamUtils.copyToString(new ClassPathResource(
+                "db/migration/V20251119__switch_entity_ids_to_pooled_sequences.sql").getInputStream(),
+                StandardCharsets.UTF_8));
+
+        double pooledRowsPerSecond;
+        try (SessionFactory sessions = sessionFactory(PooledPayment.class)) {
+            createBulk(sessions, WARMUP_ROWS, n -> fill(new PooledPayment(), n));
+            pooledRowsPerSecond = createBulk(sessions, ROWS, n -> fill(new PooledPayment(), n));
+        }
+
+        System.out.printf("%-32s %12s%n", "id generation", "rows/s");
+        System.out.printf("%-32s %12.0f%n", "IDENTITY", identityRowsPerSecond);
+        System.out.printf("%-32s %12.0f%n", "SEQUENCE, pooled-lo, batch 50", pooledRowsPerSecond);
+        System.out.printf("speed-up %.1fx%n", pooledRowsPerSecond / identityRowsPerSecond);
+
+        // The rows written before the migration kept their ids; the new ones follow them
+        assertEquals(WARMUP_ROWS + ROWS, jdbc.queryForObject(
+                "SELECT count(*) FROM payment_flow.worker_payments WHERE id <= ?", Integer.class, lastIdentityId));
+        assertEquals(2 * (WARMUP_ROWS + ROWS), jdbc.queryForObject(
+                "SELECT count(DISTINCT id) FROM payment_flow.worker_payments", Integer.class));
+        assertTrue(pooledRowsPerSecond > identityRowsPerSecond,
+                () -> "pooled " + pooledRowsPerSecond + " rows/s, identity " + identityRowsPerSecond + " rows/s");
+    }
+
+    /**
+     * {@code repository.saveAll} in one transaction per call, {@value #ROWS_PER_CALL} rows at a time.
+     */
+    private static double createBulk(SessionFactory sessions, int rows, IntFunction<Object> row) {
+        long start = System.nanoTime();
+        for (int offset = 0; offset < rows; offset += ROWS_PER_CALL) {
+            int first = offset;
+            sessions.inTransaction(session -> {
+                for (int n = first; n < Math.min(first + ROWS_PER_CALL, rows); n++) {
+                    session.persist(row.apply(n));
+                }
+            });
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static SessionFactory sessionFactory(Class<?> entity) {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(PaymentColumns.class)
+                .addAnnotatedClass(entity);
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, postgres.getPostgresDatabase(Map.of("currentSchema", "payment_flow")));
+        configuration.setProperty(AvailableSettings.DEFAULT_SCHEMA, "payment_flow");
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "none");
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50");
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        configuration.setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        configuration.setProperty(AvailableSettings.SEQUENCE_INCREMENT_SIZE_MISMATCH_STRATEGY, "fix");
+        return configuration.buildSessionFactory();
+    }
+
+    private static <T extends PaymentColumns> T fill(T payment, int n) {
+        payment.workerRef = "WRK" + (100000 + n);
+        payment.regId = "REG" + n;
+        payment.name = "Worker " + n;
+        payment.employerId = "EMP-1";
+        payment.toliId = "TOLI-7";
+        payment.toli = "Toli 7";
+        payment.aadhar = String.valueOf(100000000000L + n);
+        payment.pan = "ABCDE" + (1000 + n % 9000) + "F";
+        payment.bankAccount = "ACC" + (1000000000L + n);
+        payment.paymentAmount = new BigDecimal("1500.00");
+        payment.fileId = "17";
+        payment.uploadedFileRef = "workers-20251101.csv";
+        payment.requestReferenceNumber = "REQ-20251101-" + n;
+        payment.status = "UPLOADED";
+        payment.createdAt = LocalDateTime.now();
+        return payment;
+    }
+
+    @MappedSuperclass
+    abstract static class PaymentColumns {
+        @Column(name = "worker_reference", nullable = false, length = 64)
+        String workerRef;
+        @Column(name = "registration_id", nullable = false, length = 64)
+        String regId;
+        @Column(name = "worker_name", nullable = false, length = 120)
+        String name;
+        @Column(name = "employer_id", nullable = false, length = 64)
+        String employerId;
+        @Column(name = "toli_id", nullable = false, length = 64)
+        String toliId;
+        @Column(name = "toli", nullable = false, length = 64)
+        String toli;
+        @Column(name = "aadhar", nullable = false, length = 16)
+        String aadhar;
+        @Column(name = "pan", nullable = false, length = 16)
+        String pan;
+        @Column(name = "bank_account", nullable = false, length = 34)
+        String bankAccount;
+        @Column(name = "payment_amount", precision = 15, scale = 2, nullable = false)
+        BigDecimal paymentAmount;
+        @Column(name = "file_id", length = 20)
+        String fileId;
+        @Column(name = "uploaded_file_ref", length = 100)
+        String uploadedFileRef;
+        @Column(name = "request_reference_number", nullable = false, length = 40)
+        String requestReferenceNumber;
+        @Column(name = "status", nullable = false, length = 40)
+        String status;
+        @Column(name = "receipt_number", length = 40)
+        String receiptNumber;
+        @Column(name = "created_at", nullable = false)
+        LocalDateTime createdAt;
+    }
+
+    /** The mapping before the migration. */
+    @Entity(name = "IdentityPayment")
+    @Table(name = "worker_payments")
+    static class IdentityPayment extends PaymentColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    /** The mapping of {@code WorkerPayment} after it. */
+    @Entity(name = "PooledPayment")
+    @Table(name = "worker_payments")
+    static class PooledPayment extends PaymentColumns {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "worker_payments_seq")
+        @SequenceGenerator(name = "worker_payments_seq", sequenceName = "worker_payments_seq", allocationSize = 50)
+        Long id;
+    }
+}
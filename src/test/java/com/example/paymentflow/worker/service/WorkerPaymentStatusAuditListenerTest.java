@@ -0,0 +1,68 @@
+package com.example.paymentflow.worker.service;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService.PaymentStatusTransitionEvent;
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService.ReceiptStatusTransitionEvent;
+import com.shared.audit.AuditHelper;
+
+@ExtendWith(MockitoExtension.class)
+class WorkerPaymentStatusAuditListenerTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 12, 3, 10, 0);
+
+    @Mock
+    private AuditHelper auditHelper;
+
+    @InjectMocks
+    private WorkerPaymentStatusAuditListener listener;
+
+    @Test
+    void receiptScopedMoveIsAuditedPerReceipt() {
+        listener.onTransition(new PaymentStatusTransitionEvent(Set.of("PAYMENT_REQUESTED"), "PAYMENT_INITIATED",
+                Map.of("RCP-1", 3, "RCP-2", 5), null, 8, AT));
+
+        verify(auditHelper).recordAudit(eq("WORKER_PAYMENT_STATUS_TRANSITION"), eq("WORKER_PAYMENT_RECEIPT"),
+                eq("RCP-1"), eq("SUCCESS"), argThat(details -> details.get("affected").equals(3)
+                        && details.get("batchReceipts").equals(2)));
+        verify(auditHelper).recordAudit(eq("WORKER_PAYMENT_STATUS_TRANSITION"), eq("WORKER_PAYMENT_RECEIPT"),
+                eq("RCP-2"), eq("SUCCESS"), argThat(details -> details.get("affected").equals(5)));
+        verifyNoMoreInteractions(auditHelper);
+    }
+
+    @Test
+    void fileScopedMoveIsOneRecordUnderTheFile() {
+        listener.onTransition(new PaymentStatusTransitionEvent(Set.of("VALIDATED"), "PAYMENT_REQUESTED",
+                Map.of("RCP-1", 40), "17", 40, AT));
+
+        verify(auditHelper).recordAudit(eq("WORKER_PAYMENT_STATUS_TRANSITION"), eq("WORKER_UPLOADED_FILE"),
+                eq("17"), eq("SUCCESS"), argThat(details -> "RCP-1".equals(details.get("receiptNumber"))
+                        && details.get("affected").equals(40)));
+        verifyNoMoreInteractions(auditHelper);
+    }
+
+    @Test
+    void receiptStatusChangeIsAuditedPerMovedReceipt() {
+        listener.onReceiptTransition(new ReceiptStatusTransitionEvent(
+                Map.of("RCP-1", "PENDING", "RCP-2", "REJECTED"), "VALIDATED", AT));
+
+        verify(auditHelper).recordAudit(eq("WORKER_RECEIPT_STATUS_TRANSITION"), eq("WORKER_PAYMENT_RECEIPT"),
+                eq("RCP-1"), eq("SUCCESS"), argThat(details -> "PENDING".equals(details.get("fromStatus"))));
+        verify(auditHelper).recordAudit(eq("WORKER_RECEIPT_STATUS_TRANSITION"), eq("WORKER_PAYMENT_RECEIPT"),
+                eq("RCP-2"), eq("SUCCESS"), argThat(details -> "REJECTED".equals(details.get("fromStatus"))));
+        verifyNoMoreInteractions(auditHelper);
+    }
+}
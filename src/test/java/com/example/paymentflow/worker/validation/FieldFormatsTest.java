@@ -0,0 +1,65 @@
+package com.example.paymentflow.worker.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class FieldFormatsTest {
+
+    // The patterns the matchers replace
+    private static final Pattern BANK_ACCOUNT = Pattern.compile("^[A-Za-z0-9]+$");
+    private static final Pattern PHONE = Pattern.compile("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$");
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    @Test
+    void documentedFormatsAreAccepted() {
+        for (String phone : List.of("+91-9876543210", "+919876543210", "9876543210", "+1 9876543210")) {
+            assertTrue(FieldFormats.isPhoneNumber(phone, 0, phone.length()), phone);
+        }
+        assertTrue(FieldFormats.isEmail("first.last+tag@mail.example.co"));
+        assertTrue(FieldFormats.isAlphanumeric("ACC1000000001", 0, 13));
+        assertFalse(FieldFormats.isEmail("user@localhost"));
+        assertFalse(FieldFormats.isPhoneNumber("+1234-9876543210", 0, 16));
+    }
+
+    @Test
+    void matchersAgreeWithTheRegexes() {
+        Random random = new Random(42);
+        String alphabet = "09aZ+-._@ \t\u00e9";
+        for (int n = 0; n < 200_000; n++) {
+            String value = randomValue(random, alphabet);
+            assertEquals(BANK_ACCOUNT.matcher(value).matches(),
+                    FieldFormats.isAlphanumeric(value, 0, value.length()), () -> "bank account '" + value + "'");
+            assertEquals(EMAIL.matcher(value).matches(), FieldFormats.isEmail(value), () -> "email '" + value + "'");
+        }
+        String phoneAlphabet = "0123456789+- \t";
+        for (int n = 0; n < 200_000; n++) {
+            String value = randomValue(random, phoneAlphabet) + "0123456789".substring(random.nextInt(11));
+            assertEquals(PHONE.matcher(value).matches(),
+                    FieldFormats.isPhoneNumber(value, 0, value.length()), () -> "phone '" + value + "'");
+        }
+    }
+
+    @Test
+    void trimBoundsMatchStringTrim() {
+        for (String value : List.of("", " ", " \t\n", "a", " a ", "\u0001ab\u001f", "a b")) {
+            int start = FieldFormats.trimmedStart(value);
+            int end = FieldFormats.trimmedEnd(value);
+            assertEquals(value.trim(), start < end ? value.substring(start, end) : "", () -> "'" + value + "'");
+        }
+    }
+
+    private static String randomValue(Random random, String alphabet) {
+        char[] chars = new char[random.nextInt(16)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.paymentflow.worker.validation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Per-row validation cost of the compiled rule set against the inline check chain it replaced
+ * ({@link #inlineChain}, kept here verbatim as the baseline). Scores are per row.
+ * <p>
+ * {@code mvn -Pbenchmarks test -Djmh.include=WorkerUploadedDataValidationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkerUploadedDataValidationBenchmark {
+
+    private static final int ROWS = 1000;
+
+    /** Share of rows with at least one failed rule, in percent. */
+    @Param({"0", "20"})
+    public int rejectedPercent;
+
+    private List<WorkerUploadedData> rows;
+    private WorkerUploadedDataValidator sequential;
+    private WorkerUploadedDataValidator parallel;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(ROWS);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            boolean rejected = i % 100 < rejectedPercent;
+            WorkerUploadedData row = new WorkerUploadedData();
+            row.setFileId("1");
+            row.setRowNumber(i + 1);
+            row.setWorkerId("W" + (100000 + i));
+            row.setWorkerName("Worker " + i);
+            row.setCompanyName("Acme Construction");
+            row.setDepartment("Site " + (i % 7));
+            row.setPosition("Mason");
+            row.setWorkDate(yesterday);
+            row.setHoursWorked(new BigDecimal("8"));
+            row.setHourlyRate(new BigDecimal("12.50"));
+            // Rejected rows have a mismatched amount and a malformed phone number
+            row.setPaymentAmount(new BigDecimal(rejected ? "99.00" : "100.00"));
+            row.setBankAccount("ACC" + (1000000000L + i));
+            row.setPhoneNumber(rejected ? "98765" : "+91-98765" + String.format("%05d", i));
+            row.setEmail("worker" + i + "@example.com");
+            rows.add(row);
+        }
+        WorkerPaymentFileConfig sequentialConfig = new WorkerPaymentFileConfig();
+        sequentialConfig.setValidationParallelThreshold(Integer.MAX_VALUE);
+        sequential = new WorkerUploadedDataValidator(sequentialConfig);
+        WorkerPaymentFileConfig parallelConfig = new WorkerPaymentFileConfig();
+        parallelConfig.setValidationParallelThreshold(1);
+        parallel = new WorkerUploadedDataValidator(parallelConfig);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void inlineChain(Blackhole blackhole) {
+        for (WorkerUploadedData row : rows) {
+            inlineChain(row);
+            if (row.getStatus().equals("VALIDATED")) {
+                row.setValidatedAt(LocalDateTime.now());
+            }
+            blackhole.consume(row.getRejectionReason());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int compiledRules() {
+        return sequential.validateAll(rows);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int compiledRulesParallel() {
+        return parallel.validateAll(rows);
+    }
+
+    /**
+     * The per-row check chain of {@code WorkerUploadedDataService.validateRecord} before the rule
+     * set replaced it.
+     */
+    private static void inlineChain(WorkerUploadedData record) {
+        StringBuilder errors = new StringBuilder();
+        if (record.getWorkerId() == null || record.getWorkerId().trim().isEmpty()) {
+            errors.append("Worker ID is required. ");
+        }
+        if (record.getWorkerName() == null || record.getWorkerName().trim().isEmpty()) {
+            errors.append("Worker name is required. ");
+        }
+        if (record.getPaymentAmount() == null || record.getPaymentAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            errors.append("Valid payment amount greater than 0 is required. ");
+        }
+        if (record.getBankAccount() == null || record.getBankAccount().trim().isEmpty()) {
+            errors.append("Bank account is required. ");
+        }
+        if (record.getWorkDate() == null) {
+            errors.append("Work date is required. ");
+        }
+        if (record.getWorkerName() != null && record.getWorkerName().length() > 100) {
+            errors.append("Worker name must not exceed 100 characters. ");
+        }
+        if (record.getCompanyName() != null && record.getCompanyName().length() > 100) {
+            errors.append("Company name must not exceed 100 characters. ");
+        }
+        if (record.getDepartment() != null && record.getDepartment().length() > 50) {
+            errors.append("Department must not exceed 50 characters. ");
+        }
+        if (record.getPosition() != null && record.getPosition().length() > 50) {
+            errors.append("Position must not exceed 50 characters. ");
+        }
+        if (record.getWorkerId() != null && record.getWorkerId().length() > 50) {
+            errors.append("Worker ID must not exceed 50 characters. ");
+        }
+        if (record.getEmail() != null && record.getEmail().length() > 100) {
+            errors.append("Email must not exceed 100 characters. ");
+        }
+        if (record.getBankAccount() != null) {
+            String bankAccount = record.getBankAccount().trim();
+            if (bankAccount.length() < 10 || bankAccount.length() > 20) {
+                errors.append("Bank account must be between 10-20 characters. ");
+            }
+            if (!bankAccount.matches("^[A-Za-z0-9]+$")) {
+                errors.append("Bank account must contain only letters and digits. ");
+            }
+        }
+        if (record.getPhoneNumber() != null && !record.getPhoneNumber().trim().isEmpty()) {
+            String phone = record.getPhoneNumber().trim();
+            if (phone.length() > 15) {
+                errors.append("Phone number must not exceed 15 characters. ");
+            }
+            if (!phone.matches("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$")) {
+                errors.append("Invalid phone number format. ");
+            }
+        }
+        if (record.getEmail() != null && !record.getEmail().trim().isEmpty()) {
+            if (!record.getEmail().matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+                errors.append("Invalid email format. ");
+            }
+        }
+        if (record.getWorkDate() != null) {
+            LocalDate today = LocalDate.now();
+            if (record.getWorkDate().isAfter(today)) {
+                errors.append("Work date cannot be in the future. ");
+            }
+            if (record.getWorkDate().isBefore(today.minusYears(1))) {
+                errors.append("Work date cannot be more than 1 year old. ");
+            }
+        }
+        if (record.getHoursWorked() != null) {
+            if (record.getHoursWorked().compareTo(BigDecimal.ZERO) <= 0) {
+                errors.append("Hours worked must be greater than 0. ");
+            }
+            if (record.getHoursWorked().compareTo(new BigDecimal("24")) > 0) {
+                errors.append("Hours worked cannot exceed 24 hours per day. ");
+            }
+        }
+        if (record.getHourlyRate() != null) {
+            if (record.getHourlyRate().compareTo(BigDecimal.ZERO) <= 0) {
+                errors.append("Hourly rate must be greater than 0. ");
+            }
+            if (record.getHourlyRate().compareTo(new BigDecimal("10000")) > 0) {
+                errors.append("Hourly rate seems unreasonably high (max 10,000). ");
+            }
+        }
+        if (record.getPaymentAmount() != null) {
+            if (record.getPaymentAmount().compareTo(new BigDecimal("1000000")) > 0) {
+                errors.append("Payment amount seems unreasonably high (max 1,000,000). ");
+            }
+        }
+        if (record.getHoursWorked() != null && record.getHourlyRate() != null && record.getPaymentAmount() != null) {
+            BigDecimal calculatedAmount = record.getHoursWorked().multiply(record.getHourlyRate());
+            BigDecimal difference = record.getPaymentAmount().subtract(calculatedAmount).abs();
+            if (difference.compareTo(new BigDecimal("0.01")) > 0) {
+                errors.append("Payment amount doesn't match hours worked \u00d7 hourly rate (calculated: "
+                        + calculatedAmount + "). ");
+            }
+        }
+        if (errors.length() > 0) {
+            record.setStatus("REJECTED");
+            record.setRejectionReason(errors.toString().trim());
+        } else {
+            record.setStatus("VALIDATED");
+        }
+    }
+}
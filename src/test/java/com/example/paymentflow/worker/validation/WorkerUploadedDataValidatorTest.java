@@ -0,0 +1,86 @@
+package com.example.paymentflow.worker.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+class WorkerUploadedDataValidatorTest {
+
+    @Test
+    void defaultSliceIsLargeEnoughForParallelCheck() {
+        WorkerPaymentFileConfig config = new WorkerPaymentFileConfig();
+
+        assertTrue(config.getValidationParallelThreshold() <= config.getValidationSliceSize());
+    }
+
+    @Test
+    void batchBelowThresholdIsCheckedOnCallingThread() {
+        WorkerPaymentFileConfig config = new WorkerPaymentFileConfig();
+        config.setValidationParallelThreshold(100);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        WorkerUploadedDataValidator validator = new WorkerUploadedDataValidator(config) {
+            @Override
+            public long check(WorkerUploadedData row, LocalDate today) {
+                threads.add(Thread.currentThread());
+                return super.check(row, today);
+            }
+        };
+
+        validator.validateAll(rows(99));
+
+        assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    void parallelCheckGivesSameResultsAsSequential() {
+        WorkerPaymentFileConfig parallelConfig = new WorkerPaymentFileConfig();
+        parallelConfig.setValidationParallelThreshold(1);
+        WorkerPaymentFileConfig sequentialConfig = new WorkerPaymentFileConfig();
+        sequentialConfig.setValidationParallelThreshold(Integer.MAX_VALUE);
+        int size = sequentialConfig.getValidationSliceSize();
+
+        List<WorkerUploadedData> parallel = rows(size);
+        List<WorkerUploadedData> sequential = rows(size);
+        int parallelValid = new WorkerUploadedDataValidator(parallelConfig).validateAll(parallel);
+        int sequentialValid = new WorkerUploadedDataValidator(sequentialConfig).validateAll(sequential);
+
+        assertEquals(size - (size + 2) / 3, parallelValid);
+        assertEquals(sequentialValid, parallelValid);
+        for (int i = 0; i < size; i++) {
+            assertEquals(sequential.get(i).getStatus(), parallel.get(i).getStatus(), "row " + i);
+            assertEquals(sequential.get(i).getRejectionReason(), parallel.get(i).getRejectionReason(), "row " + i);
+        }
+    }
+
+    /**
+     * Every third row has no worker id; the rest are valid.
+     */
+    private static List<WorkerUploadedData> rows(int count) {
+        List<WorkerUploadedData> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            WorkerUploadedData row = new WorkerUploadedData();
+            row.setFileId("1");
+            row.setRowNumber(i + 1);
+            row.setWorkerId(i % 3 == 0 ? null : "W" + i);
+            row.setWorkerName("Worker " + i);
+            row.setWorkDate(LocalDate.now().minusDays(1));
+            row.setHoursWorked(new BigDecimal("8"));
+            row.setHourlyRate(new BigDecimal("12.50"));
+            row.setPaymentAmount(new BigDecimal("100.00"));
+            row.setBankAccount("ACC" + (1000000000L + i));
+            rows.add(row);
+        }
+        return rows;
+    }
+}